@@ -0,0 +1,79 @@
+package com.robby.speech.loadtest;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.corpus.CorpusGenerator;
+import com.robby.speech.corpus.ZipfDistribution;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Speeches and matching search filters for a run. Seeded speeches are the first
+ * {@code corpusSize} speeches of the {@link CorpusGenerator} for the run's seed; speeches created
+ * or rewritten during the run continue the same sequence. Filters pick authors and keywords with
+ * the same skew as the corpus, so popular values are also queried most.
+ */
+public class Corpus {
+
+    private final CorpusGenerator generator;
+    private final AtomicLong next;
+    private final ZipfDistribution authorPopularity;
+    private final ZipfDistribution keywordPopularity;
+    private final List<String> searchWords;
+    private final int dateRangeDays;
+
+    public Corpus(CorpusGenerator generator, long corpusSize) {
+        this.generator = generator;
+        this.next = new AtomicLong(corpusSize);
+        this.authorPopularity = new ZipfDistribution(generator.authors().size(), 1.1);
+        this.keywordPopularity = new ZipfDistribution(generator.keywords().size(), 1.0);
+        this.searchWords = generator.words().stream().filter(word -> word.length() >= 4).toList();
+        this.dateRangeDays = (int) (generator.lastDate().toEpochDay() - generator.firstDate().toEpochDay());
+    }
+
+    public SpeechDto seeded(long index) {
+        return generator.speech(index);
+    }
+
+    public SpeechDto newSpeech() {
+        return generator.speech(next.getAndIncrement());
+    }
+
+    /**
+     * One of the filter combinations the search endpoint is used with: a single filter, a date
+     * range, or author and keyword together, with the occasional text snippet.
+     */
+    public Map<String, String> searchFilters(RandomGenerator random) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        switch (random.nextInt(5)) {
+            case 0 -> filters.put("author", author(random).split(" ")[1]);
+            case 1 -> filters.put("keyword", keyword(random));
+            case 2 -> {
+                LocalDate from = generator.firstDate().plusDays(random.nextInt(dateRangeDays));
+                filters.put("from", from.toString());
+                filters.put("to", from.plusDays(30 + random.nextInt(335)).toString());
+            }
+            case 3 -> {
+                filters.put("author", author(random).split(" ")[0]);
+                filters.put("keyword", keyword(random));
+            }
+            default -> {
+                filters.put("keyword", keyword(random));
+                filters.put("text", searchWords.get(random.nextInt(searchWords.size())));
+            }
+        }
+        return filters;
+    }
+
+    private String author(RandomGenerator random) {
+        return generator.authors().get(authorPopularity.sample(random));
+    }
+
+    private String keyword(RandomGenerator random) {
+        return generator.keywords().get(keywordPopularity.sample(random));
+    }
+}
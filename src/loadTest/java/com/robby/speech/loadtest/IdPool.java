@@ -0,0 +1,32 @@
+package com.robby.speech.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ids of speeches known to exist, shared by all virtual users so that reads and updates target
+ * both seeded and freshly created speeches.
+ */
+public class IdPool {
+
+    private long[] ids = new long[1024];
+    private int size;
+
+    public synchronized void add(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    public synchronized long random(RandomGenerator random) {
+        if (size == 0) {
+            throw new IllegalStateException("No speeches have been created yet");
+        }
+        return ids[random.nextInt(size)];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,161 @@
+package com.robby.speech.loadtest;
+
+import com.robby.speech.corpus.CorpusGenerator;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-model load test: a fixed number of virtual users each issue requests back to back,
+ * choosing every next request from the traffic mix. Requests made during warmup are sent but
+ * not recorded.
+ */
+public class LoadTest {
+
+    private final LoadTestConfig config;
+    private final SpeechClient client;
+    private final Corpus corpus;
+    private final IdPool ids = new IdPool();
+
+    public LoadTest(LoadTestConfig config, SpeechClient client) {
+        this.config = config;
+        this.client = client;
+        this.corpus = new Corpus(new CorpusGenerator(CorpusGenerator.Settings.defaults(config.seed())
+            .withTextBytes(config.minTextBytes(), config.maxTextBytes())), config.corpusSize());
+    }
+
+    public LoadTestReport run(String target) throws Exception {
+        seed();
+
+        Instant startedAt = Instant.now();
+        long warmupEnd = System.nanoTime() + config.warmup().toNanos();
+        long end = warmupEnd + config.duration().toNanos();
+        List<Map<Operation, OperationStats>> perUser = new ArrayList<>();
+        ExecutorService users = Executors.newFixedThreadPool(config.users());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int user = 0; user < config.users(); user++) {
+                Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+                for (Operation operation : Operation.values()) {
+                    stats.put(operation, new OperationStats());
+                }
+                perUser.add(stats);
+                SplittableRandom random = new SplittableRandom(config.seed() * 31 + user);
+                running.add(users.submit(() -> virtualUser(random, stats, warmupEnd, end)));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } finally {
+            users.shutdownNow();
+        }
+        return report(startedAt, target, perUser);
+    }
+
+    private void seed() throws Exception {
+        AtomicInteger nextIndex = new AtomicInteger();
+        ExecutorService seeders = Executors.newFixedThreadPool(config.users());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < config.users(); i++) {
+                running.add(seeders.submit(() -> {
+                    int index;
+                    while ((index = nextIndex.getAndIncrement()) < config.corpusSize()) {
+                        SpeechClient.Response response = client.create(corpus.seeded(index));
+                        if (!response.ok()) {
+                            throw new IllegalStateException("Seeding failed with status " + response.status());
+                        }
+                        ids.add(client.readId(response));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } finally {
+            seeders.shutdownNow();
+        }
+    }
+
+    private void virtualUser(SplittableRandom random, Map<Operation, OperationStats> stats,
+                             long warmupEnd, long end) {
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = config.mix().next(random);
+            int status;
+            try {
+                status = execute(operation, random);
+            } catch (RuntimeException e) {
+                status = OperationStats.NO_RESPONSE;
+            }
+            long latency = System.nanoTime() - now;
+            if (now >= warmupEnd) {
+                stats.get(operation).record(latency, status, status < 200 || status >= 300);
+            }
+        }
+    }
+
+    private int execute(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case FIND_BY_ID -> client.findById(ids.random(random)).status();
+            case SEARCH -> client.search(corpus.searchFilters(random)).status();
+            case CREATE -> {
+                SpeechClient.Response response = client.create(corpus.newSpeech());
+                if (response.ok()) {
+                    ids.add(client.readId(response));
+                }
+                yield response.status();
+            }
+            case UPDATE -> client.update(ids.random(random), corpus.newSpeech()).status();
+        };
+    }
+
+    private LoadTestReport report(Instant startedAt, String target,
+                                  List<Map<Operation, OperationStats>> perUser) {
+        double seconds = config.duration().toMillis() / 1_000.0;
+        Map<String, LoadTestReport.OperationReport> operations = new LinkedHashMap<>();
+        long requests = 0;
+        long errors = 0;
+        for (Operation operation : config.mix().weights().keySet()) {
+            OperationStats merged = new OperationStats();
+            perUser.forEach(stats -> merged.merge(stats.get(operation)));
+            operations.put(operation.key(), merged.toReport(seconds));
+            requests += merged.count();
+            errors += merged.errors();
+        }
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        config.mix().weights().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        return new LoadTestReport(
+            startedAt.toString(),
+            new LoadTestReport.Settings(
+                target,
+                config.users(),
+                config.warmup().toSeconds(),
+                config.duration().toSeconds(),
+                config.corpusSize(),
+                config.minTextBytes(),
+                config.maxTextBytes(),
+                config.seed(),
+                mix,
+                System.getProperty("java.version"),
+                Runtime.getRuntime().availableProcessors()
+            ),
+            seconds,
+            requests,
+            errors,
+            requests == 0 ? 0 : (double) errors / requests,
+            requests / seconds,
+            operations
+        );
+    }
+}
@@ -0,0 +1,45 @@
+package com.robby.speech.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties. Without
+ * {@code loadtest.base-url} the application is started in-process against an embedded H2
+ * database; with it, an already running instance (for example the docker-compose stack) is
+ * targeted instead.
+ */
+public record LoadTestConfig(
+    String baseUrl,
+    int users,
+    Duration warmup,
+    Duration duration,
+    int corpusSize,
+    int minTextBytes,
+    int maxTextBytes,
+    long seed,
+    TrafficMix mix,
+    Path report
+) {
+
+    static final String DEFAULT_MIX = "findById:60,search:25,create:10,update:5";
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+            System.getProperty("loadtest.base-url"),
+            Integer.getInteger("loadtest.users", 16),
+            Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10)),
+            Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+            Integer.getInteger("loadtest.corpus-size", 2_000),
+            Integer.getInteger("loadtest.min-text-bytes", 1024),
+            Integer.getInteger("loadtest.max-text-bytes", 200 * 1024),
+            Long.getLong("loadtest.seed", 42),
+            TrafficMix.parse(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+            Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/report.json"))
+        );
+    }
+
+    public boolean embedded() {
+        return baseUrl == null || baseUrl.isBlank();
+    }
+}
@@ -0,0 +1,56 @@
+package com.robby.speech.loadtest;
+
+import java.util.Map;
+
+/**
+ * Machine-readable result of a load test run, written as JSON so runs can be diffed and
+ * compared. Latencies are in milliseconds, throughput in requests per second.
+ */
+public record LoadTestReport(
+    String startedAt,
+    Settings settings,
+    double durationSeconds,
+    long requests,
+    long errors,
+    double errorRate,
+    double throughputPerSecond,
+    Map<String, OperationReport> operations
+) {
+
+    public record Settings(
+        String target,
+        int users,
+        long warmupSeconds,
+        long durationSeconds,
+        int corpusSize,
+        int minTextBytes,
+        int maxTextBytes,
+        long seed,
+        Map<String, Integer> mix,
+        String javaVersion,
+        int availableProcessors
+    ) {
+    }
+
+    public record OperationReport(
+        long requests,
+        long errors,
+        double errorRate,
+        double throughputPerSecond,
+        Latency latencyMs,
+        Map<String, Long> statusCodes
+    ) {
+    }
+
+    public record Latency(
+        double min,
+        double mean,
+        double p50,
+        double p90,
+        double p95,
+        double p99,
+        double p999,
+        double max
+    ) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.robby.speech.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.robby.speech.SpeechApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point of the {@code loadTest} Gradle task. Starts the application in-process against an
+ * embedded H2 database unless {@code loadtest.base-url} points at a running instance, seeds it,
+ * replays the configured traffic mix and writes a JSON report.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext application = config.embedded() ? startApplication() : null;
+        try {
+            String baseUrl = application == null
+                ? config.baseUrl()
+                : "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+            LoadTestReport report = new LoadTest(config, new SpeechClient(baseUrl))
+                .run(application == null ? baseUrl : "embedded-h2");
+            write(report, config.report());
+            print(report, config.report());
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(SpeechApplication.class)
+            .bannerMode(Banner.Mode.OFF)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "logging.level.root=WARN"
+            )
+            .run();
+    }
+
+    private static void write(LoadTestReport report, Path path) throws Exception {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(path.toFile(), report);
+    }
+
+    private static void print(LoadTestReport report, Path path) {
+        System.out.printf("%n%-10s %10s %8s %10s %10s %10s %10s%n",
+            "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        report.operations().forEach((operation, stats) ->
+            System.out.printf("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                operation, stats.requests(), stats.errors(), stats.throughputPerSecond(),
+                stats.latencyMs().p50(), stats.latencyMs().p99(), stats.latencyMs().max()));
+        System.out.printf("%-10s %10d %8d %10.1f%n%nReport written to %s%n",
+            "total", report.requests(), report.errors(), report.throughputPerSecond(),
+            path.toAbsolutePath());
+    }
+}
@@ -0,0 +1,31 @@
+package com.robby.speech.loadtest;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public enum Operation {
+    FIND_BY_ID("findById"),
+    SEARCH("search"),
+    CREATE("create"),
+    UPDATE("update");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.strip())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of "
+            + Arrays.stream(values()).map(Operation::key).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.robby.speech.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one operation. Each virtual user records into its own instance, so
+ * recording is lock-free; instances are merged once the run is over.
+ */
+public class OperationStats {
+
+    /** Status recorded for requests that failed without an HTTP response. */
+    public static final int NO_RESPONSE = -1;
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    public void record(long latencyNanos, int status, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        statuses.merge(status, 1L, Long::sum);
+        if (error) {
+            errors++;
+        }
+    }
+
+    public void merge(OperationStats other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+        other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+    }
+
+    public LoadTestReport.OperationReport toReport(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        Map<String, Long> statusCodes = new TreeMap<>();
+        statuses.forEach((status, n) ->
+            statusCodes.put(status == NO_RESPONSE ? "no-response" : String.valueOf(status), n));
+        return new LoadTestReport.OperationReport(
+            count,
+            errors,
+            count == 0 ? 0 : (double) errors / count,
+            count / seconds,
+            new LoadTestReport.Latency(
+                millis(count == 0 ? 0 : sorted[0]),
+                millis(count == 0 ? 0 : (long) Arrays.stream(sorted).average().orElse(0)),
+                millis(percentile(sorted, 50)),
+                millis(percentile(sorted, 90)),
+                millis(percentile(sorted, 95)),
+                millis(percentile(sorted, 99)),
+                millis(percentile(sorted, 99.9)),
+                millis(count == 0 ? 0 : sorted[count - 1])
+            ),
+            statusCodes
+        );
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    // nearest-rank percentile
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
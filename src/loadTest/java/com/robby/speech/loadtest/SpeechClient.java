@@ -0,0 +1,104 @@
+package com.robby.speech.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.robby.speech.controller.dto.SpeechDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Thin blocking client for the speech API. Response bodies are read in full, as a browser or
+ * service client would, but only parsed when the caller needs a value from them.
+ */
+public class SpeechClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(TIMEOUT)
+        .build();
+    private final ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+    private final String baseUrl;
+
+    public record Response(int status, byte[] body) {
+
+        public boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    public SpeechClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public Response findById(long id) {
+        return send(request("/api/speeches/" + id).GET().build());
+    }
+
+    public Response search(Map<String, String> filters) {
+        StringJoiner query = new StringJoiner("&", "?", "");
+        filters.forEach((name, value) ->
+            query.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return send(request("/api/speeches/search" + query).GET().build());
+    }
+
+    public Response create(SpeechDto speech) {
+        return send(request("/api/speeches")
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(write(speech)))
+            .build());
+    }
+
+    public Response update(long id, SpeechDto speech) {
+        return send(request("/api/speeches/" + id)
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofByteArray(write(speech)))
+            .build());
+    }
+
+    public long readId(Response response) {
+        try {
+            JsonNode node = mapper.readTree(response.body());
+            return node.get("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(TIMEOUT)
+            .header("Accept", "application/json");
+    }
+
+    private Response send(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + request.uri(), e);
+        }
+    }
+
+    private byte[] write(SpeechDto speech) {
+        try {
+            return mapper.writeValueAsBytes(speech);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
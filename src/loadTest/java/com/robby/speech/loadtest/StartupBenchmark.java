@@ -0,0 +1,184 @@
+package com.robby.speech.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the {@code startupBenchmark} Gradle task. Launches the application in a fresh
+ * JVM for every run, against an empty in-memory H2 database, and measures the time from process
+ * start until {@code GET /api/speeches} first answers {@code 200}. JVM output of every run is
+ * kept next to the report for when a run fails.
+ */
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.robby.speech.SpeechApplication";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final String classpath;
+    private final String aotClasspath;
+    private final Path outputDirectory;
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    StartupBenchmark(String classpath, String aotClasspath, Path outputDirectory) {
+        this.classpath = classpath;
+        this.aotClasspath = aotClasspath;
+        this.outputDirectory = outputDirectory;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String classpath = required("startup.classpath");
+        int runs = Integer.getInteger("startup.runs", 5);
+        List<StartupVariant> variants = Arrays.stream(
+                System.getProperty("startup.variants", "default,faststart,aot,cds").split(","))
+            .map(StartupVariant::fromKey)
+            .toList();
+        Path report = Path.of(System.getProperty("startup.report", "build/reports/startup/report.json"));
+        Path outputDirectory = report.toAbsolutePath().getParent();
+        Files.createDirectories(outputDirectory);
+
+        StartupBenchmark benchmark = new StartupBenchmark(
+            classpath, System.getProperty("startup.aot-classpath", ""), outputDirectory);
+        String startedAt = Instant.now().toString();
+        Map<String, StartupReport.VariantReport> results = new LinkedHashMap<>();
+        for (StartupVariant variant : variants) {
+            results.put(variant.key(), StartupReport.VariantReport.of(benchmark.measure(variant, runs)));
+        }
+        StartupReport result = new StartupReport(startedAt, runs, System.getProperty("java.version"),
+            Runtime.getRuntime().availableProcessors(), results);
+        new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(report.toFile(), result);
+        print(result, report);
+    }
+
+    List<Long> measure(StartupVariant variant, int runs) throws Exception {
+        List<String> jvmArgs = new ArrayList<>(variant.jvmArgs());
+        if (variant.cds()) {
+            Path archive = outputDirectory.resolve(variant.key() + ".jsa");
+            Files.deleteIfExists(archive);
+            train(variant, archive);
+            jvmArgs.add("-XX:SharedArchiveFile=" + archive);
+            jvmArgs.add("-Xlog:cds=off");
+        }
+        List<Long> timings = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            long millis = timeToFirstResponse(variant, jvmArgs, run);
+            System.out.printf("%-10s run %d: %d ms%n", variant.key(), run, millis);
+            timings.add(millis);
+        }
+        return timings;
+    }
+
+    /** Refreshes the context once and exits, recording every loaded class into {@code archive}. */
+    private void train(StartupVariant variant, Path archive) throws Exception {
+        List<String> jvmArgs = new ArrayList<>(variant.jvmArgs());
+        jvmArgs.add("-XX:ArchiveClassesAtExit=" + archive);
+        jvmArgs.add("-Xlog:cds=off");
+        jvmArgs.add("-Dspring.context.exit=onRefresh");
+        Process process = launch(variant, jvmArgs, freePort(), outputDirectory.resolve(variant.key() + "-training.log"));
+        if (!process.waitFor(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS) || !Files.exists(archive)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("CDS training run for " + variant.key() + " did not produce " + archive);
+        }
+    }
+
+    private long timeToFirstResponse(StartupVariant variant, List<String> jvmArgs, int run) throws Exception {
+        int port = freePort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/speeches"))
+            .timeout(Duration.ofSeconds(10))
+            .GET()
+            .build();
+        Path log = outputDirectory.resolve(variant.key() + "-" + run + ".log");
+        long started = System.nanoTime();
+        Process process = launch(variant, jvmArgs, port, log);
+        try {
+            long deadline = started + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.key() + " exited with " + process.exitValue()
+                        + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException(variant.key() + " did not answer within " + TIMEOUT + ", see " + log);
+        } finally {
+            stop(process);
+        }
+    }
+
+    private Process launch(StartupVariant variant, List<String> jvmArgs, int port, Path log) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(variant.aot() && !aotClasspath.isBlank()
+            ? aotClasspath + File.pathSeparator + classpath
+            : classpath);
+        command.add(MAIN_CLASS);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup");
+        command.add("--spring.jpa.hibernate.ddl-auto=create-drop");
+        command.add("--spring.main.banner-mode=off");
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String required(String property) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("System property " + property + " is required");
+        }
+        return value;
+    }
+
+    private static void print(StartupReport report, Path path) {
+        System.out.printf("%n%-10s %10s %10s %10s%n", "variant", "min ms", "median ms", "max ms");
+        report.variants().forEach((variant, result) ->
+            System.out.printf("%-10s %10d %10d %10d%n", variant, result.minMs(), result.medianMs(), result.maxMs()));
+        System.out.printf("%nReport written to %s%n", path.toAbsolutePath());
+    }
+}
@@ -0,0 +1,31 @@
+package com.robby.speech.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a startup benchmark: time from JVM launch to the first {@code 200} from
+ * {@code GET /api/speeches}, in milliseconds, per variant.
+ */
+public record StartupReport(
+    String startedAt,
+    int runs,
+    String javaVersion,
+    int availableProcessors,
+    Map<String, VariantReport> variants
+) {
+
+    public record VariantReport(
+        List<Long> runsMs,
+        long minMs,
+        long medianMs,
+        long maxMs
+    ) {
+
+        static VariantReport of(List<Long> runsMs) {
+            List<Long> sorted = runsMs.stream().sorted().toList();
+            return new VariantReport(runsMs, sorted.get(0), sorted.get((sorted.size() - 1) / 2),
+                sorted.get(sorted.size() - 1));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.robby.speech.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * JVM configurations compared by {@link StartupBenchmark}, from a plain launch to the one the
+ * {@code Dockerfile} uses: the {@code faststart} profile, Spring AOT and an AppCDS archive.
+ */
+public enum StartupVariant {
+    DEFAULT("default", false, false),
+    FASTSTART("faststart", false, false, "-Dspring.profiles.active=faststart"),
+    AOT("aot", true, false, "-Dspring.profiles.active=faststart", "-Dspring.aot.enabled=true"),
+    CDS("cds", true, true, "-Dspring.profiles.active=faststart", "-Dspring.aot.enabled=true");
+
+    private final String key;
+    private final boolean aot;
+    private final boolean cds;
+    private final List<String> jvmArgs;
+
+    StartupVariant(String key, boolean aot, boolean cds, String... jvmArgs) {
+        this.key = key;
+        this.aot = aot;
+        this.cds = cds;
+        this.jvmArgs = List.of(jvmArgs);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /** Whether the AOT-generated classes have to be on the classpath. */
+    public boolean aot() {
+        return aot;
+    }
+
+    /** Whether runs use a class data sharing archive recorded by a training run first. */
+    public boolean cds() {
+        return cds;
+    }
+
+    public List<String> jvmArgs() {
+        return jvmArgs;
+    }
+
+    public static StartupVariant fromKey(String key) {
+        for (StartupVariant variant : values()) {
+            if (variant.key.equalsIgnoreCase(key.strip())) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown startup variant '" + key + "', expected one of "
+            + Arrays.stream(values()).map(StartupVariant::key).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.robby.speech.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice of the next operation a virtual user performs, parsed from
+ * {@code findById:60,search:25,create:10,update:5}.
+ */
+public class TrafficMix {
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulative;
+    private final int total;
+
+    public TrafficMix(Map<Operation, Integer> weights) {
+        this.weights = new EnumMap<>(weights);
+        this.weights.values().removeIf(weight -> weight <= 0);
+        if (this.weights.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix needs at least one operation with a positive weight");
+        }
+        operations = this.weights.keySet().toArray(Operation[]::new);
+        cumulative = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += this.weights.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        total = sum;
+    }
+
+    public static TrafficMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got '" + part + "'");
+            }
+            weights.merge(Operation.fromKey(pair[0]), Integer.parseInt(pair[1].strip()), Integer::sum);
+        }
+        return new TrafficMix(weights);
+    }
+
+    public Operation next(RandomGenerator random) {
+        int pick = random.nextInt(total);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (pick < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public Map<Operation, Integer> weights() {
+        return weights;
+    }
+}
@@ -0,0 +1,103 @@
+package com.robby.speech.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.corpus.CorpusGenerator;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point of the {@code wireFormatBenchmark} Gradle task. Encodes and decodes one list of
+ * synthetic speeches with each format the API serves, using mappers configured like the
+ * application's, and reports payload size and time per list.
+ */
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<SpeechDto>> SPEECH_LIST = new TypeReference<>() {
+    };
+
+    public static void main(String[] args) throws Exception {
+        int count = Integer.getInteger("wire.speeches", 500);
+        int minTextBytes = Integer.getInteger("wire.min-text-bytes", 1024);
+        int maxTextBytes = Integer.getInteger("wire.max-text-bytes", 200 * 1024);
+        int warmup = Integer.getInteger("wire.warmup-iterations", 10);
+        int iterations = Integer.getInteger("wire.iterations", 20);
+        Path reportPath = Path.of(System.getProperty("wire.report", "build/reports/wire-formats/report.json"));
+
+        List<SpeechDto> speeches = new CorpusGenerator(CorpusGenerator.Settings.defaults(Long.getLong("wire.seed", 42))
+                .withTextBytes(minTextBytes, maxTextBytes))
+            .speeches(count)
+            .toList();
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", json);
+        formats.put("smile", json.copyWith(new SmileFactory()));
+        formats.put("cbor", json.copyWith(new CBORFactory()));
+
+        String startedAt = Instant.now().toString();
+        long jsonBytes = json.writeValueAsBytes(speeches).length;
+        Map<String, WireFormatReport.FormatReport> results = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            results.put(format.getKey(), measure(format.getValue(), speeches, warmup, iterations, jsonBytes));
+        }
+        WireFormatReport report = new WireFormatReport(startedAt, count, minTextBytes, maxTextBytes, iterations,
+            System.getProperty("java.version"), results);
+
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        json.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+        print(report, reportPath);
+    }
+
+    private static WireFormatReport.FormatReport measure(
+        ObjectMapper mapper,
+        List<SpeechDto> speeches,
+        int warmup,
+        int iterations,
+        long jsonBytes
+    ) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(speeches);
+        if (!mapper.readValue(encoded, SPEECH_LIST).equals(speeches)) {
+            throw new IllegalStateException(mapper.getFactory().getFormatName() + " does not round-trip");
+        }
+        long[] encode = new long[iterations];
+        long[] decode = new long[iterations];
+        for (int i = -warmup; i < iterations; i++) {
+            long started = System.nanoTime();
+            encoded = mapper.writeValueAsBytes(speeches);
+            long encodedAt = System.nanoTime();
+            List<SpeechDto> decoded = mapper.readValue(encoded, SPEECH_LIST);
+            long decodedAt = System.nanoTime();
+            if (i >= 0) {
+                encode[i] = encodedAt - started;
+                decode[i] = decodedAt - encodedAt;
+            }
+            if (decoded.size() != speeches.size()) {
+                throw new IllegalStateException("Decoded " + decoded.size() + " speeches");
+            }
+        }
+        return new WireFormatReport.FormatReport(encoded.length, (double) encoded.length / jsonBytes,
+            WireFormatReport.Timing.of(encode), WireFormatReport.Timing.of(decode));
+    }
+
+    private static void print(WireFormatReport report, Path path) {
+        System.out.printf("%n%-8s %12s %8s %14s %14s%n", "format", "bytes", "vs json", "encode p50 ms", "decode p50 ms");
+        report.formats().forEach((format, result) ->
+            System.out.printf("%-8s %12d %8.3f %14.2f %14.2f%n", format, result.bytes(), result.sizeRelativeToJson(),
+                result.encodeMs().median(), result.decodeMs().median()));
+        System.out.printf("%nReport written to %s%n", path.toAbsolutePath());
+    }
+}
@@ -0,0 +1,40 @@
+package com.robby.speech.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Result of a wire format benchmark: payload size and encode and decode time of one list of
+ * speeches per format. Times are in milliseconds per list.
+ */
+public record WireFormatReport(
+    String startedAt,
+    int speeches,
+    int minTextBytes,
+    int maxTextBytes,
+    int iterations,
+    String javaVersion,
+    Map<String, FormatReport> formats
+) {
+
+    public record FormatReport(
+        long bytes,
+        double sizeRelativeToJson,
+        Timing encodeMs,
+        Timing decodeMs
+    ) {
+    }
+
+    public record Timing(
+        double min,
+        double median,
+        double max
+    ) {
+
+        static Timing of(long[] nanos) {
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            return new Timing(sorted[0] / 1e6, sorted[(sorted.length - 1) / 2] / 1e6, sorted[sorted.length - 1] / 1e6);
+        }
+    }
+}
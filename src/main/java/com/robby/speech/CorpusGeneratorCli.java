@@ -0,0 +1,108 @@
+package com.robby.speech;
+
+import com.robby.speech.corpus.CorpusGenerator;
+import com.robby.speech.corpus.JdbcCorpusWriter;
+import com.robby.speech.corpus.NdjsonCorpusWriter;
+import com.robby.speech.model.SpeechTextCodec;
+import com.robby.speech.repository.AuthorDictionary;
+import com.robby.speech.repository.KeywordDictionary;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Generates a deterministic synthetic corpus, either as an NDJSON file or inserted straight into
+ * the configured database:
+ *
+ * <pre>
+ * --count=100000 --seed=42 --output=build/corpus/speeches.ndjson
+ * --count=100000 --seed=42 --output=db --spring.datasource.url=jdbc:postgresql://localhost:5432/speech
+ * </pre>
+ *
+ * Other options: {@code --authors}, {@code --min-text-bytes}, {@code --max-text-bytes},
+ * {@code --from-year}, {@code --to-year}. Arguments not listed here are passed on to Spring when
+ * writing to the database.
+ */
+public class CorpusGeneratorCli {
+
+    private static final List<String> OPTIONS = List.of(
+        "count", "seed", "output", "authors", "min-text-bytes", "max-text-bytes", "from-year", "to-year");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : null;
+            if (name != null && OPTIONS.contains(name)) {
+                options.put(name, arg.substring(eq + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+
+        CorpusGenerator.Settings defaults = CorpusGenerator.Settings.defaults(
+            Long.parseLong(options.getOrDefault("seed", "42")));
+        CorpusGenerator generator = new CorpusGenerator(new CorpusGenerator.Settings(
+            defaults.seed(),
+            intOption(options, "authors", defaults.authors()),
+            intOption(options, "min-text-bytes", defaults.minTextBytes()),
+            intOption(options, "max-text-bytes", defaults.maxTextBytes()),
+            intOption(options, "from-year", defaults.fromYear()),
+            intOption(options, "to-year", defaults.toYear())
+        ));
+        long count = Long.parseLong(options.getOrDefault("count", "10000"));
+        String output = options.getOrDefault("output", "build/corpus/speeches.ndjson");
+
+        long started = System.nanoTime();
+        long written;
+        if (output.equals("db")) {
+            written = writeToDatabase(generator, count, springArgs.toArray(String[]::new));
+        } else {
+            written = new NdjsonCorpusWriter().write(generator.speeches(count), Path.of(output), progress(count));
+        }
+        System.out.printf("Wrote %d speeches (seed %d) to %s in %.1f s%n",
+            written, generator.settings().seed(), output, (System.nanoTime() - started) / 1e9);
+    }
+
+    private static long writeToDatabase(CorpusGenerator generator, long count, String[] springArgs) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpeechApplication.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .run(springArgs)) {
+            JdbcCorpusWriter writer = new JdbcCorpusWriter(
+                context.getBean(NamedParameterJdbcTemplate.class),
+                context.getBean(PlatformTransactionManager.class),
+                context.getBean(SpeechTextCodec.class),
+                context.getBean(AuthorDictionary.class),
+                context.getBean(KeywordDictionary.class));
+            return writer.write(generator.speeches(count), progress(count));
+        }
+    }
+
+    private static LongConsumer progress(long count) {
+        long step = Math.max(1, count / 20);
+        long[] next = {step};
+        return written -> {
+            if (written >= next[0] || written == count) {
+                System.out.printf("%d / %d%n", written, count);
+                next[0] = (written / step + 1) * step;
+            }
+        };
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,22 @@
+package com.robby.speech;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Beans that stay eager when {@code spring.main.lazy-initialization} is on. The entity manager
+ * factory has to start bootstrapping Hibernate in the background right away; created lazily,
+ * the index bootstrap would wait for all of it after the web server is already up.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FastStartConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerEntityManagerFactory() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            EntityManagerFactory.class, AbstractEntityManagerFactoryBean.class);
+    }
+}
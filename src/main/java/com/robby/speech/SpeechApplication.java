@@ -2,8 +2,10 @@ package com.robby.speech;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(SpeechRuntimeHints.class)
 public class SpeechApplication {
 
     public static void main(String[] args) {
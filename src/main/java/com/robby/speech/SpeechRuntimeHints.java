@@ -0,0 +1,51 @@
+package com.robby.speech;
+
+import com.robby.speech.controller.dto.SpeechChangeDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.model.Author;
+import com.robby.speech.model.AuthorConverter;
+import com.robby.speech.model.Keyword;
+import com.robby.speech.model.KeywordConverter;
+import com.robby.speech.model.PlainSpeechTextConverter;
+import com.robby.speech.model.Speech;
+import com.robby.speech.model.SpeechBody;
+import com.robby.speech.model.SpeechChange;
+import com.robby.speech.model.SpeechTextConverter;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Native image hints that Spring's AOT processing cannot infer. Lombok and MapStruct generate
+ * plain code at compile time and need none.
+ */
+public class SpeechRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Hibernate reads entity state through fields and instantiates entities and converters reflectively
+        for (Class<?> type : new Class<?>[] {
+            Speech.class, SpeechBody.class, SpeechChange.class, Author.class, Keyword.class,
+            SpeechTextConverter.class, PlainSpeechTextConverter.class, AuthorConverter.class, KeywordConverter.class}) {
+            hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        // also written outside controller return values, e.g. by the NDJSON corpus writer and the change feed
+        new BindingReflectionHintsRegistrar().registerReflectionHints(
+            hints.reflection(), SpeechDto.class, SpeechChangeDto.class);
+        // QueryCountingDataSource wraps every JDBC object it hands out in a JDK proxy
+        for (Class<?> type : new Class<?>[] {
+            Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class}) {
+            hints.proxies().registerJdkProxy(type);
+        }
+    }
+}
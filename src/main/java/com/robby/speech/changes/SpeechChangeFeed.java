@@ -0,0 +1,109 @@
+package com.robby.speech.changes;
+
+import com.robby.speech.controller.dto.SpeechChangeDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SpeechChangedEvent;
+import com.robby.speech.core.impl.SpeechMapper;
+import com.robby.speech.model.SpeechChange;
+import com.robby.speech.repository.SpeechChangeRepository;
+import com.robby.speech.repository.SpeechRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the speech change outbox in sequence order, joined with the current state of each saved
+ * speech.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class SpeechChangeFeed {
+
+    private final SpeechChangeRepository changeRepository;
+    private final SpeechRepository speechRepository;
+    private final Duration gapTimeout;
+
+    public SpeechChangeFeed(
+        SpeechChangeRepository changeRepository,
+        SpeechRepository speechRepository,
+        @Value("${speech.changes.gap-timeout-ms:5000}") long gapTimeoutMillis
+    ) {
+        this.changeRepository = changeRepository;
+        this.speechRepository = speechRepository;
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMillis);
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code sequence}. Sequence numbers are handed out when a
+     * row is inserted, not when it commits, so a gap may be a transaction that is still running.
+     * Changes after a gap are held back until the gap is older than
+     * {@code speech.changes.gap-timeout-ms}, after which it is taken to be a rollback.
+     */
+    public List<SpeechChangeDto> changesAfter(long sequence, int limit) {
+        Instant settled = Instant.now().minus(gapTimeout);
+        List<SpeechChange> visible = new ArrayList<>();
+        long expected = sequence + 1;
+        for (SpeechChange change : changeRepository.findBySequenceGreaterThanOrderBySequence(sequence, Limit.of(limit))) {
+            if (change.getSequence() != expected && change.getChangedAt().isAfter(settled)) {
+                break;
+            }
+            visible.add(change);
+            expected = change.getSequence() + 1;
+        }
+
+        List<Long> savedIds = visible.stream()
+            .filter(change -> change.getType() == SpeechChange.Type.SAVED)
+            .map(SpeechChange::getSpeechId)
+            .distinct()
+            .toList();
+        Map<Long, SpeechDto> speeches = savedIds.isEmpty() ? Map.of() : speechRepository.findAllById(savedIds).stream()
+            .map(SpeechMapper::toDto)
+            .collect(Collectors.toMap(SpeechDto::id, Function.identity()));
+
+        return visible.stream()
+            .map(change -> new SpeechChangeDto(
+                change.getSequence(),
+                SpeechChangedEvent.ChangeType.valueOf(change.getType().name()),
+                change.getSpeechId(),
+                change.getChangedAt(),
+                change.getType() == SpeechChange.Type.SAVED ? speeches.get(change.getSpeechId()) : null))
+            .toList();
+    }
+
+    /**
+     * The sequence of the newest change, or {@code 0} if there is none.
+     */
+    public long latestSequence() {
+        return changeRepository.findLatestSequence();
+    }
+
+    /**
+     * The sequence of the oldest change still retained, if any.
+     */
+    public OptionalLong oldestSequence() {
+        Long oldest = changeRepository.findOldestSequence();
+        return oldest == null ? OptionalLong.empty() : OptionalLong.of(oldest);
+    }
+
+    @Transactional
+    public int purgeBefore(Instant before) {
+        int purged = changeRepository.deleteByChangedAtBefore(Objects.requireNonNull(before));
+        if (purged > 0) {
+            log.info("Purged {} speech changes older than {}", purged, before);
+        }
+        return purged;
+    }
+}
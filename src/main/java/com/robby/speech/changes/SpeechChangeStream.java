@@ -0,0 +1,261 @@
+package com.robby.speech.changes;
+
+import com.robby.speech.controller.dto.SpeechChangeDto;
+import com.robby.speech.core.SpeechChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes the change feed to Server-Sent Events subscribers. A single thread polls the outbox, so
+ * changes committed by other instances arrive within {@code speech.changes.poll-interval-ms};
+ * changes committed by this instance wake it immediately. While every subscriber is caught up a
+ * poll costs one query, however many subscribers there are.
+ *
+ * <p>Each subscriber is caught up on a sender thread of its own, one catch-up at a time, so a
+ * client that reads slowly only delays itself. A subscriber whose write has been blocked for
+ * longer than {@code speech.changes.send-timeout-ms} is dropped and can reconnect with its
+ * cursor.
+ */
+@Slf4j
+@Component
+public class SpeechChangeStream implements SmartLifecycle {
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESYNC_EVENT = "resync";
+    static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final SpeechChangeFeed feed;
+    private final long pollIntervalMillis;
+    private final int batchSize;
+    private final Duration heartbeatInterval;
+    private final long emitterTimeoutMillis;
+    private final Duration retention;
+    private final long sendTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile ScheduledExecutorService executor;
+    private volatile ExecutorService senders;
+
+    public SpeechChangeStream(
+        SpeechChangeFeed feed,
+        @Value("${speech.changes.poll-interval-ms:1000}") long pollIntervalMillis,
+        @Value("${speech.changes.batch-size:100}") int batchSize,
+        @Value("${speech.changes.heartbeat-interval-ms:15000}") long heartbeatIntervalMillis,
+        @Value("${speech.changes.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+        @Value("${speech.changes.retention-hours:168}") long retentionHours,
+        @Value("${speech.changes.send-timeout-ms:10000}") long sendTimeoutMillis
+    ) {
+        this.feed = feed;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.batchSize = batchSize;
+        this.heartbeatInterval = Duration.ofMillis(heartbeatIntervalMillis);
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.retention = Duration.ofHours(retentionHours);
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    }
+
+    /**
+     * Streams every change after {@code after}, then new changes as they are committed. Without a
+     * cursor only changes from now on are sent. When changes after the cursor have already been
+     * purged, a {@value #RESYNC_EVENT} event is sent first and the consumer has to rescan.
+     */
+    public SseEmitter subscribe(Long after) throws IOException {
+        return subscribe(new SseEmitter(emitterTimeoutMillis), after);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long after) throws IOException {
+        Subscriber subscriber = new Subscriber(emitter, after != null ? after : feed.latestSequence());
+        // commits the response right away, so clients know they are subscribed before the first change
+        emitter.send(SseEmitter.event().reconnectTime(RECONNECT_DELAY_MILLIS));
+        if (after != null) {
+            OptionalLong oldest = feed.oldestSequence();
+            if (oldest.isPresent() && oldest.getAsLong() > after + 1) {
+                emitter.send(SseEmitter.event()
+                    .name(RESYNC_EVENT)
+                    .data(Map.of("oldestSequence", oldest.getAsLong()), MediaType.APPLICATION_JSON));
+            }
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        wake();
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpeechChanged(SpeechChangedEvent event) {
+        wake();
+    }
+
+    private void wake() {
+        ScheduledExecutorService current = executor;
+        if (current != null && !subscribers.isEmpty()) {
+            current.execute(this::poll);
+        }
+    }
+
+    private void poll() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        ExecutorService currentSenders = senders;
+        if (currentSenders == null) {
+            return;
+        }
+        try {
+            long latest = feed.latestSequence();
+            Instant now = Instant.now();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.busy.compareAndSet(false, true)) {
+                    currentSenders.execute(() -> send(subscriber, latest, now));
+                } else if (subscriber.blockedLongerThan(sendTimeoutNanos)) {
+                    drop(subscriber, new IOException("Sending to a subscriber timed out"));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Polling speech changes failed", e);
+        }
+    }
+
+    private void send(Subscriber subscriber, long latest, Instant now) {
+        try {
+            catchUp(subscriber, latest, now);
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        } catch (RuntimeException e) {
+            log.warn("Sending speech changes failed", e);
+        } finally {
+            subscriber.busy.set(false);
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        // the client went away or stopped reading; the emitter callbacks remove the subscriber too
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    private void catchUp(Subscriber subscriber, long latest, Instant now) throws IOException {
+        while (subscriber.cursor < latest) {
+            List<SpeechChangeDto> changes = feed.changesAfter(subscriber.cursor, batchSize);
+            for (SpeechChangeDto change : changes) {
+                subscriber.send(SseEmitter.event()
+                    .id(String.valueOf(change.sequence()))
+                    .name(CHANGE_EVENT)
+                    .data(change, MediaType.APPLICATION_JSON));
+                subscriber.cursor = change.sequence();
+                subscriber.lastSent = now;
+            }
+            if (changes.size() < batchSize) {
+                break;
+            }
+        }
+        if (Duration.between(subscriber.lastSent, now).compareTo(heartbeatInterval) >= 0) {
+            // keeps proxies from closing an idle connection and finds clients that are gone
+            subscriber.send(SseEmitter.event().comment("keep-alive"));
+            subscriber.lastSent = now;
+        }
+    }
+
+    private void purge() {
+        try {
+            feed.purgeBefore(Instant.now().minus(retention));
+        } catch (RuntimeException e) {
+            log.warn("Purging speech changes failed", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService started = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "speech-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        started.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        started.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+        senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "speech-changes-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = started;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        ExecutorService currentSenders = senders;
+        senders = null;
+        if (currentSenders != null) {
+            currentSenders.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * A subscription. Cursor and last send time are only touched by the sender holding
+     * {@code busy}.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile long sendingSince;
+        private long cursor;
+        private Instant lastSent = Instant.now();
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendingSince = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                sendingSince = 0;
+            }
+        }
+
+        private boolean blockedLongerThan(long timeoutNanos) {
+            long since = sendingSince;
+            return since != 0 && System.nanoTime() - since > timeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.robby.speech.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive concurrency limit with additive increase and multiplicative decrease. Like TCP
+ * congestion control, the limit grows by about one per window of requests completing within the
+ * latency target while the limit is actually in use, and shrinks by {@link #BACKOFF_RATIO}
+ * whenever a request is too slow or fails. The number of concurrent requests settles just below
+ * the point where latency starts to climb.
+ */
+public class AimdLimiter {
+
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final AtomicLong rejected = new AtomicLong();
+    private double limit;
+    private int inFlight;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a slot if fewer than {@link #limit()} requests are in flight. Every successful call
+     * must be paired with {@link #release(long, boolean)}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos, boolean failed) {
+        int used = inFlight;
+        inFlight--;
+        if (failed || latencyNanos > latencyTargetNanos) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (used * 2 >= (int) limit) {
+            // only grow while the limit is the bottleneck, not while traffic is light
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Frees a slot without adjusting the limit, for requests whose duration says nothing about
+     * congestion, such as streamed responses that take as long as the client reads.
+     */
+    public synchronized void releaseUnmeasured() {
+        inFlight--;
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,128 @@
+package com.robby.speech.concurrency;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits requests to {@code /api/speeches} through one {@link AimdLimiter} per
+ * {@link EndpointClass}. Requests over the limit are rejected immediately with
+ * {@code 503 Service Unavailable} and a {@code Retry-After} header instead of queueing for a
+ * database connection.
+ */
+@Component
+@ConditionalOnProperty(name = "speech.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+    // change feed subscriptions stay open for minutes and do almost no work while idle
+    private static final String CHANGE_FEED_PATH = "/api/speeches/changes";
+
+    private final Map<EndpointClass, AimdLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimitFilter(Environment environment) {
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            String prefix = "speech.concurrency." + endpoint.key() + ".";
+            limiters.put(endpoint, new AimdLimiter(
+                environment.getProperty(prefix + "initial-limit", Integer.class, endpoint.initialLimit()),
+                environment.getProperty(prefix + "min-limit", Integer.class, endpoint.minLimit()),
+                environment.getProperty(prefix + "max-limit", Integer.class, endpoint.maxLimit()),
+                Duration.ofMillis(environment.getProperty(
+                    prefix + "latency-target-ms", Long.class, endpoint.latencyTarget().toMillis()))
+            ));
+        }
+    }
+
+    public Map<EndpointClass, AimdLimiter> limiters() {
+        return Collections.unmodifiableMap(limiters);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/speeches") || path.equals(CHANGE_FEED_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        AimdLimiter limiter = limiters.get(EndpointClass.of(request.getMethod(), path));
+        if (!limiter.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many concurrent requests");
+            return;
+        }
+        long started = System.nanoTime();
+        boolean failed = true;
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+            if (request.isAsyncStarted()) {
+                // streamed responses hold their slot while they keep loading speeches
+                request.getAsyncContext().addListener(new ReleasingListener(limiter, started));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - started, failed);
+            }
+        }
+    }
+
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final AimdLimiter limiter;
+        private final long started;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingListener(AimdLimiter limiter, long started) {
+            this.limiter = limiter;
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                limiter.releaseUnmeasured();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            releaseFailed();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            releaseFailed();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void releaseFailed() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - started, true);
+            }
+        }
+    }
+}
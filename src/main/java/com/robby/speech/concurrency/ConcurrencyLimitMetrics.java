@@ -0,0 +1,42 @@
+package com.robby.speech.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the state of every endpoint class limiter as {@code speech.concurrency.limit},
+ * {@code speech.concurrency.in-flight} and {@code speech.concurrency.rejected}, tagged with the
+ * endpoint class.
+ */
+@Component
+@ConditionalOnProperty(name = "speech.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitMetrics implements MeterBinder {
+
+    private final ConcurrencyLimitFilter filter;
+
+    public ConcurrencyLimitMetrics(ConcurrencyLimitFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        filter.limiters().forEach((endpoint, limiter) -> {
+            Gauge.builder("speech.concurrency.limit", limiter, AimdLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("endpoint", endpoint.key())
+                .register(registry);
+            Gauge.builder("speech.concurrency.in-flight", limiter, AimdLimiter::inFlight)
+                .description("Requests currently admitted")
+                .tag("endpoint", endpoint.key())
+                .register(registry);
+            FunctionCounter.builder("speech.concurrency.rejected", limiter, AimdLimiter::rejected)
+                .description("Requests rejected because the limit was reached")
+                .tag("endpoint", endpoint.key())
+                .register(registry);
+        });
+    }
+}
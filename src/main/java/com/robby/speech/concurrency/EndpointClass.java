@@ -0,0 +1,69 @@
+package com.robby.speech.concurrency;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Groups of API endpoints with similar cost. Each group gets its own concurrency limit, so an
+ * overload of expensive searches is shed without starving cheap lookups.
+ */
+public enum EndpointClass {
+    READ("read", 40, 4, 200, Duration.ofMillis(250)),
+    SEARCH("search", 8, 1, 40, Duration.ofSeconds(2)),
+    WRITE("write", 16, 2, 100, Duration.ofSeconds(1));
+
+    private static final Pattern SEARCH_PATH = Pattern.compile("/api/speeches/(search(/.*)?|\\d+/similar)");
+    private static final String MULTI_GET_PATH = "/api/speeches/_mget";
+
+    private final String key;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration latencyTarget;
+
+    EndpointClass(String key, int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+        this.key = key;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTarget = latencyTarget;
+    }
+
+    /**
+     * Classifies a request to {@code /api/speeches}. Listing all speeches is as expensive as an
+     * unfiltered search and is limited with the searches, as are multi-gets, which load up to as
+     * many speeches as a search.
+     */
+    public static EndpointClass of(String method, String path) {
+        if (method.equals("POST") && path.equals(MULTI_GET_PATH)) {
+            return SEARCH;
+        }
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            return WRITE;
+        }
+        if (path.equals("/api/speeches") || path.equals("/api/speeches/") || SEARCH_PATH.matcher(path).matches()) {
+            return SEARCH;
+        }
+        return READ;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    public int minLimit() {
+        return minLimit;
+    }
+
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    public Duration latencyTarget() {
+        return latencyTarget;
+    }
+}
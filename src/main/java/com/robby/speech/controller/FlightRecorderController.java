@@ -0,0 +1,85 @@
+package com.robby.speech.controller;
+
+import com.robby.speech.controller.dto.RecordingStatusDto;
+import com.robby.speech.diagnostics.FlightRecorderService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/diagnostics/jfr")
+@ConditionalOnProperty(name = "speech.diagnostics.jfr.endpoint-enabled", havingValue = "true")
+public class FlightRecorderController {
+
+    private final FlightRecorderService flightRecorderService;
+
+    public FlightRecorderController(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    @GetMapping
+    public ResponseEntity<RecordingStatusDto> status() {
+        return flightRecorderService.status()
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<RecordingStatusDto> start(
+        @RequestParam(defaultValue = "profile") String settings,
+        @RequestParam(defaultValue = "3600") long maxAgeSeconds
+    ) {
+        if (!FlightRecorderService.SETTINGS.contains(settings) || maxAgeSeconds <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return flightRecorderService.start(settings, Duration.ofSeconds(maxAgeSeconds))
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<RecordingStatusDto> stop() {
+        return flightRecorderService.stop()
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/download")
+    public ResponseEntity<StreamingResponseBody> download() throws IOException {
+        Optional<Path> dump = flightRecorderService.dump();
+        if (dump.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Path file = dump.get();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .contentLength(Files.size(file))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(file.getFileName().toString())
+                .build()
+                .toString())
+            .body(body);
+    }
+}
@@ -0,0 +1,42 @@
+package com.robby.speech.controller;
+
+import com.robby.speech.changes.SpeechChangeStream;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/speeches/changes")
+public class SpeechChangeController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final SpeechChangeStream changeStream;
+
+    public SpeechChangeController(SpeechChangeStream changeStream) {
+        this.changeStream = changeStream;
+    }
+
+    /**
+     * Resumes after {@code after}, or after the {@code Last-Event-ID} an {@code EventSource}
+     * sends when it reconnects.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> changes(
+        @RequestParam(required = false) Long after,
+        @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId
+    ) throws IOException {
+        Long cursor = after != null ? after : lastEventId;
+        if (cursor != null && cursor < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(changeStream.subscribe(cursor));
+    }
+}
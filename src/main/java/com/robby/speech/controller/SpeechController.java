@@ -1,30 +1,48 @@
 package com.robby.speech.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.robby.speech.controller.dto.BulkDeleteResultDto;
+import com.robby.speech.controller.dto.BulkPatchResultDto;
+import com.robby.speech.controller.dto.MultiGetRequestDto;
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SimilarSpeechDto;
 import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.controller.dto.SpeechHitDto;
+import com.robby.speech.controller.dto.SpeechPatchDto;
+import com.robby.speech.controller.dto.SuggestionDto;
 import com.robby.speech.core.SpeechService;
+import com.robby.speech.core.SuggestionField;
+import com.robby.speech.core.query.SpeechQuery;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/speeches")
 public class SpeechController {
 
     private final SpeechService speechService;
+    private final SpeechStreamWriter streamWriter;
 
-    public SpeechController(SpeechService speechService) {
+    public SpeechController(SpeechService speechService, ObjectMapper objectMapper) {
         this.speechService = speechService;
+        this.streamWriter = new SpeechStreamWriter(objectMapper);
     }
 
     @GetMapping
@@ -32,6 +50,21 @@ public class SpeechController {
         return speechService.findAll();
     }
 
+    @GetMapping(produces = {SpeechStreamWriter.NDJSON_VALUE, SpeechStreamWriter.CBOR_SEQ_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestHeader(HttpHeaders.ACCEPT) String accept) {
+        return streamWriter.write(speechService.streamAll(), accept);
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetResultDto findAllById(@RequestParam List<Long> ids) {
+        return speechService.findAllById(ids);
+    }
+
+    @PostMapping("/_mget")
+    public MultiGetResultDto multiGet(@RequestBody MultiGetRequestDto request) {
+        return speechService.findAllById(request.ids() == null ? List.of() : request.ids());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SpeechDto> getById(@PathVariable Long id) {
         return speechService.findById(id)
@@ -39,6 +72,35 @@ public class SpeechController {
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * The text alone, streamed from the database as {@code text/plain}, with support for byte
+     * ranges; see {@link SpeechTextWriter}.
+     */
+    @GetMapping("/{id}/text")
+    public ResponseEntity<StreamingResponseBody> getText(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+        @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange
+    ) {
+        return speechService.findText(id)
+            .map(text -> SpeechTextWriter.write(text, range, ifRange))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarSpeechDto>> findSimilar(
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "0.8") double threshold,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        if (limit <= 0 || threshold < 0 || threshold > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return speechService.findSimilar(id, threshold, limit)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<SpeechDto> create(@RequestBody SpeechDto dto) {
         SpeechDto created = speechService.create(dto);
@@ -54,12 +116,42 @@ public class SpeechController {
             );
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<SpeechDto> patch(@PathVariable Long id, @RequestBody SpeechPatchDto patch) {
+        return speechService.patch(id, patch)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping
+    public BulkPatchResultDto patchMatching(
+        @RequestParam(required = false) String author,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) Long confirm,
+        @RequestBody SpeechPatchDto patch
+    ) {
+        return new BulkPatchResultDto(speechService.patchMatching(author, from, to, keyword, confirm, patch));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         boolean deleted = speechService.delete(id);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
+    @DeleteMapping
+    public BulkDeleteResultDto deleteMatching(
+        @RequestParam(required = false) String author,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) Long confirm
+    ) {
+        return new BulkDeleteResultDto(speechService.deleteMatching(author, from, to, keyword, confirm));
+    }
+
     @GetMapping("/search")
     public List<SpeechDto> search(
         @RequestParam(required = false) String author,
@@ -67,8 +159,63 @@ public class SpeechController {
         LocalDate from,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
         @RequestParam(required = false) String keyword,
-        @RequestParam(required = false) String text
+        @RequestParam(required = false) String text,
+        @RequestParam(required = false) String q
+    ) {
+        if (q == null) {
+            return speechService.search(author, from, to, keyword, text);
+        }
+        return speechService.search(SpeechQuery.of(author, from, to, keyword, text, SpeechQuery.parse(q)));
+    }
+
+    @GetMapping(value = "/search", params = "snippets=true")
+    public List<SpeechHitDto> searchSnippets(
+        @RequestParam(required = false) String author,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) String text,
+        @RequestParam(required = false) String q
+    ) {
+        if (q == null) {
+            return speechService.searchSnippets(author, from, to, keyword, text);
+        }
+        return speechService.searchSnippets(SpeechQuery.of(author, from, to, keyword, text, SpeechQuery.parse(q)));
+    }
+
+    @GetMapping(value = "/search", produces = {SpeechStreamWriter.NDJSON_VALUE, SpeechStreamWriter.CBOR_SEQ_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamSearch(
+        @RequestParam(required = false) String author,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) String keyword,
+        @RequestParam(required = false) String text,
+        @RequestParam(required = false) String q,
+        @RequestHeader(HttpHeaders.ACCEPT) String accept
+    ) {
+        Stream<SpeechDto> speeches = q == null
+            ? speechService.streamSearch(author, from, to, keyword, text)
+            : speechService.streamSearch(SpeechQuery.of(author, from, to, keyword, text, SpeechQuery.parse(q)));
+        return streamWriter.write(speeches, accept);
+    }
+
+    @GetMapping("/search/ranked")
+    public List<SpeechDto> rankedSearch(
+        @RequestParam String q,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        return speechService.rankedSearch(q, limit);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+        @RequestParam String field,
+        @RequestParam(defaultValue = "") String prefix,
+        @RequestParam(defaultValue = "10") int limit
     ) {
-        return speechService.search(author, from, to, keyword, text);
+        return SuggestionField.fromParameter(field)
+            .map(suggestionField -> ResponseEntity.ok(
+                speechService.suggest(suggestionField, prefix, limit)))
+            .orElseGet(() -> ResponseEntity.badRequest().build());
     }
 }
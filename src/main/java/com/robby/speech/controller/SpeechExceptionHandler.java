@@ -0,0 +1,55 @@
+package com.robby.speech.controller;
+
+import com.robby.speech.core.ConfirmationRequiredException;
+import com.robby.speech.core.FilterRequiredException;
+import com.robby.speech.core.InvalidPatchException;
+import com.robby.speech.core.InvalidQueryException;
+import com.robby.speech.core.SearchTooBroadException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class SpeechExceptionHandler {
+
+    @ExceptionHandler(SearchTooBroadException.class)
+    public ProblemDetail searchTooBroad(SearchTooBroadException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problem.setTitle("Search too broad");
+        problem.setProperty("estimatedRows", e.getEstimatedRows());
+        problem.setProperty("maxRows", e.getMaxRows());
+        return problem;
+    }
+
+    @ExceptionHandler(InvalidPatchException.class)
+    public ProblemDetail invalidPatch(InvalidPatchException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problem.setTitle("Invalid patch");
+        return problem;
+    }
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ProblemDetail invalidQuery(InvalidQueryException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problem.setTitle("Invalid query");
+        problem.setProperty("position", e.getPosition());
+        return problem;
+    }
+
+    @ExceptionHandler(ConfirmationRequiredException.class)
+    public ProblemDetail confirmationRequired(ConfirmationRequiredException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problem.setTitle("Confirmation required");
+        problem.setProperty("matchedRows", e.getMatchedRows());
+        problem.setProperty("maxRows", e.getMaxRows());
+        return problem;
+    }
+
+    @ExceptionHandler(FilterRequiredException.class)
+    public ProblemDetail filterRequired(FilterRequiredException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problem.setTitle("Filter required");
+        return problem;
+    }
+}
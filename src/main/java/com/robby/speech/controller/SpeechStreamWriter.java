@@ -0,0 +1,61 @@
+package com.robby.speech.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.robby.speech.controller.dto.SpeechDto;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of speeches as newline-delimited JSON or as an RFC 8742 CBOR sequence, one
+ * speech per item. Output is flushed every few items, so clients can start on the first speeches
+ * before the last page has been loaded.
+ */
+class SpeechStreamWriter {
+
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final String CBOR_SEQ_VALUE = "application/cbor-seq";
+    static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+    static final MediaType CBOR_SEQ = MediaType.parseMediaType(CBOR_SEQ_VALUE);
+
+    private static final int FLUSH_EVERY = 50;
+
+    private final ObjectWriter json;
+    private final ObjectWriter cbor;
+
+    SpeechStreamWriter(ObjectMapper objectMapper) {
+        this.json = objectMapper.writerFor(SpeechDto.class);
+        this.cbor = objectMapper.copyWith(new CBORFactory()).writerFor(SpeechDto.class);
+    }
+
+    /** Picks the first of the two streaming formats the {@code Accept} header lists. */
+    ResponseEntity<StreamingResponseBody> write(Stream<SpeechDto> speeches, String accept) {
+        MediaType type = MediaType.parseMediaTypes(accept).stream()
+            .filter(accepted -> accepted.isCompatibleWith(NDJSON) || accepted.isCompatibleWith(CBOR_SEQ))
+            .findFirst()
+            .map(accepted -> accepted.isCompatibleWith(NDJSON) ? NDJSON : CBOR_SEQ)
+            .orElse(NDJSON);
+        boolean ndjson = type.equals(NDJSON);
+        ObjectWriter writer = ndjson ? json : cbor;
+        StreamingResponseBody body = out -> {
+            try (speeches) {
+                Iterator<SpeechDto> iterator = speeches.iterator();
+                for (int written = 1; iterator.hasNext(); written++) {
+                    out.write(writer.writeValueAsBytes(iterator.next()));
+                    if (ndjson) {
+                        out.write('\n');
+                    }
+                    if (written % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(type).body(body);
+    }
+}
@@ -0,0 +1,75 @@
+package com.robby.speech.controller;
+
+import com.robby.speech.core.SpeechTextSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes a speech text as {@code text/plain} with support for a single byte range. The text's
+ * version is the entity tag, so a client resuming an interrupted download with {@code If-Range}
+ * gets the rest only if the text has not changed since. Requests for several ranges, and
+ * {@code Range} headers that do not parse, get the whole text.
+ */
+class SpeechTextWriter {
+
+    static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private SpeechTextWriter() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> write(SpeechTextSource text, String range, String ifRange) {
+        String eTag = "\"" + text.version() + "\"";
+        long length = text.length();
+        boolean ranged = range != null && (ifRange == null || ifRange.equals(eTag));
+        List<HttpRange> ranges = ranged ? parse(range) : List.of();
+        if (ranges.size() != 1) {
+            return ResponseEntity.ok()
+                .contentType(TEXT_PLAIN_UTF8)
+                .contentLength(length)
+                .eTag(eTag)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(out -> text.transferTo(0, length, out));
+        }
+
+        long start;
+        long end;
+        try {
+            start = ranges.get(0).getRangeStart(length);
+            end = ranges.get(0).getRangeEnd(length) + 1;
+        } catch (IllegalArgumentException e) {
+            return notSatisfiable(eTag, length);
+        }
+        if (start >= length) {
+            return notSatisfiable(eTag, length);
+        }
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+            .contentType(TEXT_PLAIN_UTF8)
+            .contentLength(end - start)
+            .eTag(eTag)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length)
+            .body(out -> text.transferTo(start, end, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> notSatisfiable(String eTag, long length) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .eTag(eTag)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+            .build();
+    }
+
+    private static List<HttpRange> parse(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
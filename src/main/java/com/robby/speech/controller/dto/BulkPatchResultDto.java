@@ -0,0 +1,5 @@
+package com.robby.speech.controller.dto;
+
+public record BulkPatchResultDto(
+    int updated
+) {}
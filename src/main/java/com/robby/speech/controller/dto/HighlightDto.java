@@ -0,0 +1,9 @@
+package com.robby.speech.controller.dto;
+
+/**
+ * A match of a search term, as character offsets into the speech text, end exclusive.
+ */
+public record HighlightDto(
+    int start,
+    int end
+) {}
@@ -0,0 +1,7 @@
+package com.robby.speech.controller.dto;
+
+import java.util.List;
+
+public record MultiGetRequestDto(
+    List<Long> ids
+) {}
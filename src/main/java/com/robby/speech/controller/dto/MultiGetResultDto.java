@@ -0,0 +1,11 @@
+package com.robby.speech.controller.dto;
+
+import java.util.List;
+
+/**
+ * Speeches in the order their ids were requested, each once, and the requested ids no speech has.
+ */
+public record MultiGetResultDto(
+    List<SpeechDto> speeches,
+    List<Long> missing
+) {}
@@ -0,0 +1,11 @@
+package com.robby.speech.controller.dto;
+
+import java.time.Instant;
+
+public record RecordingStatusDto(
+    String name,
+    String state,
+    String settings,
+    Instant startedAt,
+    Instant stoppedAt
+) {}
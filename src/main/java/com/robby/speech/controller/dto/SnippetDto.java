@@ -0,0 +1,13 @@
+package com.robby.speech.controller.dto;
+
+import java.util.List;
+
+/**
+ * A window of speech text starting at character offset {@code start}, with the matches it
+ * contains.
+ */
+public record SnippetDto(
+    int start,
+    String text,
+    List<HighlightDto> highlights
+) {}
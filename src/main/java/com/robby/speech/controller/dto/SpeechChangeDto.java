@@ -0,0 +1,17 @@
+package com.robby.speech.controller.dto;
+
+import com.robby.speech.core.SpeechChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed. {@code speech} is the current state of a saved speech, or
+ * {@code null} for deletions and for speeches that have been deleted since.
+ */
+public record SpeechChangeDto(
+    long sequence,
+    SpeechChangedEvent.ChangeType type,
+    Long speechId,
+    Instant changedAt,
+    SpeechDto speech
+) {}
@@ -0,0 +1,16 @@
+package com.robby.speech.controller.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A search result with snippets of its text instead of the full text.
+ */
+public record SpeechHitDto(
+    Long id,
+    String author,
+    String authorEmail,
+    List<String> keywords,
+    LocalDate speechDate,
+    List<SnippetDto> snippets
+) {}
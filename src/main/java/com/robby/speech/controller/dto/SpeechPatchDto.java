@@ -0,0 +1,19 @@
+package com.robby.speech.controller.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Partial update of one or more speeches. Null fields are left unchanged. {@code keywords}
+ * replaces the whole keyword set; {@code addKeywords} and {@code removeKeywords} change only the
+ * keywords they name and cannot be combined with it.
+ */
+public record SpeechPatchDto(
+    String text,
+    String author,
+    String authorEmail,
+    LocalDate speechDate,
+    List<String> keywords,
+    List<String> addKeywords,
+    List<String> removeKeywords
+) {}
@@ -0,0 +1,6 @@
+package com.robby.speech.controller.dto;
+
+public record SuggestionDto(
+    String value,
+    long count
+) {}
@@ -0,0 +1,21 @@
+package com.robby.speech.core;
+
+import lombok.Getter;
+
+/**
+ * Thrown before a bulk operation changes more speeches than the configured maximum without the
+ * caller having confirmed that many. Clients repeat the call with the count to go ahead.
+ */
+@Getter
+public class ConfirmationRequiredException extends RuntimeException {
+
+    private final long matchedRows;
+    private final int maxRows;
+
+    public ConfirmationRequiredException(String operation, long matchedRows, int maxRows) {
+        super(operation + " would change " + matchedRows + " speeches, more than the maximum of " + maxRows
+            + "; pass confirm=" + matchedRows + " to go ahead");
+        this.matchedRows = matchedRows;
+        this.maxRows = maxRows;
+    }
+}
@@ -0,0 +1,12 @@
+package com.robby.speech.core;
+
+/**
+ * Thrown when a bulk operation is called without any filter, which would apply it to every
+ * speech.
+ */
+public class FilterRequiredException extends RuntimeException {
+
+    public FilterRequiredException(String operation) {
+        super(operation + " needs at least one of author, from, to or keyword");
+    }
+}
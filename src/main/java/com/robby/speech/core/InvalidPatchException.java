@@ -0,0 +1,12 @@
+package com.robby.speech.core;
+
+/**
+ * Thrown when a patch cannot be applied as given, e.g. because it both replaces and edits the
+ * keywords or because a bulk patch has no filter.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.robby.speech.core;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a search query does not parse. The position is the zero-based offset in the query
+ * where parsing stopped.
+ */
+@Getter
+public class InvalidQueryException extends RuntimeException {
+
+    private final int position;
+
+    public InvalidQueryException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+}
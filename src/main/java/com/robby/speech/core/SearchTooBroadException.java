@@ -0,0 +1,21 @@
+package com.robby.speech.core;
+
+import lombok.Getter;
+
+/**
+ * Thrown before a search loads more speeches than the configured maximum. Clients are expected
+ * to narrow the query with more selective filters.
+ */
+@Getter
+public class SearchTooBroadException extends RuntimeException {
+
+    private final long estimatedRows;
+    private final int maxRows;
+
+    public SearchTooBroadException(long estimatedRows, int maxRows) {
+        super("Search would load about " + estimatedRows + " speeches, more than the maximum of " + maxRows
+            + "; add or narrow filters");
+        this.estimatedRows = estimatedRows;
+        this.maxRows = maxRows;
+    }
+}
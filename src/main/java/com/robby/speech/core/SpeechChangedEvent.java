@@ -0,0 +1,32 @@
+package com.robby.speech.core;
+
+import com.robby.speech.controller.dto.SpeechDto;
+
+/**
+ * A committed change to a speech. {@code textUnchanged} events come from changes that cannot
+ * touch the text and carry the speech without it.
+ */
+public record SpeechChangedEvent(
+    ChangeType type,
+    Long id,
+    SpeechDto speech,
+    boolean textUnchanged
+) {
+
+    public enum ChangeType {
+        SAVED,
+        DELETED
+    }
+
+    public static SpeechChangedEvent saved(SpeechDto speech) {
+        return new SpeechChangedEvent(ChangeType.SAVED, speech.id(), speech, false);
+    }
+
+    public static SpeechChangedEvent savedWithoutText(SpeechDto speech) {
+        return new SpeechChangedEvent(ChangeType.SAVED, speech.id(), speech, true);
+    }
+
+    public static SpeechChangedEvent deleted(Long id) {
+        return new SpeechChangedEvent(ChangeType.DELETED, id, null, false);
+    }
+}
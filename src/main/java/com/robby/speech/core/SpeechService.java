@@ -1,18 +1,82 @@
 package com.robby.speech.core;
 
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SimilarSpeechDto;
 import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.controller.dto.SpeechHitDto;
+import com.robby.speech.controller.dto.SpeechPatchDto;
+import com.robby.speech.controller.dto.SuggestionDto;
+import com.robby.speech.core.query.SpeechQuery;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SpeechService {
 
     List<SpeechDto> findAll();
+
+    /**
+     * Every speech in id order, loaded page by page as the stream is consumed, so the whole
+     * result never has to be in memory at once.
+     */
+    Stream<SpeechDto> streamAll();
+
     SpeechDto create(SpeechDto dto);
     Optional<SpeechDto> update(Long id, SpeechDto dto);
+
+    /**
+     * Applies the non-null fields of {@code patch} with targeted statements: one {@code UPDATE}
+     * for the scalar fields and keyword changes as set differences, never rewriting keywords
+     * that stay.
+     *
+     * @throws InvalidPatchException if {@code keywords} is combined with added or removed keywords
+     */
+    Optional<SpeechDto> patch(Long id, SpeechPatchDto patch);
+
+    /**
+     * Applies {@code patch} to every speech matching the filters, which work as in
+     * {@link #search}, with set-based statements. Returns the number of speeches patched.
+     *
+     * @param confirmedRows how many speeches the caller expects at most, needed when the filters
+     *     match more than {@code speech.search.max-rows}
+     * @throws FilterRequiredException if there is no filter
+     * @throws ConfirmationRequiredException if more speeches match than both the maximum and what the caller
+     *     confirmed
+     * @throws InvalidPatchException if the patch sets the text or is otherwise invalid
+     */
+    int patchMatching(
+        String author, LocalDate from, LocalDate to, String keyword, Long confirmedRows, SpeechPatchDto patch);
+
     boolean delete(Long id);
+
+    /**
+     * Deletes every speech matching the filters, which work as in {@link #search}, without
+     * loading any of them. Returns the number of speeches deleted.
+     *
+     * @param confirmedRows as for {@link #patchMatching}
+     * @throws FilterRequiredException if there is no filter
+     * @throws ConfirmationRequiredException if more speeches match than both the maximum and what the caller
+     *     confirmed
+     */
+    int deleteMatching(String author, LocalDate from, LocalDate to, String keyword, Long confirmedRows);
     Optional<SpeechDto> findById(Long id);
+
+    /**
+     * The text of a speech, read from the database in chunks as it is transferred, or empty if
+     * there is no such speech.
+     */
+    Optional<SpeechTextSource> findText(Long id);
+
+    /**
+     * The speeches with the given ids, loaded with one query and returned in request order.
+     * Repeated ids are returned once; ids without a speech are reported as missing.
+     *
+     * @throws SearchTooBroadException if more distinct ids are requested than a search may load
+     */
+    MultiGetResultDto findAllById(List<Long> ids);
+
     List<SpeechDto> search(
         String author,
         LocalDate from,
@@ -20,4 +84,50 @@ public interface SpeechService {
         String keyword,
         String text
     );
+
+    /**
+     * Same matches as {@link #search}, in id order and loaded page by page as the stream is
+     * consumed. Not limited by the maximum row count of {@link #search}.
+     */
+    Stream<SpeechDto> streamSearch(
+        String author,
+        LocalDate from,
+        LocalDate to,
+        String keyword,
+        String text
+    );
+
+    /**
+     * Same matches and row limit as {@link #search}, with up to three snippets of context around
+     * the matches of {@code text} in place of the full text. Speeches without a match get a
+     * snippet of their start.
+     */
+    List<SpeechHitDto> searchSnippets(
+        String author,
+        LocalDate from,
+        LocalDate to,
+        String keyword,
+        String text
+    );
+
+    /**
+     * Speeches matching a parsed query, with the same row limit as {@link #search}.
+     */
+    List<SpeechDto> search(SpeechQuery query);
+
+    /**
+     * Same matches as {@link #search(SpeechQuery)}, with snippets as in {@link #searchSnippets}
+     * around the matches of the query's text filters, except negated ones.
+     */
+    List<SpeechHitDto> searchSnippets(SpeechQuery query);
+
+    /**
+     * Same matches as {@link #search(SpeechQuery)}, in id order and loaded page by page as the
+     * stream is consumed.
+     */
+    Stream<SpeechDto> streamSearch(SpeechQuery query);
+
+    List<SpeechDto> rankedSearch(String query, int limit);
+    Optional<List<SimilarSpeechDto>> findSimilar(Long id, double threshold, int limit);
+    List<SuggestionDto> suggest(SuggestionField field, String prefix, int limit);
 }
@@ -0,0 +1,27 @@
+package com.robby.speech.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The text of one speech as UTF-8 bytes, read from the database as it is transferred.
+ */
+public interface SpeechTextSource {
+
+    /**
+     * Length of the text in UTF-8 bytes.
+     */
+    long length();
+
+    /**
+     * Changes whenever the text may have changed, so it can serve as an entity tag.
+     */
+    long version();
+
+    /**
+     * Writes the bytes from {@code start} up to {@code end}, exclusive.
+     *
+     * @throws IOException if the text changed or was deleted since it was opened, or writing failed
+     */
+    void transferTo(long start, long end, OutputStream out) throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.robby.speech.core;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum SuggestionField {
+    AUTHOR,
+    KEYWORD;
+
+    public static Optional<SuggestionField> fromParameter(String value) {
+        return Arrays.stream(values())
+            .filter(field -> field.name().equalsIgnoreCase(value))
+            .findFirst();
+    }
+}
@@ -0,0 +1,200 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.core.SpeechTextSource;
+import com.robby.speech.model.SpeechTextCodec;
+import com.robby.speech.repository.SpeechTextChunks;
+import com.robby.speech.repository.SpeechTextChunks.TextChunk;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A stored speech text read from its column one chunk per statement while it is written out, so
+ * neither the text nor the column value is ever held in memory as a whole, and no connection is
+ * held while the client reads. The text is read from its beginning, a chunk at a time: compressed
+ * text has to be inflated from the start, and plain text is cut into characters, whose UTF-8 byte
+ * offsets are only known once they are read.
+ *
+ * <p>Every chunk comes with the version of the text, and a transfer fails as soon as it differs
+ * from the version the text was opened with, instead of splicing two versions together.
+ */
+final class ChunkedSpeechText implements SpeechTextSource {
+
+    // compressed bytes or plain text characters per statement
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private final long id;
+    private final SpeechTextChunks chunks;
+    private final TransactionOperations transactions;
+    private final TextChunk first;
+    private final long length;
+
+    private ChunkedSpeechText(long id, SpeechTextChunks chunks, TransactionOperations transactions, TextChunk first) {
+        this.id = id;
+        this.chunks = chunks;
+        this.transactions = transactions;
+        this.first = first;
+        if (first.compressed() == null) {
+            this.length = first.plainLength();
+        } else if (first.compressed()[0] == SpeechTextCodec.DEFLATE) {
+            this.length = SpeechTextCodec.textLength(first.compressed());
+        } else {
+            throw new IllegalArgumentException("Unknown speech text codec " + first.compressed()[0]);
+        }
+    }
+
+    /**
+     * Reads the header and the first chunk of the text, which is all most readers look at.
+     */
+    static Optional<SpeechTextSource> open(long id, SpeechTextChunks chunks, TransactionOperations transactions) {
+        return chunks.readTextChunk(id, 0, SpeechTextCodec.HEADER_LENGTH + CHUNK_SIZE)
+            .map(first -> new ChunkedSpeechText(id, chunks, transactions, first));
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long version() {
+        return first.version();
+    }
+
+    @Override
+    public void transferTo(long start, long end, OutputStream out) throws IOException {
+        if (start < 0 || end > length || start > end) {
+            throw new IllegalArgumentException("Range " + start + "-" + end + " is outside of 0-" + length);
+        }
+        try (InputStream text = first.compressed() != null
+            ? new InflaterInputStream(new CompressedStream())
+            : new PlainStream()) {
+            text.skipNBytes(start);
+            copy(text, end - start, out);
+        }
+    }
+
+    private static void copy(InputStream in, long count, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        for (long left = count; left > 0; ) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, left));
+            if (read < 0) {
+                throw new IOException("Speech text ended " + left + " bytes early");
+            }
+            out.write(buffer, 0, read);
+            left -= read;
+        }
+        out.flush();
+    }
+
+    private TextChunk fetch(int offset) throws IOException {
+        TextChunk next = transactions.execute(status -> chunks.readTextChunk(id, offset, CHUNK_SIZE).orElse(null));
+        if (next == null) {
+            throw new IOException("Speech " + id + " was deleted while its text was being read");
+        }
+        if (next.version() != first.version()) {
+            throw new IOException("Speech " + id + " changed while its text was being read");
+        }
+        return next;
+    }
+
+    /**
+     * Bytes fetched one chunk at a time, starting with the chunk read on open.
+     */
+    private abstract static class ChunkStream extends InputStream {
+
+        byte[] chunk;
+        int position;
+        boolean exhausted;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            if (count == 0) {
+                return 0;
+            }
+            while (position == chunk.length) {
+                if (exhausted) {
+                    return -1;
+                }
+                fetch();
+            }
+            int read = Math.min(count, chunk.length - position);
+            System.arraycopy(chunk, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+
+        /**
+         * Replaces the chunk with the next one, setting {@code exhausted} once it is the last.
+         */
+        abstract void fetch() throws IOException;
+    }
+
+    /**
+     * The compressed column after the header.
+     */
+    private final class CompressedStream extends ChunkStream {
+
+        private int nextOffset;
+
+        private CompressedStream() {
+            chunk = first.compressed();
+            position = SpeechTextCodec.HEADER_LENGTH;
+            nextOffset = chunk.length;
+            exhausted = chunk.length < SpeechTextCodec.HEADER_LENGTH + CHUNK_SIZE;
+        }
+
+        @Override
+        void fetch() throws IOException {
+            byte[] next = ChunkedSpeechText.this.fetch(nextOffset).compressed();
+            if (next == null) {
+                throw new IOException("Speech " + id + " changed while its text was being read");
+            }
+            chunk = next;
+            position = 0;
+            nextOffset += next.length;
+            exhausted = next.length < CHUNK_SIZE;
+        }
+    }
+
+    /**
+     * The plain text column encoded as UTF-8. The database counts characters as code points, so a
+     * chunk never ends in the middle of one.
+     */
+    private final class PlainStream extends ChunkStream {
+
+        private int nextOffset;
+
+        private PlainStream() {
+            accept(first.plain(), SpeechTextCodec.HEADER_LENGTH + CHUNK_SIZE);
+        }
+
+        @Override
+        void fetch() throws IOException {
+            String next = ChunkedSpeechText.this.fetch(nextOffset).plain();
+            if (next == null) {
+                throw new IOException("Speech " + id + " changed while its text was being read");
+            }
+            accept(next, CHUNK_SIZE);
+        }
+
+        private void accept(String characters, int requested) {
+            int count = characters.codePointCount(0, characters.length());
+            nextOffset += count;
+            exhausted = count < requested;
+            chunk = characters.getBytes(StandardCharsets.UTF_8);
+            position = 0;
+        }
+    }
+}
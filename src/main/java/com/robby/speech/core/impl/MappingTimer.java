@@ -0,0 +1,46 @@
+package com.robby.speech.core.impl;
+
+/**
+ * Accumulates the time the current thread spends mapping entities to DTOs while an operation is
+ * being profiled. Mapping is where lazy text is decoded, so it is reported separately from DB time.
+ */
+final class MappingTimer implements AutoCloseable {
+
+    private static final ThreadLocal<MappingTimer> CURRENT = new ThreadLocal<>();
+
+    private final MappingTimer parent;
+    private long elapsedNanos;
+
+    private MappingTimer(MappingTimer parent) {
+        this.parent = parent;
+    }
+
+    static MappingTimer start() {
+        MappingTimer timer = new MappingTimer(CURRENT.get());
+        CURRENT.set(timer);
+        return timer;
+    }
+
+    static MappingTimer current() {
+        return CURRENT.get();
+    }
+
+    void add(long nanos) {
+        for (MappingTimer timer = this; timer != null; timer = timer.parent) {
+            timer.elapsedNanos += nanos;
+        }
+    }
+
+    long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
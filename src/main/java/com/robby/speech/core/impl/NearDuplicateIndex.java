@@ -0,0 +1,73 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.index.MinHashIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class NearDuplicateIndex implements SpeechIndex {
+
+    private static final int BANDS = 32;
+    private static final int ROWS = 4;
+
+    private volatile MinHashIndex index = new MinHashIndex(BANDS, ROWS);
+    private final boolean dedupOnIngest;
+    private final double dedupThreshold;
+
+    public NearDuplicateIndex(
+        @Value("${speech.dedup.enabled:false}") boolean dedupOnIngest,
+        @Value("${speech.dedup.threshold:0.9}") double dedupThreshold
+    ) {
+        this.dedupOnIngest = dedupOnIngest;
+        this.dedupThreshold = dedupThreshold;
+    }
+
+    public boolean contains(Long id) {
+        return index.contains(id);
+    }
+
+    public List<MinHashIndex.Match> similarTo(Long id, double threshold, int limit) {
+        return index.similarTo(id, threshold, limit);
+    }
+
+    public Optional<Long> findDuplicateOnIngest(String text) {
+        if (!dedupOnIngest || text == null) {
+            return Optional.empty();
+        }
+        return index.similarTo(text, dedupThreshold, 1).stream()
+            .map(MinHashIndex.Match::id)
+            .findFirst();
+    }
+
+    @Override
+    public void put(SpeechDto speech) {
+        index.put(speech.id(), speech.text());
+    }
+
+    @Override
+    public void remove(Long id) {
+        index.remove(id);
+    }
+
+    @Override
+    public String snapshotName() {
+        return "near-duplicates";
+    }
+
+    @Override
+    public void writeSnapshot(Path file) throws IOException {
+        index.writeSnapshot(file);
+    }
+
+    @Override
+    public Runnable readSnapshot(Path file) throws IOException {
+        MinHashIndex restored = index.readSnapshot(file);
+        return () -> index = restored;
+    }
+}
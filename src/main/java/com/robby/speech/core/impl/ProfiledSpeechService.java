@@ -0,0 +1,249 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SimilarSpeechDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.controller.dto.SpeechHitDto;
+import com.robby.speech.controller.dto.SpeechPatchDto;
+import com.robby.speech.controller.dto.SuggestionDto;
+import com.robby.speech.core.SpeechService;
+import com.robby.speech.core.SpeechTextSource;
+import com.robby.speech.core.SuggestionField;
+import com.robby.speech.core.query.SpeechQuery;
+import com.robby.speech.diagnostics.QueryStatistics;
+import com.robby.speech.diagnostics.SpeechOperationEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Emits a {@link SpeechOperationEvent} for every call to {@link SpeechServiceImpl}. While no
+ * flight recording is running the event is disabled and calls go straight through.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "speech.diagnostics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class ProfiledSpeechService implements SpeechService {
+
+    private final SpeechService delegate;
+
+    public ProfiledSpeechService(SpeechServiceImpl delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<SpeechDto> findAll() {
+        return profile("findAll", ProfiledSpeechService::filters, delegate::findAll, List::size);
+    }
+
+    /**
+     * Not profiled: the stream does its work while the response is written, after this call has
+     * returned.
+     */
+    @Override
+    public Stream<SpeechDto> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public SpeechDto create(SpeechDto dto) {
+        return profile("create", ProfiledSpeechService::filters, () -> delegate.create(dto), created -> 1);
+    }
+
+    @Override
+    public Optional<SpeechDto> update(Long id, SpeechDto dto) {
+        return profile("update", () -> filters().add("id", id),
+            () -> delegate.update(id, dto), ProfiledSpeechService::count);
+    }
+
+    @Override
+    public Optional<SpeechDto> patch(Long id, SpeechPatchDto patch) {
+        return profile("patch", () -> filters().add("id", id),
+            () -> delegate.patch(id, patch), ProfiledSpeechService::count);
+    }
+
+    @Override
+    public int patchMatching(
+        String author, LocalDate from, LocalDate to, String keyword, Long confirmedRows, SpeechPatchDto patch) {
+        Supplier<Filters> filters = () -> filters()
+            .add("author", author)
+            .add("from", from)
+            .add("to", to)
+            .add("keyword", keyword);
+        return profile("patchMatching", filters,
+            () -> delegate.patchMatching(author, from, to, keyword, confirmedRows, patch), updated -> updated);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return profile("delete", () -> filters().add("id", id), () -> delegate.delete(id), deleted -> deleted ? 1 : 0);
+    }
+
+    @Override
+    public int deleteMatching(String author, LocalDate from, LocalDate to, String keyword, Long confirmedRows) {
+        Supplier<Filters> filters = () -> filters()
+            .add("author", author)
+            .add("from", from)
+            .add("to", to)
+            .add("keyword", keyword);
+        return profile("deleteMatching", filters,
+            () -> delegate.deleteMatching(author, from, to, keyword, confirmedRows), deleted -> deleted);
+    }
+
+    @Override
+    public Optional<SpeechDto> findById(Long id) {
+        return profile("findById", () -> filters().add("id", id),
+            () -> delegate.findById(id), ProfiledSpeechService::count);
+    }
+
+    /**
+     * Only opening the text is profiled: the rest is read while the response is written, after
+     * this call has returned.
+     */
+    @Override
+    public Optional<SpeechTextSource> findText(Long id) {
+        return profile("findText", () -> filters().add("id", id), () -> delegate.findText(id),
+            ProfiledSpeechService::count);
+    }
+
+    @Override
+    public MultiGetResultDto findAllById(List<Long> ids) {
+        return profile("findAllById", () -> filters().add("ids", ids.size()),
+            () -> delegate.findAllById(ids), result -> result.speeches().size());
+    }
+
+    @Override
+    public List<SpeechDto> search(String author, LocalDate from, LocalDate to, String keyword, String text) {
+        Supplier<Filters> filters = () -> filters()
+            .add("author", author)
+            .add("from", from)
+            .add("to", to)
+            .add("keyword", keyword)
+            .add("text", text);
+        return profile("search", filters, () -> delegate.search(author, from, to, keyword, text), List::size);
+    }
+
+    @Override
+    public List<SpeechHitDto> searchSnippets(String author, LocalDate from, LocalDate to, String keyword, String text) {
+        Supplier<Filters> filters = () -> filters()
+            .add("author", author)
+            .add("from", from)
+            .add("to", to)
+            .add("keyword", keyword)
+            .add("text", text);
+        return profile("searchSnippets", filters, () -> delegate.searchSnippets(author, from, to, keyword, text),
+            List::size);
+    }
+
+    @Override
+    public Stream<SpeechDto> streamSearch(String author, LocalDate from, LocalDate to, String keyword, String text) {
+        return delegate.streamSearch(author, from, to, keyword, text);
+    }
+
+    @Override
+    public List<SpeechDto> search(SpeechQuery query) {
+        return profile("search", () -> filters().add("q", query), () -> delegate.search(query), List::size);
+    }
+
+    @Override
+    public List<SpeechHitDto> searchSnippets(SpeechQuery query) {
+        return profile("searchSnippets", () -> filters().add("q", query), () -> delegate.searchSnippets(query),
+            List::size);
+    }
+
+    @Override
+    public Stream<SpeechDto> streamSearch(SpeechQuery query) {
+        return delegate.streamSearch(query);
+    }
+
+    @Override
+    public List<SpeechDto> rankedSearch(String query, int limit) {
+        return profile("rankedSearch", () -> filters().add("q", query).add("limit", limit),
+            () -> delegate.rankedSearch(query, limit), List::size);
+    }
+
+    @Override
+    public Optional<List<SimilarSpeechDto>> findSimilar(Long id, double threshold, int limit) {
+        return profile("findSimilar", () -> filters().add("id", id).add("threshold", threshold).add("limit", limit),
+            () -> delegate.findSimilar(id, threshold, limit), similar -> similar.map(List::size).orElse(0));
+    }
+
+    @Override
+    public List<SuggestionDto> suggest(SuggestionField field, String prefix, int limit) {
+        return profile("suggest", () -> filters().add("field", field).add("prefix", prefix).add("limit", limit),
+            () -> delegate.suggest(field, prefix, limit), List::size);
+    }
+
+    private static <T> T profile(
+        String operation,
+        Supplier<Filters> filters,
+        Supplier<T> call,
+        ToIntFunction<T> resultCount
+    ) {
+        SpeechOperationEvent event = new SpeechOperationEvent();
+        if (!event.isEnabled()) {
+            return call.get();
+        }
+        event.begin();
+        try (QueryStatistics statistics = QueryStatistics.start(); MappingTimer mapping = MappingTimer.start()) {
+            boolean failed = true;
+            T result = null;
+            try {
+                result = call.get();
+                failed = false;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.operation = operation;
+                    event.filters = filters.get().toString();
+                    event.resultCount = failed ? 0 : resultCount.applyAsInt(result);
+                    event.queryCount = statistics.queryCount();
+                    event.dbTime = statistics.dbTimeNanos();
+                    event.mappingTime = mapping.elapsedNanos();
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private static int count(Optional<?> result) {
+        return result.isPresent() ? 1 : 0;
+    }
+
+    private static Filters filters() {
+        return new Filters();
+    }
+
+    private static final class Filters {
+
+        private static final int MAX_VALUE_LENGTH = 100;
+
+        private final StringJoiner joiner = new StringJoiner(", ");
+
+        private Filters add(String name, Object value) {
+            if (value == null || value instanceof String s && s.isBlank()) {
+                return this;
+            }
+            String text = value.toString();
+            joiner.add(name + "=" + (text.length() > MAX_VALUE_LENGTH
+                ? text.substring(0, MAX_VALUE_LENGTH) + "..."
+                : text));
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return joiner.toString();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.index.InvertedIndex;
+import com.robby.speech.core.index.SnapshotInput;
+import com.robby.speech.core.index.SnapshotOutput;
+import com.robby.speech.core.index.TextAnalyzer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BM25 over the text of each speech, with every keyword term counted {@value #KEYWORD_BOOST}
+ * times. The keyword terms of each speech are kept, so a change to the keywords alone swaps them
+ * without the text.
+ */
+@Component
+public class RankedSearchIndex implements SpeechIndex {
+
+    static final int KEYWORD_BOOST = 3;
+
+    private static final int SNAPSHOT_MAGIC = 0x52414E4B;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private Map<Long, List<String>> keywordTerms = new HashMap<>();
+
+    public List<InvertedIndex.Hit> search(String query, int limit) {
+        return index.search(TextAnalyzer.terms(query), limit);
+    }
+
+    @Override
+    public synchronized void put(SpeechDto speech) {
+        List<String> keywords = keywordTerms(speech);
+        List<String> terms = new ArrayList<>(TextAnalyzer.terms(speech.text()));
+        terms.addAll(boosted(keywords));
+        index.put(speech.id(), terms);
+        keywordTerms.put(speech.id(), keywords);
+    }
+
+    /**
+     * Swaps the keyword terms of an indexed speech. A speech that is not indexed yet is left for
+     * the outbox to bring in with its text.
+     */
+    @Override
+    public synchronized void putMetadata(SpeechDto speech) {
+        List<String> previous = keywordTerms.get(speech.id());
+        if (previous == null) {
+            return;
+        }
+        List<String> keywords = keywordTerms(speech);
+        index.replace(speech.id(), boosted(previous), boosted(keywords));
+        keywordTerms.put(speech.id(), keywords);
+    }
+
+    @Override
+    public synchronized void remove(Long id) {
+        index.remove(id);
+        keywordTerms.remove(id);
+    }
+
+    @Override
+    public String snapshotName() {
+        return "ranked";
+    }
+
+    @Override
+    public synchronized void writeSnapshot(Path file) throws IOException {
+        try (SnapshotOutput out = SnapshotOutput.create(file, SNAPSHOT_MAGIC, SNAPSHOT_VERSION)) {
+            out.writeInt(keywordTerms.size());
+            for (Map.Entry<Long, List<String>> entry : keywordTerms.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeVarLong(entry.getValue().size());
+                for (String term : entry.getValue()) {
+                    out.writeString(term);
+                }
+            }
+            index.writeTo(out);
+        }
+    }
+
+    @Override
+    public Runnable readSnapshot(Path file) throws IOException {
+        Map<Long, List<String>> restoredKeywords;
+        InvertedIndex restored;
+        try (SnapshotInput in = SnapshotInput.open(file, SNAPSHOT_MAGIC, SNAPSHOT_VERSION)) {
+            int count = in.readInt();
+            restoredKeywords = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                int termCount = (int) in.readVarLong();
+                List<String> terms = new ArrayList<>(termCount);
+                for (int t = 0; t < termCount; t++) {
+                    terms.add(in.readString());
+                }
+                restoredKeywords.put(id, List.copyOf(terms));
+            }
+            restored = InvertedIndex.readFrom(in);
+        }
+        return () -> {
+            synchronized (this) {
+                keywordTerms = restoredKeywords;
+                index = restored;
+            }
+        };
+    }
+
+    private static List<String> keywordTerms(SpeechDto speech) {
+        if (speech.keywords() == null) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String keyword : speech.keywords()) {
+            terms.addAll(TextAnalyzer.terms(keyword));
+        }
+        return List.copyOf(terms);
+    }
+
+    private static List<String> boosted(List<String> keywordTerms) {
+        List<String> terms = new ArrayList<>(keywordTerms.size() * KEYWORD_BOOST);
+        for (String term : keywordTerms) {
+            for (int i = 0; i < KEYWORD_BOOST; i++) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,89 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SpeechChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical concurrent {@code findById} and {@code search} calls, so a
+ * burst of equal reads costs one round of queries. Once a speech changes, reads already in flight
+ * are no longer joined, so a caller that saw its write commit never gets a result read before it.
+ *
+ * <p>Published as {@code speech.coalescing.executions}, {@code speech.coalescing.shared} and
+ * {@code speech.coalescing.wait-timeouts}, tagged with the operation, and
+ * {@code speech.coalescing.ratio}, the share of calls answered by another call's execution.
+ */
+@Component
+public class ReadCoalescer implements MeterBinder {
+
+    private final boolean enabled;
+    private final SingleFlight<Long, Optional<SpeechDto>> findById;
+    private final SingleFlight<Object, List<SpeechDto>> search;
+
+    public ReadCoalescer(
+        @Value("${speech.coalescing.enabled:true}") boolean enabled,
+        @Value("${speech.coalescing.max-wait-ms:2000}") long maxWaitMillis
+    ) {
+        this.enabled = enabled;
+        this.findById = new SingleFlight<>(Duration.ofMillis(maxWaitMillis));
+        this.search = new SingleFlight<>(Duration.ofMillis(maxWaitMillis));
+    }
+
+    public Optional<SpeechDto> findById(Long id, Supplier<Optional<SpeechDto>> call) {
+        return enabled ? findById.execute(id, call) : call.get();
+    }
+
+    /**
+     * Shares the result of searches with equal keys. The result is handed to every caller, so it
+     * is made unmodifiable.
+     */
+    public List<SpeechDto> search(Object key, Supplier<List<SpeechDto>> call) {
+        return enabled ? search.execute(key, () -> List.copyOf(call.get())) : call.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpeechChanged(SpeechChangedEvent event) {
+        findById.forget(event.id());
+        search.forgetAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map.of("findById", findById, "search", search).forEach((operation, flights) -> {
+            FunctionCounter.builder("speech.coalescing.executions", flights, SingleFlight::executions)
+                .description("Reads that queried the database")
+                .tag("operation", operation)
+                .register(registry);
+            FunctionCounter.builder("speech.coalescing.shared", flights, SingleFlight::shared)
+                .description("Reads answered by an identical read already in flight")
+                .tag("operation", operation)
+                .register(registry);
+            FunctionCounter.builder("speech.coalescing.wait-timeouts", flights, SingleFlight::waitTimeouts)
+                .description("Reads that stopped waiting for an identical read and queried themselves")
+                .tag("operation", operation)
+                .register(registry);
+            Gauge.builder("speech.coalescing.ratio", flights, ReadCoalescer::sharedRatio)
+                .description("Share of reads answered by an identical read already in flight")
+                .tag("operation", operation)
+                .register(registry);
+        });
+    }
+
+    private static double sharedRatio(SingleFlight<?, ?> flights) {
+        long shared = flights.shared();
+        long total = shared + flights.executions();
+        return total == 0 ? 0 : (double) shared / total;
+    }
+}
@@ -0,0 +1,51 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.core.ConfirmationRequiredException;
+import com.robby.speech.core.SearchTooBroadException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cost decisions for {@link SpeechServiceImpl#search}, made from cardinalities that are cheap to
+ * get: sizes of the id sets matched by the structured filters, the text index estimate and the
+ * table row count. Loading a whole result into memory is what costs heap and I/O, so every plan is
+ * checked against {@code speech.search.max-rows} before anything is loaded. Streamed searches
+ * hold one page at a time and are not limited. Bulk operations load nothing but ids; the same
+ * maximum makes them ask for confirmation, so a filter that matches far more than intended is
+ * caught before anything changes.
+ */
+@Component
+public class SearchPlanner {
+
+    private final int maxRows;
+
+    public SearchPlanner(@Value("${speech.search.max-rows:1000}") int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Whether to verify the speeches matched by the structured filters directly instead of
+     * intersecting them with text index candidates. Direct verification wins when the filters
+     * match no more speeches than the text index estimate, and is the only selective option for
+     * text shorter than a trigram.
+     */
+    public boolean verifyFilteredDirectly(int filteredRows, int textEstimate) {
+        return filteredRows <= textEstimate;
+    }
+
+    public void checkRows(long rows) {
+        if (rows > maxRows) {
+            throw new SearchTooBroadException(rows, maxRows);
+        }
+    }
+
+    /**
+     * Lets a bulk operation over {@code rows} speeches go ahead if they are no more than the
+     * maximum, or no more than the caller confirmed.
+     */
+    public void checkBulkRows(String operation, long rows, Long confirmedRows) {
+        if (rows > maxRows && (confirmedRows == null || rows > confirmedRows)) {
+            throw new ConfirmationRequiredException(operation, rows, maxRows);
+        }
+    }
+}
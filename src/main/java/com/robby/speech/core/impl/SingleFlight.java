@@ -0,0 +1,105 @@
+package com.robby.speech.core.impl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent calls with equal keys share one execution. The first caller runs the call;
+ * callers arriving while it runs wait for its result or exception instead of running their own.
+ * Nothing is kept once the call returns, so a result is never older than the call that
+ * produced it. A caller that has waited {@code maxWait} runs the call itself.
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+
+    SingleFlight(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = flights.putIfAbsent(key, flight);
+        if (running == null) {
+            return lead(key, flight, call);
+        }
+        try {
+            V result = running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            shared.increment();
+            return result;
+        } catch (ExecutionException e) {
+            shared.increment();
+            throw rethrow(e.getCause());
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executions.increment();
+        return call.get();
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> call) {
+        executions.increment();
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * Makes later callers with this key start a new execution instead of joining the running one.
+     */
+    void forget(K key) {
+        flights.remove(key);
+    }
+
+    void forgetAll() {
+        flights.clear();
+    }
+
+    /**
+     * Calls that ran the underlying call, as the first caller or after waiting too long.
+     */
+    long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * Calls answered with the result of another caller's execution.
+     */
+    long shared() {
+        return shared.sum();
+    }
+
+    long waitTimeouts() {
+        return waitTimeouts.sum();
+    }
+}
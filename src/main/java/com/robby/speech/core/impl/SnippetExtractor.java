@@ -0,0 +1,198 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.HighlightDto;
+import com.robby.speech.controller.dto.SnippetDto;
+import com.robby.speech.core.query.SpeechQuery;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cuts windows of context around the matches of search terms out of a speech text in one pass
+ * over a reader. Terms match ignoring case, like the text filter, each with its own KMP automaton
+ * advanced one character at a time, so nothing is allocated per match and the text is never
+ * copied or folded as a whole. Reading stops once {@link #MAX_SNIPPETS} windows are complete, so a
+ * compressed text is only inflated up to the last one.
+ *
+ * <p>Matches closer than the context to each other share a window. A text without any match gets
+ * a window of its start, so results of searches without a text filter still show some text.
+ */
+final class SnippetExtractor {
+
+    static final int CONTEXT_CHARS = 80;
+    static final int MAX_SNIPPETS = 3;
+
+    private static final int BUFFER_CHARS = 2048;
+
+    private final char[][] terms;
+    private final int[][] failures;
+    private final int longestTerm;
+
+    SnippetExtractor(Collection<String> terms) {
+        Set<String> folded = new LinkedHashSet<>();
+        for (String term : terms) {
+            if (term != null && !term.isBlank()) {
+                folded.add(fold(term));
+            }
+        }
+        this.terms = folded.stream().map(String::toCharArray).toArray(char[][]::new);
+        this.failures = new int[this.terms.length][];
+        int longest = 0;
+        for (int t = 0; t < this.terms.length; t++) {
+            failures[t] = failureTable(this.terms[t]);
+            longest = Math.max(longest, this.terms[t].length);
+        }
+        this.longestTerm = longest;
+    }
+
+    /**
+     * The text filters of the query that a matching speech may contain. Filters under a
+     * {@code NOT} are left out, since a matching speech does not contain them.
+     */
+    static List<String> highlightedTerms(SpeechQuery query) {
+        List<String> terms = new ArrayList<>();
+        collectTerms(query, terms);
+        return terms;
+    }
+
+    private static void collectTerms(SpeechQuery query, List<String> terms) {
+        if (query instanceof SpeechQuery.And and) {
+            and.clauses().forEach(clause -> collectTerms(clause, terms));
+        } else if (query instanceof SpeechQuery.Or or) {
+            or.clauses().forEach(clause -> collectTerms(clause, terms));
+        } else if (query instanceof SpeechQuery.Text text) {
+            terms.add(text.value());
+        }
+    }
+
+    List<SnippetDto> extract(Reader text) throws IOException {
+        Scan scan = new Scan();
+        char[] buffer = new char[BUFFER_CHARS];
+        int read;
+        while ((read = text.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                if (scan.accept(buffer[i])) {
+                    return scan.snippets;
+                }
+            }
+        }
+        return scan.finish();
+    }
+
+    // the folding of TrigramIndex, one character at a time
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static int[] failureTable(char[] term) {
+        int[] failure = new int[term.length];
+        int k = 0;
+        for (int i = 1; i < term.length; i++) {
+            while (k > 0 && term[i] != term[k]) {
+                k = failure[k - 1];
+            }
+            if (term[i] == term[k]) {
+                k++;
+            }
+            failure[i] = k;
+        }
+        return failure;
+    }
+
+    /**
+     * State of one pass over a text: the automata, the characters a window that opens now may
+     * still reach back to, and the window being filled.
+     */
+    private final class Scan {
+
+        private final int[] states = new int[terms.length];
+        private final char[] recent = new char[CONTEXT_CHARS + longestTerm];
+        private final StringBuilder lead = new StringBuilder();
+        private final List<SnippetDto> snippets = new ArrayList<>();
+        private int position;
+        private int closedEnd;
+        private StringBuilder window;
+        private int windowStart;
+        private int windowEnd;
+        private List<HighlightDto> highlights;
+
+        /**
+         * Takes the next character and returns whether the last snippet is complete.
+         */
+        private boolean accept(char c) {
+            int at = position++;
+            recent[at % recent.length] = c;
+            if (lead.length() < 2 * CONTEXT_CHARS) {
+                lead.append(c);
+            }
+            if (window != null) {
+                window.append(c);
+            }
+            char folded = fold(c);
+            for (int t = 0; t < terms.length; t++) {
+                char[] term = terms[t];
+                int state = states[t];
+                while (state > 0 && term[state] != folded) {
+                    state = failures[t][state - 1];
+                }
+                if (term[state] == folded) {
+                    state++;
+                }
+                if (state == term.length) {
+                    hit(position - term.length, position);
+                    state = failures[t][state - 1];
+                }
+                states[t] = state;
+            }
+            if (window != null && position >= windowEnd) {
+                close();
+                return snippets.size() == MAX_SNIPPETS;
+            }
+            return false;
+        }
+
+        private void hit(int start, int end) {
+            if (window == null) {
+                windowStart = Math.max(closedEnd, start - CONTEXT_CHARS);
+                window = new StringBuilder(end - windowStart + 2 * CONTEXT_CHARS);
+                for (int i = windowStart; i < position; i++) {
+                    window.append(recent[i % recent.length]);
+                }
+                highlights = new ArrayList<>();
+            }
+            highlights.add(new HighlightDto(start, end));
+            windowEnd = end + CONTEXT_CHARS;
+        }
+
+        private void close() {
+            highlights.sort(Comparator.comparingInt(HighlightDto::start));
+            snippets.add(new SnippetDto(windowStart, window.toString(), List.copyOf(highlights)));
+            closedEnd = position;
+            window = null;
+        }
+
+        private List<SnippetDto> finish() {
+            if (window != null) {
+                close();
+            }
+            if (snippets.isEmpty() && !lead.isEmpty()) {
+                snippets.add(new SnippetDto(0, lead.toString(), List.of()));
+            }
+            return snippets;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface SpeechIndex {
+
+    void put(SpeechDto speech);
+    void remove(Long id);
+
+    /**
+     * Applies a change to the author, email, date or keywords of a speech whose text did not
+     * change and was not loaded, so {@code speech.text()} is {@code null}. Indexes of the text
+     * alone have nothing to do.
+     */
+    default void putMetadata(SpeechDto speech) {
+    }
+
+    /**
+     * Called once the index holds every speech and has applied the outbox up to the moment it
+     * was caught up. Changes keep arriving after that, each within a poll interval.
+     */
+    default void caughtUp() {
+    }
+
+    /**
+     * Name of this index's file within a snapshot.
+     */
+    String snapshotName();
+
+    void writeSnapshot(Path file) throws IOException;
+
+    /**
+     * Reads a snapshot written by {@link #writeSnapshot(Path)}. Nothing changes until the
+     * returned action runs, which replaces the contents of this index with the snapshot's.
+     */
+    Runnable readSnapshot(Path file) throws IOException;
+}
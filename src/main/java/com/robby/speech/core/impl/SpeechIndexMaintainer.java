@@ -0,0 +1,206 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.changes.SpeechChangeFeed;
+import com.robby.speech.controller.dto.SpeechChangeDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SpeechChangedEvent;
+import com.robby.speech.repository.SpeechChangeRepository;
+import com.robby.speech.repository.SpeechRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-process indexes in step with the database. Changes committed by this instance are
+ * applied as their events arrive; every other change, whether made by another instance or written
+ * straight to the tables by {@code generateCorpus --output=db}, is read from the outbox, which a
+ * single thread tails every {@code speech.changes.poll-interval-ms}. Tailing re-reads each changed
+ * speech, so it also repairs an index entry an event or a scan wrote from an older read.
+ */
+@Slf4j
+@Component
+public class SpeechIndexMaintainer implements SmartLifecycle {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final SpeechRepository speechRepository;
+    private final SpeechChangeRepository changeRepository;
+    private final SpeechChangeFeed feed;
+    private final List<SpeechIndex> indexes;
+    private final SpeechIndexSnapshots snapshots;
+    private final TransactionOperations transactions;
+    private final long pollIntervalMillis;
+    private final Duration gapTimeout;
+    private volatile long cursor;
+    private volatile boolean bootstrapping = true;
+    private volatile ScheduledExecutorService executor;
+
+    public SpeechIndexMaintainer(
+        SpeechRepository speechRepository,
+        SpeechChangeRepository changeRepository,
+        SpeechChangeFeed feed,
+        List<SpeechIndex> indexes,
+        SpeechIndexSnapshots snapshots,
+        TransactionOperations transactions,
+        @Value("${speech.changes.poll-interval-ms:1000}") long pollIntervalMillis,
+        @Value("${speech.changes.gap-timeout-ms:5000}") long gapTimeoutMillis
+    ) {
+        this.speechRepository = speechRepository;
+        this.changeRepository = changeRepository;
+        this.feed = feed;
+        this.indexes = indexes;
+        this.snapshots = snapshots;
+        this.transactions = transactions;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMillis);
+    }
+
+    /**
+     * Restores the indexes from the latest snapshot, or scans every speech when there is no
+     * usable snapshot, then applies the outbox until it is caught up. Each page is read in a
+     * transaction of its own, so no persistence context ever holds more than one page of speeches
+     * and their texts. The application reports itself ready only once this returns.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long started = System.currentTimeMillis();
+        Optional<SpeechIndexSnapshots.Snapshot> snapshot = snapshots.read();
+        long replayed;
+        if (snapshot.isPresent()) {
+            snapshot.get().install().run();
+            replayed = catchUp(snapshot.get().watermark());
+            log.info("Restored {} indexes from the snapshot taken at {} and replayed {} changes in {} ms",
+                indexes.size(), snapshot.get().takenAt(), replayed, System.currentTimeMillis() - started);
+        } else {
+            // changes that commit while the scan runs, and any still running longer than the gap
+            // timeout before it, are replayed from the outbox afterwards
+            long watermark = changeRepository.findLatestSequenceBefore(Instant.now().minus(gapTimeout));
+            long indexed = scan();
+            replayed = catchUp(watermark);
+            log.info("Indexed {} speeches into {} indexes and replayed {} changes in {} ms",
+                indexed, indexes.size(), replayed, System.currentTimeMillis() - started);
+        }
+        bootstrapping = false;
+        indexes.forEach(SpeechIndex::caughtUp);
+        snapshots.indexesComplete(snapshot.isEmpty(), this::appliedThrough);
+    }
+
+    private long scan() {
+        long indexed = 0;
+        long lastId = 0;
+        List<SpeechDto> page;
+        do {
+            long after = lastId;
+            page = transactions.execute(status -> speechRepository
+                .findByIdGreaterThanOrderById(after, Limit.of(PAGE_SIZE)).stream()
+                .map(SpeechMapper::toDto)
+                .toList());
+            for (SpeechDto speech : page) {
+                lastId = speech.id();
+                indexes.forEach(index -> index.put(speech));
+                indexed++;
+            }
+        } while (page.size() == PAGE_SIZE);
+        return indexed;
+    }
+
+    private synchronized long catchUp(long watermark) {
+        cursor = watermark;
+        long replayed = 0;
+        int applied;
+        do {
+            applied = tail();
+            replayed += applied;
+        } while (applied == PAGE_SIZE);
+        return replayed;
+    }
+
+    /**
+     * Applies the next page of changes after the cursor, in sequence order, and returns how many
+     * there were. The feed holds changes after a gap back until the gap times out, so the cursor
+     * never passes a transaction that may still commit.
+     */
+    private synchronized int tail() {
+        List<SpeechChangeDto> changes = feed.changesAfter(cursor, PAGE_SIZE);
+        for (SpeechChangeDto change : changes) {
+            if (change.speech() == null) {
+                indexes.forEach(index -> index.remove(change.speechId()));
+            } else {
+                indexes.forEach(index -> index.put(change.speech()));
+            }
+            cursor = change.sequence();
+        }
+        return changes.size();
+    }
+
+    /**
+     * The outbox sequence every change up to has been applied through. Changes applied as their
+     * events arrive may be further ahead.
+     */
+    long appliedThrough() {
+        return cursor;
+    }
+
+    private void poll() {
+        if (bootstrapping) {
+            return;
+        }
+        try {
+            while (tail() == PAGE_SIZE) {
+                // keeps going until the outbox is drained
+            }
+        } catch (RuntimeException e) {
+            log.warn("Applying speech changes to the indexes failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpeechChanged(SpeechChangedEvent event) {
+        if (event.type() == SpeechChangedEvent.ChangeType.DELETED) {
+            indexes.forEach(index -> index.remove(event.id()));
+        } else if (event.textUnchanged()) {
+            indexes.forEach(index -> index.putMetadata(event.speech()));
+        } else {
+            indexes.forEach(index -> index.put(event.speech()));
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService started = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "speech-index-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        started.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        executor = started;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -0,0 +1,264 @@
+package com.robby.speech.core.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Persists the in-process indexes to {@code speech.index.snapshot.directory} so a restart reads
+ * them back instead of scanning every speech. Each snapshot is a generation directory holding one
+ * file per index; {@value #MANIFEST} names the current generation and is replaced atomically once
+ * the files it names are flushed to disk, so a crash while writing leaves the previous snapshot in
+ * place.
+ *
+ * <p>A snapshot records the outbox sequence it is complete up to: the sequence the indexes have
+ * applied the outbox through when the snapshot starts, which never passes a transaction that may
+ * still commit, however long it runs or whenever its change was stamped. Restoring replays the
+ * outbox after it. Snapshots older than {@code speech.changes.retention-hours} are ignored, since
+ * the changes after them may have been purged.
+ */
+@Slf4j
+@Component
+public class SpeechIndexSnapshots implements SmartLifecycle {
+
+    static final String MANIFEST = "manifest.properties";
+    private static final String FORMAT = "1";
+    private static final String GENERATION_PREFIX = "snapshot-";
+
+    private final List<SpeechIndex> indexes;
+    private final Path directory;
+    private final long intervalMinutes;
+    private final Duration gapTimeout;
+    private final Duration retention;
+    private volatile LongSupplier appliedThrough;
+    private volatile ScheduledExecutorService executor;
+
+    public SpeechIndexSnapshots(
+        List<SpeechIndex> indexes,
+        @Value("${speech.index.snapshot.directory:}") String directory,
+        @Value("${speech.index.snapshot.interval-minutes:60}") long intervalMinutes,
+        @Value("${speech.changes.gap-timeout-ms:5000}") long gapTimeoutMillis,
+        @Value("${speech.changes.retention-hours:168}") long retentionHours
+    ) {
+        this.indexes = indexes;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.intervalMinutes = intervalMinutes;
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMillis);
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * A snapshot read from disk. Running {@code install} replaces the contents of every index;
+     * changes after {@code watermark} still have to be replayed from the outbox.
+     */
+    public record Snapshot(long watermark, Instant takenAt, Runnable install) {
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Reads the current snapshot, or returns empty if there is none or it cannot be used, in
+     * which case the indexes have to be built by scanning.
+     */
+    public Optional<Snapshot> read() {
+        if (directory == null) {
+            return Optional.empty();
+        }
+        Path manifestFile = directory.resolve(MANIFEST);
+        if (!Files.exists(manifestFile)) {
+            log.info("No index snapshot in {}", directory);
+            return Optional.empty();
+        }
+        try {
+            Properties manifest = new Properties();
+            try (Reader reader = Files.newBufferedReader(manifestFile)) {
+                manifest.load(reader);
+            }
+            if (!FORMAT.equals(manifest.getProperty("format"))) {
+                log.warn("Ignoring index snapshot with format {}", manifest.getProperty("format"));
+                return Optional.empty();
+            }
+            Instant takenAt = Instant.parse(manifest.getProperty("taken-at"));
+            if (takenAt.isBefore(Instant.now().minus(retention))) {
+                log.info("Ignoring index snapshot taken at {}, changes since may have been purged", takenAt);
+                return Optional.empty();
+            }
+            long watermark = Long.parseLong(manifest.getProperty("watermark"));
+            Path generation = directory.resolve(manifest.getProperty("generation"));
+            List<Runnable> installs = new ArrayList<>(indexes.size());
+            for (SpeechIndex index : indexes) {
+                installs.add(index.readSnapshot(generation.resolve(index.snapshotName() + ".snap")));
+            }
+            return Optional.of(new Snapshot(watermark, takenAt, () -> installs.forEach(Runnable::run)));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot read index snapshot from {}, scanning instead", directory, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a new snapshot of every index and makes it the current one. Does nothing while
+     * snapshots are disabled or the indexes are still being built.
+     */
+    public synchronized void write() throws IOException {
+        LongSupplier applied = appliedThrough;
+        if (directory == null || applied == null) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        // read before the indexes, so every change up to it is in the files; the retention check
+        // counts from before the gap timeout, the oldest a change after it can be stamped
+        long watermark = applied.getAsLong();
+        Instant takenAt = Instant.ofEpochMilli(started).minus(gapTimeout);
+        String generationName = GENERATION_PREFIX + started;
+        Path generation = Files.createDirectories(directory.resolve(generationName));
+        for (SpeechIndex index : indexes) {
+            Path file = generation.resolve(index.snapshotName() + ".snap");
+            index.writeSnapshot(file);
+            force(file);
+        }
+        forceDirectory(generation);
+
+        Properties manifest = new Properties();
+        manifest.setProperty("format", FORMAT);
+        manifest.setProperty("generation", generationName);
+        manifest.setProperty("watermark", String.valueOf(watermark));
+        manifest.setProperty("taken-at", takenAt.toString());
+        Path pending = directory.resolve(MANIFEST + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(pending)) {
+            manifest.store(writer, null);
+        }
+        force(pending);
+        forceDirectory(directory);
+        Files.move(pending, directory.resolve(MANIFEST),
+            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(directory);
+        deleteGenerationsExcept(generationName);
+        log.info("Wrote index snapshot {} up to change {} in {} ms",
+            generationName, watermark, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Called once the indexes hold every speech, with the outbox sequence they have applied every
+     * change through from then on. After a full scan a snapshot is written right away, so the next
+     * start does not have to scan again.
+     */
+    public void indexesComplete(boolean scanned, LongSupplier appliedThrough) {
+        this.appliedThrough = appliedThrough;
+        ScheduledExecutorService current = executor;
+        if (scanned && current != null) {
+            current.execute(this::writeLogged);
+        }
+    }
+
+    private void writeLogged() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Writing index snapshot to {} failed", directory, e);
+        }
+    }
+
+    /**
+     * Flushes a file to disk. Without this the rename of the manifest can reach the disk before
+     * the data it points to, and a crash leaves a manifest naming empty or partial files.
+     */
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    // flushes the entries of a directory, so files created or renamed in it survive a crash
+    private static void forceDirectory(Path path) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // some platforms, Windows among them, cannot open a directory to flush it
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    // files of older generations may still be mapped; on most platforms they live on until unmapped
+    private void deleteGenerationsExcept(String current) {
+        try (DirectoryStream<Path> generations = Files.newDirectoryStream(directory, GENERATION_PREFIX + "*")) {
+            for (Path generation : generations) {
+                if (!generation.getFileName().toString().equals(current)) {
+                    deleteRecursively(generation);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot delete old index snapshots in {}", directory, e);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (directory == null) {
+            return;
+        }
+        ScheduledExecutorService started = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "speech-index-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        started.scheduleWithFixedDelay(this::writeLogged, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        executor = started;
+    }
+
+    /**
+     * Writes a final snapshot, so a clean restart replays no more than the changes made while it
+     * was down.
+     */
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+            writeLogged();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -1,11 +1,16 @@
 package com.robby.speech.core.impl;
 
 import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.controller.dto.SpeechHitDto;
 import com.robby.speech.model.Speech;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -18,7 +23,60 @@ public final class SpeechMapper {
         if (speech == null) {
             return null;
         }
+        MappingTimer timer = MappingTimer.current();
+        if (timer == null) {
+            return map(speech);
+        }
+        long started = System.nanoTime();
+        try {
+            return map(speech);
+        } finally {
+            timer.add(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Maps a search result with snippets in place of the text, read from the stored text as far
+     * as the snippets reach.
+     */
+    static SpeechHitDto toHit(Speech speech, SnippetExtractor snippets) {
+        MappingTimer timer = MappingTimer.current();
+        long started = System.nanoTime();
+        try (Reader text = speech.textReader()) {
+            return new SpeechHitDto(
+                speech.getId(),
+                speech.getAuthor(),
+                speech.getAuthorEmail(),
+                new ArrayList<>(Optional.ofNullable(speech.getKeywords())
+                    .orElse(Collections.emptySet())),
+                speech.getSpeechDate(),
+                text == null ? List.of() : snippets.extract(text)
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (timer != null) {
+                timer.add(System.nanoTime() - started);
+            }
+        }
+    }
+
+    /**
+     * Maps everything but the text, without loading the body.
+     */
+    public static SpeechDto toDtoWithoutText(Speech speech) {
+        return new SpeechDto(
+            speech.getId(),
+            null,
+            speech.getAuthor(),
+            speech.getAuthorEmail(),
+            new ArrayList<>(Optional.ofNullable(speech.getKeywords())
+                .orElse(Collections.emptySet())),
+            speech.getSpeechDate()
+        );
+    }
 
+    private static SpeechDto map(Speech speech) {
         return new SpeechDto(
             speech.getId(),
             speech.getText(),
@@ -0,0 +1,255 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.core.index.TrigramIndex;
+import com.robby.speech.core.query.SpeechQuery;
+import com.robby.speech.model.Speech;
+import com.robby.speech.repository.SpeechRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Turns a {@link SpeechQuery} into the ids a search has to load. Every subtree without a text
+ * filter is answered by one SQL statement; text filters are answered from the trigram index, and
+ * the partial results are combined with set operations.
+ *
+ * <p>Clauses of an {@code AND} are evaluated cheapest first and each one only within what the
+ * previous ones matched: the database part first, then text filters by their index estimate, then
+ * negations. Once few enough speeches are left, later database parts are restricted to them, and
+ * text filters are not looked up at all when checking those speeches is cheaper, as in
+ * {@link SearchPlanner#verifyFilteredDirectly}. Text candidates are only a superset, so when a
+ * query uses text the loaded speeches are checked against the whole query.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpeechQueryPlanner {
+
+    // larger id sets are intersected in memory rather than sent as an IN list
+    private static final int MAX_RESTRICTING_IDS = 1000;
+
+    private final SpeechRepository speechRepository;
+    private final TextSearchIndex textSearchIndex;
+    private final SearchPlanner searchPlanner;
+
+    /**
+     * What a search has to load: the listed ids, or every speech except the excluded ones when
+     * {@code ids} is null, and whether the loaded speeches still have to be checked against the
+     * query.
+     */
+    public record Plan(SpeechQuery query, Set<Long> ids, Set<Long> excluded, boolean verify) {
+
+        public Stream<Speech> filter(Stream<Speech> speeches) {
+            Stream<Speech> kept = excluded.isEmpty() ? speeches : speeches.filter(speech -> !excluded.contains(speech.getId()));
+            return verify ? kept.filter(speech -> matches(query, speech)) : kept;
+        }
+    }
+
+    public Plan plan(SpeechQuery query) {
+        Matches matches = evaluate(query, null);
+        return matches.complement
+            ? new Plan(query, null, matches.ids, !matches.exact)
+            : new Plan(query, matches.ids, Set.of(), !matches.exact);
+    }
+
+    /**
+     * Whether the speech matches the query, evaluated in memory with the same semantics as the
+     * database and the text index.
+     */
+    public static boolean matches(SpeechQuery query, Speech speech) {
+        if (query instanceof SpeechQuery.And and) {
+            return and.clauses().stream().allMatch(clause -> matches(clause, speech));
+        } else if (query instanceof SpeechQuery.Or or) {
+            return or.clauses().stream().anyMatch(clause -> matches(clause, speech));
+        } else if (query instanceof SpeechQuery.Not not) {
+            return !matches(not.clause(), speech);
+        } else if (query instanceof SpeechQuery.Author author) {
+            return containsIgnoreCase(speech.getAuthor(), author.value());
+        } else if (query instanceof SpeechQuery.Keyword keyword) {
+            return speech.getKeywords().stream().anyMatch(k -> containsIgnoreCase(k, keyword.value()));
+        } else if (query instanceof SpeechQuery.DateRange range) {
+            return range.contains(speech.getSpeechDate());
+        } else {
+            return TrigramIndex.containsIgnoreCase(speech.getText(), ((SpeechQuery.Text) query).value());
+        }
+    }
+
+    private static boolean containsIgnoreCase(String value, String part) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(part.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Evaluates {@code query} as far as it matters within {@code within}; outside of it the
+     * result is meaningless. {@code null} stands for every speech.
+     */
+    private Matches evaluate(SpeechQuery query, Set<Long> within) {
+        if (!query.usesText()) {
+            return Matches.exact(findIds(query, within));
+        }
+        if (query instanceof SpeechQuery.And and) {
+            return evaluateAnd(and.clauses(), within);
+        } else if (query instanceof SpeechQuery.Or or) {
+            return evaluateOr(or.clauses(), within);
+        } else if (query instanceof SpeechQuery.Not not) {
+            return evaluate(not.clause(), within).not();
+        } else {
+            return evaluateText(((SpeechQuery.Text) query).value(), within);
+        }
+    }
+
+    private Matches evaluateAnd(List<SpeechQuery> clauses, Set<Long> within) {
+        List<SpeechQuery> database = clauses.stream().filter(clause -> !clause.usesText()).toList();
+        List<SpeechQuery> rest = new ArrayList<>(clauses.stream().filter(SpeechQuery::usesText).toList());
+        rest.sort(Comparator.comparing((SpeechQuery clause) -> clause instanceof SpeechQuery.Not)
+            .thenComparingLong(this::estimate));
+
+        Matches result = database.isEmpty()
+            ? Matches.all(true)
+            : Matches.exact(findIds(SpeechQuery.and(database), within));
+        for (SpeechQuery clause : rest) {
+            Set<Long> remaining = result.complement ? within : result.ids;
+            if (remaining != null && remaining.isEmpty()) {
+                return Matches.exact(Set.of());
+            }
+            result = result.and(evaluate(clause, remaining));
+        }
+        return result;
+    }
+
+    private Matches evaluateOr(List<SpeechQuery> clauses, Set<Long> within) {
+        List<SpeechQuery> database = clauses.stream().filter(clause -> !clause.usesText()).toList();
+        Matches result = database.isEmpty()
+            ? Matches.exact(Set.of())
+            : Matches.exact(findIds(SpeechQuery.or(database), within));
+        for (SpeechQuery clause : clauses) {
+            if (clause.usesText()) {
+                result = result.or(evaluate(clause, within));
+            }
+        }
+        return result;
+    }
+
+    private Matches evaluateText(String text, Set<Long> within) {
+        if (within != null && searchPlanner.verifyFilteredDirectly(within.size(), textSearchIndex.estimate(text))) {
+            return Matches.superset(within);
+        }
+        Set<Long> candidates = new HashSet<>(textSearchIndex.candidates(text));
+        if (within != null) {
+            candidates.retainAll(within);
+        }
+        return Matches.superset(candidates);
+    }
+
+    private Set<Long> findIds(SpeechQuery query, Set<Long> within) {
+        if (within != null && within.isEmpty()) {
+            return Set.of();
+        }
+        if (within != null && within.size() <= MAX_RESTRICTING_IDS) {
+            return new HashSet<>(speechRepository.findIdsMatching(query, within));
+        }
+        Set<Long> ids = new HashSet<>(speechRepository.findIdsMatching(query, null));
+        if (within != null) {
+            ids.retainAll(within);
+        }
+        return ids;
+    }
+
+    /**
+     * Upper bound on the speeches a clause with a text filter matches, from the text index alone.
+     */
+    private long estimate(SpeechQuery query) {
+        if (query instanceof SpeechQuery.Text text) {
+            return textSearchIndex.estimate(text.value());
+        } else if (query instanceof SpeechQuery.And and) {
+            return and.clauses().stream().filter(SpeechQuery::usesText).mapToLong(this::estimate).min().orElse(Long.MAX_VALUE);
+        } else if (query instanceof SpeechQuery.Or or) {
+            return or.clauses().stream().anyMatch(clause -> !clause.usesText())
+                ? Long.MAX_VALUE
+                : or.clauses().stream().mapToLong(this::estimate).reduce(0, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * A set of ids, or everything except a set of ids, that matches a query exactly or is a
+     * superset of its matches.
+     */
+    private static final class Matches {
+
+        private final Set<Long> ids;
+        private final boolean complement;
+        private final boolean exact;
+
+        private Matches(Set<Long> ids, boolean complement, boolean exact) {
+            this.ids = ids;
+            this.complement = complement;
+            this.exact = exact;
+        }
+
+        static Matches exact(Set<Long> ids) {
+            return new Matches(ids, false, true);
+        }
+
+        static Matches superset(Set<Long> ids) {
+            return new Matches(ids, false, false);
+        }
+
+        static Matches all(boolean exact) {
+            return new Matches(Set.of(), true, exact);
+        }
+
+        Matches not() {
+            return exact ? new Matches(ids, !complement, true) : all(false);
+        }
+
+        Matches and(Matches other) {
+            boolean bothExact = exact && other.exact;
+            if (!complement && !other.complement) {
+                return new Matches(intersection(ids, other.ids), false, bothExact);
+            } else if (!complement) {
+                return new Matches(difference(ids, other.ids), false, bothExact);
+            } else if (!other.complement) {
+                return new Matches(difference(other.ids, ids), false, bothExact);
+            }
+            return new Matches(union(ids, other.ids), true, bothExact);
+        }
+
+        Matches or(Matches other) {
+            boolean bothExact = exact && other.exact;
+            if (!complement && !other.complement) {
+                return new Matches(union(ids, other.ids), false, bothExact);
+            } else if (!complement) {
+                return new Matches(difference(other.ids, ids), true, bothExact);
+            } else if (!other.complement) {
+                return new Matches(difference(ids, other.ids), true, bothExact);
+            }
+            return new Matches(intersection(ids, other.ids), true, bothExact);
+        }
+
+        private static Set<Long> intersection(Set<Long> a, Set<Long> b) {
+            Set<Long> smaller = a.size() <= b.size() ? a : b;
+            Set<Long> larger = smaller == a ? b : a;
+            Set<Long> result = new HashSet<>(smaller);
+            result.retainAll(larger);
+            return result;
+        }
+
+        private static Set<Long> union(Set<Long> a, Set<Long> b) {
+            Set<Long> result = new HashSet<>(a);
+            result.addAll(b);
+            return result;
+        }
+
+        private static Set<Long> difference(Set<Long> a, Set<Long> b) {
+            Set<Long> result = new HashSet<>(a);
+            result.removeAll(b);
+            return result;
+        }
+    }
+}
@@ -1,28 +1,71 @@
 package com.robby.speech.core.impl;
 
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SimilarSpeechDto;
 import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.controller.dto.SpeechHitDto;
+import com.robby.speech.controller.dto.SpeechPatchDto;
+import com.robby.speech.controller.dto.SuggestionDto;
+import com.robby.speech.core.FilterRequiredException;
+import com.robby.speech.core.InvalidPatchException;
+import com.robby.speech.core.SpeechChangedEvent;
+import com.robby.speech.core.SuggestionField;
+import com.robby.speech.core.index.InvertedIndex;
+import com.robby.speech.core.index.TrigramIndex;
+import com.robby.speech.core.query.SpeechQuery;
 import com.robby.speech.model.Speech;
+import com.robby.speech.model.SpeechChange;
+import com.robby.speech.model.SpeechText;
+import com.robby.speech.repository.SpeechChangeRepository;
 import com.robby.speech.repository.SpeechRepository;
 import com.robby.speech.core.SpeechService;
+import com.robby.speech.core.SpeechTextSource;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class SpeechServiceImpl implements SpeechService {
 
+    private static final int MAX_RANKED_RESULTS = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int STREAM_PAGE_SIZE = 500;
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final SpeechRepository speechRepository;
+    private final SpeechChangeRepository changeRepository;
+    private final RankedSearchIndex rankedSearchIndex;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final TextSearchIndex textSearchIndex;
+    private final SearchPlanner searchPlanner;
+    private final SpeechQueryPlanner queryPlanner;
+    private final ReadCoalescer readCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactions;
 
     @Override
     public List<SpeechDto> findAll() {
@@ -31,11 +74,25 @@ public class SpeechServiceImpl implements SpeechService {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<SpeechDto> streamAll() {
+        return allInPages().map(SpeechMapper::toDto);
+    }
+
     @Override
     public SpeechDto create(SpeechDto dto) {
-        return SpeechMapper.toDto(speechRepository.save(
+        Optional<SpeechDto> duplicate = nearDuplicateIndex.findDuplicateOnIngest(dto.text())
+            .flatMap(speechRepository::findById)
+            .map(SpeechMapper::toDto);
+        if (duplicate.isPresent()) {
+            return duplicate.get();
+        }
+        SpeechDto created = SpeechMapper.toDto(speechRepository.save(
             SpeechMapper.fromDto(dto)
         ));
+        recordChange(SpeechChange.Type.SAVED, created.id());
+        eventPublisher.publishEvent(SpeechChangedEvent.saved(created));
+        return created;
     }
 
     @Override
@@ -52,30 +109,202 @@ public class SpeechServiceImpl implements SpeechService {
                     existing.setAuthorEmail(dto.authorEmail());
                 }
                 if (dto.keywords() != null) {
-                    existing.setKeywords(new HashSet<>(dto.keywords()));
+                    // edit the loaded collection so only keywords that actually change are written
+                    Set<String> keywords = new HashSet<>(dto.keywords());
+                    existing.getKeywords().retainAll(keywords);
+                    existing.getKeywords().addAll(keywords);
                 }
                 if (dto.speechDate() != null) {
                     existing.setSpeechDate(dto.speechDate());
                 }
-                return SpeechMapper.toDto(speechRepository.save(existing));
+                SpeechDto updated = SpeechMapper.toDto(speechRepository.save(existing));
+                recordChange(SpeechChange.Type.SAVED, id);
+                eventPublisher.publishEvent(SpeechChangedEvent.saved(updated));
+                return updated;
             });
     }
 
+    @Override
+    public Optional<SpeechDto> patch(Long id, SpeechPatchDto patch) {
+        validate(patch);
+        if (!speechRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        if (patch.text() != null) {
+            speechRepository.updateText(id, SpeechText.of(patch.text()));
+        }
+        applyPatch(List.of(id), patch);
+        recordChange(SpeechChange.Type.SAVED, id);
+        SpeechDto patched = speechRepository.findById(id).map(SpeechMapper::toDto).orElseThrow();
+        eventPublisher.publishEvent(SpeechChangedEvent.saved(patched));
+        return Optional.of(patched);
+    }
+
+    /**
+     * Commits every chunk on its own, so locks are held briefly and the outbox rows of a large
+     * patch become visible to the change feed as it goes, instead of all at once behind a
+     * sequence gap.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int patchMatching(
+        String author, LocalDate from, LocalDate to, String keyword, Long confirmedRows, SpeechPatchDto patch) {
+        validate(patch);
+        if (patch.text() != null) {
+            throw new InvalidPatchException("A bulk patch cannot set the text");
+        }
+        List<List<Long>> chunks = matchingInChunks(author, from, to, keyword, confirmedRows, "A bulk patch");
+        int patched = 0;
+        for (List<Long> chunk : chunks) {
+            patched += transactions.execute(status -> {
+                applyPatch(chunk, patch);
+                int recorded = changeRepository.recordSaved(chunk, Instant.now());
+                // the in-memory indexes are kept current from the events, so they need the new
+                // state; a bulk patch never changes the text, so the bodies are not loaded
+                speechRepository.findAllWithoutBodyById(chunk).stream()
+                    .map(SpeechMapper::toDtoWithoutText)
+                    .forEach(dto -> eventPublisher.publishEvent(SpeechChangedEvent.savedWithoutText(dto)));
+                return recorded;
+            });
+        }
+        return patched;
+    }
+
+    private static void validate(SpeechPatchDto patch) {
+        if (patch.keywords() != null && (patch.addKeywords() != null || patch.removeKeywords() != null)) {
+            throw new InvalidPatchException("keywords replaces all keywords and cannot be combined with "
+                + "addKeywords or removeKeywords");
+        }
+    }
+
+    private void applyPatch(List<Long> ids, SpeechPatchDto patch) {
+        if (patch.keywords() != null) {
+            Set<String> keywords = new LinkedHashSet<>(patch.keywords());
+            if (keywords.isEmpty()) {
+                speechRepository.removeAllKeywords(ids);
+            } else {
+                speechRepository.removeKeywordsExcept(ids, keywords);
+                keywords.forEach(added -> speechRepository.addKeyword(ids, added));
+            }
+        }
+        if (patch.removeKeywords() != null && !patch.removeKeywords().isEmpty()) {
+            speechRepository.removeKeywords(ids, new HashSet<>(patch.removeKeywords()));
+        }
+        if (patch.addKeywords() != null) {
+            new LinkedHashSet<>(patch.addKeywords()).forEach(added -> speechRepository.addKeyword(ids, added));
+        }
+        speechRepository.updateFields(ids, patch.author(), patch.authorEmail(), patch.speechDate());
+    }
+
     @Override
     public boolean delete(Long id) {
-        if (speechRepository.existsById(id)) {
-            speechRepository.deleteById(id);
-            return true;
+        if (speechRepository.deleteWithBodies(List.of(id)).isEmpty()) {
+            return false;
         }
-        return false;
+        recordChange(SpeechChange.Type.DELETED, id);
+        eventPublisher.publishEvent(SpeechChangedEvent.deleted(id));
+        return true;
     }
 
+    /**
+     * Deletes in chunks that each commit on their own, like {@link #patchMatching}. Nothing is
+     * loaded: each chunk is one outbox insert for the speeches that still exist and one delete per
+     * table.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int deleteMatching(String author, LocalDate from, LocalDate to, String keyword, Long confirmedRows) {
+        List<List<Long>> chunks = matchingInChunks(author, from, to, keyword, confirmedRows, "A bulk delete");
+        int deleted = 0;
+        for (List<Long> chunk : chunks) {
+            deleted += transactions.execute(status -> {
+                changeRepository.recordDeleted(chunk, Instant.now());
+                List<Long> removed = speechRepository.deleteWithBodies(chunk);
+                removed.forEach(id -> eventPublisher.publishEvent(SpeechChangedEvent.deleted(id)));
+                return removed.size();
+            });
+        }
+        return deleted;
+    }
+
+    private List<List<Long>> matchingInChunks(
+        String author,
+        LocalDate from,
+        LocalDate to,
+        String keyword,
+        Long confirmedRows,
+        String operation
+    ) {
+        SpeechQuery query = SpeechQuery.of(author, from, to, keyword, null, null);
+        if (query == null) {
+            throw new FilterRequiredException(operation);
+        }
+        // one statement for all filters, with wildcards in author and keyword matching themselves
+        List<Long> ids = speechRepository.findIdsMatching(query, null).stream().sorted().toList();
+        searchPlanner.checkBulkRows(operation, ids.size(), confirmedRows);
+        return IntStream.range(0, (ids.size() + BULK_CHUNK_SIZE - 1) / BULK_CHUNK_SIZE)
+            .mapToObj(chunk -> ids.subList(chunk * BULK_CHUNK_SIZE, Math.min(ids.size(), (chunk + 1) * BULK_CHUNK_SIZE)))
+            .toList();
+    }
+
+    /**
+     * Writes the outbox row for the change feed. It commits or rolls back together with the
+     * change itself.
+     */
+    private void recordChange(SpeechChange.Type type, Long id) {
+        changeRepository.save(new SpeechChange(type, id, Instant.now()));
+    }
+
+    /**
+     * Runs outside of a transaction, so callers waiting for an identical read in flight do not
+     * hold a connection; the read itself gets one from {@code transactions}.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<SpeechDto> findById(Long id) {
-        return speechRepository.findById(id).map(SpeechMapper::toDto);
+        return readCoalescer.findById(id, () -> transactions.execute(status ->
+            speechRepository.findById(id).map(SpeechMapper::toDto)));
+    }
+
+    /**
+     * Only the first chunk is read here; the rest is read by the returned source, each chunk in a
+     * transaction of its own.
+     */
+    @Override
+    public Optional<SpeechTextSource> findText(Long id) {
+        return ChunkedSpeechText.open(id, speechRepository, transactions);
     }
 
     @Override
+    public MultiGetResultDto findAllById(List<Long> ids) {
+        Set<Long> distinct = ids.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        searchPlanner.checkRows(distinct.size());
+        if (distinct.isEmpty()) {
+            return new MultiGetResultDto(List.of(), List.of());
+        }
+
+        Map<Long, Speech> found = speechRepository.findAllById(distinct).stream()
+            .collect(Collectors.toMap(Speech::getId, speech -> speech));
+        List<SpeechDto> speeches = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            Speech speech = found.get(id);
+            if (speech == null) {
+                missing.add(id);
+            } else {
+                speeches.add(SpeechMapper.toDto(speech));
+            }
+        }
+        return new MultiGetResultDto(speeches, missing);
+    }
+
+    /**
+     * Coalesced like {@link #findById}.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<SpeechDto> search(
         String author,
         LocalDate from,
@@ -83,58 +312,216 @@ public class SpeechServiceImpl implements SpeechService {
         String keyword,
         String text
     ) {
+        return readCoalescer.search(Arrays.asList(author, from, to, keyword, text),
+            () -> transactions.execute(status -> searchInTransaction(author, from, to, keyword, text)));
+    }
+
+    private List<SpeechDto> searchInTransaction(
+        String author,
+        LocalDate from,
+        LocalDate to,
+        String keyword,
+        String text
+    ) {
+        return matching(author, from, to, keyword, text)
+            .map(SpeechMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<SpeechHitDto> searchSnippets(
+        String author,
+        LocalDate from,
+        LocalDate to,
+        String keyword,
+        String text
+    ) {
+        SnippetExtractor snippets = new SnippetExtractor(Collections.singletonList(text));
+        return matching(author, from, to, keyword, text)
+            .map(speech -> SpeechMapper.toHit(speech, snippets))
+            .collect(Collectors.toList());
+    }
+
+    private Stream<Speech> matching(
+        String author,
+        LocalDate from,
+        LocalDate to,
+        String keyword,
+        String text
+    ) {
+        Set<Long> ids = plan(author, from, to, keyword, text);
+        searchPlanner.checkRows(ids == null ? speechRepository.count() : ids.size());
+
+        List<Speech> results;
+        if (ids == null) {
+            results = speechRepository.findAll();
+        } else if (ids.isEmpty()) {
+            results = Collections.emptyList();
+        } else {
+            results = speechRepository.findAllById(ids);
+        }
+        return containingText(results.stream(), text);
+    }
+
+    @Override
+    public Stream<SpeechDto> streamSearch(
+        String author,
+        LocalDate from,
+        LocalDate to,
+        String keyword,
+        String text
+    ) {
+        Set<Long> ids = plan(author, from, to, keyword, text);
+        Stream<Speech> results = ids == null ? allInPages() : inPages(ids);
+        return containingText(results, text).map(SpeechMapper::toDto);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SpeechDto> search(SpeechQuery query) {
+        return readCoalescer.search(query, () -> transactions.execute(status -> searchInTransaction(query)));
+    }
+
+    private List<SpeechDto> searchInTransaction(SpeechQuery query) {
+        return matching(query)
+            .map(SpeechMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<SpeechHitDto> searchSnippets(SpeechQuery query) {
+        SnippetExtractor snippets = new SnippetExtractor(SnippetExtractor.highlightedTerms(query));
+        return matching(query)
+            .map(speech -> SpeechMapper.toHit(speech, snippets))
+            .collect(Collectors.toList());
+    }
+
+    private Stream<Speech> matching(SpeechQuery query) {
+        SpeechQueryPlanner.Plan plan = queryPlanner.plan(query);
+        searchPlanner.checkRows(plan.ids() == null
+            ? speechRepository.count() - plan.excluded().size()
+            : plan.ids().size());
+
+        List<Speech> results;
+        if (plan.ids() == null) {
+            results = speechRepository.findAll();
+        } else if (plan.ids().isEmpty()) {
+            results = Collections.emptyList();
+        } else {
+            results = speechRepository.findAllById(plan.ids());
+        }
+        return plan.filter(results.stream());
+    }
+
+    @Override
+    public Stream<SpeechDto> streamSearch(SpeechQuery query) {
+        SpeechQueryPlanner.Plan plan = queryPlanner.plan(query);
+        return plan.filter(plan.ids() == null ? allInPages() : inPages(plan.ids())).map(SpeechMapper::toDto);
+    }
+
+    /**
+     * Ids of the speeches a search has to load, or {@code null} if it has to load all of them.
+     * When there is a text filter the loaded speeches still have to be checked for the text.
+     */
+    private Set<Long> plan(String author, LocalDate from, LocalDate to, String keyword, String text) {
         List<Set<Long>> idSets = new ArrayList<>();
 
         if (author != null && !author.isBlank()) {
-            idSets.add(speechRepository.findByAuthorContainingIgnoreCase(author)
-                .stream()
-                .map(Speech::getId)
-                .collect(Collectors.toSet()));
+            idSets.add(new HashSet<>(speechRepository.findIdsByAuthorContainingIgnoreCase(author)));
         }
         if (from != null && to != null) {
-            idSets.add(speechRepository.findBySpeechDateBetween(from, to)
-                .stream()
-                .map(Speech::getId)
-                .collect(Collectors.toSet()));
+            idSets.add(new HashSet<>(speechRepository.findIdsBySpeechDateBetween(from, to)));
         } else if (from != null) {
-            idSets.add(speechRepository.findBySpeechDateGreaterThanEqual(from)
-                .stream()
-                .map(Speech::getId)
-                .collect(Collectors.toSet()));
+            idSets.add(new HashSet<>(speechRepository.findIdsBySpeechDateGreaterThanEqual(from)));
         } else if (to != null) {
-            idSets.add(speechRepository.findBySpeechDateLessThanEqual(to)
-                .stream()
-                .map(Speech::getId)
-                .collect(Collectors.toSet()));
+            idSets.add(new HashSet<>(speechRepository.findIdsBySpeechDateLessThanEqual(to)));
         }
         if (keyword != null && !keyword.isBlank()) {
-            idSets.add(speechRepository.findByKeywordLikeIgnoreCase(keyword)
-                .stream()
-                .map(Speech::getId)
-                .collect(Collectors.toSet()));
-        }
-        if (text != null && !text.isBlank()) {
-            idSets.add(speechRepository.findByTextContainingIgnoreCase(text)
-                .stream()
-                .map(Speech::getId)
-                .collect(Collectors.toSet()));
+            idSets.add(new HashSet<>(speechRepository.findIdsByKeywordLikeIgnoreCase(keyword)));
         }
 
-        List<Speech> results;
-        if (idSets.isEmpty()) {
-            results = speechRepository.findAll();
-        } else {
-            Set<Long> intersection = new HashSet<>(idSets.get(0));
+        Set<Long> intersection = null;
+        if (!idSets.isEmpty()) {
+            intersection = new HashSet<>(idSets.get(0));
             for (Set<Long> s : idSets.subList(1, idSets.size())) {
                 intersection.retainAll(s);
             }
-            if (intersection.isEmpty()) {
-                results = Collections.emptyList();
-            } else {
-                results = speechRepository.findAllById(intersection);
-            }
         }
-        return results.stream().map(SpeechMapper::toDto).collect(Collectors.toList());
+        if (text == null || text.isBlank()) {
+            return intersection;
+        }
+        if (intersection != null
+            && searchPlanner.verifyFilteredDirectly(intersection.size(), textSearchIndex.estimate(text))) {
+            return intersection;
+        }
+        Set<Long> candidates = new HashSet<>(textSearchIndex.candidates(text));
+        if (intersection != null) {
+            candidates.retainAll(intersection);
+        }
+        return candidates;
+    }
+
+    private static Stream<Speech> containingText(Stream<Speech> speeches, String text) {
+        if (text == null || text.isBlank()) {
+            return speeches;
+        }
+        return speeches.filter(speech -> TrigramIndex.containsIgnoreCase(speech.getText(), text));
+    }
+
+    private Stream<Speech> allInPages() {
+        return Stream.iterate(
+                nextPage(0L),
+                page -> !page.isEmpty(),
+                page -> page.size() < STREAM_PAGE_SIZE ? List.of() : nextPage(page.get(page.size() - 1).getId()))
+            .flatMap(List::stream);
+    }
+
+    private List<Speech> nextPage(long afterId) {
+        return speechRepository.findByIdGreaterThanOrderById(afterId, Limit.of(STREAM_PAGE_SIZE));
+    }
+
+    private Stream<Speech> inPages(Set<Long> ids) {
+        List<Long> sorted = ids.stream().sorted().toList();
+        return IntStream.range(0, (sorted.size() + STREAM_PAGE_SIZE - 1) / STREAM_PAGE_SIZE)
+            .mapToObj(page -> sorted.subList(
+                page * STREAM_PAGE_SIZE, Math.min(sorted.size(), (page + 1) * STREAM_PAGE_SIZE)))
+            .flatMap(pageIds -> speechRepository.findAllById(pageIds).stream()
+                .sorted(Comparator.comparing(Speech::getId)));
+    }
+
+    @Override
+    public List<SpeechDto> rankedSearch(String query, int limit) {
+        List<InvertedIndex.Hit> hits = rankedSearchIndex.search(
+            query, Math.min(limit, MAX_RANKED_RESULTS));
+        if (hits.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Speech> byId = speechRepository.findAllById(
+                hits.stream().map(InvertedIndex.Hit::id).toList())
+            .stream()
+            .collect(Collectors.toMap(Speech::getId, speech -> speech));
+        return hits.stream()
+            .map(hit -> byId.get(hit.id()))
+            .filter(Objects::nonNull)
+            .map(SpeechMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<List<SimilarSpeechDto>> findSimilar(Long id, double threshold, int limit) {
+        if (!nearDuplicateIndex.contains(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(nearDuplicateIndex.similarTo(id, threshold, limit).stream()
+            .map(match -> new SimilarSpeechDto(match.id(), match.similarity()))
+            .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<SuggestionDto> suggest(SuggestionField field, String prefix, int limit) {
+        return suggestionIndex.suggest(field, prefix, Math.min(limit, MAX_SUGGESTIONS)).stream()
+            .map(entry -> new SuggestionDto(entry.term(), entry.weight()))
+            .collect(Collectors.toList());
     }
 
 }
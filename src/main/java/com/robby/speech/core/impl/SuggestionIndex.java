@@ -0,0 +1,143 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SuggestionField;
+import com.robby.speech.core.index.PrefixTrie;
+import com.robby.speech.core.index.SnapshotInput;
+import com.robby.speech.core.index.SnapshotOutput;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class SuggestionIndex implements SpeechIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x53554747;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private volatile PrefixTrie authors = new PrefixTrie();
+    private volatile PrefixTrie keywords = new PrefixTrie();
+    private Map<Long, Terms> indexed = new ConcurrentHashMap<>();
+
+    private record Terms(String author, List<String> keywords) {
+    }
+
+    public List<PrefixTrie.Entry> suggest(SuggestionField field, String prefix, int limit) {
+        return trie(field).topCompletions(prefix, limit);
+    }
+
+    public long count(SuggestionField field, String value) {
+        return trie(field).weight(value);
+    }
+
+    @Override
+    public synchronized void put(SpeechDto speech) {
+        Terms terms = new Terms(speech.author(), distinctKeywords(speech.keywords()));
+        Terms previous = indexed.put(speech.id(), terms);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(terms, 1);
+    }
+
+    @Override
+    public void putMetadata(SpeechDto speech) {
+        put(speech);
+    }
+
+    @Override
+    public synchronized void remove(Long id) {
+        Terms previous = indexed.remove(id);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    @Override
+    public String snapshotName() {
+        return "suggestions";
+    }
+
+    /**
+     * Writes the indexed terms of every speech; the tries are rebuilt from them on read.
+     */
+    @Override
+    public synchronized void writeSnapshot(Path file) throws IOException {
+        try (SnapshotOutput out = SnapshotOutput.create(file, SNAPSHOT_MAGIC, SNAPSHOT_VERSION)) {
+            out.writeInt(indexed.size());
+            for (Map.Entry<Long, Terms> entry : indexed.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeString(entry.getValue().author());
+                out.writeVarLong(entry.getValue().keywords().size());
+                for (String keyword : entry.getValue().keywords()) {
+                    out.writeString(keyword);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Runnable readSnapshot(Path file) throws IOException {
+        PrefixTrie restoredAuthors = new PrefixTrie();
+        PrefixTrie restoredKeywords = new PrefixTrie();
+        Map<Long, Terms> restored;
+        try (SnapshotInput in = SnapshotInput.open(file, SNAPSHOT_MAGIC, SNAPSHOT_VERSION)) {
+            int count = in.readInt();
+            Map<Long, Terms> read = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                String author = in.readString();
+                int keywordCount = (int) in.readVarLong();
+                List<String> keywordList = new ArrayList<>(keywordCount);
+                for (int k = 0; k < keywordCount; k++) {
+                    keywordList.add(in.readString());
+                }
+                Terms terms = new Terms(author, List.copyOf(keywordList));
+                read.put(id, terms);
+                apply(restoredAuthors, restoredKeywords, terms, 1);
+            }
+            restored = new ConcurrentHashMap<>(read);
+        }
+        return () -> {
+            synchronized (this) {
+                indexed = restored;
+                authors = restoredAuthors;
+                keywords = restoredKeywords;
+            }
+        };
+    }
+
+    /**
+     * Keywords that differ only in case are one suggestion, so a speech counts each once.
+     */
+    private static List<String> distinctKeywords(List<String> keywords) {
+        if (keywords == null) {
+            return List.of();
+        }
+        Set<String> seen = new HashSet<>();
+        return keywords.stream()
+            .filter(keyword -> keyword == null || seen.add(PrefixTrie.normalize(keyword)))
+            .toList();
+    }
+
+    private void apply(Terms terms, int delta) {
+        apply(authors, keywords, terms, delta);
+    }
+
+    private static void apply(PrefixTrie authors, PrefixTrie keywords, Terms terms, int delta) {
+        authors.add(terms.author(), delta);
+        terms.keywords().forEach(keyword -> keywords.add(keyword, delta));
+    }
+
+    private PrefixTrie trie(SuggestionField field) {
+        return field == SuggestionField.AUTHOR ? authors : keywords;
+    }
+}
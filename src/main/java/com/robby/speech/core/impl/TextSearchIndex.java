@@ -0,0 +1,100 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.index.TrigramIndex;
+import com.robby.speech.repository.SpeechRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Candidates for the {@code text} filter. Compressed texts cannot be searched in the database, so
+ * with {@code speech.storage.compress-text} on they come from an in-memory trigram index, once
+ * that index has caught up with the outbox. Until then, and whenever compression is off, they come
+ * from the database: plain texts are matched there, and every compressed text is a candidate.
+ * Either way the caller verifies each candidate against its text.
+ */
+@Component
+public class TextSearchIndex implements SpeechIndex {
+
+    private final SpeechRepository speechRepository;
+    private final boolean enabled;
+    private volatile TrigramIndex index = new TrigramIndex();
+    private volatile boolean current;
+
+    public TextSearchIndex(
+        SpeechRepository speechRepository,
+        @Value("${speech.storage.compress-text:false}") boolean enabled
+    ) {
+        this.speechRepository = speechRepository;
+        this.enabled = enabled;
+    }
+
+    public Set<Long> candidates(String text) {
+        if (serving()) {
+            return index.candidates(text);
+        }
+        return new HashSet<>(speechRepository.findIdsPossiblyContainingText(text));
+    }
+
+    /**
+     * Upper bound on the candidates for a text. Without the index there is no cheap bound, so
+     * planners verify any set narrowed down by other filters directly.
+     */
+    public int estimate(String text) {
+        return serving() ? index.estimate(text) : Integer.MAX_VALUE;
+    }
+
+    private boolean serving() {
+        return enabled && current;
+    }
+
+    @Override
+    public void put(SpeechDto speech) {
+        if (enabled) {
+            index.put(speech.id(), speech.text());
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        if (enabled) {
+            index.remove(id);
+        }
+    }
+
+    @Override
+    public void caughtUp() {
+        current = true;
+    }
+
+    @Override
+    public String snapshotName() {
+        return "text";
+    }
+
+    // without compression the file is left empty, which a start with compression on cannot read,
+    // so that start scans instead of restoring an index nothing kept up to date
+    @Override
+    public void writeSnapshot(Path file) throws IOException {
+        if (enabled) {
+            index.writeSnapshot(file);
+        } else {
+            Files.write(file, new byte[0]);
+        }
+    }
+
+    @Override
+    public Runnable readSnapshot(Path file) throws IOException {
+        if (!enabled) {
+            return () -> { };
+        }
+        TrigramIndex mapped = TrigramIndex.readSnapshot(file);
+        return () -> index = mapped;
+    }
+}
@@ -0,0 +1,329 @@
+package com.robby.speech.core.index;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term to document postings with term frequencies, scored with Okapi BM25.
+ *
+ * <p>Common terms occur in most documents, so, as in {@link TrigramIndex}, postings are keyed by
+ * an internal, ever-increasing document number: a re-indexed document is appended under a new
+ * number and its old entries are dropped lazily once enough dead ones have accumulated. Document
+ * frequencies are counted over live documents only, so dead entries do not change scores.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SNAPSHOT_MAGIC = 0x494E5658;
+    private static final int SNAPSHOT_VERSION = 3;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> documentFrequencies = new HashMap<>();
+    private final Map<Long, Long> docNumbers = new HashMap<>();
+    private final Map<Long, Document> liveDocuments = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nextDocNumber = 1;
+    private int deadDocuments;
+    private long totalLength;
+
+    public record Hit(long id, double score) {
+    }
+
+    // the distinct terms of a document and how often each occurs in it
+    private record Document(long id, int length, String[] terms, int[] frequencies) {
+    }
+
+    public void put(long id, List<String> terms) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            index(id, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes a document with one occurrence of each of {@code removed} taken out of the terms
+     * it was indexed with and each of {@code added} put in, so that part of a document can be
+     * replaced without the rest of it at hand. Does nothing to a document that is not indexed.
+     *
+     * @return whether the document is indexed
+     */
+    public boolean replace(long id, List<String> removed, List<String> added) {
+        lock.writeLock().lock();
+        try {
+            Long docNumber = docNumbers.get(id);
+            if (docNumber == null) {
+                return false;
+            }
+            Document document = liveDocuments.get(docNumber);
+            Map<String, Integer> frequencies = new LinkedHashMap<>();
+            for (int i = 0; i < document.terms().length; i++) {
+                frequencies.put(document.terms()[i], document.frequencies()[i]);
+            }
+            for (String term : removed) {
+                frequencies.computeIfPresent(term, (t, freq) -> freq == 1 ? null : freq - 1);
+            }
+            for (String term : added) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            index(id, frequencies);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return docNumbers.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentFrequency(String term) {
+        lock.readLock().lock();
+        try {
+            return documentFrequencies.getOrDefault(term, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> search(List<String> queryTerms, int limit) {
+        if (limit <= 0 || queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int n = liveDocuments.size();
+            if (n == 0) {
+                return List.of();
+            }
+            double avgLength = (double) totalLength / n;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                int df = documentFrequencies.getOrDefault(term, 0);
+                double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+                PostingList.Cursor cursor = list.cursor();
+                while (cursor.next()) {
+                    Document document = liveDocuments.get(cursor.docId());
+                    if (document == null) {
+                        continue;
+                    }
+                    double tf = cursor.freq();
+                    double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * document.length() / avgLength));
+                    scores.merge(document.id(), score, Double::sum);
+                }
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the live postings and documents, so that {@link #readSnapshot(Path)} restores the
+     * index without analyzing any text. Dead entries are left out and document numbers are kept.
+     * Writers wait until the file is written.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        try (SnapshotOutput out = SnapshotOutput.create(file, SNAPSHOT_MAGIC, SNAPSHOT_VERSION)) {
+            writeTo(out);
+        }
+    }
+
+    public static InvertedIndex readSnapshot(Path file) throws IOException {
+        try (SnapshotInput in = SnapshotInput.open(file, SNAPSHOT_MAGIC, SNAPSHOT_VERSION)) {
+            return readFrom(in);
+        }
+    }
+
+    /**
+     * Writes the index as part of a snapshot of its owner, who opened the file.
+     */
+    public void writeTo(SnapshotOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> termNumbers = new HashMap<>(documentFrequencies.size() * 2);
+            out.writeLong(nextDocNumber);
+            out.writeInt(documentFrequencies.size());
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                PostingList live = liveEntries(entry.getValue());
+                if (live.isEmpty()) {
+                    continue;
+                }
+                termNumbers.put(entry.getKey(), termNumbers.size());
+                out.writeString(entry.getKey());
+                live.writeTo(out);
+            }
+            out.writeInt(liveDocuments.size());
+            for (Map.Entry<Long, Document> entry : liveDocuments.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeLong(entry.getValue().id());
+                out.writeVarLong(entry.getValue().length());
+                Document document = entry.getValue();
+                out.writeVarLong(document.terms().length);
+                for (int t = 0; t < document.terms().length; t++) {
+                    out.writeVarLong(termNumbers.get(document.terms()[t]));
+                    out.writeVarLong(document.frequencies()[t]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo(SnapshotOutput)}.
+     */
+    public static InvertedIndex readFrom(SnapshotInput in) throws IOException {
+        InvertedIndex index = new InvertedIndex();
+        index.nextDocNumber = in.readLong();
+        String[] terms = new String[in.readInt()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = in.readString();
+            index.postings.put(terms[i], PostingList.readFrom(in));
+        }
+        int documentCount = in.readInt();
+        for (int i = 0; i < documentCount; i++) {
+            long docNumber = in.readLong();
+            long id = in.readLong();
+            int length = (int) in.readVarLong();
+            String[] documentTerms = new String[(int) in.readVarLong()];
+            int[] frequencies = new int[documentTerms.length];
+            for (int t = 0; t < documentTerms.length; t++) {
+                documentTerms[t] = terms[(int) in.readVarLong()];
+                frequencies[t] = (int) in.readVarLong();
+            }
+            index.addLive(docNumber, new Document(id, length, documentTerms, frequencies));
+        }
+        return index;
+    }
+
+    private static List<Hit> topK(Map<Long, Double> scores, int limit) {
+        Comparator<Hit> order = Comparator.comparingDouble(Hit::score)
+            .thenComparing(Hit::id, Comparator.reverseOrder());
+        PriorityQueue<Hit> heap = new PriorityQueue<>(limit + 1, order);
+        scores.forEach((id, score) -> {
+            Hit hit = new Hit(id, score);
+            if (heap.size() < limit) {
+                heap.add(hit);
+            } else if (order.compare(hit, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(hit);
+            }
+        });
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(order.reversed());
+        return hits;
+    }
+
+    private void index(long id, Map<String, Integer> frequencies) {
+        removeInternal(id);
+        long docNumber = nextDocNumber++;
+        String[] terms = new String[frequencies.size()];
+        int[] termFrequencies = new int[terms.length];
+        int length = 0;
+        int t = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(docNumber, entry.getValue());
+            terms[t] = entry.getKey();
+            termFrequencies[t++] = entry.getValue();
+            length += entry.getValue();
+        }
+        addLive(docNumber, new Document(id, length, terms, termFrequencies));
+        compactIfNeeded();
+    }
+
+    private void addLive(long docNumber, Document document) {
+        docNumbers.put(document.id(), docNumber);
+        liveDocuments.put(docNumber, document);
+        for (String term : document.terms()) {
+            documentFrequencies.merge(term, 1, Integer::sum);
+        }
+        totalLength += document.length();
+    }
+
+    private void removeInternal(long id) {
+        Long docNumber = docNumbers.remove(id);
+        if (docNumber == null) {
+            return;
+        }
+        Document document = liveDocuments.remove(docNumber);
+        for (String term : document.terms()) {
+            documentFrequencies.computeIfPresent(term, (t, df) -> df == 1 ? null : df - 1);
+        }
+        totalLength -= document.length();
+        deadDocuments++;
+    }
+
+    private void compactIfNeeded() {
+        if (deadDocuments <= Math.max(1_000, liveDocuments.size())) {
+            return;
+        }
+        Iterator<Map.Entry<String, PostingList>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, PostingList> entry = entries.next();
+            PostingList compacted = liveEntries(entry.getValue());
+            if (compacted.isEmpty()) {
+                entries.remove();
+            } else {
+                entry.setValue(compacted);
+            }
+        }
+        deadDocuments = 0;
+    }
+
+    private PostingList liveEntries(PostingList list) {
+        PostingList live = new PostingList();
+        PostingList.Cursor cursor = list.cursor();
+        while (cursor.next()) {
+            if (liveDocuments.containsKey(cursor.docId())) {
+                live.add(cursor.docId(), cursor.freq());
+            }
+        }
+        return live;
+    }
+}
@@ -0,0 +1,298 @@
+package com.robby.speech.core.index;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * MinHash signatures over word shingles, bucketed by locality-sensitive hashing bands. Two
+ * documents share a bucket with high probability once their Jaccard similarity passes roughly
+ * {@code (1 / bands) ^ (1 / rows)}, so candidates are found without pairwise comparison.
+ *
+ * <p>A text without a single word has no shingles and so no signature to compare. Such documents
+ * are known to the index but never bucketed, so they do not all match each other.
+ */
+public class MinHashIndex {
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final int SNAPSHOT_MAGIC = 0x4D494E48;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+    private final Set<Long> withoutShingles = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public record Match(long id, double similarity) {
+    }
+
+    public MinHashIndex(int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < seeds.length; i++) {
+            seed = mix(seed + i);
+            seeds[i] = seed;
+        }
+    }
+
+    /**
+     * The signature of the text, or {@code null} if it has no shingles.
+     */
+    private int[] signature(String text) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, -1);
+        boolean[] shingled = {false};
+        forEachShingle(text, shingle -> {
+            shingled[0] = true;
+            for (int i = 0; i < seeds.length; i++) {
+                int h = (int) (mix(shingle ^ seeds[i]) >>> 32);
+                if (Integer.compareUnsigned(h, signature[i]) < 0) {
+                    signature[i] = h;
+                }
+            }
+        });
+        return shingled[0] ? signature : null;
+    }
+
+    public void put(long id, String text) {
+        int[] signature = signature(text);
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            putInternal(id, signature);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return signatures.containsKey(id) || withoutShingles.contains(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Match> similarTo(long id, double threshold, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(id);
+            if (signature == null) {
+                return List.of();
+            }
+            return matches(signature, id, threshold, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Match> similarTo(String text, double threshold, int limit) {
+        int[] signature = signature(text);
+        if (signature == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return matches(signature, null, threshold, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every signature. The band buckets are derived from them when the snapshot is read.
+     * Documents without shingles are written with the signature of no shingles, all bits set.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        lock.readLock().lock();
+        try (SnapshotOutput out = SnapshotOutput.create(file, SNAPSHOT_MAGIC, SNAPSHOT_VERSION)) {
+            out.writeInt(bands);
+            out.writeInt(rows);
+            out.writeInt(signatures.size() + withoutShingles.size());
+            for (Map.Entry<Long, int[]> entry : signatures.entrySet()) {
+                out.writeLong(entry.getKey());
+                for (int value : entry.getValue()) {
+                    out.writeInt(value);
+                }
+            }
+            for (long id : withoutShingles) {
+                out.writeLong(id);
+                for (int i = 0; i < seeds.length; i++) {
+                    out.writeInt(-1);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads a snapshot into a new index with this index's bands and rows. Signatures computed
+     * with other parameters are not comparable, so such a snapshot is rejected.
+     */
+    public MinHashIndex readSnapshot(Path file) throws IOException {
+        MinHashIndex index = new MinHashIndex(bands, rows);
+        try (SnapshotInput in = SnapshotInput.open(file, SNAPSHOT_MAGIC, SNAPSHOT_VERSION)) {
+            int snapshotBands = in.readInt();
+            int snapshotRows = in.readInt();
+            if (snapshotBands != bands || snapshotRows != rows) {
+                throw new IOException(file + " was written with " + snapshotBands + " bands of "
+                    + snapshotRows + " rows, expected " + bands + " of " + rows);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                int[] signature = new int[seeds.length];
+                boolean shingled = false;
+                for (int s = 0; s < signature.length; s++) {
+                    signature[s] = in.readInt();
+                    shingled |= signature[s] != -1;
+                }
+                index.putInternal(id, shingled ? signature : null);
+            }
+        }
+        return index;
+    }
+
+    private void putInternal(long id, int[] signature) {
+        if (signature == null) {
+            withoutShingles.add(id);
+            return;
+        }
+        signatures.put(id, signature);
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bucketKey(signature, band), k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private List<Match> matches(int[] signature, Long exclude, double threshold, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            Set<Long> bucket = buckets.get(bucketKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        List<Match> matches = new ArrayList<>();
+        for (Long candidate : candidates) {
+            if (candidate.equals(exclude)) {
+                continue;
+            }
+            double similarity = estimateSimilarity(signature, signatures.get(candidate));
+            if (similarity >= threshold) {
+                matches.add(new Match(candidate, similarity));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::similarity).reversed()
+            .thenComparingLong(Match::id));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private static double estimateSimilarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private void removeInternal(long id) {
+        withoutShingles.remove(id);
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            long key = bucketKey(signature, band);
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private long bucketKey(int[] signature, int band) {
+        long h = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            h = mix(h * 31 + signature[i]);
+        }
+        return h;
+    }
+
+    private static void forEachShingle(String text, LongConsumer sink) {
+        if (text == null) {
+            return;
+        }
+        long[] window = new long[SHINGLE_SIZE];
+        int words = 0;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                window[words++ % SHINGLE_SIZE] = wordHash(text, start, i);
+                start = -1;
+                if (words >= SHINGLE_SIZE) {
+                    long shingle = 0;
+                    for (int w = words - SHINGLE_SIZE; w < words; w++) {
+                        shingle = shingle * 0x9E3779B97F4A7C15L + window[w % SHINGLE_SIZE];
+                    }
+                    sink.accept(shingle);
+                }
+            }
+        }
+        if (words > 0 && words < SHINGLE_SIZE) {
+            long shingle = 0;
+            for (int w = 0; w < words; w++) {
+                shingle = shingle * 0x9E3779B97F4A7C15L + window[w];
+            }
+            sink.accept(shingle);
+        }
+    }
+
+    private static long wordHash(String text, int from, int to) {
+        long h = 1125899906842597L;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + Character.toLowerCase(text.charAt(i));
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,147 @@
+package com.robby.speech.core.index;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Document ids in ascending order together with a per-document frequency, stored as
+ * variable-length encoded deltas. Appending an id greater than the last one is cheap; any other
+ * change re-encodes the list.
+ */
+public final class PostingList {
+
+    private byte[] data;
+    private int length;
+    private int size;
+    private long lastDocId;
+
+    public PostingList() {
+        this.data = new byte[8];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int sizeInBytes() {
+        return length;
+    }
+
+    public void add(long docId, int freq) {
+        if (size == 0 || docId > lastDocId) {
+            writeVarLong(size == 0 ? docId : docId - lastDocId);
+            writeVarLong(freq);
+            lastDocId = docId;
+            size++;
+            return;
+        }
+        PostingList rebuilt = new PostingList();
+        boolean inserted = false;
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            if (!inserted && cursor.docId() >= docId) {
+                rebuilt.add(docId, freq);
+                inserted = true;
+                if (cursor.docId() == docId) {
+                    continue;
+                }
+            }
+            rebuilt.add(cursor.docId(), cursor.freq());
+        }
+        if (!inserted) {
+            rebuilt.add(docId, freq);
+        }
+        replaceWith(rebuilt);
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public long[] docIds() {
+        long[] ids = new long[size];
+        Cursor cursor = cursor();
+        int i = 0;
+        while (cursor.next()) {
+            ids[i++] = cursor.docId();
+        }
+        return ids;
+    }
+
+    void writeTo(SnapshotOutput out) throws IOException {
+        out.writeVarLong(size);
+        out.writeVarLong(lastDocId);
+        out.writeVarLong(length);
+        out.writeBytes(data, length);
+    }
+
+    static PostingList readFrom(SnapshotInput in) throws IOException {
+        PostingList list = new PostingList();
+        list.size = (int) in.readVarLong();
+        list.lastDocId = in.readVarLong();
+        list.length = (int) in.readVarLong();
+        list.data = in.readBytes(list.length);
+        return list;
+    }
+
+    private void replaceWith(PostingList other) {
+        this.data = other.data;
+        this.length = other.length;
+        this.size = other.size;
+        this.lastDocId = other.lastDocId;
+    }
+
+    private void writeVarLong(long value) {
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+        }
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    public final class Cursor {
+
+        private int position;
+        private long docId;
+        private int freq;
+
+        private Cursor() {
+        }
+
+        public boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            docId += readVarLong();
+            freq = (int) readVarLong();
+            return true;
+        }
+
+        public long docId() {
+            return docId;
+        }
+
+        public int freq() {
+            return freq;
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.robby.speech.core.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix tree of weighted terms. Every node caches the highest weight found in
+ * its subtree, so the top N completions of a prefix are found best-first without visiting the
+ * whole subtree.
+ */
+public class PrefixTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public record Entry(String term, long weight) {
+    }
+
+    private record Candidate(Node node, Entry entry, long priority) {
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private String term;
+        private long weight;
+        private long maxWeight;
+
+        private Node child(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i >= 0 ? children[i] : null;
+        }
+
+        private Node addChild(char key) {
+            int i = -(Arrays.binarySearch(keys, key) + 1);
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            newKeys[i] = key;
+            newChildren[i] = child;
+            System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+            System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        private void recomputeMaxWeight() {
+            long max = weight;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    public void add(String term, long delta) {
+        if (term == null || term.isBlank() || delta == 0) {
+            return;
+        }
+        String key = normalize(term);
+        lock.writeLock().lock();
+        try {
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            path.push(node);
+            for (int i = 0; i < key.length(); i++) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    if (delta < 0) {
+                        return;
+                    }
+                    child = node.addChild(key.charAt(i));
+                }
+                node = child;
+                path.push(node);
+            }
+            node.weight = Math.max(0, node.weight + delta);
+            node.term = node.weight > 0 ? (node.term == null ? term.strip() : node.term) : null;
+
+            int depth = key.length();
+            while (!path.isEmpty()) {
+                Node current = path.pop();
+                current.recomputeMaxWeight();
+                if (current != root && current.weight == 0 && current.keys.length == 0) {
+                    path.peek().removeChild(key.charAt(depth - 1));
+                }
+                depth--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long weight(String term) {
+        lock.readLock().lock();
+        try {
+            Node node = find(normalize(term));
+            return node == null ? 0 : node.weight;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Entry> topCompletions(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node start = find(normalize(prefix == null ? "" : prefix));
+            List<Entry> results = new ArrayList<>();
+            if (start == null || limit <= 0) {
+                return results;
+            }
+            // Subtrees are queued by their best weight, terms by their own weight; a term popped
+            // from the queue outweighs everything still unexplored.
+            PriorityQueue<Candidate> queue = new PriorityQueue<>(
+                Comparator.comparingLong(Candidate::priority).reversed());
+            queue.add(new Candidate(start, null, start.maxWeight));
+            while (!queue.isEmpty() && results.size() < limit) {
+                Candidate candidate = queue.poll();
+                if (candidate.entry() != null) {
+                    results.add(candidate.entry());
+                    continue;
+                }
+                Node node = candidate.node();
+                if (node.weight > 0) {
+                    queue.add(new Candidate(null, new Entry(node.term, node.weight), node.weight));
+                }
+                for (Node child : node.children) {
+                    if (child.maxWeight > 0) {
+                        queue.add(new Candidate(child, null, child.maxWeight));
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * The key a term is stored under; terms with the same key are the same entry.
+     */
+    public static String normalize(String term) {
+        return term.strip().toLowerCase(Locale.ROOT);
+    }
+}
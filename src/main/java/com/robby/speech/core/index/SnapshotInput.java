@@ -0,0 +1,83 @@
+package com.robby.speech.core.index;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads what {@link SnapshotOutput} wrote, front to back. Indexes that are rebuilt on the heap read
+ * their snapshots through this; the trigram index maps its file instead.
+ */
+public final class SnapshotInput implements Closeable {
+
+    private final DataInputStream in;
+
+    private SnapshotInput(DataInputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Opens a snapshot file, failing unless it starts with the given magic number and version.
+     */
+    public static SnapshotInput open(Path file, int magic, int version) throws IOException {
+        SnapshotInput input = new SnapshotInput(new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file), 1 << 16)));
+        try {
+            checkHeader(file, input.readInt(), input.readInt(), magic, version);
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+        return input;
+    }
+
+    static void checkHeader(Path file, int actualMagic, int actualVersion, int magic, int version)
+        throws IOException {
+        if (actualMagic != magic) {
+            throw new IOException(file + " is not a snapshot of this index");
+        }
+        if (actualVersion != version) {
+            throw new IOException(file + " has format version " + actualVersion + ", expected " + version);
+        }
+    }
+
+    public int readInt() throws IOException {
+        return in.readInt();
+    }
+
+    public long readLong() throws IOException {
+        return in.readLong();
+    }
+
+    public long readVarLong() throws IOException {
+        long result = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    public byte[] readBytes(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    public String readString() throws IOException {
+        int length = (int) readVarLong();
+        return length == 0 ? null : new String(readBytes(length - 1), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,79 @@
+package com.robby.speech.core.index;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Buffered big-endian output for index snapshot files. Unlike {@link DataOutputStream#size()},
+ * the position keeps counting past 2 GB, so it can be stored as an offset into the file.
+ */
+public final class SnapshotOutput implements Closeable {
+
+    private final DataOutputStream out;
+    private long position;
+
+    private SnapshotOutput(DataOutputStream out) {
+        this.out = out;
+    }
+
+    public static SnapshotOutput create(Path file, int magic, int version) throws IOException {
+        SnapshotOutput output = new SnapshotOutput(new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)));
+        output.writeInt(magic);
+        output.writeInt(version);
+        return output;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public void writeInt(int value) throws IOException {
+        out.writeInt(value);
+        position += Integer.BYTES;
+    }
+
+    public void writeLong(long value) throws IOException {
+        out.writeLong(value);
+        position += Long.BYTES;
+    }
+
+    public void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+            position++;
+        }
+        out.write((int) value);
+        position++;
+    }
+
+    public void writeBytes(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+
+    /**
+     * Writes UTF-8 bytes behind a length that is one more than their count, so {@code 0} stands
+     * for {@code null}.
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes, bytes.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,138 @@
+package com.robby.speech.core.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-cased, stop-word filtered and stemmed terms. The same analysis is
+ * applied to indexed documents and to queries so that both sides agree on the vocabulary.
+ */
+public final class TextAnalyzer {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is",
+        "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there",
+        "these", "they", "this", "to", "was", "will", "with", "we", "our", "has", "have", "had"
+    );
+
+    private static final String[][] SUFFIX_RULES = {
+        {"ational", "ate"},
+        {"tional", "tion"},
+        {"ization", "ize"},
+        {"fulness", "ful"},
+        {"ousness", "ous"},
+        {"iveness", "ive"},
+        {"biliti", "ble"},
+        {"ation", "ate"},
+        {"alism", "al"},
+        {"aliti", "al"},
+        {"iviti", "ive"},
+        {"ement", ""},
+        {"ment", ""},
+        {"ness", ""},
+        {"ful", ""}
+    };
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        analyze(text, terms::add);
+        return terms;
+    }
+
+    public static void analyze(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                emit(token.toString(), sink);
+                token.setLength(0);
+            }
+        }
+    }
+
+    private static void emit(String token, Consumer<String> sink) {
+        if (token.length() < MIN_TERM_LENGTH || STOP_WORDS.contains(token)) {
+            return;
+        }
+        sink.accept(stem(token));
+    }
+
+    // A light suffix stripper modelled on the first steps of the Porter algorithm: it folds
+    // plurals and verb inflections together, which is what matters for speech transcripts.
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String w = word;
+        if (w.endsWith("sses")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("ies")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        if (w.endsWith("eed")) {
+            if (w.length() > 4) {
+                w = w.substring(0, w.length() - 1);
+            }
+        } else if (w.endsWith("ed") && hasVowel(w, w.length() - 2)) {
+            w = restoreEnding(w.substring(0, w.length() - 2));
+        } else if (w.endsWith("ing") && hasVowel(w, w.length() - 3)) {
+            w = restoreEnding(w.substring(0, w.length() - 3));
+        }
+
+        if (w.endsWith("y") && w.length() > 2 && hasVowel(w, w.length() - 1)) {
+            w = w.substring(0, w.length() - 1) + "i";
+        }
+
+        for (String[] rule : SUFFIX_RULES) {
+            if (w.endsWith(rule[0]) && w.length() - rule[0].length() >= 3) {
+                w = w.substring(0, w.length() - rule[0].length()) + rule[1];
+                break;
+            }
+        }
+
+        if (w.length() > 4 && w.endsWith("e") && !w.endsWith("ee")) {
+            w = w.substring(0, w.length() - 1);
+        }
+        return w;
+    }
+
+    private static String restoreEnding(String stem) {
+        if (stem.endsWith("at") || stem.endsWith("bl") || stem.endsWith("iz")) {
+            return stem + "e";
+        }
+        int n = stem.length();
+        if (n >= 2 && stem.charAt(n - 1) == stem.charAt(n - 2) && !isVowel(stem.charAt(n - 1))
+            && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+
+    private static boolean hasVowel(String word, int end) {
+        for (int i = 0; i < end; i++) {
+            if (isVowel(word.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
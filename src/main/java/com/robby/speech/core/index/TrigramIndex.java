@@ -0,0 +1,379 @@
+package com.robby.speech.core.index;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive character trigram postings for substring search. A document can only
+ * contain a query if it contains every trigram of the query, so intersecting the query's
+ * postings yields a candidate set that callers verify against the actual text.
+ *
+ * <p>Common trigrams occur in nearly every document, so postings are keyed by an internal,
+ * ever-increasing document number: a re-indexed document is appended under a new number and
+ * its old number is dropped lazily once enough dead entries have accumulated.
+ *
+ * <p>An index read from a snapshot serves the snapshot's documents from the mapped file, off the
+ * heap. Documents put after that are numbered above the snapshot's and kept in heap postings,
+ * so every trigram's document numbers are the mapped ones followed by the heap ones, still in
+ * ascending order.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, Long> docNumbers = new HashMap<>();
+    private final Map<Long, Long> liveDocuments = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TrigramSegment segment;
+    private long nextDocNumber;
+    private int deadDocuments;
+
+    public TrigramIndex() {
+        this(null);
+    }
+
+    private TrigramIndex(TrigramSegment segment) {
+        this.segment = segment;
+        this.nextDocNumber = segment == null ? 1 : segment.nextDocNumber();
+    }
+
+    public void put(long id, String text) {
+        long[] trigrams = trigrams(fold(text == null ? "" : text));
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            long docNumber = nextDocNumber++;
+            for (long trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new PostingList()).add(docNumber, 1);
+            }
+            docNumbers.put(id, docNumber);
+            liveDocuments.put(docNumber, id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments.size() + (segment == null ? 0 : segment.liveCount());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of documents that may contain {@code query}. Queries shorter than a trigram cannot be
+     * narrowed down and return every document.
+     */
+    public Set<Long> candidates(String query) {
+        long[] trigrams = trigrams(fold(query));
+        lock.readLock().lock();
+        try {
+            if (trigrams.length == 0) {
+                Set<Long> all = new HashSet<>(docNumbers.keySet());
+                if (segment != null) {
+                    segment.addLiveIds(all);
+                }
+                return all;
+            }
+            List<Postings> lists = new ArrayList<>(trigrams.length);
+            for (long trigram : trigrams) {
+                Postings list = postingsOf(trigram);
+                if (list.size() == 0) {
+                    return new HashSet<>();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(Postings::size));
+            long[] result = lists.get(0).docNumbers();
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i).docNumbers());
+            }
+            Set<Long> ids = new HashSet<>(result.length * 2);
+            for (long docNumber : result) {
+                long id = liveId(docNumber);
+                if (id >= 0) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Upper bound on the size of {@link #candidates(String)} that costs one lookup per
+     * trigram: the shortest posting list of the query, or every document for queries shorter
+     * than a trigram.
+     */
+    public int estimate(String query) {
+        long[] trigrams = trigrams(fold(query));
+        lock.readLock().lock();
+        try {
+            int estimate = liveDocuments.size() + (segment == null ? 0 : segment.liveCount());
+            for (long trigram : trigrams) {
+                estimate = Math.min(estimate, postingsOf(trigram).size());
+            }
+            return estimate;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the live documents and their postings in the format {@link #readSnapshot(Path)}
+     * maps. Document numbers are kept, so postings are copied without re-sorting. Writers wait
+     * until the file is written.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        lock.readLock().lock();
+        try (SnapshotOutput out = SnapshotOutput.create(file, TrigramSegment.MAGIC, TrigramSegment.VERSION)) {
+            if (nextDocNumber > Integer.MAX_VALUE) {
+                throw new IOException("Too many document numbers for a snapshot: " + nextDocNumber);
+            }
+            int count = liveDocuments.size() + (segment == null ? 0 : segment.liveCount());
+            long[] numbers = new long[count];
+            long[] ids = new long[count];
+            int[] next = {0};
+            if (segment != null) {
+                segment.forEachLive((docNumber, id) -> {
+                    numbers[next[0]] = docNumber;
+                    ids[next[0]++] = id;
+                });
+            }
+            long[] added = liveDocuments.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            for (long docNumber : added) {
+                numbers[next[0]] = docNumber;
+                ids[next[0]++] = liveDocuments.get(docNumber);
+            }
+            BitSet live = new BitSet((int) nextDocNumber);
+            for (long docNumber : numbers) {
+                live.set((int) docNumber);
+            }
+
+            out.writeLong(nextDocNumber);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeLong(numbers[i]);
+                out.writeLong(ids[i]);
+            }
+            Integer[] byId = new Integer[count];
+            Arrays.setAll(byId, i -> i);
+            Arrays.sort(byId, Comparator.comparingLong(i -> ids[i]));
+            for (int i : byId) {
+                out.writeLong(ids[i]);
+                out.writeLong(numbers[i]);
+            }
+
+            long postingsStart = out.position();
+            long[] heapTrigrams = postings.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            int segmentTrigrams = segment == null ? 0 : segment.trigramCount();
+            List<long[]> directory = new ArrayList<>();
+            long longestList = 0;
+            int s = 0;
+            int h = 0;
+            while (s < segmentTrigrams || h < heapTrigrams.length) {
+                long trigram = h == heapTrigrams.length
+                    || s < segmentTrigrams && segment.trigram(s) <= heapTrigrams[h]
+                    ? segment.trigram(s)
+                    : heapTrigrams[h];
+                long[] mapped = s < segmentTrigrams && segment.trigram(s) == trigram
+                    ? segment.docNumbers(s++)
+                    : new long[0];
+                long[] heap = h < heapTrigrams.length && heapTrigrams[h] == trigram
+                    ? postings.get(heapTrigrams[h++]).docIds()
+                    : new long[0];
+
+                long start = out.position();
+                long previous = 0;
+                int written = 0;
+                for (long[] part : new long[][] {mapped, heap}) {
+                    for (long docNumber : part) {
+                        if (live.get((int) docNumber)) {
+                            out.writeVarLong(docNumber - previous);
+                            previous = docNumber;
+                            written++;
+                        }
+                    }
+                }
+                if (written > 0) {
+                    directory.add(new long[] {trigram, start - postingsStart, written});
+                    longestList = Math.max(longestList, out.position() - start);
+                }
+            }
+
+            long directoryStart = out.position();
+            for (long[] entry : directory) {
+                out.writeLong(entry[0]);
+                out.writeLong(entry[1]);
+                out.writeInt((int) entry[2]);
+            }
+            out.writeLong(postingsStart);
+            out.writeLong(directoryStart);
+            out.writeInt(directory.size());
+            out.writeLong(longestList);
+            out.writeInt(TrigramSegment.MAGIC);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Maps a snapshot written by {@link #writeSnapshot(Path)}. The returned index reads the
+     * snapshot's postings from the file and keeps later changes on the heap.
+     */
+    public static TrigramIndex readSnapshot(Path file) throws IOException {
+        return new TrigramIndex(TrigramSegment.map(file));
+    }
+
+    public static boolean containsIgnoreCase(String text, String query) {
+        return text != null && fold(text).contains(fold(query));
+    }
+
+    static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static long[] trigrams(String folded) {
+        if (folded.length() < GRAM) {
+            return new long[0];
+        }
+        Set<Long> unique = new HashSet<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            unique.add(((long) folded.charAt(i) << 32)
+                | ((long) folded.charAt(i + 1) << 16)
+                | folded.charAt(i + 2));
+        }
+        long[] trigrams = new long[unique.size()];
+        int i = 0;
+        for (long trigram : unique) {
+            trigrams[i++] = trigram;
+        }
+        return trigrams;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private Postings postingsOf(long trigram) {
+        int entry = segment == null ? -1 : segment.entry(trigram);
+        return new Postings(entry, postings.get(trigram));
+    }
+
+    private long liveId(long docNumber) {
+        if (segment != null && docNumber < segment.nextDocNumber()) {
+            return segment.liveId(docNumber);
+        }
+        Long id = liveDocuments.get(docNumber);
+        return id == null ? -1 : id;
+    }
+
+    private void removeInternal(long id) {
+        Long docNumber = docNumbers.remove(id);
+        if (docNumber != null) {
+            liveDocuments.remove(docNumber);
+            deadDocuments++;
+        } else if (segment != null) {
+            // the mapped postings cannot change; the removed bit filters the document out
+            segment.remove(id);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deadDocuments <= Math.max(1_000, liveDocuments.size())) {
+            return;
+        }
+        Iterator<Map.Entry<Long, PostingList>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, PostingList> entry = entries.next();
+            PostingList compacted = new PostingList();
+            PostingList.Cursor cursor = entry.getValue().cursor();
+            while (cursor.next()) {
+                if (liveDocuments.containsKey(cursor.docId())) {
+                    compacted.add(cursor.docId(), cursor.freq());
+                }
+            }
+            if (compacted.isEmpty()) {
+                entries.remove();
+            } else {
+                entry.setValue(compacted);
+            }
+        }
+        deadDocuments = 0;
+    }
+
+    /**
+     * A trigram's postings: the part in the mapped segment, if any, followed by the heap part.
+     */
+    private final class Postings {
+
+        private final int segmentEntry;
+        private final PostingList heap;
+
+        private Postings(int segmentEntry, PostingList heap) {
+            this.segmentEntry = segmentEntry;
+            this.heap = heap;
+        }
+
+        private int size() {
+            return (segmentEntry < 0 ? 0 : segment.size(segmentEntry)) + (heap == null ? 0 : heap.size());
+        }
+
+        private long[] docNumbers() {
+            long[] mapped = segmentEntry < 0 ? new long[0] : segment.docNumbers(segmentEntry);
+            if (heap == null) {
+                return mapped;
+            }
+            long[] added = heap.docIds();
+            long[] all = Arrays.copyOf(mapped, mapped.length + added.length);
+            System.arraycopy(added, 0, all, mapped.length, added.length);
+            return all;
+        }
+    }
+}
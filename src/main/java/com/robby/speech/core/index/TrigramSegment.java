@@ -0,0 +1,248 @@
+package com.robby.speech.core.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * The documents of a {@link TrigramIndex} snapshot, served straight from the memory-mapped file.
+ * Tables and postings stay in the page cache, outside the heap; only a bit per document marking
+ * it as removed since is kept on the heap. Not thread-safe; the owning index guards access.
+ *
+ * <p>File layout, big-endian: magic, version, next document number, document count {@code n};
+ * {@code n} pairs of document number and id ordered by number; the same pairs as id and number
+ * ordered by id; the postings, each a run of variable-length document number deltas; a directory
+ * of {@code (trigram, postings offset, document count)} entries ordered by trigram; and a footer
+ * locating the postings and the directory.
+ */
+final class TrigramSegment {
+
+    static final int MAGIC = 0x54524947;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 20;
+    static final int DIRECTORY_ENTRY_BYTES = 20;
+    static final int FOOTER_BYTES = 32;
+
+    // postings are mapped in windows that overlap by the longest list, so no list straddles two
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    private final long nextDocNumber;
+    private final int documentCount;
+    private final LongBuffer byDocNumber;
+    private final LongBuffer byId;
+    private final ByteBuffer directory;
+    private final int trigramCount;
+    private final ByteBuffer[] postingWindows;
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+
+    private TrigramSegment(
+        long nextDocNumber,
+        int documentCount,
+        LongBuffer byDocNumber,
+        LongBuffer byId,
+        ByteBuffer directory,
+        int trigramCount,
+        ByteBuffer[] postingWindows
+    ) {
+        this.nextDocNumber = nextDocNumber;
+        this.documentCount = documentCount;
+        this.byDocNumber = byDocNumber;
+        this.byId = byId;
+        this.directory = directory;
+        this.trigramCount = trigramCount;
+        this.postingWindows = postingWindows;
+    }
+
+    static TrigramSegment map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + FOOTER_BYTES) {
+                throw new IOException(file + " is truncated");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            SnapshotInput.checkHeader(file, header.getInt(0), header.getInt(4), MAGIC, VERSION);
+            long nextDocNumber = header.getLong(8);
+            int documentCount = header.getInt(16);
+
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, size - FOOTER_BYTES, FOOTER_BYTES);
+            long postingsStart = footer.getLong(0);
+            long directoryStart = footer.getLong(8);
+            int trigramCount = footer.getInt(16);
+            long longestList = footer.getLong(20);
+            if (footer.getInt(28) != MAGIC
+                || postingsStart != HEADER_BYTES + 32L * documentCount
+                || directoryStart + (long) DIRECTORY_ENTRY_BYTES * trigramCount != size - FOOTER_BYTES) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+
+            long tableBytes = 16L * documentCount;
+            LongBuffer byDocNumber = map(channel, file, HEADER_BYTES, tableBytes).asLongBuffer();
+            LongBuffer byId = map(channel, file, HEADER_BYTES + tableBytes, tableBytes).asLongBuffer();
+            ByteBuffer directory = map(channel, file, directoryStart, (long) DIRECTORY_ENTRY_BYTES * trigramCount);
+
+            long postingsBytes = directoryStart - postingsStart;
+            ByteBuffer[] windows = new ByteBuffer[(int) ((postingsBytes + WINDOW_BYTES - 1) / WINDOW_BYTES)];
+            for (int i = 0; i < windows.length; i++) {
+                long start = i * WINDOW_BYTES;
+                windows[i] = map(channel, file, postingsStart + start,
+                    Math.min(postingsBytes - start, WINDOW_BYTES + longestList));
+            }
+            return new TrigramSegment(nextDocNumber, documentCount, byDocNumber, byId, directory, trigramCount, windows);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, Path file, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(file + " has a table of " + size + " bytes, more than can be mapped at once");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    /**
+     * Every document number in the segment is below this, so later documents are numbered from
+     * here and their postings sort after the segment's.
+     */
+    long nextDocNumber() {
+        return nextDocNumber;
+    }
+
+    int liveCount() {
+        return documentCount - removedCount;
+    }
+
+    /**
+     * Marks the document removed and returns whether it was live.
+     */
+    boolean remove(long id) {
+        int position = find(byId, id);
+        if (position < 0) {
+            return false;
+        }
+        int numbered = positionByDocNumber(byId.get(2 * position + 1));
+        if (removed.get(numbered)) {
+            return false;
+        }
+        removed.set(numbered);
+        removedCount++;
+        return true;
+    }
+
+    /**
+     * The id of a live document, or {@code -1} if the document has been removed since.
+     */
+    long liveId(long docNumber) {
+        int position = positionByDocNumber(docNumber);
+        return position < 0 || removed.get(position) ? -1 : byDocNumber.get(2 * position + 1);
+    }
+
+    void addLiveIds(Collection<Long> ids) {
+        for (int i = 0; i < documentCount; i++) {
+            if (!removed.get(i)) {
+                ids.add(byDocNumber.get(2 * i + 1));
+            }
+        }
+    }
+
+    /**
+     * Live document numbers in ascending order with their ids, for writing the next snapshot.
+     */
+    void forEachLive(DocumentVisitor visitor) throws IOException {
+        for (int i = 0; i < documentCount; i++) {
+            if (!removed.get(i)) {
+                visitor.visit(byDocNumber.get(2 * i), byDocNumber.get(2 * i + 1));
+            }
+        }
+    }
+
+    int trigramCount() {
+        return trigramCount;
+    }
+
+    long trigram(int entry) {
+        return directory.getLong(entry * DIRECTORY_ENTRY_BYTES);
+    }
+
+    /**
+     * Number of documents in the postings of the directory entry, removed ones included.
+     */
+    int size(int entry) {
+        return directory.getInt(entry * DIRECTORY_ENTRY_BYTES + 16);
+    }
+
+    /**
+     * Directory entry of a trigram, or a negative number if no document contains it.
+     */
+    int entry(long trigram) {
+        int low = 0;
+        int high = trigramCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = trigram(mid);
+            if (value < trigram) {
+                low = mid + 1;
+            } else if (value > trigram) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Document numbers of the entry's postings, ascending, removed documents included.
+     */
+    long[] docNumbers(int entry) {
+        long offset = directory.getLong(entry * DIRECTORY_ENTRY_BYTES + 8);
+        ByteBuffer window = postingWindows[(int) (offset / WINDOW_BYTES)];
+        int position = (int) (offset % WINDOW_BYTES);
+        long[] numbers = new long[size(entry)];
+        long docNumber = 0;
+        for (int i = 0; i < numbers.length; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = window.get(position++);
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            docNumber += delta;
+            numbers[i] = docNumber;
+        }
+        return numbers;
+    }
+
+    private int positionByDocNumber(long docNumber) {
+        return find(byDocNumber, docNumber);
+    }
+
+    // binary search over the first value of each pair
+    private int find(LongBuffer pairs, long key) {
+        int low = 0;
+        int high = documentCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = pairs.get(2 * mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @FunctionalInterface
+    interface DocumentVisitor {
+        void visit(long docNumber, long id) throws IOException;
+    }
+}
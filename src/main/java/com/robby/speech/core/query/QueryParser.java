@@ -0,0 +1,247 @@
+package com.robby.speech.core.query;
+
+import com.robby.speech.core.InvalidQueryException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recursive descent parser of the search query language:
+ *
+ * <pre>
+ * query   = or
+ * or      = and { "OR" and }
+ * and     = unary { [ "AND" ] unary }
+ * unary   = ( "NOT" | "-" ) unary | primary
+ * primary = "(" or ")" | field ":" ( "(" or ")" | value ) | value
+ * value   = word | '"' phrase '"'
+ * field   = "author" | "keyword" | "text" | "date"
+ * </pre>
+ *
+ * <p>Operators are upper case and adjacent clauses are ANDed. A value without a field filters
+ * the text, or the field of the enclosing {@code field:( ... )}, so
+ * {@code keyword:(economy OR trade)} matches either keyword. Inside a phrase, a backslash escapes
+ * the next character. Dates are ISO-8601, either a single day or a range {@code from..to} that
+ * may be open on one side. Groups and negations nest at most {@value #MAX_DEPTH} levels deep.
+ */
+final class QueryParser {
+
+    private enum Field {
+        AUTHOR,
+        KEYWORD,
+        TEXT,
+        DATE
+    }
+
+    static final int MAX_DEPTH = 32;
+
+    private final String input;
+    private int position;
+    private int depth;
+
+    QueryParser(String input) {
+        this.input = input;
+    }
+
+    SpeechQuery parse() {
+        skipWhitespace();
+        if (position == input.length()) {
+            throw new InvalidQueryException("Empty query", position);
+        }
+        SpeechQuery query = or(Field.TEXT);
+        skipWhitespace();
+        if (position < input.length()) {
+            throw new InvalidQueryException(input.charAt(position) == ')' ? "Unbalanced ')'" : "Unexpected input", position);
+        }
+        return query;
+    }
+
+    private SpeechQuery or(Field field) {
+        List<SpeechQuery> clauses = new ArrayList<>();
+        clauses.add(and(field));
+        while (acceptOperator("OR")) {
+            clauses.add(and(field));
+        }
+        return SpeechQuery.or(clauses);
+    }
+
+    private SpeechQuery and(Field field) {
+        List<SpeechQuery> clauses = new ArrayList<>();
+        clauses.add(unary(field));
+        while (true) {
+            skipWhitespace();
+            if (position == input.length() || input.charAt(position) == ')' || atOperator("OR")) {
+                return SpeechQuery.and(clauses);
+            }
+            acceptOperator("AND");
+            clauses.add(unary(field));
+        }
+    }
+
+    private SpeechQuery unary(Field field) {
+        skipWhitespace();
+        int start = position;
+        boolean negated = acceptOperator("NOT");
+        if (!negated && position + 1 < input.length() && input.charAt(position) == '-'
+            && !Character.isWhitespace(input.charAt(position + 1))) {
+            position++;
+            negated = true;
+        }
+        if (!negated) {
+            return primary(field);
+        }
+        enter(start);
+        SpeechQuery negation = new SpeechQuery.Not(unary(field));
+        depth--;
+        return negation;
+    }
+
+    private SpeechQuery primary(Field field) {
+        skipWhitespace();
+        int start = position;
+        if (position == input.length() || input.charAt(position) == ')') {
+            throw new InvalidQueryException("Expected a filter", position);
+        }
+        char c = input.charAt(position);
+        if (c == '(') {
+            return group(field);
+        }
+        if (c == '"') {
+            return filter(field, phrase(), start);
+        }
+        String word = word();
+        int colon = word.indexOf(':');
+        if (colon < 0 || !word.substring(0, colon).chars().allMatch(Character::isLetter)) {
+            return filter(field, word, start);
+        }
+        Field named = field(word.substring(0, colon), start);
+        String value = word.substring(colon + 1);
+        if (!value.isEmpty()) {
+            return filter(named, value, start + colon + 1);
+        }
+        if (position < input.length() && input.charAt(position) == '(') {
+            return group(named);
+        }
+        if (position < input.length() && input.charAt(position) == '"') {
+            int valueStart = position;
+            return filter(named, phrase(), valueStart);
+        }
+        throw new InvalidQueryException("Expected a value after '" + word + "'", position);
+    }
+
+    private SpeechQuery group(Field field) {
+        int start = position++;
+        enter(start);
+        SpeechQuery query = or(field);
+        depth--;
+        skipWhitespace();
+        if (position == input.length() || input.charAt(position) != ')') {
+            throw new InvalidQueryException("Unbalanced '('", start);
+        }
+        position++;
+        return query;
+    }
+
+    // bounds the recursion of the parser and of everything that walks the parsed query
+    private void enter(int start) {
+        if (++depth > MAX_DEPTH) {
+            throw new InvalidQueryException("Query nested deeper than " + MAX_DEPTH + " levels", start);
+        }
+    }
+
+    private SpeechQuery filter(Field field, String value, int start) {
+        if (value.isBlank()) {
+            throw new InvalidQueryException("Empty value", start);
+        }
+        return switch (field) {
+            case AUTHOR -> new SpeechQuery.Author(value);
+            case KEYWORD -> new SpeechQuery.Keyword(value);
+            case TEXT -> new SpeechQuery.Text(value);
+            case DATE -> dateRange(value, start);
+        };
+    }
+
+    private static SpeechQuery dateRange(String value, int start) {
+        int dots = value.indexOf("..");
+        if (dots < 0) {
+            LocalDate day = date(value, start);
+            return new SpeechQuery.DateRange(day, day);
+        }
+        LocalDate from = dots == 0 ? null : date(value.substring(0, dots), start);
+        LocalDate to = dots + 2 == value.length() ? null : date(value.substring(dots + 2), start + dots + 2);
+        if (from == null && to == null) {
+            throw new InvalidQueryException("A date range needs at least one end", start);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidQueryException("Date range ends before it starts", start);
+        }
+        return new SpeechQuery.DateRange(from, to);
+    }
+
+    private static LocalDate date(String value, int start) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidQueryException("Invalid date '" + value + "'", start);
+        }
+    }
+
+    private static Field field(String name, int start) {
+        try {
+            return Field.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryException("Unknown field '" + name + "'", start);
+        }
+    }
+
+    private String phrase() {
+        int start = position++;
+        StringBuilder phrase = new StringBuilder();
+        while (position < input.length()) {
+            char c = input.charAt(position++);
+            if (c == '"') {
+                return phrase.toString();
+            }
+            if (c == '\\' && position < input.length()) {
+                c = input.charAt(position++);
+            }
+            phrase.append(c);
+        }
+        throw new InvalidQueryException("Unterminated phrase", start);
+    }
+
+    private String word() {
+        int start = position;
+        while (position < input.length() && !endsWord(input.charAt(position))) {
+            position++;
+        }
+        return input.substring(start, position);
+    }
+
+    private static boolean endsWord(char c) {
+        return Character.isWhitespace(c) || c == '(' || c == ')' || c == '"';
+    }
+
+    private boolean acceptOperator(String operator) {
+        skipWhitespace();
+        if (!atOperator(operator)) {
+            return false;
+        }
+        position += operator.length();
+        return true;
+    }
+
+    private boolean atOperator(String operator) {
+        int end = position + operator.length();
+        return input.startsWith(operator, position) && (end == input.length() || endsWord(input.charAt(end)));
+    }
+
+    private void skipWhitespace() {
+        while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+            position++;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.robby.speech.core.query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Parsed search query: filters on single fields combined with {@code AND}, {@code OR} and
+ * {@code NOT}. Author, keyword and text filters match substrings, ignoring case; a date range
+ * includes both ends and may be open on either.
+ */
+public sealed interface SpeechQuery {
+
+    /**
+     * Parses the query language described by {@link QueryParser}.
+     *
+     * @throws com.robby.speech.core.InvalidQueryException if the query does not parse
+     */
+    static SpeechQuery parse(String query) {
+        return new QueryParser(query).parse();
+    }
+
+    /**
+     * The conjunction of the classic search filters and an optional parsed query; null and blank
+     * filters are left out. Returns {@code null} if there is nothing to filter on.
+     */
+    static SpeechQuery of(String author, LocalDate from, LocalDate to, String keyword, String text, SpeechQuery query) {
+        List<SpeechQuery> clauses = new ArrayList<>();
+        if (author != null && !author.isBlank()) {
+            clauses.add(new Author(author));
+        }
+        if (from != null || to != null) {
+            clauses.add(new DateRange(from, to));
+        }
+        if (keyword != null && !keyword.isBlank()) {
+            clauses.add(new Keyword(keyword));
+        }
+        if (text != null && !text.isBlank()) {
+            clauses.add(new Text(text));
+        }
+        if (query != null) {
+            clauses.add(query);
+        }
+        return clauses.isEmpty() ? null : and(clauses);
+    }
+
+    static SpeechQuery and(List<SpeechQuery> clauses) {
+        return clauses.size() == 1 ? clauses.get(0) : new And(List.copyOf(clauses));
+    }
+
+    static SpeechQuery or(List<SpeechQuery> clauses) {
+        return clauses.size() == 1 ? clauses.get(0) : new Or(List.copyOf(clauses));
+    }
+
+    /**
+     * Whether a text filter occurs anywhere in the query. Only text filters need the in-memory
+     * index; everything else can be answered by the database alone.
+     */
+    boolean usesText();
+
+    record And(List<SpeechQuery> clauses) implements SpeechQuery {
+
+        @Override
+        public boolean usesText() {
+            return clauses.stream().anyMatch(SpeechQuery::usesText);
+        }
+
+        @Override
+        public String toString() {
+            return clauses.stream().map(SpeechQuery::toString).collect(Collectors.joining(" AND ", "(", ")"));
+        }
+    }
+
+    record Or(List<SpeechQuery> clauses) implements SpeechQuery {
+
+        @Override
+        public boolean usesText() {
+            return clauses.stream().anyMatch(SpeechQuery::usesText);
+        }
+
+        @Override
+        public String toString() {
+            return clauses.stream().map(SpeechQuery::toString).collect(Collectors.joining(" OR ", "(", ")"));
+        }
+    }
+
+    record Not(SpeechQuery clause) implements SpeechQuery {
+
+        @Override
+        public boolean usesText() {
+            return clause.usesText();
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + clause;
+        }
+    }
+
+    record Author(String value) implements SpeechQuery {
+
+        @Override
+        public boolean usesText() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "author:" + quote(value);
+        }
+    }
+
+    record Keyword(String value) implements SpeechQuery {
+
+        @Override
+        public boolean usesText() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "keyword:" + quote(value);
+        }
+    }
+
+    record Text(String value) implements SpeechQuery {
+
+        @Override
+        public boolean usesText() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "text:" + quote(value);
+        }
+    }
+
+    record DateRange(LocalDate from, LocalDate to) implements SpeechQuery {
+
+        public boolean contains(LocalDate date) {
+            return date != null && (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+        }
+
+        @Override
+        public boolean usesText() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "date:" + (from == null ? "" : from) + ".." + (to == null ? "" : to);
+        }
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -0,0 +1,228 @@
+package com.robby.speech.corpus;
+
+import com.robby.speech.controller.dto.SpeechDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic synthetic speeches. Authors and keywords follow Zipf distributions, text
+ * lengths are log-uniform between {@link Settings#minTextBytes()} and
+ * {@link Settings#maxTextBytes()}, and dates are uniform over the configured years.
+ *
+ * <p>Every speech is derived from the seed and its index alone, so a corpus can be generated in
+ * parallel or in slices and still be identical for everyone using the same seed.
+ */
+public class CorpusGenerator {
+
+    private static final String[] FIRST_NAMES = {
+        "John", "Jane", "Maria", "Wei", "Amara", "Lars", "Priya", "Tom", "Sofia", "Kenji", "Elena",
+        "Omar", "Grace", "Diego", "Fatima", "Henrik", "Aisha", "Lucas", "Mei", "Samuel", "Ingrid",
+        "Rahul", "Chloe", "Mateo", "Hana", "Victor", "Zara", "Noah", "Yuki", "Isabel", "Kwame",
+        "Anna", "Pedro", "Leila", "Jonas", "Nadia", "Arjun", "Emma", "Tariq", "Olga"
+    };
+    private static final String[] LAST_NAMES = {
+        "Doe", "Smith", "Garcia", "Chen", "Okafor", "Nilsson", "Patel", "Becker", "Rossi",
+        "Tanaka", "Petrova", "Haddad", "Johnson", "Martinez", "Kim", "Nguyen", "Mueller", "Dubois",
+        "Kowalski", "Silva", "Ivanova", "Mensah", "O'Brien", "Novak", "Sato", "Fischer", "Costa",
+        "Andersen", "Lopez", "Ahmed", "Walker", "Moreau", "Jansen", "Horvat", "Yilmaz", "Brown",
+        "Santos", "Lindqvist", "Mwangi", "Kaur"
+    };
+    private static final String[] KEYWORDS = {
+        "economy", "healthcare", "education", "climate", "energy", "defense", "immigration",
+        "infrastructure", "technology", "jobs", "taxes", "housing", "trade", "agriculture",
+        "pensions", "transport", "justice", "policing", "veterans", "innovation", "budget",
+        "inflation", "wages", "unions", "small business", "manufacturing", "tourism", "fisheries",
+        "water", "broadband", "childcare", "mental health", "drugs", "public safety", "elections",
+        "democracy", "foreign policy", "human rights", "refugees", "diplomacy", "space", "science",
+        "research", "universities", "apprenticeships", "rural affairs", "cities", "culture",
+        "sport", "media", "privacy", "cybersecurity", "artificial intelligence", "pandemic",
+        "vaccines", "disability", "equality", "women's rights", "indigenous rights", "forestry",
+        "oceans", "biodiversity", "waste", "recycling"
+    };
+    private static final String[] WORDS = {
+        "the", "of", "and", "to", "a", "in", "we", "that", "our", "is", "for", "will", "this", "it",
+        "on", "people", "with", "have", "are", "be", "not", "as", "they", "all", "who", "must",
+        "can", "more", "by", "their", "from", "country", "every", "new", "work", "today", "nation",
+        "future", "families", "together", "government", "community", "children", "time", "years",
+        "change", "world", "need", "make", "believe", "americans", "citizens", "jobs", "right",
+        "help", "best", "build", "plan", "economy", "stronger", "fair", "opportunity", "policy",
+        "growth", "investment", "security", "schools", "hospitals", "roads", "power", "clean",
+        "prices", "wages", "small", "business", "rural", "cities", "promise", "reform", "freedom",
+        "justice", "hope", "responsibility", "history", "generation", "workers", "support",
+        "progress", "challenge", "budget", "health", "care", "energy", "climate", "trade",
+        "industry", "innovation", "education", "teachers", "students", "housing", "homes",
+        "safety", "police", "courts", "law", "rights", "vote", "democracy", "leaders", "allies",
+        "peace", "war", "soldiers", "veterans", "service", "sacrifice", "duty", "honor", "truth",
+        "trust", "values", "faith", "courage", "vision", "dream", "land", "water", "air", "farms",
+        "factories", "markets", "taxes", "debt", "savings", "pensions", "seniors", "young", "old",
+        "neighbors", "friends", "parents", "mothers", "fathers", "sons", "daughters", "hard",
+        "working", "middle", "class", "poverty", "wealth", "equal", "chance", "forward", "again",
+        "never", "always", "nothing", "everything", "great", "good", "better", "long", "first",
+        "last", "next", "open", "free", "strong", "proud", "grateful", "ready", "here"
+    };
+    private static final double AUTHOR_SKEW = 1.1;
+    private static final double KEYWORD_SKEW = 1.0;
+    private static final double WORD_SKEW = 1.0;
+    private static final int MAX_KEYWORDS = 5;
+
+    private final Settings settings;
+    private final List<String> authors;
+    private final ZipfDistribution authorDistribution;
+    private final ZipfDistribution keywordDistribution;
+    private final ZipfDistribution wordDistribution;
+    private final LocalDate firstDate;
+    private final int dateRangeDays;
+
+    public record Settings(
+        long seed,
+        int authors,
+        int minTextBytes,
+        int maxTextBytes,
+        int fromYear,
+        int toYear
+    ) {
+
+        public static Settings defaults(long seed) {
+            return new Settings(seed, 500, 1024, 200 * 1024, 1960, 2024);
+        }
+
+        public Settings withTextBytes(int min, int max) {
+            return new Settings(seed, authors, min, max, fromYear, toYear);
+        }
+    }
+
+    public CorpusGenerator(Settings settings) {
+        if (settings.authors() <= 0 || settings.authors() > FIRST_NAMES.length * LAST_NAMES.length) {
+            throw new IllegalArgumentException("authors must be between 1 and "
+                + FIRST_NAMES.length * LAST_NAMES.length);
+        }
+        if (settings.minTextBytes() <= 0 || settings.maxTextBytes() < settings.minTextBytes()) {
+            throw new IllegalArgumentException("Invalid text length range");
+        }
+        this.settings = settings;
+        this.authors = authorNames(settings.seed(), settings.authors());
+        this.authorDistribution = new ZipfDistribution(authors.size(), AUTHOR_SKEW);
+        this.keywordDistribution = new ZipfDistribution(KEYWORDS.length, KEYWORD_SKEW);
+        this.wordDistribution = new ZipfDistribution(WORDS.length, WORD_SKEW);
+        this.firstDate = LocalDate.of(settings.fromYear(), 1, 1);
+        this.dateRangeDays = (int) (LocalDate.of(settings.toYear(), 12, 31).toEpochDay()
+            - firstDate.toEpochDay()) + 1;
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /** Authors from most to least prolific. */
+    public List<String> authors() {
+        return Collections.unmodifiableList(authors);
+    }
+
+    /** Keywords from most to least frequent. */
+    public List<String> keywords() {
+        return List.of(KEYWORDS);
+    }
+
+    public List<String> words() {
+        return List.of(WORDS);
+    }
+
+    public LocalDate firstDate() {
+        return firstDate;
+    }
+
+    public LocalDate lastDate() {
+        return firstDate.plusDays(dateRangeDays - 1);
+    }
+
+    public Stream<SpeechDto> speeches(long count) {
+        return LongStream.range(0, count).mapToObj(this::speech);
+    }
+
+    public SpeechDto speech(long index) {
+        SplittableRandom random = new SplittableRandom(mix(settings.seed() ^ mix(index + 1)));
+        String author = authors.get(authorDistribution.sample(random));
+        Set<String> keywords = new LinkedHashSet<>();
+        int keywordCount = 1 + random.nextInt(MAX_KEYWORDS);
+        for (int i = 0; i < keywordCount; i++) {
+            keywords.add(KEYWORDS[keywordDistribution.sample(random)]);
+        }
+        return new SpeechDto(
+            null,
+            text(random),
+            author,
+            email(author),
+            new ArrayList<>(keywords),
+            firstDate.plusDays(random.nextInt(dateRangeDays))
+        );
+    }
+
+    private String text(RandomGenerator random) {
+        // log-uniform, so short speeches are common and the longest are rare
+        double logMin = Math.log(settings.minTextBytes());
+        double logMax = Math.log(settings.maxTextBytes());
+        int target = (int) Math.round(Math.exp(logMin + random.nextDouble() * (logMax - logMin)));
+        StringBuilder text = new StringBuilder(target + 32);
+        int sentences = 0;
+        while (text.length() < target) {
+            if (sentences > 0) {
+                text.append(sentences % 6 == 0 ? "\n\n" : " ");
+            }
+            int words = 6 + random.nextInt(20);
+            for (int i = 0; i < words; i++) {
+                String word = WORDS[wordDistribution.sample(random)];
+                if (i == 0) {
+                    text.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                } else {
+                    text.append(' ').append(word);
+                }
+            }
+            text.append(random.nextInt(10) == 0 ? '!' : '.');
+            sentences++;
+        }
+        return fit(text);
+    }
+
+    // cuts the text back to whole words within the maximum; speeches are ASCII, so chars are bytes
+    private String fit(StringBuilder text) {
+        if (text.length() <= settings.maxTextBytes()) {
+            return text.toString();
+        }
+        int cut = text.lastIndexOf(" ", settings.maxTextBytes() - 1);
+        text.setLength(cut > 0 ? cut : settings.maxTextBytes() - 1);
+        return text.append('.').toString();
+    }
+
+    private static List<String> authorNames(long seed, int count) {
+        List<String> names = new ArrayList<>(FIRST_NAMES.length * LAST_NAMES.length);
+        for (String first : FIRST_NAMES) {
+            for (String last : LAST_NAMES) {
+                names.add(first + " " + last);
+            }
+        }
+        Collections.shuffle(names, new Random(seed));
+        return new ArrayList<>(names.subList(0, count));
+    }
+
+    private static String email(String author) {
+        return author.toLowerCase(Locale.ROOT).replaceAll("[^a-z]+", ".") + "@example.org";
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,141 @@
+package com.robby.speech.corpus;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.model.SpeechTextCodec;
+import com.robby.speech.repository.TermDictionary;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Bulk-inserts speeches with batched JDBC statements, one transaction per batch, bypassing JPA.
+ * Text is compressed or kept plain as the application's {@link SpeechTextCodec} decides, so rows
+ * are indistinguishable from ones written through the API. Authors and keywords are translated to ids through the same
+ * dictionaries the entities use, so new ones are added to them. Every speech is recorded in the {@code speech_changes}
+ * outbox in the same transaction, so change feed consumers, the in-process indexes of running instances and index
+ * snapshots taken before the load all see it like any other write.
+ */
+public class JdbcCorpusWriter {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_BODY = "insert into speech_bodies (text, compressed_text, text_version) "
+        + "values (:text, :compressedText, 1)";
+    private static final String INSERT_SPEECH = "insert into speeches (author_id, author_email, speech_date, body_id) "
+        + "values (:authorId, :authorEmail, :speechDate, :bodyId)";
+    private static final String INSERT_KEYWORD = "insert into speech_keywords (speech_id, keyword_id) "
+        + "values (:speechId, :keywordId)";
+    private static final String INSERT_CHANGE = "insert into speech_changes (type, speech_id, changed_at) "
+        + "values ('SAVED', :speechId, :changedAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SpeechTextCodec codec;
+    private final TermDictionary authors;
+    private final TermDictionary keywords;
+
+    public JdbcCorpusWriter(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        SpeechTextCodec codec,
+        TermDictionary authors,
+        TermDictionary keywords
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.codec = codec;
+        this.authors = authors;
+        this.keywords = keywords;
+    }
+
+    public long write(Stream<SpeechDto> speeches, LongConsumer progress) {
+        long written = 0;
+        List<SpeechDto> batch = new ArrayList<>(BATCH_SIZE);
+        Iterator<SpeechDto> iterator = speeches.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+                written += batch.size();
+                progress.accept(written);
+                batch.clear();
+            }
+        }
+        return written;
+    }
+
+    private void insert(List<SpeechDto> batch) {
+        SqlParameterSource[] bodies = new SqlParameterSource[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            String text = batch.get(i).text();
+            byte[] compressed = codec.compress(text);
+            bodies[i] = new MapSqlParameterSource()
+                .addValue("text", compressed == null ? text : null, Types.VARCHAR)
+                .addValue("compressedText", compressed, Types.VARBINARY);
+        }
+        List<Long> bodyIds = insertReturningIds(INSERT_BODY, bodies);
+
+        SqlParameterSource[] speeches = new SqlParameterSource[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            SpeechDto speech = batch.get(i);
+            speeches[i] = new MapSqlParameterSource()
+                .addValue("authorId", authors.idOf(speech.author()))
+                .addValue("authorEmail", speech.authorEmail())
+                .addValue("speechDate", speech.speechDate())
+                .addValue("bodyId", bodyIds.get(i));
+        }
+        List<Long> speechIds = insertReturningIds(INSERT_SPEECH, speeches);
+
+        List<SqlParameterSource> keywordRows = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            List<String> speechKeywords = batch.get(i).keywords();
+            if (speechKeywords == null) {
+                continue;
+            }
+            for (String keyword : speechKeywords) {
+                keywordRows.add(new MapSqlParameterSource()
+                    .addValue("speechId", speechIds.get(i))
+                    .addValue("keywordId", keywords.idOf(keyword)));
+            }
+        }
+        if (!keywordRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_KEYWORD, keywordRows.toArray(SqlParameterSource[]::new));
+        }
+
+        Instant changedAt = Instant.now();
+        SqlParameterSource[] changes = new SqlParameterSource[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            changes[i] = new MapSqlParameterSource()
+                .addValue("speechId", speechIds.get(i))
+                .addValue("changedAt", Timestamp.from(changedAt));
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, changes);
+    }
+
+    private List<Long> insertReturningIds(String sql, SqlParameterSource[] rows) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(sql, rows, keys, new String[] {"id"});
+        List<Long> ids = new ArrayList<>(rows.length);
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        if (ids.size() != rows.length) {
+            throw new IllegalStateException("Expected " + rows.length + " generated ids but got " + ids.size());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,45 @@
+package com.robby.speech.corpus;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.robby.speech.controller.dto.SpeechDto;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes speeches as newline-delimited JSON, one {@link SpeechDto} per line, in the same shape
+ * the API accepts on create.
+ */
+public class NdjsonCorpusWriter {
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .serializationInclusion(JsonInclude.Include.NON_NULL)
+        .build();
+
+    public long write(Stream<SpeechDto> speeches, Path file, LongConsumer progress) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        long written = 0;
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            Iterator<SpeechDto> iterator = speeches.iterator();
+            while (iterator.hasNext()) {
+                out.write(mapper.writeValueAsString(iterator.next()));
+                out.write('\n');
+                progress.accept(++written);
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,98 @@
+package com.robby.speech.diagnostics;
+
+import com.robby.speech.controller.dto.RecordingStatusDto;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Controls a single on-demand flight recording. The last recording is kept after it is stopped,
+ * so it can still be downloaded, and is discarded when the next one starts.
+ */
+@Component
+@ConditionalOnProperty(name = "speech.diagnostics.jfr.endpoint-enabled", havingValue = "true")
+public class FlightRecorderService {
+
+    public static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private Recording recording;
+    private String settings;
+
+    /**
+     * Starts a recording with the given JDK settings, or returns empty if one is already running.
+     */
+    public synchronized Optional<RecordingStatusDto> start(String settings, Duration maxAge) {
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("Unknown recording settings '" + settings + "'");
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return Optional.empty();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("JDK recording settings '" + settings + "' are unreadable", e);
+        }
+        this.settings = settings;
+        recording.setName("speech-" + recording.getId());
+        recording.enable(SpeechOperationEvent.class);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.start();
+        return Optional.of(status(recording));
+    }
+
+    /**
+     * Stops the running recording, or returns empty if none is running.
+     */
+    public synchronized Optional<RecordingStatusDto> stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return Optional.empty();
+        }
+        recording.stop();
+        return Optional.of(status(recording));
+    }
+
+    public synchronized Optional<RecordingStatusDto> status() {
+        return Optional.ofNullable(recording).map(this::status);
+    }
+
+    /**
+     * Writes what has been recorded so far to a temporary file, which the caller deletes. A
+     * running recording keeps running.
+     */
+    public synchronized Optional<Path> dump() throws IOException {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        Path file = Files.createTempFile(recording.getName() + "-", ".jfr");
+        recording.dump(file);
+        return Optional.of(file);
+    }
+
+    private RecordingStatusDto status(Recording recording) {
+        return new RecordingStatusDto(
+            recording.getName(),
+            recording.getState().name(),
+            settings,
+            recording.getStartTime(),
+            recording.getStopTime()
+        );
+    }
+}
@@ -0,0 +1,118 @@
+package com.robby.speech.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Data source whose connections time every statement execution and count the rows read from
+ * its result sets, recording both into the thread's {@link QueryStatistics}. Statements slower
+ * than the threshold are logged whether or not statistics are being collected.
+ *
+ * <p>Unless every connection is to be counted, only connections checked out while the thread
+ * collects statistics are wrapped; all others are the target's own, so their statements do not
+ * go through reflection at all.
+ */
+@Slf4j
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    private final long slowQueryNanos;
+    private final boolean countEveryConnection;
+
+    public QueryCountingDataSource(DataSource target, Duration slowQueryThreshold, boolean countEveryConnection) {
+        super(target);
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+        this.countEveryConnection = countEveryConnection;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        if (!countEveryConnection && QueryStatistics.current().isEmpty()) {
+            return target;
+        }
+        return proxy(Connection.class, target, (method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                case "prepareStatement" ->
+                    statement(PreparedStatement.class, (PreparedStatement) result, (String) args[0]);
+                case "prepareCall" ->
+                    statement(CallableStatement.class, (CallableStatement) result, (String) args[0]);
+                default -> result;
+            };
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, S target, String preparedSql) {
+        return proxy(type, target, (method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = invoke(target, method, args);
+                return name.equals("getResultSet") && result != null ? resultSet((ResultSet) result) : result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long started = System.nanoTime();
+            Object result = invoke(target, method, args);
+            long elapsed = System.nanoTime() - started;
+            QueryStatistics.current().ifPresent(statistics -> statistics.statementExecuted(sql, elapsed));
+            if (elapsed >= slowQueryNanos) {
+                log.warn("Slow statement ({} ms): {}", elapsed / 1_000_000, sql);
+            }
+            return result instanceof ResultSet resultSet ? resultSet(resultSet) : result;
+        });
+    }
+
+    private ResultSet resultSet(ResultSet target) {
+        return proxy(ResultSet.class, target, (method, args) -> {
+            Object result = invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                QueryStatistics.current().ifPresent(QueryStatistics::rowFetched);
+            }
+            return result;
+        });
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(
+            QueryCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "unwrap", "isWrapperFor" -> invoke(target, method, args);
+                default -> handler.handle(method, args);
+            }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.robby.speech.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * Collects {@link QueryStatistics} for each request and reports them in response headers. The
+ * headers are added just before the response is committed, so they reflect every statement run
+ * before the first byte of the body is written.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "speech.diagnostics.enabled", havingValue = "true")
+public class QueryDiagnosticsFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String DB_TIME_HEADER = "X-DB-Time-Ms";
+    public static final String ROWS_FETCHED_HEADER = "X-Rows-Fetched";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        try (QueryStatistics statistics = QueryStatistics.start()) {
+            StatisticsResponse wrapped = new StatisticsResponse(response, statistics);
+            chain.doFilter(request, wrapped);
+            wrapped.finish();
+            if (log.isDebugEnabled() && statistics.queryCount() > 0) {
+                log.debug("{} {}: {}, slowest {} ms: {}", request.getMethod(), request.getRequestURI(),
+                    statistics, String.format(Locale.ROOT, "%.2f", statistics.slowestMillis()),
+                    statistics.slowestSql());
+            }
+        }
+    }
+
+    private static final class StatisticsResponse extends HttpServletResponseWrapper {
+
+        private final QueryStatistics statistics;
+        private boolean headersWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private StatisticsResponse(HttpServletResponse response, QueryStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        private void finish() {
+            writeHeaders();
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        private void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(statistics.queryCount()));
+            setHeader(DB_TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.dbTimeMillis()));
+            setHeader(ROWS_FETCHED_HEADER, String.valueOf(statistics.rowsFetched()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeaderWritingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(
+                    getOutputStream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        private final class HeaderWritingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            private HeaderWritingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                writeHeaders();
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writeHeaders();
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writeHeaders();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writeHeaders();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                delegate.setWriteListener(listener);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.robby.speech.diagnostics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps every {@link DataSource} in a {@link QueryCountingDataSource} when request diagnostics
+ * or flight recorder events, which report DB time, are enabled. Request diagnostics count every
+ * connection; for flight recorder events alone, only connections checked out by a call being
+ * recorded are counted, so nothing is proxied while no recording runs.
+ */
+@Component
+@ConditionalOnExpression("${speech.diagnostics.enabled:false} or ${speech.diagnostics.jfr.enabled:true}")
+public class QueryDiagnosticsPostProcessor implements BeanPostProcessor {
+
+    private final Duration slowQueryThreshold;
+    private final boolean requestDiagnostics;
+
+    public QueryDiagnosticsPostProcessor(
+        @Value("${speech.diagnostics.slow-query-threshold-ms:100}") long slowQueryThresholdMs,
+        @Value("${speech.diagnostics.enabled:false}") boolean requestDiagnostics
+    ) {
+        this.slowQueryThreshold = Duration.ofMillis(slowQueryThresholdMs);
+        this.requestDiagnostics = requestDiagnostics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+            return new QueryCountingDataSource(dataSource, slowQueryThreshold, requestDiagnostics);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,89 @@
+package com.robby.speech.diagnostics;
+
+import java.util.Optional;
+
+/**
+ * JDBC activity of the current thread between {@link #start()} and {@link #close()}: statements
+ * executed, rows read from their result sets and time spent executing them. Scopes nest; a
+ * statement counts towards every open scope on the thread.
+ */
+public final class QueryStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private final QueryStatistics parent;
+    private int queryCount;
+    private long rowsFetched;
+    private long dbTimeNanos;
+    private long slowestNanos;
+    private String slowestSql;
+
+    private QueryStatistics(QueryStatistics parent) {
+        this.parent = parent;
+    }
+
+    public static QueryStatistics start() {
+        QueryStatistics statistics = new QueryStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static Optional<QueryStatistics> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    void statementExecuted(String sql, long elapsedNanos) {
+        for (QueryStatistics scope = this; scope != null; scope = scope.parent) {
+            scope.queryCount++;
+            scope.dbTimeNanos += elapsedNanos;
+            if (elapsedNanos > scope.slowestNanos) {
+                scope.slowestNanos = elapsedNanos;
+                scope.slowestSql = sql;
+            }
+        }
+    }
+
+    void rowFetched() {
+        for (QueryStatistics scope = this; scope != null; scope = scope.parent) {
+            scope.rowsFetched++;
+        }
+    }
+
+    public int queryCount() {
+        return queryCount;
+    }
+
+    public long rowsFetched() {
+        return rowsFetched;
+    }
+
+    public long dbTimeNanos() {
+        return dbTimeNanos;
+    }
+
+    public double dbTimeMillis() {
+        return dbTimeNanos / 1_000_000.0;
+    }
+
+    public double slowestMillis() {
+        return slowestNanos / 1_000_000.0;
+    }
+
+    public String slowestSql() {
+        return slowestSql;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d queries, %d rows, %.2f ms", queryCount, rowsFetched, dbTimeMillis());
+    }
+}
@@ -0,0 +1,44 @@
+package com.robby.speech.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for one {@code SpeechService} call. Its duration covers the whole call;
+ * DB and mapping time break it down.
+ */
+@Name("com.robby.speech.SpeechOperation")
+@Label("Speech Operation")
+@Category("Speech API")
+@Description("A single SpeechService operation with its filters, result size and time split")
+@StackTrace(false)
+public class SpeechOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Filters")
+    public String filters;
+
+    @Label("Result Count")
+    public int resultCount;
+
+    @Label("Query Count")
+    public int queryCount;
+
+    @Label("DB Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbTime;
+
+    @Label("Mapping Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long mappingTime;
+
+    @Label("Failed")
+    public boolean failed;
+}
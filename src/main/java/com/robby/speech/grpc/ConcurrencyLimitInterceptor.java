@@ -0,0 +1,123 @@
+package com.robby.speech.grpc;
+
+import com.robby.speech.concurrency.AimdLimiter;
+import com.robby.speech.concurrency.ConcurrencyLimitFilter;
+import com.robby.speech.concurrency.EndpointClass;
+import com.robby.speech.grpc.v1.SpeechServiceGrpc;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits calls to the speech service through the limiters of {@link ConcurrencyLimitFilter}, so
+ * gRPC and REST calls of the same endpoint class share one limit. Calls over the limit are closed
+ * with {@code UNAVAILABLE} right away. Like streamed REST responses, streaming calls free their
+ * slot without adjusting the limit unless they fail.
+ */
+@Component
+@ConditionalOnProperty(name = "speech.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitInterceptor implements ServerInterceptor {
+
+    // the counterparts of the 5xx responses that shrink the limit of a REST endpoint class
+    private static final Set<Status.Code> FAILURES = EnumSet.of(
+        Status.Code.UNKNOWN, Status.Code.INTERNAL, Status.Code.UNAVAILABLE, Status.Code.DATA_LOSS);
+
+    private final ConcurrencyLimitFilter filter;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Classifies a method of the speech service like its REST counterpart: a single get is a
+     * read, multi-gets, listing and searching are searches, and everything else is a write.
+     */
+    static EndpointClass endpointClass(String bareMethodName) {
+        return switch (bareMethodName) {
+            case "Get" -> EndpointClass.READ;
+            case "GetMany", "ListAll", "Search" -> EndpointClass.SEARCH;
+            default -> EndpointClass.WRITE;
+        };
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(
+        ServerCall<Q, R> call,
+        Metadata headers,
+        ServerCallHandler<Q, R> next
+    ) {
+        MethodDescriptor<Q, R> method = call.getMethodDescriptor();
+        if (!SpeechServiceGrpc.SERVICE_NAME.equals(method.getServiceName())) {
+            return next.startCall(call, headers);
+        }
+        AimdLimiter limiter = filter.limiters().get(endpointClass(method.getBareMethodName()));
+        if (!limiter.tryAcquire()) {
+            call.close(Status.UNAVAILABLE.withDescription("Too many concurrent requests"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        Slot slot = new Slot(limiter, method.getType() == MethodDescriptor.MethodType.UNARY);
+        ServerCall.Listener<Q> listener;
+        try {
+            listener = next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+                @Override
+                public void close(Status status, Metadata trailers) {
+                    slot.release(FAILURES.contains(status.getCode()));
+                    super.close(status, trailers);
+                }
+            }, headers);
+        } catch (RuntimeException e) {
+            slot.release(true);
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                // the client went away, which says nothing about how long the call would have taken
+                slot.releaseUnmeasured();
+                super.onCancel();
+            }
+        };
+    }
+
+    private static final class Slot {
+
+        private final AimdLimiter limiter;
+        private final boolean measured;
+        private final long started = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(AimdLimiter limiter, boolean measured) {
+            this.limiter = limiter;
+            this.measured = measured;
+        }
+
+        private void release(boolean failed) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (measured || failed) {
+                limiter.release(System.nanoTime() - started, failed);
+            } else {
+                limiter.releaseUnmeasured();
+            }
+        }
+
+        private void releaseUnmeasured() {
+            if (released.compareAndSet(false, true)) {
+                limiter.releaseUnmeasured();
+            }
+        }
+    }
+}
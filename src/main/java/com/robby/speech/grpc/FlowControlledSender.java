@@ -0,0 +1,60 @@
+package com.robby.speech.grpc;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.grpc.v1.Speech;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Sends a lazily loaded stream of speeches only while the client's HTTP/2 flow-control window
+ * has room. A slow reader pauses the database paging instead of making the server buffer the
+ * rest of the result, and a cancelled call closes the stream.
+ */
+final class FlowControlledSender {
+
+    private final Stream<SpeechDto> speeches;
+    private final Iterator<SpeechDto> iterator;
+    private final ServerCallStreamObserver<Speech> call;
+    private boolean done;
+
+    private FlowControlledSender(Stream<SpeechDto> speeches, ServerCallStreamObserver<Speech> call) {
+        this.speeches = speeches;
+        this.iterator = speeches.iterator();
+        this.call = call;
+    }
+
+    static void send(Stream<SpeechDto> speeches, StreamObserver<Speech> observer) {
+        FlowControlledSender sender = new FlowControlledSender(speeches, (ServerCallStreamObserver<Speech>) observer);
+        // both handlers run on the call's serializing executor, never concurrently
+        sender.call.setOnCancelHandler(sender::finish);
+        sender.call.setOnReadyHandler(sender::drain);
+    }
+
+    private void drain() {
+        if (done) {
+            return;
+        }
+        try {
+            while (call.isReady()) {
+                if (!iterator.hasNext()) {
+                    finish();
+                    call.onCompleted();
+                    return;
+                }
+                call.onNext(SpeechMessages.toMessage(iterator.next()));
+            }
+        } catch (RuntimeException e) {
+            finish();
+            call.onError(Status.fromThrowable(e).asRuntimeException());
+        }
+    }
+
+    private void finish() {
+        done = true;
+        speeches.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.robby.speech.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.protobuf.services.ProtoReflectionServiceV1;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC services on their own port next to the servlet container. Started after the
+ * rest of the context is refreshed and given {@code speech.grpc.shutdown-grace-period-ms} to
+ * finish in-flight calls on shutdown. Every {@link ServerInterceptor} bean, such as the
+ * concurrency limit, intercepts every call.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "speech.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private final Server server;
+    private final long shutdownGracePeriodMillis;
+    private volatile boolean running;
+
+    public GrpcServerLifecycle(
+        List<BindableService> services,
+        ObjectProvider<ServerInterceptor> interceptors,
+        @Value("${speech.grpc.port:9090}") int port,
+        @Value("${speech.grpc.max-inbound-message-bytes:8388608}") int maxInboundMessageBytes,
+        @Value("${speech.grpc.shutdown-grace-period-ms:10000}") long shutdownGracePeriodMillis
+    ) {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+            .maxInboundMessageSize(maxInboundMessageBytes)
+            // lets grpcurl and similar tools discover the schema
+            .addService(ProtoReflectionServiceV1.newInstance());
+        services.forEach(builder::addService);
+        interceptors.orderedStream().forEach(builder::intercept);
+        this.server = builder.build();
+        this.shutdownGracePeriodMillis = shutdownGracePeriodMillis;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server", e);
+        }
+        running = true;
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownGracePeriodMillis, TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * The bound port, which differs from {@code speech.grpc.port} when that is {@code 0}.
+     */
+    public int port() {
+        return server.getPort();
+    }
+}
@@ -0,0 +1,188 @@
+package com.robby.speech.grpc;
+
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.InvalidQueryException;
+import com.robby.speech.core.SearchTooBroadException;
+import com.robby.speech.core.SpeechService;
+import com.robby.speech.core.query.SpeechQuery;
+import com.robby.speech.grpc.v1.BulkCreateResponse;
+import com.robby.speech.grpc.v1.DeleteSpeechRequest;
+import com.robby.speech.grpc.v1.DeleteSpeechResponse;
+import com.robby.speech.grpc.v1.GetManyRequest;
+import com.robby.speech.grpc.v1.GetManyResponse;
+import com.robby.speech.grpc.v1.GetSpeechRequest;
+import com.robby.speech.grpc.v1.ListAllRequest;
+import com.robby.speech.grpc.v1.SearchRequest;
+import com.robby.speech.grpc.v1.Speech;
+import com.robby.speech.grpc.v1.SpeechServiceGrpc;
+import com.robby.speech.grpc.v1.UpdateSpeechRequest;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * gRPC counterpart of {@code SpeechController}. {@code ListAll} and {@code Search} stream from
+ * the same paged queries as the NDJSON responses of the REST API.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpeechGrpcService extends SpeechServiceGrpc.SpeechServiceImplBase {
+
+    private final SpeechService speechService;
+
+    @Override
+    public void get(GetSpeechRequest request, StreamObserver<Speech> observer) {
+        respond(observer, () -> speechService.findById(request.getId())
+            .map(SpeechMessages::toMessage)
+            .orElseThrow(() -> notFound(request.getId())));
+    }
+
+    @Override
+    public void getMany(GetManyRequest request, StreamObserver<GetManyResponse> observer) {
+        respond(observer, () -> {
+            MultiGetResultDto result = speechService.findAllById(request.getIdsList());
+            return GetManyResponse.newBuilder()
+                .addAllSpeeches(result.speeches().stream().map(SpeechMessages::toMessage).toList())
+                .addAllMissingIds(result.missing())
+                .build();
+        });
+    }
+
+    @Override
+    public void listAll(ListAllRequest request, StreamObserver<Speech> observer) {
+        stream(observer, speechService::streamAll);
+    }
+
+    @Override
+    public void search(SearchRequest request, StreamObserver<Speech> observer) {
+        stream(observer, () -> {
+            String author = request.hasAuthor() ? request.getAuthor() : null;
+            LocalDate from = request.hasFrom() ? SpeechMessages.date("from", request.getFrom()) : null;
+            LocalDate to = request.hasTo() ? SpeechMessages.date("to", request.getTo()) : null;
+            String keyword = request.hasKeyword() ? request.getKeyword() : null;
+            String text = request.hasText() ? request.getText() : null;
+            if (!request.hasQuery()) {
+                return speechService.streamSearch(author, from, to, keyword, text);
+            }
+            return speechService.streamSearch(
+                SpeechQuery.of(author, from, to, keyword, text, SpeechQuery.parse(request.getQuery())));
+        });
+    }
+
+    @Override
+    public void create(Speech request, StreamObserver<Speech> observer) {
+        respond(observer, () -> SpeechMessages.toMessage(
+            speechService.create(SpeechMessages.toDto(request, true))));
+    }
+
+    @Override
+    public void update(UpdateSpeechRequest request, StreamObserver<Speech> observer) {
+        respond(observer, () -> speechService.update(request.getId(), SpeechMessages.toDto(request.getSpeech(), false))
+            .map(SpeechMessages::toMessage)
+            .orElseThrow(() -> notFound(request.getId())));
+    }
+
+    @Override
+    public void delete(DeleteSpeechRequest request, StreamObserver<DeleteSpeechResponse> observer) {
+        respond(observer, () -> {
+            if (!speechService.delete(request.getId())) {
+                throw notFound(request.getId());
+            }
+            return DeleteSpeechResponse.getDefaultInstance();
+        });
+    }
+
+    /**
+     * Creates each speech as it arrives. gRPC only asks the client for the next message once
+     * {@code onNext} has returned, so a fast sender is held back by the database writes.
+     */
+    @Override
+    public StreamObserver<Speech> bulkCreate(StreamObserver<BulkCreateResponse> observer) {
+        return new StreamObserver<>() {
+
+            private final List<Long> ids = new ArrayList<>();
+            private boolean failed;
+
+            @Override
+            public void onNext(Speech speech) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    ids.add(speechService.create(SpeechMessages.toDto(speech, true)).id());
+                } catch (RuntimeException e) {
+                    failed = true;
+                    observer.onError(statusOf(e)
+                        .augmentDescription(ids.size() + " speeches were created before the failure")
+                        .asRuntimeException());
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Bulk create cancelled by the client after {} speeches", ids.size(), t);
+            }
+
+            @Override
+            public void onCompleted() {
+                if (failed) {
+                    return;
+                }
+                observer.onNext(BulkCreateResponse.newBuilder()
+                    .setCreatedCount(ids.size())
+                    .addAllIds(ids)
+                    .build());
+                observer.onCompleted();
+            }
+        };
+    }
+
+    private static <T> void respond(StreamObserver<T> observer, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            observer.onError(statusOf(e).asRuntimeException());
+            return;
+        }
+        observer.onNext(response);
+        observer.onCompleted();
+    }
+
+    private static void stream(StreamObserver<Speech> observer, Supplier<Stream<SpeechDto>> call) {
+        Stream<SpeechDto> speeches;
+        try {
+            speeches = call.get();
+        } catch (RuntimeException e) {
+            observer.onError(statusOf(e).asRuntimeException());
+            return;
+        }
+        FlowControlledSender.send(speeches, observer);
+    }
+
+    private static Status statusOf(RuntimeException e) {
+        if (e instanceof StatusRuntimeException status) {
+            return status.getStatus();
+        }
+        if (e instanceof InvalidQueryException || e instanceof SearchTooBroadException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+        }
+        log.warn("gRPC call failed", e);
+        return Status.INTERNAL.withDescription(e.getMessage()).withCause(e);
+    }
+
+    private static StatusRuntimeException notFound(long id) {
+        return Status.NOT_FOUND.withDescription("Speech " + id + " not found").asRuntimeException();
+    }
+}
@@ -0,0 +1,66 @@
+package com.robby.speech.grpc;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.grpc.v1.Speech;
+import io.grpc.Status;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts between {@link SpeechDto} and its Protobuf message. Unset message fields map to
+ * {@code null} and {@code null} DTO fields stay unset.
+ */
+final class SpeechMessages {
+
+    private SpeechMessages() {
+    }
+
+    static Speech toMessage(SpeechDto dto) {
+        Speech.Builder speech = Speech.newBuilder();
+        if (dto.id() != null) {
+            speech.setId(dto.id());
+        }
+        if (dto.text() != null) {
+            speech.setText(dto.text());
+        }
+        if (dto.author() != null) {
+            speech.setAuthor(dto.author());
+        }
+        if (dto.authorEmail() != null) {
+            speech.setAuthorEmail(dto.authorEmail());
+        }
+        if (dto.keywords() != null) {
+            speech.addAllKeywords(dto.keywords());
+        }
+        if (dto.speechDate() != null) {
+            speech.setSpeechDate(dto.speechDate().toString());
+        }
+        return speech.build();
+    }
+
+    /**
+     * @param keepEmptyKeywords whether an empty keyword list means "no keywords" rather than
+     *     "keywords not given", which Protobuf cannot tell apart
+     */
+    static SpeechDto toDto(Speech speech, boolean keepEmptyKeywords) {
+        return new SpeechDto(
+            speech.hasId() ? speech.getId() : null,
+            speech.hasText() ? speech.getText() : null,
+            speech.hasAuthor() ? speech.getAuthor() : null,
+            speech.hasAuthorEmail() ? speech.getAuthorEmail() : null,
+            keepEmptyKeywords || speech.getKeywordsCount() > 0 ? speech.getKeywordsList() : null,
+            speech.hasSpeechDate() ? date("speech_date", speech.getSpeechDate()) : null
+        );
+    }
+
+    static LocalDate date(String field, String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw Status.INVALID_ARGUMENT
+                .withDescription(field + " must be an ISO-8601 date, got '" + value + "'")
+                .asRuntimeException();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.robby.speech.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Every distinct author name once, referenced by id from {@code speeches.author_id}. Rows are
+ * written and read through {@link com.robby.speech.repository.AuthorDictionary}; the entity only
+ * declares the table.
+ */
+@Entity
+@Table(name = "authors")
+@Getter
+@NoArgsConstructor
+public class Author {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+}
@@ -0,0 +1,25 @@
+package com.robby.speech.model;
+
+import com.robby.speech.repository.AuthorDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class AuthorConverter implements AttributeConverter<String, Integer> {
+
+    private final AuthorDictionary authors;
+
+    public AuthorConverter(AuthorDictionary authors) {
+        this.authors = authors;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String author) {
+        return author == null ? null : authors.idOf(author);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer column) {
+        return column == null ? null : authors.termOf(column);
+    }
+}
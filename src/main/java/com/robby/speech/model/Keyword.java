@@ -0,0 +1,29 @@
+package com.robby.speech.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Every distinct keyword once, referenced by id from {@code speech_keywords.keyword_id}. Rows are
+ * written and read through {@link com.robby.speech.repository.KeywordDictionary}; the entity only
+ * declares the table.
+ */
+@Entity
+@Table(name = "keywords")
+@Getter
+@NoArgsConstructor
+public class Keyword {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+}
@@ -0,0 +1,25 @@
+package com.robby.speech.model;
+
+import com.robby.speech.repository.KeywordDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class KeywordConverter implements AttributeConverter<String, Integer> {
+
+    private final KeywordDictionary keywords;
+
+    public KeywordConverter(KeywordDictionary keywords) {
+        this.keywords = keywords;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String keyword) {
+        return keyword == null ? null : keywords.idOf(keyword);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer column) {
+        return column == null ? null : keywords.termOf(column);
+    }
+}
@@ -0,0 +1,28 @@
+package com.robby.speech.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Maps speech text to the plain text column, which holds it unless the codec compresses it.
+ */
+@Converter
+@Mutability(Immutability.class)
+public class PlainSpeechTextConverter implements AttributeConverter<SpeechText, String> {
+
+    @Autowired(required = false)
+    private SpeechTextCodec codec = SpeechTextCodec.uncompressed();
+
+    @Override
+    public String convertToDatabaseColumn(SpeechText text) {
+        return text == null || text.compressed(codec) != null ? null : text.value();
+    }
+
+    @Override
+    public SpeechText convertToEntityAttribute(String column) {
+        return column == null ? null : SpeechText.of(column);
+    }
+}
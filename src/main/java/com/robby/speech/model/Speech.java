@@ -1,26 +1,34 @@
 package com.robby.speech.model;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
+import java.io.Reader;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "speeches")
+@Table(name = "speeches", indexes = @Index(name = "idx_speeches_author_id", columnList = "author_id"))
 @Data
 @Builder
 @AllArgsConstructor
@@ -31,17 +39,25 @@ public class Speech {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
-    private String text;
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "body_id", nullable = false, unique = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SpeechBody body;
 
-    @Column(nullable = false)
+    // authors and keywords are stored as ids into their dictionary tables
+    @Column(name = "author_id", nullable = false)
+    @Convert(converter = AuthorConverter.class)
     private String author;
 
     private String authorEmail;
 
     @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "speech_keywords", joinColumns = @JoinColumn(name = "speech_id"))
-    @Column(name = "keyword")
+    @BatchSize(size = 100)
+    @CollectionTable(name = "speech_keywords", joinColumns = @JoinColumn(name = "speech_id"),
+        indexes = @Index(name = "idx_speech_keywords_keyword_id", columnList = "keyword_id"))
+    @Column(name = "keyword_id")
+    @Convert(converter = KeywordConverter.class)
     private Set<String> keywords = new HashSet<>();
 
     private LocalDate speechDate;
@@ -53,10 +69,29 @@ public class Speech {
         Set<String> keywords,
         LocalDate speechDate
     ) {
-        this.text = text;
+        setText(text);
         this.author = author;
         this.authorEmail = authorEmail;
         this.keywords = keywords;
         this.speechDate = speechDate;
     }
+
+    public String getText() {
+        return body == null ? null : body.getText();
+    }
+
+    /**
+     * The text as a reader, for callers that only need part of it. See {@link SpeechText#reader()}.
+     */
+    public Reader textReader() {
+        return body == null ? null : body.textReader();
+    }
+
+    public void setText(String text) {
+        if (body == null) {
+            body = new SpeechBody(text);
+        } else {
+            body.setText(text);
+        }
+    }
 }
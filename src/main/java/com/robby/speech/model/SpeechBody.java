@@ -0,0 +1,78 @@
+package com.robby.speech.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Reader;
+
+@Entity
+@Table(name = "speech_bodies")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SpeechBody {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // the text is in exactly one of the columns; both fields hold it and the converters pick the column
+    @Convert(converter = PlainSpeechTextConverter.class)
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private SpeechText text;
+
+    @Column(name = "compressed_text")
+    @Convert(converter = SpeechTextConverter.class)
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SpeechText compressedText;
+
+    // counts the writes of the text, so readers can tell the text they started on from a newer one;
+    // the default numbers the texts of existing rows when the column is added
+    @Column(name = "text_version", nullable = false)
+    @ColumnDefault("0")
+    @Setter(AccessLevel.NONE)
+    private long textVersion;
+
+    public SpeechBody(String text) {
+        setText(text);
+    }
+
+    public String getText() {
+        SpeechText stored = stored();
+        return stored == null ? null : stored.value();
+    }
+
+    public Reader textReader() {
+        SpeechText stored = stored();
+        return stored == null ? null : stored.reader();
+    }
+
+    public void setText(String text) {
+        SpeechText stored = stored();
+        if (stored != null && stored.value().equals(text)) {
+            // both fields changing would otherwise mark the unchanged text dirty
+            return;
+        }
+        this.text = text == null ? null : SpeechText.of(text);
+        this.compressedText = this.text;
+        this.textVersion++;
+    }
+
+    private SpeechText stored() {
+        return text != null ? text : compressedText;
+    }
+}
@@ -0,0 +1,55 @@
+package com.robby.speech.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outbox row written in the same transaction as the change to a speech. The sequence orders the
+ * change feed and serves as the consumers' resume cursor.
+ */
+@Entity
+@Table(name = "speech_changes", indexes = {
+    @Index(name = "idx_speech_changes_changed_at", columnList = "changedAt"),
+    @Index(name = "idx_speech_changes_speech_id", columnList = "speechId, seq")
+})
+@Getter
+@NoArgsConstructor
+public class SpeechChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false)
+    private Long speechId;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    public SpeechChange(Type type, Long speechId, Instant changedAt) {
+        this.type = type;
+        this.speechId = speechId;
+        this.changedAt = changedAt;
+    }
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+}
@@ -0,0 +1,92 @@
+package com.robby.speech.model;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Speech text as stored: either the compressed column value, decoded on first access, or a value
+ * read from the plain text column or assigned in code, which is compressed on flush if the codec
+ * says so. Instances are immutable.
+ */
+public final class SpeechText {
+
+    private static final byte[] UNCOMPRESSED = new byte[0];
+
+    private final byte[] encoded;
+    private volatile String value;
+    private volatile byte[] compressed;
+
+    private SpeechText(byte[] encoded, String value) {
+        this.encoded = encoded;
+        this.value = value;
+    }
+
+    public static SpeechText of(String value) {
+        return new SpeechText(null, Objects.requireNonNull(value));
+    }
+
+    public static SpeechText encoded(byte[] encoded) {
+        return new SpeechText(Objects.requireNonNull(encoded), null);
+    }
+
+    public String value() {
+        String decoded = value;
+        if (decoded == null) {
+            decoded = SpeechTextCodec.decode(encoded);
+            value = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * Reads the text without keeping it: an encoded value that has not been decoded yet is
+     * decoded as it is read and stays undecoded.
+     */
+    public Reader reader() {
+        String decoded = value;
+        return decoded != null ? new StringReader(decoded) : SpeechTextCodec.reader(encoded);
+    }
+
+    /**
+     * The compressed column value, or {@code null} if the text belongs in the plain text column.
+     * Both columns ask on flush, so the text is compressed once per instance.
+     */
+    public byte[] compressed(SpeechTextCodec codec) {
+        if (encoded != null) {
+            return encoded;
+        }
+        byte[] result = compressed;
+        if (result == null) {
+            byte[] deflated = codec.compress(value);
+            result = deflated != null ? deflated : UNCOMPRESSED;
+            compressed = result;
+        }
+        return result == UNCOMPRESSED ? null : result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SpeechText other)) {
+            return false;
+        }
+        if (encoded != null && other.encoded != null) {
+            return Arrays.equals(encoded, other.encoded);
+        }
+        return value().equals(other.value());
+    }
+
+    @Override
+    public int hashCode() {
+        return value().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value();
+    }
+}
@@ -0,0 +1,131 @@
+package com.robby.speech.model;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Storage format of compressed speech text: one codec byte, the length of the UTF-8 text as a
+ * 4-byte int, then the payload. Text that is not compressed is stored as plain text in a column of
+ * its own, where the database can still search it, so rows written with and without compression
+ * can be read side by side.
+ */
+@Component
+public class SpeechTextCodec {
+
+    public static final byte DEFLATE = 1;
+    public static final int HEADER_LENGTH = 5;
+
+    private final boolean compress;
+    private final int compressionThreshold;
+
+    public SpeechTextCodec(
+        @Value("${speech.storage.compress-text:false}") boolean compress,
+        @Value("${speech.storage.compression-threshold:512}") int compressionThreshold
+    ) {
+        this.compress = compress;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public static SpeechTextCodec uncompressed() {
+        return new SpeechTextCodec(false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The compressed column value for a text, or {@code null} if the text is to be stored as
+     * plain text: compression is off, the text is shorter than the threshold, or it does not
+     * shrink.
+     */
+    public byte[] compress(String text) {
+        if (!compress) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length < compressionThreshold) {
+            return null;
+        }
+        byte[] deflated = deflate(utf8);
+        return deflated.length < utf8.length ? withHeader(DEFLATE, utf8.length, deflated) : null;
+    }
+
+    public static String decode(byte[] encoded) {
+        int length = textLength(encoded);
+        if (encoded[0] != DEFLATE) {
+            throw new IllegalArgumentException("Unknown speech text codec " + encoded[0]);
+        }
+        return new String(inflate(encoded, length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the text as it is inflated, so a reader that stops early never inflates or decodes
+     * the rest.
+     */
+    public static Reader reader(byte[] encoded) {
+        if (encoded[0] != DEFLATE) {
+            throw new IllegalArgumentException("Unknown speech text codec " + encoded[0]);
+        }
+        InputStream payload = new ByteArrayInputStream(encoded, HEADER_LENGTH, encoded.length - HEADER_LENGTH);
+        return new InputStreamReader(new InflaterInputStream(payload), StandardCharsets.UTF_8);
+    }
+
+    public static int textLength(byte[] encoded) {
+        return ByteBuffer.wrap(encoded, 1, 4).getInt();
+    }
+
+    private static byte[] withHeader(byte codec, int textLength, byte[] payload) {
+        return ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+            .put(codec)
+            .putInt(textLength)
+            .put(payload)
+            .array();
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] encoded, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded, HEADER_LENGTH, encoded.length - HEADER_LENGTH);
+            byte[] out = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(out, read, length - read);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += n;
+            }
+            return read == length ? out : Arrays.copyOf(out, read);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed speech text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.robby.speech.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Maps speech text to the compressed text column, which holds it only if the codec compresses it.
+ */
+@Converter
+@Mutability(Immutability.class)
+public class SpeechTextConverter implements AttributeConverter<SpeechText, byte[]> {
+
+    @Autowired(required = false)
+    private SpeechTextCodec codec = SpeechTextCodec.uncompressed();
+
+    @Override
+    public byte[] convertToDatabaseColumn(SpeechText text) {
+        return text == null ? null : text.compressed(codec);
+    }
+
+    @Override
+    public SpeechText convertToEntityAttribute(byte[] column) {
+        return column == null ? null : SpeechText.encoded(column);
+    }
+}
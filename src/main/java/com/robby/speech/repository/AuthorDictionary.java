@@ -0,0 +1,13 @@
+package com.robby.speech.repository;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class AuthorDictionary extends TermDictionary {
+
+    public AuthorDictionary(DataSource dataSource) {
+        super(dataSource, "authors");
+    }
+}
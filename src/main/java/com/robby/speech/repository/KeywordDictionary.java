@@ -0,0 +1,13 @@
+package com.robby.speech.repository;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class KeywordDictionary extends TermDictionary {
+
+    public KeywordDictionary(DataSource dataSource) {
+        super(dataSource, "keywords");
+    }
+}
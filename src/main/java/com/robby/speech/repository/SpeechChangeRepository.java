@@ -0,0 +1,48 @@
+package com.robby.speech.repository;
+
+import com.robby.speech.model.SpeechChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpeechChangeRepository extends JpaRepository<SpeechChange, Long> {
+
+    List<SpeechChange> findBySequenceGreaterThanOrderBySequence(Long sequence, Limit limit);
+
+    @Query("select coalesce(max(c.sequence), 0) from SpeechChange c")
+    long findLatestSequence();
+
+    @Query("select coalesce(max(c.sequence), 0) from SpeechChange c where c.changedAt < :before")
+    long findLatestSequenceBefore(@Param("before") Instant before);
+
+    @Query("select min(c.sequence) from SpeechChange c")
+    Long findOldestSequence();
+
+    @Modifying
+    @Query("delete from SpeechChange c where c.changedAt < :before")
+    int deleteByChangedAtBefore(@Param("before") Instant before);
+
+    /**
+     * Records a {@code SAVED} change for each listed speech that exists, in one statement.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into speech_changes (type, speech_id, changed_at) " +
+        "select 'SAVED', s.id, :changedAt from speeches s where s.id in (:ids)", nativeQuery = true)
+    int recordSaved(@Param("ids") Collection<Long> ids, @Param("changedAt") Instant changedAt);
+
+    /**
+     * Records a {@code DELETED} change for each listed speech that still exists, in one statement.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into speech_changes (type, speech_id, changed_at) " +
+        "select 'DELETED', s.id, :changedAt from speeches s where s.id in (:ids)", nativeQuery = true)
+    int recordDeleted(@Param("ids") Collection<Long> ids, @Param("changedAt") Instant changedAt);
+}
@@ -0,0 +1,14 @@
+package com.robby.speech.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SpeechDeletes {
+
+    /**
+     * Deletes the listed speeches that exist, with their keywords and bodies, and returns their
+     * ids. Nothing is loaded into the persistence context, and nothing relies on cascading
+     * foreign keys, which schemas created before them do not have.
+     */
+    List<Long> deleteWithBodies(Collection<Long> ids);
+}
@@ -0,0 +1,42 @@
+package com.robby.speech.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One statement per table, children first. The speeches are locked while their body ids are
+ * read, so of two transactions deleting the same speech only the first one finds it.
+ */
+class SpeechDeletesImpl implements SpeechDeletes {
+
+    private static final String LOCK_SPEECHES = "select s.id, s.body_id from speeches s where s.id in (?1) for update";
+    private static final String DELETE_KEYWORDS = "delete from speech_keywords where speech_id in (?1)";
+    private static final String DELETE_SPEECHES = "delete from speeches where id in (?1)";
+    private static final String DELETE_BODIES = "delete from speech_bodies where id in (?1)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> deleteWithBodies(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // same as @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        List<?> rows = entityManager.createNativeQuery(LOCK_SPEECHES).setParameter(1, ids).getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> speechIds = rows.stream().map(row -> ((Number) ((Object[]) row)[0]).longValue()).toList();
+        List<Long> bodyIds = rows.stream().map(row -> ((Number) ((Object[]) row)[1]).longValue()).toList();
+        entityManager.createNativeQuery(DELETE_KEYWORDS).setParameter(1, speechIds).executeUpdate();
+        entityManager.createNativeQuery(DELETE_SPEECHES).setParameter(1, speechIds).executeUpdate();
+        entityManager.createNativeQuery(DELETE_BODIES).setParameter(1, bodyIds).executeUpdate();
+        entityManager.clear();
+        return speechIds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.robby.speech.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface SpeechFieldUpdates {
+
+    /**
+     * Sets the non-null arguments on every listed speech in a single {@code UPDATE} that leaves
+     * all other columns alone. Does nothing and returns {@code 0} if every argument is null.
+     */
+    int updateFields(Collection<Long> ids, String author, String authorEmail, LocalDate speechDate);
+}
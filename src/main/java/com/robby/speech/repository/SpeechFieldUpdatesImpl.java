@@ -0,0 +1,42 @@
+package com.robby.speech.repository;
+
+import com.robby.speech.model.Speech;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+class SpeechFieldUpdatesImpl implements SpeechFieldUpdates {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateFields(Collection<Long> ids, String author, String authorEmail, LocalDate speechDate) {
+        if (ids.isEmpty() || author == null && authorEmail == null && speechDate == null) {
+            return 0;
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Speech> update = builder.createCriteriaUpdate(Speech.class);
+        Root<Speech> speech = update.from(Speech.class);
+        if (author != null) {
+            update.set(speech.<String>get("author"), author);
+        }
+        if (authorEmail != null) {
+            update.set(speech.<String>get("authorEmail"), authorEmail);
+        }
+        if (speechDate != null) {
+            update.set(speech.<LocalDate>get("speechDate"), speechDate);
+        }
+        update.where(speech.get("id").in(ids));
+        // same as @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,16 @@
+package com.robby.speech.repository;
+
+import java.util.Collection;
+
+public interface SpeechKeywordUpdates {
+
+    /**
+     * Adds the keyword to every listed speech that does not have it yet, with one
+     * {@code INSERT ... SELECT}, and returns how many speeches gained it.
+     */
+    int addKeyword(Collection<Long> ids, String keyword);
+
+    int removeKeywords(Collection<Long> ids, Collection<String> keywords);
+
+    int removeKeywordsExcept(Collection<Long> ids, Collection<String> keywords);
+}
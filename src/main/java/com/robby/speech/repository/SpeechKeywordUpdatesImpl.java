@@ -0,0 +1,76 @@
+package com.robby.speech.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keyword statements over the integer ids of {@code speech_keywords}. Keywords are translated
+ * through the {@link KeywordDictionary} first; one that is not in the dictionary cannot be on any
+ * speech, so it is only added there when a speech gains it.
+ */
+class SpeechKeywordUpdatesImpl implements SpeechKeywordUpdates {
+
+    private static final String ADD_KEYWORD = "insert into speech_keywords (speech_id, keyword_id) "
+        + "select s.id, :keywordId from speeches s where s.id in (:ids) and not exists "
+        + "(select 1 from speech_keywords k where k.speech_id = s.id and k.keyword_id = :keywordId)";
+    private static final String REMOVE_KEYWORDS =
+        "delete from speech_keywords where speech_id in (:ids) and keyword_id in (:keywordIds)";
+    private static final String REMOVE_KEYWORDS_EXCEPT =
+        "delete from speech_keywords where speech_id in (:ids) and keyword_id not in (:keywordIds)";
+    private static final String REMOVE_ALL_KEYWORDS = "delete from speech_keywords where speech_id in (:ids)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final KeywordDictionary dictionary;
+
+    SpeechKeywordUpdatesImpl(KeywordDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public int addKeyword(Collection<Long> ids, String keyword) {
+        return execute(entityManager.createNativeQuery(ADD_KEYWORD)
+            .setParameter("ids", ids)
+            .setParameter("keywordId", dictionary.idOf(keyword)));
+    }
+
+    @Override
+    public int removeKeywords(Collection<Long> ids, Collection<String> keywords) {
+        List<Integer> keywordIds = known(keywords);
+        if (keywordIds.isEmpty()) {
+            return 0;
+        }
+        return execute(entityManager.createNativeQuery(REMOVE_KEYWORDS)
+            .setParameter("ids", ids)
+            .setParameter("keywordIds", keywordIds));
+    }
+
+    @Override
+    public int removeKeywordsExcept(Collection<Long> ids, Collection<String> keywords) {
+        List<Integer> keywordIds = known(keywords);
+        if (keywordIds.isEmpty()) {
+            return execute(entityManager.createNativeQuery(REMOVE_ALL_KEYWORDS).setParameter("ids", ids));
+        }
+        return execute(entityManager.createNativeQuery(REMOVE_KEYWORDS_EXCEPT)
+            .setParameter("ids", ids)
+            .setParameter("keywordIds", keywordIds));
+    }
+
+    private List<Integer> known(Collection<String> keywords) {
+        return keywords.stream().map(dictionary::find).filter(Objects::nonNull).toList();
+    }
+
+    private int execute(Query query) {
+        // same as @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        int updated = query.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,22 @@
+package com.robby.speech.repository;
+
+import com.robby.speech.core.query.SpeechQuery;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SpeechQueryIds {
+
+    /**
+     * Ids of the speeches matching {@code query}, which must not filter on text, found with a
+     * single statement. With {@code within} only those speeches are considered.
+     */
+    List<Long> findIdsMatching(SpeechQuery query, Collection<Long> within);
+
+    /**
+     * Ids of the speeches whose text may contain {@code text}, ignoring case: those stored as
+     * plain text that contain it, and every speech stored compressed, which the database cannot
+     * search. Callers check the speeches against the text.
+     */
+    List<Long> findIdsPossiblyContainingText(String text);
+}
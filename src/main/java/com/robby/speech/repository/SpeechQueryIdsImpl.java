@@ -0,0 +1,112 @@
+package com.robby.speech.repository;
+
+import com.robby.speech.core.query.SpeechQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compiles a query tree to one {@code WHERE} clause over {@code speeches}. Like the single-filter
+ * finders, author and keyword filters match the small dictionary tables by name and then compare
+ * integer ids in the large ones.
+ */
+class SpeechQueryIdsImpl implements SpeechQueryIds {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdsMatching(SpeechQuery query, Collection<Long> within) {
+        if (within != null && within.isEmpty()) {
+            return List.of();
+        }
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select s.id from speeches s where ");
+        appendCondition(sql, query, parameters);
+        if (within != null) {
+            parameters.add(within);
+            sql.append(" and s.id in (?").append(parameters.size()).append(')');
+        }
+        Query statement = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setParameter(i + 1, parameters.get(i));
+        }
+        List<?> ids = statement.getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    @Override
+    public List<Long> findIdsPossiblyContainingText(String text) {
+        List<Object> parameters = new ArrayList<>();
+        List<?> ids = entityManager.createNativeQuery(
+                "select s.id from speeches s join speech_bodies b on b.id = s.body_id " +
+                "where b.compressed_text is not null or lower(b.text) like lower(?" +
+                addContaining(parameters, text) + ") escape '\\'")
+            .setParameter(1, parameters.get(0))
+            .getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    private static void appendCondition(StringBuilder sql, SpeechQuery query, List<Object> parameters) {
+        if (query instanceof SpeechQuery.And and) {
+            appendJoined(sql, and.clauses(), " and ", parameters);
+        } else if (query instanceof SpeechQuery.Or or) {
+            appendJoined(sql, or.clauses(), " or ", parameters);
+        } else if (query instanceof SpeechQuery.Not not) {
+            sql.append("not (");
+            appendCondition(sql, not.clause(), parameters);
+            sql.append(')');
+        } else if (query instanceof SpeechQuery.Author author) {
+            sql.append("s.author_id in (select a.id from authors a where lower(a.name) like lower(?")
+                .append(addContaining(parameters, author.value())).append(") escape '\\')");
+        } else if (query instanceof SpeechQuery.Keyword keyword) {
+            sql.append("s.id in (select k.speech_id from speech_keywords k where k.keyword_id in ")
+                .append("(select w.id from keywords w where lower(w.name) like lower(?")
+                .append(addContaining(parameters, keyword.value())).append(") escape '\\'))");
+        } else if (query instanceof SpeechQuery.DateRange range) {
+            appendDateRange(sql, range, parameters);
+        } else {
+            throw new IllegalArgumentException("Not answerable by the database alone: " + query);
+        }
+    }
+
+    private static void appendJoined(StringBuilder sql, List<SpeechQuery> clauses, String operator, List<Object> parameters) {
+        sql.append('(');
+        for (int i = 0; i < clauses.size(); i++) {
+            if (i > 0) {
+                sql.append(operator);
+            }
+            appendCondition(sql, clauses.get(i), parameters);
+        }
+        sql.append(')');
+    }
+
+    // a speech without a date is outside every range, so NOT keeps it, as it does in memory
+    private static void appendDateRange(StringBuilder sql, SpeechQuery.DateRange range, List<Object> parameters) {
+        sql.append("(s.speech_date is not null and ");
+        if (range.from() != null && range.to() != null) {
+            parameters.add(range.from());
+            parameters.add(range.to());
+            sql.append("s.speech_date between ?").append(parameters.size() - 1)
+                .append(" and ?").append(parameters.size());
+        } else if (range.from() != null) {
+            parameters.add(range.from());
+            sql.append("s.speech_date >= ?").append(parameters.size());
+        } else {
+            parameters.add(range.to());
+            sql.append("s.speech_date <= ?").append(parameters.size());
+        }
+        sql.append(')');
+    }
+
+    // LIKE wildcards in the value match literally, as they do in the in-memory check
+    private static int addContaining(List<Object> parameters, String value) {
+        String escaped = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        parameters.add('%' + escaped + '%');
+        return parameters.size();
+    }
+}
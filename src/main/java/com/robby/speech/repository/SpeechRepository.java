@@ -1,25 +1,83 @@
 package com.robby.speech.repository;
 
 import com.robby.speech.model.Speech;
+import com.robby.speech.model.SpeechText;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface SpeechRepository extends JpaRepository<Speech, Long> {
-
-    List<Speech> findByAuthorContainingIgnoreCase(String author);
-    List<Speech> findBySpeechDateBetween(LocalDate from, LocalDate to);
-    List<Speech> findBySpeechDateGreaterThanEqual(LocalDate from);
-    List<Speech> findBySpeechDateLessThanEqual(LocalDate to);
-    List<Speech> findByTextContainingIgnoreCase(String text);
-
-    @Query(
-        "select s from Speech s join s.keywords k where lower(k) like lower(concat('%', :keyword," +
-            " '%'))")
-    List<Speech> findByKeywordLikeIgnoreCase(@Param("keyword") String keyword);
+public interface SpeechRepository extends JpaRepository<Speech, Long>, SpeechFieldUpdates, SpeechKeywordUpdates,
+    SpeechQueryIds, SpeechTextChunks, SpeechDeletes {
+
+    @Override
+    @EntityGraph(attributePaths = "body")
+    List<Speech> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "body")
+    Page<Speech> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "body")
+    List<Speech> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = "body")
+    Optional<Speech> findById(Long id);
+
+    @EntityGraph(attributePaths = "body")
+    List<Speech> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    // the body stays an uninitialized proxy, for callers that need everything but the text
+    @Query("select s from Speech s where s.id in :ids")
+    List<Speech> findAllWithoutBodyById(@Param("ids") Collection<Long> ids);
+
+    // filters match the small dictionary tables by name, then compare integer ids in the large ones;
+    // wildcards in the value are escaped, so they match themselves
+    @Query(value = "select s.id from speeches s where s.author_id in (select a.id from authors a " +
+        "where lower(a.name) like lower(concat('%', " +
+        "replace(replace(replace(:author, '\\', '\\\\'), '%', '\\%'), '_', '\\_'), '%')) escape '\\')",
+        nativeQuery = true)
+    List<Long> findIdsByAuthorContainingIgnoreCase(@Param("author") String author);
+
+    @Query("select s.id from Speech s where s.speechDate between :from and :to")
+    List<Long> findIdsBySpeechDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select s.id from Speech s where s.speechDate >= :from")
+    List<Long> findIdsBySpeechDateGreaterThanEqual(@Param("from") LocalDate from);
+
+    @Query("select s.id from Speech s where s.speechDate <= :to")
+    List<Long> findIdsBySpeechDateLessThanEqual(@Param("to") LocalDate to);
+
+    @Query(value = "select distinct k.speech_id from speech_keywords k where k.keyword_id in " +
+        "(select w.id from keywords w where lower(w.name) like lower(concat('%', " +
+        "replace(replace(replace(:keyword, '\\', '\\\\'), '%', '\\%'), '_', '\\_'), '%')) escape '\\')",
+        nativeQuery = true)
+    List<Long> findIdsByKeywordLikeIgnoreCase(@Param("keyword") String keyword);
+
+    default int updateText(Long id, SpeechText text) {
+        return updateText(id, text, text);
+    }
+
+    // the text goes to one of the two columns and clears the other, as the converters decide
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SpeechBody b set b.text = :text, b.compressedText = :compressed, b.textVersion = b.textVersion + 1 " +
+        "where b.id = (select s.body.id from Speech s where s.id = :id)")
+    int updateText(@Param("id") Long id, @Param("text") SpeechText text, @Param("compressed") SpeechText compressed);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from speech_keywords where speech_id in (:ids)", nativeQuery = true)
+    int removeAllKeywords(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,22 @@
+package com.robby.speech.repository;
+
+import java.util.Optional;
+
+public interface SpeechTextChunks {
+
+    /**
+     * A chunk of the stored text of a speech, without loading the rest of it or the entity: up to
+     * {@code length} bytes of the compressed column from byte {@code offset} on, or, if the text
+     * is stored as plain text, up to {@code length} characters from character {@code offset} on.
+     * Less is returned at the end of the text. Empty if there is no such speech.
+     */
+    Optional<TextChunk> readTextChunk(long id, int offset, int length);
+
+    /**
+     * Part of a stored text: bytes of the compressed column, or characters of the plain text
+     * together with the length of the whole plain text in UTF-8 bytes. Comes with the version of
+     * the text, which every write of the text increments, so the text cannot change without the
+     * version changing.
+     */
+    record TextChunk(byte[] compressed, String plain, long plainLength, long version) {}
+}
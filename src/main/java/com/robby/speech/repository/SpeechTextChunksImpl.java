@@ -0,0 +1,38 @@
+package com.robby.speech.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cuts the chunk out of whichever column holds the text in the database, so only the requested
+ * part is sent over the connection, together with the version of the text from the same row.
+ */
+class SpeechTextChunksImpl implements SpeechTextChunks {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<TextChunk> readTextChunk(long id, int offset, int length) {
+        List<?> rows = entityManager.createNativeQuery(
+                "select substring(b.compressed_text from ?1 for ?2), substring(b.text from ?1 for ?2), " +
+                "octet_length(b.text), b.text_version " +
+                "from speeches s join speech_bodies b on b.id = s.body_id where s.id = ?3")
+            .setParameter(1, offset + 1)
+            .setParameter(2, length)
+            .setParameter(3, id)
+            .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        return Optional.of(new TextChunk(
+            (byte[]) row[0],
+            (String) row[1],
+            row[2] == null ? 0 : ((Number) row[2]).longValue(),
+            ((Number) row[3]).longValue()));
+    }
+}
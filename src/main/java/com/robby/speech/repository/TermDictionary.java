@@ -0,0 +1,279 @@
+package com.robby.speech.repository;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-way mapping between the distinct strings of one dictionary table and their integer ids,
+ * held in memory. The table is read in full on first use, and a term added by another instance
+ * since is read on its first miss. Terms are never removed or renumbered, so a cached entry
+ * cannot go stale.
+ *
+ * <p>The dictionary runs its statements on the connection of the caller's transaction, so a
+ * write that adds terms while its entities are flushed never needs a second connection from the
+ * pool. A term inserted inside a transaction is cached only once the transaction commits; until
+ * then only that transaction sees it, and a writer adding the same term concurrently waits for it
+ * at the unique index. The insert runs under a savepoint, so losing that race does not abort the
+ * caller's transaction. Outside of a transaction a new term is committed on its own right away.
+ *
+ * <p>Terms that are not in the table are remembered for {@link #ABSENT_TTL_NANOS}, so repeated
+ * lookups of unknown terms do not each cost a query. A term another instance adds in that time
+ * is found once the entry expires.
+ */
+public class TermDictionary {
+
+    static final long ABSENT_TTL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final SQLExceptionTranslator EXCEPTION_TRANSLATOR = new SQLStateSQLExceptionTranslator();
+    private static final String INTEGRITY_VIOLATION = "23";
+    private static final int MAX_ABSENT = 10_000;
+
+    private final DataSource dataSource;
+    private final String table;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> terms = new ConcurrentHashMap<>();
+    private final Map<String, Long> absentUntil = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    protected TermDictionary(DataSource dataSource, String table) {
+        this.dataSource = dataSource;
+        this.table = table;
+    }
+
+    /**
+     * The id of a term, adding the term to the dictionary if it is new.
+     */
+    public int idOf(String term) {
+        Integer id = cachedId(term);
+        if (id != null) {
+            return id;
+        }
+        return withConnection("insert", connection -> {
+            boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive()
+                && !connection.getAutoCommit();
+            Savepoint savepoint = inTransaction ? connection.setSavepoint() : null;
+            try {
+                int inserted = insert(connection, term);
+                if (savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+                return inTransaction ? pend(inserted, term) : cache(inserted, term);
+            } catch (SQLException e) {
+                if (e.getSQLState() == null || !e.getSQLState().startsWith(INTEGRITY_VIOLATION)) {
+                    throw e;
+                }
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                // added concurrently and committed by now, or earlier in this same transaction
+                Integer existing = select(connection, term);
+                if (existing == null) {
+                    throw e;
+                }
+                return inTransaction ? pend(existing, term) : cache(existing, term);
+            }
+        });
+    }
+
+    /**
+     * The id of a term already in the dictionary, or {@code null}. No speech can refer to a term
+     * that is not in the dictionary.
+     */
+    public Integer find(String term) {
+        Integer id = cachedId(term);
+        if (id != null) {
+            return id;
+        }
+        Long until = absentUntil.get(term);
+        if (until != null && System.nanoTime() - until < 0) {
+            return null;
+        }
+        id = withConnection("find", connection -> select(connection, term));
+        if (id == null) {
+            if (absentUntil.size() >= MAX_ABSENT) {
+                absentUntil.clear();
+            }
+            absentUntil.put(term, System.nanoTime() + ABSENT_TTL_NANOS);
+            return null;
+        }
+        return cache(id, term);
+    }
+
+    public String termOf(int id) {
+        load();
+        String term = terms.get(id);
+        if (term != null) {
+            return term;
+        }
+        Map<String, Integer> pending = pending();
+        if (pending != null) {
+            for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+                if (entry.getValue() == id) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return withConnection("read", connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                "select name from " + table + " where id = ?")) {
+                statement.setInt(1, id);
+                try (ResultSet rows = statement.executeQuery()) {
+                    if (!rows.next()) {
+                        throw new IllegalStateException("No entry " + id + " in " + table);
+                    }
+                    String read = rows.getString(1);
+                    cache(id, read);
+                    return read;
+                }
+            }
+        });
+    }
+
+    private Integer cachedId(String term) {
+        load();
+        Integer id = ids.get(term);
+        if (id != null) {
+            return id;
+        }
+        Map<String, Integer> pending = pending();
+        return pending == null ? null : pending.get(term);
+    }
+
+    private Integer select(Connection connection, String term) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "select id from " + table + " where name = ?")) {
+            statement.setString(1, term);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() ? rows.getInt(1) : null;
+            }
+        }
+    }
+
+    private int insert(Connection connection, String term) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "insert into " + table + " (name) values (?)", new String[] {"id"})) {
+            statement.setString(1, term);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            withConnection("load", connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rows = statement.executeQuery("select id, name from " + table)) {
+                    while (rows.next()) {
+                        cache(rows.getInt(1), rows.getString(2));
+                    }
+                }
+                return null;
+            });
+            loaded = true;
+        }
+    }
+
+    private int cache(int id, String term) {
+        ids.put(term, id);
+        terms.put(id, term);
+        absentUntil.remove(term);
+        return id;
+    }
+
+    /**
+     * Terms inserted by the current transaction, or {@code null} if it has inserted none.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        return (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private int pend(int id, String term) {
+        Map<String, Integer> pending = pending();
+        if (pending == null) {
+            Map<String, Integer> inserted = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, inserted);
+            TransactionSynchronizationManager.registerSynchronization(new PendingTerms(inserted));
+            pending = inserted;
+        }
+        pending.put(term, id);
+        return id;
+    }
+
+    private <T> T withConnection(String task, ConnectionCallback<T> callback) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return callback.apply(connection);
+        } catch (SQLException e) {
+            RuntimeException translated = EXCEPTION_TRANSLATOR.translate(task + " " + table, null, e);
+            throw translated != null ? translated : new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionCallback<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Caches the terms a transaction inserted once it commits, and keeps them bound to it while
+     * it is suspended.
+     */
+    private final class PendingTerms implements TransactionSynchronization {
+
+        private final Map<String, Integer> inserted;
+
+        private PendingTerms(Map<String, Integer> inserted) {
+            this.inserted = inserted;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TermDictionary.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TermDictionary.this, inserted);
+        }
+
+        @Override
+        public void afterCommit() {
+            inserted.forEach((term, id) -> cache(id, term));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TermDictionary.this);
+        }
+    }
+}
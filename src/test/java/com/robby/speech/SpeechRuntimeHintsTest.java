@@ -0,0 +1,41 @@
+package com.robby.speech;
+
+import com.robby.speech.controller.dto.SpeechChangeDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.model.KeywordConverter;
+import com.robby.speech.model.Speech;
+import com.robby.speech.model.SpeechTextConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpeechRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    SpeechRuntimeHintsTest() {
+        new SpeechRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_shouldCoverEntitiesAndDtos() {
+        assertTrue(RuntimeHintsPredicates.reflection().onField(Speech.class, "keywords").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(SpeechTextConverter.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(KeywordConverter.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(SpeechDto.class, "text").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(SpeechChangeDto.class, "sequence").test(hints));
+    }
+
+    @Test
+    void registerHints_shouldCoverJdbcProxies() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ResultSet.class).test(hints));
+    }
+}
@@ -0,0 +1,99 @@
+package com.robby.speech.changes;
+
+import com.robby.speech.controller.dto.SpeechChangeDto;
+import com.robby.speech.core.SpeechChangedEvent;
+import com.robby.speech.model.Speech;
+import com.robby.speech.model.SpeechChange;
+import com.robby.speech.model.SpeechTextCodec;
+import com.robby.speech.repository.AuthorDictionary;
+import com.robby.speech.repository.KeywordDictionary;
+import com.robby.speech.repository.SpeechChangeRepository;
+import com.robby.speech.repository.SpeechRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({SpeechChangeFeed.class, SpeechTextCodec.class, AuthorDictionary.class, KeywordDictionary.class})
+class SpeechChangeFeedTest {
+
+    @Autowired
+    private SpeechChangeFeed feed;
+
+    @Autowired
+    private SpeechChangeRepository changeRepository;
+
+    @Autowired
+    private SpeechRepository speechRepository;
+
+    @Test
+    void changesAfter_shouldReturnChangesInOrder_withCurrentSpeech() {
+        Speech kept = speechRepository.save(speech("Jane Doe"));
+        long start = changeRepository.save(
+            new SpeechChange(SpeechChange.Type.SAVED, kept.getId(), minutesAgo(2))).getSequence() - 1;
+        changeRepository.save(new SpeechChange(SpeechChange.Type.SAVED, 999L, minutesAgo(2)));
+        changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 999L, minutesAgo(1)));
+
+        List<SpeechChangeDto> changes = feed.changesAfter(start, 10);
+
+        assertEquals(3, changes.size());
+        assertEquals(List.of(start + 1, start + 2, start + 3), changes.stream().map(SpeechChangeDto::sequence).toList());
+        assertEquals("Jane Doe", changes.get(0).speech().author());
+        // saved, then deleted before the consumer read it
+        assertNull(changes.get(1).speech());
+        assertEquals(SpeechChangedEvent.ChangeType.DELETED, changes.get(2).type());
+        assertEquals(start + 3, feed.latestSequence());
+        assertEquals(2, feed.changesAfter(start + 1, 10).size());
+        assertEquals(1, feed.changesAfter(start, 1).size());
+    }
+
+    @Test
+    void changesAfter_shouldHoldBackChangesAfterARecentGap() {
+        SpeechChange first = changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 1L, minutesAgo(1)));
+        // a transaction that has not committed yet, or has rolled back
+        changeRepository.delete(changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 2L, Instant.now())));
+        SpeechChange fresh = changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 3L, Instant.now()));
+
+        List<SpeechChangeDto> changes = feed.changesAfter(first.getSequence() - 1, 10);
+
+        assertEquals(List.of(first.getSequence()), changes.stream().map(SpeechChangeDto::sequence).toList());
+        assertTrue(fresh.getSequence() > first.getSequence() + 1);
+    }
+
+    @Test
+    void changesAfter_shouldSkipGapsOlderThanTheTimeout() {
+        SpeechChange first = changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 1L, minutesAgo(2)));
+        changeRepository.delete(changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 2L, minutesAgo(2))));
+        changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 3L, minutesAgo(1)));
+
+        assertEquals(2, feed.changesAfter(first.getSequence() - 1, 10).size());
+    }
+
+    @Test
+    void purgeBefore_shouldDeleteOldChanges_andMoveTheOldestSequence() {
+        changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 1L, Instant.now().minus(10, ChronoUnit.DAYS)));
+        SpeechChange recent = changeRepository.save(new SpeechChange(SpeechChange.Type.DELETED, 2L, minutesAgo(1)));
+
+        assertEquals(1, feed.purgeBefore(Instant.now().minus(7, ChronoUnit.DAYS)));
+        assertEquals(recent.getSequence(), feed.oldestSequence().orElseThrow());
+    }
+
+    private static Instant minutesAgo(long minutes) {
+        return Instant.now().minus(minutes, ChronoUnit.MINUTES);
+    }
+
+    private static Speech speech(String author) {
+        return new Speech("A speech by " + author, author, null, Set.of("economy"), LocalDate.of(2024, 1, 15));
+    }
+}
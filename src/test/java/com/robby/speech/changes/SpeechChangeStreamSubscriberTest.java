@@ -0,0 +1,89 @@
+package com.robby.speech.changes;
+
+import com.robby.speech.controller.dto.SpeechChangeDto;
+import com.robby.speech.core.SpeechChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpeechChangeStreamSubscriberTest {
+
+    private final SpeechChangeFeed feed = mock(SpeechChangeFeed.class);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private SpeechChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        when(feed.changesAfter(0, 100)).thenReturn(List.of(new SpeechChangeDto(
+            1, SpeechChangedEvent.ChangeType.DELETED, 7L, Instant.now(), null)));
+        stream = new SpeechChangeStream(feed, 20, 100, 60_000, 60_000, 168, 200);
+        stream.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        stream.stop();
+    }
+
+    @Test
+    void poll_shouldKeepSendingToOthers_andDropTheSubscriber_whenAClientStopsReading() throws Exception {
+        CountingEmitter stalled = new CountingEmitter(unblock);
+        CountingEmitter healthy = new CountingEmitter(null);
+        stream.subscribe(stalled, 0L);
+        stream.subscribe(healthy, 0L);
+
+        when(feed.latestSequence()).thenReturn(1L);
+
+        assertTrue(healthy.changeSent.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stream.subscriberCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, stream.subscriberCount());
+    }
+
+    /**
+     * Takes the events sent on subscribing, then blocks on the first change while a latch is
+     * given, like a client that stopped reading and filled the socket buffer.
+     */
+    private static final class CountingEmitter extends SseEmitter {
+
+        private final CountDownLatch blockUntil;
+        private final CountDownLatch changeSent = new CountDownLatch(1);
+        private final AtomicInteger sends = new AtomicInteger();
+
+        private CountingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (sends.incrementAndGet() == 1) {
+                return;
+            }
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            changeSent.countDown();
+        }
+    }
+}
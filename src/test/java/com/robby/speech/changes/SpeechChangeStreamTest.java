@@ -0,0 +1,105 @@
+package com.robby.speech.changes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SpeechService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "speech.changes.poll-interval-ms=100"
+)
+class SpeechChangeStreamTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SpeechService speechService;
+
+    @Autowired
+    private SpeechChangeFeed feed;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void changes_shouldStreamChangesCommittedAfterTheCursor() throws Exception {
+        long cursor = feed.latestSequence();
+        Iterator<String> lines = subscribe("?after=" + cursor, null);
+
+        SpeechDto created = speechService.create(speech("Live Author"));
+        speechService.delete(created.id());
+
+        JsonNode saved = nextEvent(lines);
+        JsonNode deleted = nextEvent(lines);
+        assertEquals(cursor + 1, saved.get("sequence").asLong());
+        assertEquals("SAVED", saved.get("type").asText());
+        assertEquals(created.id(), saved.get("speechId").asLong());
+        assertEquals("DELETED", deleted.get("type").asText());
+        assertEquals(created.id(), deleted.get("speechId").asLong());
+    }
+
+    @Test
+    void changes_shouldResumeAfterLastEventId() throws Exception {
+        SpeechDto missed = speechService.create(speech("Missed Author"));
+        long cursor = feed.latestSequence() - 1;
+
+        JsonNode replayed = nextEvent(subscribe("", String.valueOf(cursor)));
+
+        assertEquals(cursor + 1, replayed.get("sequence").asLong());
+        assertEquals(missed.id(), replayed.get("speechId").asLong());
+        assertEquals("Missed Author", replayed.get("speech").get("author").asText());
+    }
+
+    private Iterator<String> subscribe(String query, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/speeches/changes" + query))
+            .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = client
+            .sendAsync(request.build(), HttpResponse.BodyHandlers.ofLines())
+            .get(10, TimeUnit.SECONDS);
+        assertEquals(200, response.statusCode());
+        return response.body().iterator();
+    }
+
+    private JsonNode nextEvent(Iterator<String> lines) throws Exception {
+        String data = CompletableFuture.supplyAsync(() -> {
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.startsWith("data:")) {
+                    return line.substring("data:".length());
+                }
+            }
+            throw new IllegalStateException("Stream ended");
+        }).get(10, TimeUnit.SECONDS);
+        return objectMapper.readTree(data);
+    }
+
+    private static SpeechDto speech(String author) {
+        return new SpeechDto(null, "A speech about change by " + author, author, null,
+            List.of("change"), LocalDate.of(2024, 1, 15));
+    }
+}
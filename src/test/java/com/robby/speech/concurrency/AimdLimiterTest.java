@@ -0,0 +1,81 @@
+package com.robby.speech.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    private final AimdLimiter limiter = new AimdLimiter(4, 2, 6, Duration.ofMillis(100));
+
+    @Test
+    void tryAcquire_overLimit_shouldReject() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.inFlight());
+        assertEquals(1, limiter.rejected());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_fastWhileSaturated_shouldGrowUpToMax() {
+        for (int round = 0; round < 100; round++) {
+            saturateAndRelease(FAST, false);
+        }
+
+        assertEquals(6, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void release_fastWhileIdle_shouldNotGrow() {
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(4, limiter.limit());
+    }
+
+    @Test
+    void release_slowOrFailed_shouldBackOffDownToMin() {
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals((int) (4 * AimdLimiter.BACKOFF_RATIO), limiter.limit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, true);
+        }
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void constructor_withInitialOutsideBounds_shouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimiter(10, 2, 6, Duration.ofMillis(100)));
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimiter(1, 0, 6, Duration.ofMillis(100)));
+    }
+
+    private void saturateAndRelease(long latencyNanos, boolean failed) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(latencyNanos, failed);
+        }
+    }
+}
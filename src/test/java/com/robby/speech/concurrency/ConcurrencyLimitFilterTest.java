@@ -0,0 +1,109 @@
+package com.robby.speech.concurrency;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new MockEnvironment()
+        .withProperty("speech.concurrency.search.initial-limit", "1")
+        .withProperty("speech.concurrency.search.min-limit", "1"));
+
+    @Test
+    void of_shouldClassifyEndpoints() {
+        assertEquals(EndpointClass.READ, EndpointClass.of("GET", "/api/speeches/1"));
+        assertEquals(EndpointClass.READ, EndpointClass.of("GET", "/api/speeches/suggest"));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of("GET", "/api/speeches"));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of("GET", "/api/speeches/search"));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of("GET", "/api/speeches/search/ranked"));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of("GET", "/api/speeches/7/similar"));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of("POST", "/api/speeches/_mget"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("POST", "/api/speeches"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("DELETE", "/api/speeches/1"));
+    }
+
+    @Test
+    void doFilter_overSearchLimit_shouldShedSearchButAdmitReads() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> read = new AtomicReference<>();
+        MockFilterChain slowSearch = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res)
+                throws IOException, ServletException {
+                // a second search and a read arrive while this one holds the only search slot
+                nested.set(run("GET", "/api/speeches/search"));
+                read.set(run("GET", "/api/speeches/1"));
+            }
+        });
+
+        filter.doFilter(request("GET", "/api/speeches/search"), new MockHttpServletResponse(), slowSearch);
+
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, nested.get().getStatus());
+        assertEquals(ConcurrencyLimitFilter.RETRY_AFTER_SECONDS, nested.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpServletResponse.SC_OK, read.get().getStatus());
+        assertEquals(1, filter.limiters().get(EndpointClass.SEARCH).rejected());
+        assertEquals(0, filter.limiters().get(EndpointClass.READ).rejected());
+        assertEquals(0, filter.limiters().get(EndpointClass.SEARCH).inFlight());
+    }
+
+    @Test
+    void doFilter_whenChainThrows_shouldReleaseSlot() {
+        MockFilterChain failing = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () ->
+            filter.doFilter(request("GET", "/api/speeches/search"), new MockHttpServletResponse(), failing));
+        assertEquals(0, filter.limiters().get(EndpointClass.SEARCH).inFlight());
+    }
+
+    @Test
+    void doFilter_outsideSpeechApi_shouldNotBeLimited() throws Exception {
+        filter.doFilter(request("GET", "/actuator/health"), new MockHttpServletResponse(), new MockFilterChain());
+
+        filter.limiters().values().forEach(limiter -> assertEquals(0, limiter.rejected()));
+    }
+
+    @Test
+    void doFilter_changeFeed_shouldNotHoldASlot() throws Exception {
+        AtomicReference<Integer> inFlight = new AtomicReference<>();
+        MockFilterChain subscription = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                inFlight.set(filter.limiters().get(EndpointClass.READ).inFlight());
+            }
+        });
+
+        filter.doFilter(request("GET", "/api/speeches/changes"), new MockHttpServletResponse(), subscription);
+
+        assertEquals(0, inFlight.get());
+    }
+
+    private MockHttpServletResponse run(String method, String uri)
+        throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
@@ -0,0 +1,106 @@
+package com.robby.speech.controller;
+
+import com.robby.speech.controller.dto.RecordingStatusDto;
+import com.robby.speech.diagnostics.FlightRecorderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode
+@WebMvcTest(value = FlightRecorderController.class, properties = "speech.diagnostics.jfr.endpoint-enabled=true")
+class FlightRecorderControllerTest {
+
+    private static final RecordingStatusDto RUNNING = new RecordingStatusDto(
+        "speech-1", "RUNNING", "profile", Instant.parse("2024-01-15T10:00:00Z"), null);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FlightRecorderService flightRecorderService;
+
+    @Test
+    void start_shouldReturnRecordingStatus() throws Exception {
+        when(flightRecorderService.start("profile", Duration.ofMinutes(10))).thenReturn(Optional.of(RUNNING));
+
+        mockMvc.perform(post("/api/diagnostics/jfr/start").param("maxAgeSeconds", "600"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name", is("speech-1")))
+            .andExpect(jsonPath("$.state", is("RUNNING")));
+    }
+
+    @Test
+    void start_whileRunning_shouldReturnConflict() throws Exception {
+        when(flightRecorderService.start("default", Duration.ofHours(1))).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/diagnostics/jfr/start").param("settings", "default"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void start_withUnknownSettings_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/diagnostics/jfr/start").param("settings", "everything"))
+            .andExpect(status().isBadRequest());
+
+        verify(flightRecorderService, never()).start(any(), any());
+    }
+
+    @Test
+    void stop_withoutRecording_shouldReturnConflict() throws Exception {
+        when(flightRecorderService.stop()).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/diagnostics/jfr/stop"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void download_shouldStreamDumpAndDeleteIt() throws Exception {
+        Path dump = Files.createTempFile("speech-1-", ".jfr");
+        Files.write(dump, new byte[] {1, 2, 3});
+        when(flightRecorderService.dump()).thenReturn(Optional.of(dump));
+
+        MvcResult result = mockMvc.perform(get("/api/diagnostics/jfr/download"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Disposition", containsString("attachment")))
+            .andExpect(content().bytes(new byte[] {1, 2, 3}));
+
+        assertFalse(Files.exists(dump));
+    }
+
+    @Test
+    void download_withoutRecording_shouldReturnNotFound() throws Exception {
+        when(flightRecorderService.dump()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/diagnostics/jfr/download"))
+            .andExpect(status().isNotFound());
+    }
+}
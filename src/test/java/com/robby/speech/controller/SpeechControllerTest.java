@@ -1,40 +1,74 @@
 package com.robby.speech.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.robby.speech.controller.dto.HighlightDto;
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SimilarSpeechDto;
+import com.robby.speech.controller.dto.SnippetDto;
 import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.controller.dto.SpeechHitDto;
+import com.robby.speech.controller.dto.SpeechPatchDto;
+import com.robby.speech.controller.dto.SuggestionDto;
+import com.robby.speech.core.ConfirmationRequiredException;
+import com.robby.speech.core.FilterRequiredException;
+import com.robby.speech.core.InvalidPatchException;
+import com.robby.speech.core.SearchTooBroadException;
 import com.robby.speech.core.SpeechService;
+import com.robby.speech.core.SpeechTextSource;
+import com.robby.speech.core.SuggestionField;
+import com.robby.speech.core.query.SpeechQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+@DisabledInAotMode
 @WebMvcTest(SpeechController.class)
 class SpeechControllerTest {
 
@@ -95,6 +129,41 @@ class SpeechControllerTest {
         verify(speechService).findAll();
     }
 
+    @Test
+    void findAll_shouldNegotiateCborAndSmile_withJsonFieldFormats() throws Exception {
+        when(speechService.findAll()).thenReturn(Arrays.asList(speechDto1, speechDto2));
+
+        for (MediaType type : List.of(MediaType.APPLICATION_CBOR, MediaType.parseMediaType("application/x-jackson-smile"))) {
+            byte[] body = mockMvc.perform(get("/api/speeches").accept(type))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(type))
+                .andReturn().getResponse().getContentAsByteArray();
+            ObjectMapper binary = objectMapper.copyWith(type.equals(MediaType.APPLICATION_CBOR)
+                ? new CBORFactory() : new SmileFactory());
+
+            assertEquals(List.of(speechDto1, speechDto2), List.of(binary.readValue(body, SpeechDto[].class)));
+            assertEquals("2024-01-15", binary.readTree(body).get(0).get("speechDate").asText());
+        }
+    }
+
+    @Test
+    void findAll_shouldStreamNdjson() throws Exception {
+        when(speechService.streamAll()).thenReturn(Stream.of(speechDto1, speechDto2));
+
+        MvcResult result = mockMvc.perform(get("/api/speeches").accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(speechDto2, objectMapper.readValue(lines[1], SpeechDto.class));
+        verify(speechService, never()).findAll();
+    }
+
     @Test
     void findAll_shouldReturnSingleSpeech() throws Exception {
         when(speechService.findAll()).thenReturn(Collections.singletonList(speechDto1));
@@ -197,6 +266,47 @@ class SpeechControllerTest {
         verify(speechService, never()).findById(anyLong());
     }
 
+    // ============ GET /api/speeches?ids=, POST /api/speeches/_mget - findAllById() Tests ============
+
+    @Test
+    void findAllById_shouldReturnSpeechesAndMissingIds() throws Exception {
+        when(speechService.findAllById(List.of(2L, 9L, 1L)))
+            .thenReturn(new MultiGetResultDto(List.of(speechDto2, speechDto1), List.of(9L)));
+
+        mockMvc.perform(get("/api/speeches").param("ids", "2,9,1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.speeches[*].id", contains(2, 1)))
+            .andExpect(jsonPath("$.missing", contains(9)));
+
+        verify(speechService, never()).findAll();
+    }
+
+    @Test
+    void multiGet_shouldReadIdsFromTheBody() throws Exception {
+        when(speechService.findAllById(List.of(1L, 2L)))
+            .thenReturn(new MultiGetResultDto(List.of(speechDto1, speechDto2), List.of()));
+
+        mockMvc.perform(post("/api/speeches/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.speeches", hasSize(2)))
+            .andExpect(jsonPath("$.missing", hasSize(0)));
+
+        verify(speechService, never()).create(any(SpeechDto.class));
+    }
+
+    @Test
+    void multiGet_shouldReturn400_whenTooManyIds() throws Exception {
+        when(speechService.findAllById(List.of(1L, 2L))).thenThrow(new SearchTooBroadException(2, 1));
+
+        mockMvc.perform(post("/api/speeches/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.maxRows", is(1)));
+    }
+
     // ============ POST /api/speeches - create() Tests ============
 
     @Test
@@ -446,6 +556,58 @@ class SpeechControllerTest {
         verify(speechService, never()).update(anyLong(), any());
     }
 
+    // ============ PATCH /api/speeches - patch() Tests ============
+
+    @Test
+    void patch_shouldReturnPatchedSpeech() throws Exception {
+        SpeechPatchDto patch = new SpeechPatchDto(null, "New Author", null, null, null, List.of("energy"), null);
+        when(speechService.patch(1L, patch)).thenReturn(Optional.of(new SpeechDto(
+            1L, "Text", "New Author", null, List.of("tech", "energy"), null)));
+
+        mockMvc.perform(patch("/api/speeches/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"author\":\"New Author\",\"addKeywords\":[\"energy\"]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.author", is("New Author")))
+            .andExpect(jsonPath("$.keywords", hasSize(2)));
+    }
+
+    @Test
+    void patch_shouldReturn404_whenNotExists() throws Exception {
+        when(speechService.patch(eq(999L), any(SpeechPatchDto.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(patch("/api/speeches/999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"author\":\"New Author\"}"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchMatching_shouldReturnUpdatedCount() throws Exception {
+        SpeechPatchDto patch = new SpeechPatchDto(null, null, null, null, null, List.of("energy"), List.of("oil"));
+        when(speechService.patchMatching("Smith", null, LocalDate.of(2024, 12, 31), null, null, patch)).thenReturn(42);
+
+        mockMvc.perform(patch("/api/speeches")
+                .param("author", "Smith")
+                .param("to", "2024-12-31")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"addKeywords\":[\"energy\"],\"removeKeywords\":[\"oil\"]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated", is(42)));
+    }
+
+    @Test
+    void patchMatching_whenInvalid_shouldReturnProblem() throws Exception {
+        when(speechService.patchMatching(isNull(), isNull(), isNull(), isNull(), isNull(), any(SpeechPatchDto.class)))
+            .thenThrow(new InvalidPatchException("A bulk patch needs at least one of author, from, to or keyword"));
+
+        mockMvc.perform(patch("/api/speeches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"addKeywords\":[\"energy\"]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title", is("Invalid patch")));
+    }
+
     // ============ DELETE /api/speeches/{id} - delete() Tests ============
 
     @Test
@@ -476,6 +638,37 @@ class SpeechControllerTest {
         verify(speechService, never()).delete(anyLong());
     }
 
+    @Test
+    void deleteMatching_shouldReturnDeletedCount() throws Exception {
+        when(speechService.deleteMatching(null, null, LocalDate.of(2010, 1, 1), null, 1200L)).thenReturn(1200);
+
+        mockMvc.perform(delete("/api/speeches").param("to", "2010-01-01").param("confirm", "1200"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted", is(1200)));
+    }
+
+    @Test
+    void deleteMatching_overTheMaximum_shouldReturnProblemWithTheCount() throws Exception {
+        when(speechService.deleteMatching(null, null, LocalDate.of(2010, 1, 1), null, null))
+            .thenThrow(new ConfirmationRequiredException("A bulk delete", 1200, 1000));
+
+        mockMvc.perform(delete("/api/speeches").param("to", "2010-01-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title", is("Confirmation required")))
+            .andExpect(jsonPath("$.matchedRows", is(1200)))
+            .andExpect(jsonPath("$.maxRows", is(1000)));
+    }
+
+    @Test
+    void deleteMatching_withoutFilter_shouldReturnProblem() throws Exception {
+        when(speechService.deleteMatching(null, null, null, null, null))
+            .thenThrow(new FilterRequiredException("A bulk delete"));
+
+        mockMvc.perform(delete("/api/speeches"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title", is("Filter required")));
+    }
+
     // ============ GET /api/speeches/search - search() Tests ============
 
     @Test
@@ -595,6 +788,99 @@ class SpeechControllerTest {
         verify(speechService).search(isNull(), isNull(), isNull(), isNull(), isNull());
     }
 
+    @Test
+    void search_shouldReturn400WithProblemDetail_whenSearchTooBroad() throws Exception {
+        when(speechService.search(isNull(), isNull(), isNull(), isNull(), eq("a")))
+            .thenThrow(new SearchTooBroadException(5000, 1000));
+
+        mockMvc.perform(get("/api/speeches/search")
+                .param("text", "a"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title", is("Search too broad")))
+            .andExpect(jsonPath("$.estimatedRows", is(5000)))
+            .andExpect(jsonPath("$.maxRows", is(1000)));
+    }
+
+    @Test
+    void search_withQuery_shouldAndItWithTheOtherFilters() throws Exception {
+        SpeechQuery expected = SpeechQuery.of(null, LocalDate.of(2020, 1, 1), null, null, null,
+            SpeechQuery.parse("keyword:(economy OR trade) AND NOT author:smith"));
+        when(speechService.search(expected)).thenReturn(List.of(speechDto1));
+
+        mockMvc.perform(get("/api/speeches/search")
+                .param("from", "2020-01-01")
+                .param("q", "keyword:(economy OR trade) AND NOT author:smith"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(speechService).search(expected);
+    }
+
+    @Test
+    void search_withSnippets_shouldReturnSnippetsInsteadOfText() throws Exception {
+        SpeechHitDto hit = new SpeechHitDto(1L, "John Doe", "john@example.com", List.of("tech"),
+            LocalDate.of(2024, 1, 15),
+            List.of(new SnippetDto(0, "This is a test speech about technology", List.of(new HighlightDto(28, 38)))));
+        when(speechService.searchSnippets(isNull(), isNull(), isNull(), isNull(), eq("technology")))
+            .thenReturn(List.of(hit));
+
+        mockMvc.perform(get("/api/speeches/search")
+                .param("text", "technology")
+                .param("snippets", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].text").doesNotExist())
+            .andExpect(jsonPath("$[0].snippets[0].text", is("This is a test speech about technology")))
+            .andExpect(jsonPath("$[0].snippets[0].highlights[0].start", is(28)))
+            .andExpect(jsonPath("$[0].snippets[0].highlights[0].end", is(38)));
+
+        verify(speechService, never()).search(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void search_withSnippetsAndQuery_shouldAndItWithTheOtherFilters() throws Exception {
+        SpeechQuery expected = SpeechQuery.of("john", null, null, null, null, SpeechQuery.parse("text:jobs"));
+        when(speechService.searchSnippets(expected)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/speeches/search")
+                .param("author", "john")
+                .param("q", "text:jobs")
+                .param("snippets", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(speechService).searchSnippets(expected);
+    }
+
+    @Test
+    void search_withInvalidQuery_shouldReturnProblem() throws Exception {
+        mockMvc.perform(get("/api/speeches/search")
+                .param("q", "keyword:(economy OR trade"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title", is("Invalid query")))
+            .andExpect(jsonPath("$.position", is(8)));
+    }
+
+    @Test
+    void search_shouldStreamCborSequence() throws Exception {
+        when(speechService.streamSearch(eq("john"), isNull(), isNull(), isNull(), isNull()))
+            .thenReturn(Stream.of(speechDto1, speechDto3));
+
+        MvcResult result = mockMvc.perform(get("/api/speeches/search")
+                .param("author", "john")
+                .accept("application/cbor-seq"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor-seq"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        try (MappingIterator<SpeechDto> items = objectMapper.copyWith(new CBORFactory())
+            .readerFor(SpeechDto.class).readValues(body)) {
+            assertEquals(List.of(speechDto1, speechDto3), items.readAll());
+        }
+    }
+
     @Test
     void search_shouldReturnEmptyList_whenNoMatches() throws Exception {
         when(speechService.search(eq("nonexistent"), isNull(), isNull(), isNull(), isNull()))
@@ -661,4 +947,219 @@ class SpeechControllerTest {
 
         verify(speechService).search(eq("john"), isNull(), isNull(), isNull(), isNull());
     }
-}
\ No newline at end of file
+
+    // ============ GET /api/speeches/search/ranked - rankedSearch() Tests ============
+
+    @Test
+    void rankedSearch_shouldReturnResultsInRankOrder() throws Exception {
+        when(speechService.rankedSearch("technology innovation", 10))
+            .thenReturn(Arrays.asList(speechDto3, speechDto1));
+
+        mockMvc.perform(get("/api/speeches/search/ranked")
+                .param("q", "technology innovation"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].id", is(3)))
+            .andExpect(jsonPath("$[1].id", is(1)));
+
+        verify(speechService).rankedSearch("technology innovation", 10);
+    }
+
+    @Test
+    void rankedSearch_shouldPassLimit() throws Exception {
+        when(speechService.rankedSearch("climate", 1))
+            .thenReturn(Collections.singletonList(speechDto2));
+
+        mockMvc.perform(get("/api/speeches/search/ranked")
+                .param("q", "climate")
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(speechService).rankedSearch("climate", 1);
+    }
+
+    @Test
+    void rankedSearch_shouldReturn400_whenQueryMissing() throws Exception {
+        mockMvc.perform(get("/api/speeches/search/ranked"))
+            .andExpect(status().isBadRequest());
+
+        verify(speechService, never()).rankedSearch(any(), anyInt());
+    }
+
+    // ============ GET /api/speeches/{id}/text - getText() Tests ============
+
+    @Test
+    void getText_shouldStreamWholeText_advertisingRanges() throws Exception {
+        when(speechService.findText(1L)).thenReturn(Optional.of(text("Ich bin ein Berliner", 3)));
+
+        MvcResult result = mockMvc.perform(get("/api/speeches/1/text"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/plain;charset=UTF-8"))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 20))
+            .andExpect(content().string("Ich bin ein Berliner"));
+    }
+
+    @Test
+    void getText_shouldReturnPartialContent_forARange() throws Exception {
+        when(speechService.findText(1L)).thenReturn(Optional.of(text("Ich bin ein Berliner", 3)));
+
+        MvcResult result = mockMvc.perform(get("/api/speeches/1/text")
+                .header(HttpHeaders.RANGE, "bytes=12-")
+                .header(HttpHeaders.IF_RANGE, "\"3\""))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 12-19/20"))
+            .andExpect(content().string("Berliner"));
+    }
+
+    @Test
+    void getText_shouldReturnWholeText_whenIfRangeNoLongerMatches() throws Exception {
+        when(speechService.findText(1L)).thenReturn(Optional.of(text("Ich bin ein Berliner", 4)));
+
+        MvcResult result = mockMvc.perform(get("/api/speeches/1/text")
+                .header(HttpHeaders.RANGE, "bytes=12-")
+                .header(HttpHeaders.IF_RANGE, "\"3\""))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string("Ich bin ein Berliner"));
+    }
+
+    @Test
+    void getText_shouldReturn416_whenRangeStartsAfterTheText() throws Exception {
+        when(speechService.findText(1L)).thenReturn(Optional.of(text("Ich bin ein Berliner", 3)));
+
+        mockMvc.perform(get("/api/speeches/1/text").header(HttpHeaders.RANGE, "bytes=20-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    void getText_shouldReturn404_whenSpeechUnknown() throws Exception {
+        when(speechService.findText(999L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/speeches/999/text"))
+            .andExpect(status().isNotFound());
+    }
+
+    private static SpeechTextSource text(String value, long version) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return new SpeechTextSource() {
+
+            @Override
+            public long length() {
+                return bytes.length;
+            }
+
+            @Override
+            public long version() {
+                return version;
+            }
+
+            @Override
+            public void transferTo(long start, long end, OutputStream out) throws IOException {
+                out.write(bytes, (int) start, (int) (end - start));
+            }
+        };
+    }
+
+    // ============ GET /api/speeches/{id}/similar - findSimilar() Tests ============
+
+    @Test
+    void findSimilar_shouldReturnMatches() throws Exception {
+        when(speechService.findSimilar(1L, 0.8, 10))
+            .thenReturn(Optional.of(Collections.singletonList(new SimilarSpeechDto(3L, 0.9))));
+
+        mockMvc.perform(get("/api/speeches/1/similar"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id", is(3)))
+            .andExpect(jsonPath("$[0].similarity", is(0.9)));
+
+        verify(speechService).findSimilar(1L, 0.8, 10);
+    }
+
+    @Test
+    void findSimilar_shouldReturn404_whenSpeechUnknown() throws Exception {
+        when(speechService.findSimilar(999L, 0.5, 3)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/speeches/999/similar")
+                .param("threshold", "0.5")
+                .param("limit", "3"))
+            .andExpect(status().isNotFound());
+
+        verify(speechService).findSimilar(999L, 0.5, 3);
+    }
+
+    @Test
+    void findSimilar_shouldReturn400_whenLimitIsNotPositive() throws Exception {
+        mockMvc.perform(get("/api/speeches/1/similar").param("limit", "-1"))
+            .andExpect(status().isBadRequest());
+
+        verify(speechService, never()).findSimilar(any(), anyDouble(), anyInt());
+    }
+
+    @Test
+    void findSimilar_shouldReturn400_whenThresholdIsOutsideZeroToOne() throws Exception {
+        mockMvc.perform(get("/api/speeches/1/similar").param("threshold", "1.5"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/speeches/1/similar").param("threshold", "-0.1"))
+            .andExpect(status().isBadRequest());
+
+        verify(speechService, never()).findSimilar(any(), anyDouble(), anyInt());
+    }
+
+    // ============ GET /api/speeches/suggest - suggest() Tests ============
+
+    @Test
+    void suggest_shouldReturnSuggestions_forAuthorField() throws Exception {
+        when(speechService.suggest(SuggestionField.AUTHOR, "jo", 10)).thenReturn(Arrays.asList(
+            new SuggestionDto("John Doe", 4),
+            new SuggestionDto("John Miller", 1)
+        ));
+
+        mockMvc.perform(get("/api/speeches/suggest")
+                .param("field", "author")
+                .param("prefix", "jo"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].value", is("John Doe")))
+            .andExpect(jsonPath("$[0].count", is(4)));
+
+        verify(speechService).suggest(SuggestionField.AUTHOR, "jo", 10);
+    }
+
+    @Test
+    void suggest_shouldReturnSuggestions_forKeywordField() throws Exception {
+        when(speechService.suggest(SuggestionField.KEYWORD, "te", 5))
+            .thenReturn(Collections.singletonList(new SuggestionDto("tech", 2)));
+
+        mockMvc.perform(get("/api/speeches/suggest")
+                .param("field", "keyword")
+                .param("prefix", "te")
+                .param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].value", is("tech")));
+
+        verify(speechService).suggest(SuggestionField.KEYWORD, "te", 5);
+    }
+
+    @Test
+    void suggest_shouldReturn400_whenFieldUnknown() throws Exception {
+        mockMvc.perform(get("/api/speeches/suggest")
+                .param("field", "text")
+                .param("prefix", "te"))
+            .andExpect(status().isBadRequest());
+
+        verify(speechService, never()).suggest(any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,112 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.core.SpeechTextSource;
+import com.robby.speech.model.SpeechTextCodec;
+import com.robby.speech.repository.SpeechTextChunks;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedSpeechTextTest {
+
+    // longer than three chunks, with multi-byte characters, and still longer than two chunks compressed
+    private static final String TEXT = randomText(200_000);
+    private static final byte[] UTF8 = TEXT.getBytes(StandardCharsets.UTF_8);
+
+    private final List<Integer> reads = new ArrayList<>();
+    private final AtomicLong version = new AtomicLong(7);
+
+    @Test
+    void transferTo_shouldServeTheFirstPageFromTheChunkReadOnOpen() throws IOException {
+        SpeechTextSource text = open(null);
+
+        assertEquals(UTF8.length, text.length());
+        assertEquals(7, text.version());
+        assertArrayEquals(Arrays.copyOf(UTF8, 4096), transfer(text, 0, 4096));
+        assertEquals(List.of(0), reads);
+    }
+
+    @Test
+    void transferTo_shouldReturnWholeAndPartialText_forPlainAndCompressedText() throws IOException {
+        byte[] compressed = new SpeechTextCodec(true, 16).compress(TEXT);
+        assertTrue(compressed.length > 2 * ChunkedSpeechText.CHUNK_SIZE);
+
+        for (byte[] column : Arrays.asList(null, compressed)) {
+            assertArrayEquals(UTF8, transfer(open(column), 0, UTF8.length));
+            assertArrayEquals(Arrays.copyOfRange(UTF8, 150_000, UTF8.length),
+                transfer(open(column), 150_000, UTF8.length));
+        }
+    }
+
+    @Test
+    void transferTo_shouldCutPlainTextIntoCharacters() throws IOException {
+        transfer(open(null), 0, UTF8.length);
+
+        int first = SpeechTextCodec.HEADER_LENGTH + ChunkedSpeechText.CHUNK_SIZE;
+        assertEquals(List.of(0, first, first + ChunkedSpeechText.CHUNK_SIZE, first + 2 * ChunkedSpeechText.CHUNK_SIZE),
+            reads);
+    }
+
+    @Test
+    void transferTo_shouldFail_whenTheTextChangesWhileItIsRead() {
+        SpeechTextSource text = open(null);
+        version.incrementAndGet();
+
+        IOException e = assertThrows(IOException.class, () -> transfer(text, 0, UTF8.length));
+
+        assertTrue(e.getMessage().contains("changed"));
+    }
+
+    @Test
+    void open_shouldReturnEmpty_whenThereIsNoSuchSpeech() {
+        SpeechTextChunks none = (id, offset, length) -> Optional.empty();
+
+        assertTrue(ChunkedSpeechText.open(1L, none, TransactionOperations.withoutTransaction()).isEmpty());
+    }
+
+    // reads from the compressed column, or from the plain text when it is null
+    private SpeechTextSource open(byte[] compressed) {
+        SpeechTextChunks chunks = (id, offset, length) -> {
+            reads.add(offset);
+            if (compressed == null) {
+                int from = Math.min(offset, TEXT.length());
+                return Optional.of(new SpeechTextChunks.TextChunk(
+                    null, TEXT.substring(from, Math.min(TEXT.length(), offset + length)), UTF8.length, version.get()));
+            }
+            int from = Math.min(offset, compressed.length);
+            return Optional.of(new SpeechTextChunks.TextChunk(
+                Arrays.copyOfRange(compressed, from, Math.min(compressed.length, offset + length)), null, 0, version.get()));
+        };
+        return ChunkedSpeechText.open(1L, chunks, TransactionOperations.withoutTransaction()).orElseThrow();
+    }
+
+    private static String randomText(int length) {
+        String alphabet = "abcdefghijklmnopqrstuvwxyz –✓";
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private static byte[] transfer(SpeechTextSource text, long start, long end) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        text.transferTo(start, end, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,100 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.diagnostics.SpeechOperationEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+class ProfiledSpeechServiceTest {
+
+    @Mock
+    private SpeechServiceImpl delegate;
+
+    @TempDir
+    private Path tempDir;
+
+    private ProfiledSpeechService service;
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProfiledSpeechService(delegate);
+        recording = new Recording();
+        recording.enable(SpeechOperationEvent.class).withoutThreshold();
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    void search_shouldEmitEventWithFiltersAndResultCount() throws Exception {
+        SpeechDto speech = new SpeechDto(1L, "text", "John Doe", null, List.of("economy"), null);
+        when(delegate.search("john", null, null, "economy", " ")).thenReturn(List.of(speech));
+
+        assertEquals(List.of(speech), service.search("john", null, null, "economy", " "));
+
+        RecordedEvent event = singleEvent();
+        assertEquals("search", event.getString("operation"));
+        assertEquals("author=john, keyword=economy", event.getString("filters"));
+        assertEquals(1, event.getInt("resultCount"));
+        assertFalse(event.getBoolean("failed"));
+    }
+
+    @Test
+    void findById_shouldCountMissingSpeechAsNoResult() throws Exception {
+        when(delegate.findById(7L)).thenReturn(Optional.empty());
+
+        service.findById(7L);
+
+        RecordedEvent event = singleEvent();
+        assertEquals("findById", event.getString("operation"));
+        assertEquals("id=7", event.getString("filters"));
+        assertEquals(0, event.getInt("resultCount"));
+    }
+
+    @Test
+    void failedOperation_shouldStillEmitEvent() throws Exception {
+        when(delegate.findAll()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> service.findAll());
+
+        RecordedEvent event = singleEvent();
+        assertEquals("findAll", event.getString("operation"));
+        assertTrue(event.getBoolean("failed"));
+    }
+
+    private RecordedEvent singleEvent() throws Exception {
+        recording.stop();
+        Path file = tempDir.resolve("recording.jfr");
+        recording.dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals("com.robby.speech.SpeechOperation"))
+            .toList();
+        assertEquals(1, events.size());
+        return events.get(0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.robby.speech.core.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_shouldShareOneExecutionBetweenConcurrentCallers() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+        Future<String> leader = executor.submit(() -> flights.execute("key", this::blockedCall));
+        awaitCalls(1);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            followers.add(executor.submit(() -> flights.execute("key", this::blockedCall)));
+        }
+        awaitFollowers(followers.size());
+
+        release.countDown();
+
+        String result = leader.get(5, TimeUnit.SECONDS);
+        for (Future<String> follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, flights.executions());
+        assertEquals(8, flights.shared());
+    }
+
+    @Test
+    void execute_shouldRunAgain_onceTheFlightHasLanded() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>(Duration.ofSeconds(10));
+
+        assertEquals(1, flights.execute("key", calls::incrementAndGet));
+        assertEquals(2, flights.execute("key", calls::incrementAndGet));
+        assertEquals(0, flights.shared());
+    }
+
+    @Test
+    void execute_shouldShareTheLeadersException() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+        Future<String> leader = executor.submit(() -> flights.execute("key", () -> {
+            blockedCall();
+            throw new IllegalStateException("database down");
+        }));
+        awaitCalls(1);
+        Future<String> follower = executor.submit(() -> flights.execute("key", this::blockedCall));
+        awaitFollowers(1);
+
+        release.countDown();
+
+        assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals("database down", failure.getCause().getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldRunTheCallItself_afterWaitingTooLong() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofMillis(50));
+        executor.submit(() -> flights.execute("key", this::blockedCall));
+        awaitCalls(1);
+
+        assertEquals("own", flights.execute("key", () -> "own"));
+        assertEquals(1, flights.waitTimeouts());
+        assertEquals(2, flights.executions());
+    }
+
+    @Test
+    void forget_shouldStartANewFlightForLaterCallers() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+        executor.submit(() -> flights.execute("key", this::blockedCall));
+        awaitCalls(1);
+
+        flights.forget("key");
+
+        assertEquals("fresh", flights.execute("key", () -> "fresh"));
+        assertEquals(0, flights.shared());
+    }
+
+    private String blockedCall() {
+        calls.incrementAndGet();
+        try {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new String("result");
+    }
+
+    private void awaitCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    // followers block inside the flight without a visible trace, so give them time to join it
+    private static void awaitFollowers(int followers) throws InterruptedException {
+        Thread.sleep(100L + 10L * followers);
+    }
+}
@@ -0,0 +1,110 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.HighlightDto;
+import com.robby.speech.controller.dto.SnippetDto;
+import com.robby.speech.core.query.SpeechQuery;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnippetExtractorTest {
+
+    private static final String FILLER = "x".repeat(200);
+
+    @Test
+    void extract_shouldCutContextAroundMatch_ignoringCase() throws IOException {
+        String text = FILLER + "We will cut TAXES for families." + FILLER;
+
+        List<SnippetDto> snippets = new SnippetExtractor(List.of("taxes")).extract(new StringReader(text));
+
+        assertEquals(1, snippets.size());
+        SnippetDto snippet = snippets.get(0);
+        int match = text.indexOf("TAXES");
+        assertEquals(match - SnippetExtractor.CONTEXT_CHARS, snippet.start());
+        assertEquals(text.substring(snippet.start(), match + 5 + SnippetExtractor.CONTEXT_CHARS), snippet.text());
+        assertEquals(List.of(new HighlightDto(match, match + 5)), snippet.highlights());
+    }
+
+    @Test
+    void extract_shouldShareOneWindow_betweenNearbyMatchesOfAllTerms() throws IOException {
+        String text = "Jobs and wages: more jobs, better wages.";
+
+        List<SnippetDto> snippets = new SnippetExtractor(List.of("jobs", "wages")).extract(new StringReader(text));
+
+        assertEquals(1, snippets.size());
+        assertEquals(0, snippets.get(0).start());
+        assertEquals(text, snippets.get(0).text());
+        assertEquals(List.of(
+            new HighlightDto(0, 4),
+            new HighlightDto(9, 14),
+            new HighlightDto(21, 25),
+            new HighlightDto(34, 39)
+        ), snippets.get(0).highlights());
+    }
+
+    @Test
+    void extract_shouldFindMatchesThatStartInsideAPartialMatch() throws IOException {
+        List<SnippetDto> snippets = new SnippetExtractor(List.of("aab")).extract(new StringReader("aaab"));
+
+        assertEquals(List.of(new HighlightDto(1, 4)), snippets.get(0).highlights());
+    }
+
+    @Test
+    void extract_shouldStopReading_afterTheLastSnippet() throws IOException {
+        String hit = "economy" + FILLER;
+        CountingReader text = new CountingReader(hit.repeat(100));
+
+        List<SnippetDto> snippets = new SnippetExtractor(List.of("economy")).extract(text);
+
+        assertEquals(SnippetExtractor.MAX_SNIPPETS, snippets.size());
+        assertTrue(text.read < 10 * hit.length(), "read " + text.read + " characters");
+        for (SnippetDto snippet : snippets) {
+            assertEquals(1, snippet.highlights().size());
+        }
+    }
+
+    @Test
+    void extract_shouldReturnTheStart_whenNothingMatches() throws IOException {
+        String text = "Fellow citizens, " + FILLER;
+
+        List<SnippetDto> snippets = new SnippetExtractor(List.of("economy")).extract(new StringReader(text));
+
+        assertEquals(List.of(new SnippetDto(0, text.substring(0, 2 * SnippetExtractor.CONTEXT_CHARS), List.of())),
+            snippets);
+    }
+
+    @Test
+    void highlightedTerms_shouldSkipNegatedTextFilters() {
+        SpeechQuery query = SpeechQuery.parse("(text:jobs OR text:wages) AND NOT text:taxes AND author:smith");
+
+        assertEquals(List.of("jobs", "wages"), SnippetExtractor.highlightedTerms(query));
+    }
+
+    private static final class CountingReader extends Reader {
+
+        private final StringReader delegate;
+        private int read;
+
+        private CountingReader(String text) {
+            this.delegate = new StringReader(text);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            read += Math.max(n, 0);
+            return n;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.changes.SpeechChangeFeed;
+import com.robby.speech.controller.dto.SpeechChangeDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SpeechChangedEvent;
+import com.robby.speech.core.SuggestionField;
+import com.robby.speech.core.index.InvertedIndex;
+import com.robby.speech.repository.SpeechChangeRepository;
+import com.robby.speech.repository.SpeechRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpeechIndexMaintainerTest {
+
+    @Mock
+    private SpeechRepository speechRepository;
+
+    @Mock
+    private SpeechChangeRepository changeRepository;
+
+    @Mock
+    private SpeechChangeFeed feed;
+
+    @Mock
+    private SpeechIndexSnapshots snapshots;
+
+    @Test
+    void bootstrap_shouldReplayChangesCommittedElsewhere_beforeTheTextIndexServes() {
+        TextSearchIndex text = new TextSearchIndex(speechRepository, true);
+        when(snapshots.read()).thenReturn(Optional.empty());
+        when(changeRepository.findLatestSequenceBefore(any())).thenReturn(7L);
+        when(speechRepository.findByIdGreaterThanOrderById(eq(0L), any())).thenReturn(List.of());
+        // written by another instance, or straight to the tables by the corpus generator
+        when(feed.changesAfter(eq(7L), anyInt())).thenReturn(List.of(
+            saved(8, speech(1L, "A speech about technology")),
+            saved(9, speech(2L, "A speech about technology and jobs")),
+            deleted(10, 2L)));
+        when(speechRepository.findIdsPossiblyContainingText("technology")).thenReturn(List.of(1L));
+
+        SpeechIndexMaintainer maintainer = maintainer(text);
+        assertEquals(Set.of(1L), text.candidates("technology"));
+        assertEquals(Integer.MAX_VALUE, text.estimate("technology"));
+        maintainer.bootstrap();
+
+        assertEquals(Set.of(1L), text.candidates("technology"));
+        assertEquals(1, text.estimate("technology"));
+        ArgumentCaptor<LongSupplier> appliedThrough = ArgumentCaptor.forClass(LongSupplier.class);
+        verify(snapshots).indexesComplete(eq(true), appliedThrough.capture());
+        assertEquals(10L, appliedThrough.getValue().getAsLong());
+    }
+
+    @Test
+    void appliedThrough_shouldStopBeforeAChangeTheFeedHoldsBack() {
+        when(snapshots.read()).thenReturn(Optional.empty());
+        when(changeRepository.findLatestSequenceBefore(any())).thenReturn(7L);
+        when(speechRepository.findByIdGreaterThanOrderById(eq(0L), any())).thenReturn(List.of());
+        // 9 was handed out to a transaction that has not committed yet, so 10 is held back
+        when(feed.changesAfter(eq(7L), anyInt())).thenReturn(List.of(saved(8, speech(1L, "On jobs"))));
+        SpeechIndexMaintainer maintainer = maintainer(new RankedSearchIndex());
+
+        maintainer.bootstrap();
+
+        assertEquals(8L, maintainer.appliedThrough());
+    }
+
+    @Test
+    void textSearchIndex_shouldKeepSearchingTheDatabase_whenTextIsNotCompressed() {
+        TextSearchIndex text = new TextSearchIndex(speechRepository, false);
+        text.put(speech(1L, "A speech about technology"));
+        text.caughtUp();
+        when(speechRepository.findIdsPossiblyContainingText("technology")).thenReturn(List.of(3L));
+
+        assertEquals(Set.of(3L), text.candidates("technology"));
+    }
+
+    @Test
+    void onSpeechChanged_shouldApplyEventsAsTheyArrive() {
+        TextSearchIndex text = new TextSearchIndex(speechRepository, true);
+        text.caughtUp();
+        SpeechIndexMaintainer maintainer = maintainer(text);
+
+        maintainer.onSpeechChanged(SpeechChangedEvent.saved(speech(4L, "On technology")));
+
+        assertTrue(text.candidates("technology").contains(4L));
+    }
+
+    @Test
+    void onSpeechChanged_shouldSwapKeywords_withoutTheText() {
+        RankedSearchIndex ranked = new RankedSearchIndex();
+        SuggestionIndex suggestions = new SuggestionIndex();
+        SpeechIndexMaintainer maintainer = maintainer(ranked, suggestions);
+        maintainer.onSpeechChanged(SpeechChangedEvent.saved(speech(4L, "On technology")));
+
+        maintainer.onSpeechChanged(SpeechChangedEvent.savedWithoutText(
+            new SpeechDto(4L, null, "Smith", null, List.of("energy"), LocalDate.now())));
+
+        assertEquals(List.of(4L), ranked.search("technology energy", 10).stream().map(InvertedIndex.Hit::id).toList());
+        assertTrue(ranked.search("tech", 10).isEmpty());
+        assertEquals(1, suggestions.count(SuggestionField.KEYWORD, "energy"));
+        assertEquals(0, suggestions.count(SuggestionField.KEYWORD, "tech"));
+    }
+
+    private SpeechIndexMaintainer maintainer(SpeechIndex... indexes) {
+        return new SpeechIndexMaintainer(speechRepository, changeRepository, feed, List.of(indexes), snapshots,
+            TransactionOperations.withoutTransaction(), 1000, 5000);
+    }
+
+    private static SpeechChangeDto saved(long sequence, SpeechDto speech) {
+        return new SpeechChangeDto(sequence, SpeechChangedEvent.ChangeType.SAVED, speech.id(), Instant.now(), speech);
+    }
+
+    private static SpeechChangeDto deleted(long sequence, long id) {
+        return new SpeechChangeDto(sequence, SpeechChangedEvent.ChangeType.DELETED, id, Instant.now(), null);
+    }
+
+    private static SpeechDto speech(long id, String text) {
+        return new SpeechDto(id, text, "Smith", null, List.of("tech"), LocalDate.now());
+    }
+}
@@ -0,0 +1,156 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SuggestionField;
+import com.robby.speech.core.index.InvertedIndex;
+import com.robby.speech.repository.SpeechRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class SpeechIndexSnapshotsTest {
+
+    @Mock
+    private SpeechRepository speechRepository;
+
+    @TempDir
+    private Path directory;
+
+    private TextSearchIndex text;
+    private SuggestionIndex suggestions;
+    private NearDuplicateIndex nearDuplicates;
+    private RankedSearchIndex ranked;
+
+    @BeforeEach
+    void setUp() {
+        text = textIndex();
+        suggestions = new SuggestionIndex();
+        nearDuplicates = new NearDuplicateIndex(false, 0.9);
+        ranked = new RankedSearchIndex();
+        List.of(
+            new SpeechDto(1L, "A speech about technology and jobs", "Smith", null, List.of("tech"), LocalDate.now()),
+            new SpeechDto(2L, "A speech about climate change", "Jones", null, List.of("climate", "tech"), LocalDate.now())
+        ).forEach(speech -> {
+            text.put(speech);
+            suggestions.put(speech);
+            nearDuplicates.put(speech);
+            ranked.put(speech);
+        });
+    }
+
+    @Test
+    void read_shouldRestoreWhatWasWritten() throws IOException {
+        SpeechIndexSnapshots snapshots = snapshots(text, suggestions, nearDuplicates, ranked);
+        snapshots.indexesComplete(false, () -> 42L);
+        Instant before = Instant.now();
+        snapshots.write();
+
+        TextSearchIndex restoredText = textIndex();
+        SuggestionIndex restoredSuggestions = new SuggestionIndex();
+        NearDuplicateIndex restoredNearDuplicates = new NearDuplicateIndex(false, 0.9);
+        RankedSearchIndex restoredRanked = new RankedSearchIndex();
+        Optional<SpeechIndexSnapshots.Snapshot> snapshot =
+            snapshots(restoredText, restoredSuggestions, restoredNearDuplicates, restoredRanked).read();
+
+        assertTrue(snapshot.isPresent());
+        assertEquals(42L, snapshot.get().watermark());
+        assertTrue(snapshot.get().takenAt().isBefore(before));
+        assertTrue(restoredText.candidates("technology").isEmpty());
+        snapshot.get().install().run();
+        assertEquals(Set.of(1L), restoredText.candidates("technology"));
+        assertEquals(2, restoredSuggestions.count(SuggestionField.KEYWORD, "tech"));
+        assertEquals(1, restoredSuggestions.count(SuggestionField.AUTHOR, "Jones"));
+        assertTrue(restoredNearDuplicates.contains(2L));
+        assertEquals(ranked.search("climate tech", 10), restoredRanked.search("climate tech", 10));
+        // the keyword terms are restored too, so a keyword change still swaps them out
+        restoredRanked.putMetadata(new SpeechDto(2L, null, "Jones", null, List.of("energy"), LocalDate.now()));
+        assertEquals(List.of(1L), restoredRanked.search("tech", 10).stream().map(InvertedIndex.Hit::id).toList());
+    }
+
+    @Test
+    void write_shouldReplaceThePreviousGeneration() throws IOException {
+        AtomicLong applied = new AtomicLong(1);
+        SpeechIndexSnapshots snapshots = snapshots(text);
+        snapshots.indexesComplete(false, applied::get);
+        snapshots.write();
+        text.remove(1L);
+        applied.set(2);
+        sleepPastMillisecond();
+        snapshots.write();
+
+        try (var generations = Files.list(directory)) {
+            assertEquals(2, generations.count());
+        }
+        TextSearchIndex restored = textIndex();
+        SpeechIndexSnapshots.Snapshot snapshot = snapshots(restored).read().orElseThrow();
+        snapshot.install().run();
+        assertEquals(2L, snapshot.watermark());
+        assertTrue(restored.candidates("technology").isEmpty());
+    }
+
+    @Test
+    void write_shouldWaitForTheIndexesToBeComplete() throws IOException {
+        snapshots(text).write();
+
+        assertFalse(Files.exists(directory.resolve(SpeechIndexSnapshots.MANIFEST)));
+    }
+
+    @Test
+    void read_shouldFallBackToScanning_whenTheSnapshotIsUnreadable() throws IOException {
+        SpeechIndexSnapshots snapshots = snapshots(text);
+        snapshots.indexesComplete(false, () -> 1L);
+        snapshots.write();
+        try (var files = Files.walk(directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".snap")).toList()) {
+                Files.write(file, new byte[] {1, 2, 3});
+            }
+        }
+
+        assertTrue(snapshots(textIndex()).read().isEmpty());
+    }
+
+    @Test
+    void read_shouldIgnoreSnapshotsOlderThanTheOutboxRetention() throws IOException {
+        SpeechIndexSnapshots snapshots = new SpeechIndexSnapshots(
+            List.of(text), directory.toString(), 60, 2 * 3_600_000L, 1);
+        snapshots.indexesComplete(false, () -> 1L);
+        snapshots.write();
+
+        assertTrue(snapshots.read().isEmpty());
+    }
+
+    private TextSearchIndex textIndex() {
+        TextSearchIndex index = new TextSearchIndex(speechRepository, true);
+        index.caughtUp();
+        return index;
+    }
+
+    private SpeechIndexSnapshots snapshots(SpeechIndex... indexes) {
+        return new SpeechIndexSnapshots(List.of(indexes), directory.toString(), 60, 5000, 168);
+    }
+
+    private static void sleepPastMillisecond() {
+        long now = System.currentTimeMillis();
+        while (System.currentTimeMillis() == now) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -1,14 +1,37 @@
 package com.robby.speech.core.impl;
 
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SimilarSpeechDto;
 import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.controller.dto.SpeechPatchDto;
+import com.robby.speech.controller.dto.SuggestionDto;
+import com.robby.speech.core.ConfirmationRequiredException;
+import com.robby.speech.core.FilterRequiredException;
+import com.robby.speech.core.InvalidPatchException;
+import com.robby.speech.core.SearchTooBroadException;
+import com.robby.speech.core.SpeechChangedEvent;
+import com.robby.speech.core.SuggestionField;
+import com.robby.speech.core.index.InvertedIndex;
+import com.robby.speech.core.index.MinHashIndex;
+import com.robby.speech.core.index.PrefixTrie;
+import com.robby.speech.core.query.SpeechQuery;
 import com.robby.speech.model.Speech;
+import com.robby.speech.model.SpeechChange;
+import com.robby.speech.repository.SpeechChangeRepository;
 import com.robby.speech.repository.SpeechRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -17,24 +40,58 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyDouble;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+@DisabledInNativeImage
 @ExtendWith(MockitoExtension.class)
 class SpeechServiceImplTest {
 
     @Mock
     private SpeechRepository speechRepository;
 
+    @Mock
+    private RankedSearchIndex rankedSearchIndex;
+
+    @Mock
+    private NearDuplicateIndex nearDuplicateIndex;
+
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    @Spy
+    private SearchPlanner searchPlanner = new SearchPlanner(3);
+
+    @Mock
+    private SpeechChangeRepository changeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionOperations transactions;
+
+    @Spy
+    private ReadCoalescer readCoalescer = new ReadCoalescer(true, 1000);
+
     @InjectMocks
     private SpeechServiceImpl speechService;
 
@@ -70,6 +127,8 @@ class SpeechServiceImplTest {
         speech3.setSpeechDate(LocalDate.of(2024, 3, 10));
 
         speechDto1 = SpeechMapper.toDto(speech1);
+        lenient().when(transactions.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     // ============ findAll() Tests ============
@@ -304,29 +363,136 @@ class SpeechServiceImplTest {
         verify(speechRepository, never()).save(any());
     }
 
+    // ============ patch() Tests ============
+
+    @Test
+    void patch_shouldApplyKeywordDiffAndFields_andPublishNewState() {
+        SpeechPatchDto patch = new SpeechPatchDto(
+            null, "New Author", null, null, null, List.of("energy"), List.of("tech"));
+        when(speechRepository.existsById(1L)).thenReturn(true);
+        when(speechRepository.findById(1L)).thenReturn(Optional.of(speech1));
+
+        SpeechDto result = speechService.patch(1L, patch).orElseThrow();
+
+        verify(speechRepository).removeKeywords(List.of(1L), Set.of("tech"));
+        verify(speechRepository).addKeyword(List.of(1L), "energy");
+        verify(speechRepository).updateFields(List.of(1L), "New Author", null, null);
+        verify(speechRepository, never()).updateText(anyLong(), any());
+        verify(speechRepository, never()).save(any());
+        verify(changeRepository).save(any(SpeechChange.class));
+        verify(eventPublisher).publishEvent(SpeechChangedEvent.saved(result));
+    }
+
+    @Test
+    void patch_shouldReturnEmpty_whenSpeechNotFound() {
+        when(speechRepository.existsById(999L)).thenReturn(false);
+
+        assertTrue(speechService.patch(999L, new SpeechPatchDto(
+            "Text", null, null, null, null, null, null)).isEmpty());
+        verify(speechRepository, never()).updateText(anyLong(), any());
+    }
+
+    @Test
+    void patch_withKeywordsAndAddKeywords_shouldBeInvalid() {
+        assertThrows(InvalidPatchException.class, () -> speechService.patch(1L, new SpeechPatchDto(
+            null, null, null, null, List.of("a"), List.of("b"), null)));
+    }
+
+    @Test
+    void patchMatching_shouldRetagMatchesSetBased() {
+        SpeechPatchDto patch = new SpeechPatchDto(null, null, null, null, List.of("energy"), null, null);
+        when(speechRepository.findIdsMatching(new SpeechQuery.Author("john"), null)).thenReturn(List.of(3L, 1L));
+        when(changeRepository.recordSaved(eq(List.of(1L, 3L)), any())).thenReturn(2);
+        when(speechRepository.findAllWithoutBodyById(List.of(1L, 3L))).thenReturn(List.of(speech1, speech3));
+
+        assertEquals(2, speechService.patchMatching("john", null, null, null, null, patch));
+
+        verify(speechRepository).removeKeywordsExcept(List.of(1L, 3L), Set.of("energy"));
+        verify(speechRepository).addKeyword(List.of(1L, 3L), "energy");
+        verify(changeRepository).recordSaved(eq(List.of(1L, 3L)), any());
+        verify(eventPublisher).publishEvent(SpeechChangedEvent.savedWithoutText(SpeechMapper.toDtoWithoutText(speech3)));
+    }
+
+    @Test
+    void patchMatching_withoutFilter_orWithText_shouldBeInvalid() {
+        SpeechPatchDto retag = new SpeechPatchDto(null, null, null, null, null, List.of("energy"), null);
+        SpeechPatchDto text = new SpeechPatchDto("Text", null, null, null, null, null, null);
+
+        assertThrows(FilterRequiredException.class, () -> speechService.patchMatching(null, null, null, " ", null, retag));
+        assertThrows(InvalidPatchException.class, () -> speechService.patchMatching("john", null, null, null, null, text));
+        verify(speechRepository, never()).addKeyword(any(), any());
+    }
+
     // ============ delete() Tests ============
 
     @Test
     void delete_shouldReturnTrue_whenSpeechExists() {
-        when(speechRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(speechRepository).deleteById(1L);
+        when(speechRepository.deleteWithBodies(List.of(1L))).thenReturn(List.of(1L));
 
         boolean result = speechService.delete(1L);
 
         assertTrue(result);
-        verify(speechRepository).existsById(1L);
-        verify(speechRepository).deleteById(1L);
+        verify(speechRepository, never()).findById(anyLong());
+        verify(speechRepository, never()).deleteById(anyLong());
     }
 
     @Test
     void delete_shouldReturnFalse_whenSpeechDoesNotExist() {
-        when(speechRepository.existsById(999L)).thenReturn(false);
+        when(speechRepository.deleteWithBodies(List.of(999L))).thenReturn(List.of());
 
         boolean result = speechService.delete(999L);
 
         assertFalse(result);
-        verify(speechRepository).existsById(999L);
-        verify(speechRepository, never()).deleteById(anyLong());
+        verify(changeRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteMatching_shouldDeleteInChunks_eachInItsOwnTransaction() {
+        List<Long> ids = LongStream.rangeClosed(1, 1500).boxed().toList();
+        when(speechRepository.findIdsMatching(new SpeechQuery.DateRange(null, LocalDate.of(2010, 1, 1)), null))
+            .thenReturn(ids);
+        when(speechRepository.deleteWithBodies(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(1500, speechService.deleteMatching(null, null, LocalDate.of(2010, 1, 1), null, 1500L));
+
+        verify(transactions, times(2)).execute(any());
+        verify(speechRepository).deleteWithBodies(ids.subList(0, 1000));
+        verify(speechRepository).deleteWithBodies(ids.subList(1000, 1500));
+        verify(changeRepository).recordDeleted(eq(ids.subList(1000, 1500)), any());
+        verify(eventPublisher).publishEvent(SpeechChangedEvent.deleted(1500L));
+        verify(speechRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void deleteMatching_shouldPublishOnlyTheSpeechesActuallyDeleted() {
+        when(speechRepository.findIdsMatching(new SpeechQuery.DateRange(null, LocalDate.of(2010, 1, 1)), null))
+            .thenReturn(List.of(1L, 2L, 3L));
+        when(speechRepository.deleteWithBodies(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+
+        assertEquals(2, speechService.deleteMatching(null, null, LocalDate.of(2010, 1, 1), null, null));
+
+        verify(eventPublisher).publishEvent(SpeechChangedEvent.deleted(1L));
+        verify(eventPublisher).publishEvent(SpeechChangedEvent.deleted(3L));
+        verify(eventPublisher, never()).publishEvent(SpeechChangedEvent.deleted(2L));
+    }
+
+    @Test
+    void deleteMatching_withoutFilter_shouldBeRejected() {
+        assertThrows(FilterRequiredException.class, () -> speechService.deleteMatching(" ", null, null, null, null));
+        verify(speechRepository, never()).deleteWithBodies(any());
+    }
+
+    @Test
+    void deleteMatching_overTheMaximum_shouldNeedTheCountConfirmed() {
+        when(speechRepository.findIdsMatching(new SpeechQuery.Author("%"), null)).thenReturn(List.of(1L, 2L, 3L, 4L));
+
+        ConfirmationRequiredException e = assertThrows(ConfirmationRequiredException.class,
+            () -> speechService.deleteMatching("%", null, null, null, null));
+        assertThrows(ConfirmationRequiredException.class, () -> speechService.deleteMatching("%", null, null, null, 3L));
+
+        assertEquals(4, e.getMatchedRows());
+        assertEquals(3, e.getMaxRows());
+        verify(speechRepository, never()).deleteWithBodies(any());
     }
 
     // ============ findById() Tests ============
@@ -369,90 +535,142 @@ class SpeechServiceImplTest {
         assertEquals(speech1.getSpeechDate(), dto.speechDate());
     }
 
+    // ============ findAllById() Tests ============
+
+    @Test
+    void findAllById_shouldReturnSpeechesInRequestOrder_andReportMissingIds() {
+        when(speechRepository.findAllById(Set.of(3L, 999L, 1L))).thenReturn(Arrays.asList(speech1, speech3));
+
+        MultiGetResultDto result = speechService.findAllById(Arrays.asList(3L, 999L, 3L, null, 1L));
+
+        assertEquals(List.of(3L, 1L), result.speeches().stream().map(SpeechDto::id).toList());
+        assertEquals(List.of(999L), result.missing());
+        verify(speechRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void findAllById_shouldNotQuery_whenNoIds() {
+        MultiGetResultDto result = speechService.findAllById(List.of());
+
+        assertTrue(result.speeches().isEmpty());
+        assertTrue(result.missing().isEmpty());
+        verify(speechRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void findAllById_shouldThrow_whenMoreIdsThanMaxRows() {
+        assertThrows(SearchTooBroadException.class, () -> speechService.findAllById(List.of(1L, 2L, 3L, 4L)));
+
+        verify(speechRepository, never()).findAllById(any());
+    }
+
     // ============ search() Tests ============
 
     @Test
     void search_shouldFindByAuthor_caseInsensitive() {
-        when(speechRepository.findByAuthorContainingIgnoreCase("john"))
-            .thenReturn(Arrays.asList(speech1, speech3));
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("john"))
+            .thenReturn(Arrays.asList(1L, 3L));
         when(speechRepository.findAllById(any())).thenReturn(Arrays.asList(speech1, speech3));
 
         List<SpeechDto> result = speechService.search("john", null, null, null, null);
 
         assertEquals(2, result.size());
-        verify(speechRepository).findByAuthorContainingIgnoreCase("john");
+        verify(speechRepository).findIdsByAuthorContainingIgnoreCase("john");
     }
 
     @Test
     void search_shouldFindByKeyword() {
-        when(speechRepository.findByKeywordLikeIgnoreCase("tech"))
-            .thenReturn(Arrays.asList(speech1, speech3));
+        when(speechRepository.findIdsByKeywordLikeIgnoreCase("tech"))
+            .thenReturn(Arrays.asList(1L, 3L));
         when(speechRepository.findAllById(any())).thenReturn(Arrays.asList(speech1, speech3));
 
         List<SpeechDto> result = speechService.search(null, null, null, "tech", null);
 
         assertEquals(2, result.size());
-        verify(speechRepository).findByKeywordLikeIgnoreCase("tech");
+        verify(speechRepository).findIdsByKeywordLikeIgnoreCase("tech");
     }
 
     @Test
     void search_shouldFindByText_caseInsensitive() {
-        when(speechRepository.findByTextContainingIgnoreCase("technology"))
-            .thenReturn(Arrays.asList(speech1, speech3));
+        when(textSearchIndex.candidates("TECHNOLOGY"))
+            .thenReturn(new HashSet<>(Arrays.asList(1L, 3L)));
         when(speechRepository.findAllById(any())).thenReturn(Arrays.asList(speech1, speech3));
 
-        List<SpeechDto> result = speechService.search(null, null, null, null, "technology");
+        List<SpeechDto> result = speechService.search(null, null, null, null, "TECHNOLOGY");
 
         assertEquals(2, result.size());
-        verify(speechRepository).findByTextContainingIgnoreCase("technology");
+        verify(textSearchIndex).candidates("TECHNOLOGY");
+    }
+
+    @Test
+    void search_shouldDropTextCandidates_thatDoNotContainText() {
+        when(textSearchIndex.candidates("climate"))
+            .thenReturn(new HashSet<>(Arrays.asList(1L, 2L)));
+        when(speechRepository.findAllById(new HashSet<>(Arrays.asList(1L, 2L))))
+            .thenReturn(Arrays.asList(speech1, speech2));
+
+        List<SpeechDto> result = speechService.search(null, null, null, null, "climate");
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).id());
+    }
+
+    @Test
+    void search_shouldNotLoadSpeeches_whenNoTextCandidates() {
+        when(textSearchIndex.candidates("nowhere")).thenReturn(Collections.emptySet());
+
+        List<SpeechDto> result = speechService.search(null, null, null, null, "nowhere");
+
+        assertTrue(result.isEmpty());
+        verify(speechRepository, never()).findAllById(any());
     }
 
     @Test
     void search_shouldFindByFromDate() {
         LocalDate fromDate = LocalDate.of(2024, 2, 1);
-        when(speechRepository.findBySpeechDateGreaterThanEqual(fromDate))
-            .thenReturn(Arrays.asList(speech2, speech3));
+        when(speechRepository.findIdsBySpeechDateGreaterThanEqual(fromDate))
+            .thenReturn(Arrays.asList(2L, 3L));
         when(speechRepository.findAllById(any())).thenReturn(Arrays.asList(speech2, speech3));
 
         List<SpeechDto> result = speechService.search(null, fromDate, null, null, null);
 
         assertEquals(2, result.size());
-        verify(speechRepository).findBySpeechDateGreaterThanEqual(fromDate);
+        verify(speechRepository).findIdsBySpeechDateGreaterThanEqual(fromDate);
     }
 
     @Test
     void search_shouldFindByToDate() {
         LocalDate toDate = LocalDate.of(2024, 2, 1);
-        when(speechRepository.findBySpeechDateLessThanEqual(toDate))
-            .thenReturn(Collections.singletonList(speech1));
+        when(speechRepository.findIdsBySpeechDateLessThanEqual(toDate))
+            .thenReturn(Collections.singletonList(1L));
         when(speechRepository.findAllById(any())).thenReturn(Collections.singletonList(speech1));
 
         List<SpeechDto> result = speechService.search(null, null, toDate, null, null);
 
         assertEquals(1, result.size());
-        verify(speechRepository).findBySpeechDateLessThanEqual(toDate);
+        verify(speechRepository).findIdsBySpeechDateLessThanEqual(toDate);
     }
 
     @Test
     void search_shouldFindByDateRange() {
         LocalDate from = LocalDate.of(2024, 1, 1);
         LocalDate to = LocalDate.of(2024, 2, 28);
-        when(speechRepository.findBySpeechDateBetween(from, to))
-            .thenReturn(Arrays.asList(speech1, speech2));
+        when(speechRepository.findIdsBySpeechDateBetween(from, to))
+            .thenReturn(Arrays.asList(1L, 2L));
         when(speechRepository.findAllById(any())).thenReturn(Arrays.asList(speech1, speech2));
 
         List<SpeechDto> result = speechService.search(null, from, to, null, null);
 
         assertEquals(2, result.size());
-        verify(speechRepository).findBySpeechDateBetween(from, to);
+        verify(speechRepository).findIdsBySpeechDateBetween(from, to);
     }
 
     @Test
     void search_shouldFindByAuthorAndKeyword_intersection() {
-        when(speechRepository.findByAuthorContainingIgnoreCase("john"))
-            .thenReturn(Arrays.asList(speech1, speech3));
-        when(speechRepository.findByKeywordLikeIgnoreCase("innovation"))
-            .thenReturn(Collections.singletonList(speech1));
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("john"))
+            .thenReturn(Arrays.asList(1L, 3L));
+        when(speechRepository.findIdsByKeywordLikeIgnoreCase("innovation"))
+            .thenReturn(Collections.singletonList(1L));
         when(speechRepository.findAllById(Collections.singleton(1L)))
             .thenReturn(Collections.singletonList(speech1));
 
@@ -466,10 +684,10 @@ class SpeechServiceImplTest {
     void search_shouldFindByAuthorAndDateRange() {
         LocalDate from = LocalDate.of(2024, 1, 1);
         LocalDate to = LocalDate.of(2024, 2, 1);
-        when(speechRepository.findByAuthorContainingIgnoreCase("john"))
-            .thenReturn(Arrays.asList(speech1, speech3));
-        when(speechRepository.findBySpeechDateBetween(from, to))
-            .thenReturn(Collections.singletonList(speech1));
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("john"))
+            .thenReturn(Arrays.asList(1L, 3L));
+        when(speechRepository.findIdsBySpeechDateBetween(from, to))
+            .thenReturn(Collections.singletonList(1L));
         when(speechRepository.findAllById(Collections.singleton(1L)))
             .thenReturn(Collections.singletonList(speech1));
 
@@ -481,10 +699,10 @@ class SpeechServiceImplTest {
 
     @Test
     void search_shouldFindByTextAndKeyword() {
-        when(speechRepository.findByTextContainingIgnoreCase("technology"))
-            .thenReturn(Arrays.asList(speech1, speech3));
-        when(speechRepository.findByKeywordLikeIgnoreCase("innovation"))
-            .thenReturn(Collections.singletonList(speech1));
+        when(textSearchIndex.candidates("technology"))
+            .thenReturn(new HashSet<>(Arrays.asList(1L, 3L)));
+        when(speechRepository.findIdsByKeywordLikeIgnoreCase("innovation"))
+            .thenReturn(Collections.singletonList(1L));
         when(speechRepository.findAllById(Collections.singleton(1L)))
             .thenReturn(Collections.singletonList(speech1));
 
@@ -497,14 +715,14 @@ class SpeechServiceImplTest {
     void search_shouldFindByAllParameters() {
         LocalDate from = LocalDate.of(2024, 1, 1);
         LocalDate to = LocalDate.of(2024, 1, 31);
-        when(speechRepository.findByAuthorContainingIgnoreCase("john"))
-            .thenReturn(Arrays.asList(speech1, speech3));
-        when(speechRepository.findBySpeechDateBetween(from, to))
-            .thenReturn(Collections.singletonList(speech1));
-        when(speechRepository.findByKeywordLikeIgnoreCase("tech"))
-            .thenReturn(Arrays.asList(speech1, speech3));
-        when(speechRepository.findByTextContainingIgnoreCase("test"))
-            .thenReturn(Collections.singletonList(speech1));
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("john"))
+            .thenReturn(Arrays.asList(1L, 3L));
+        when(speechRepository.findIdsBySpeechDateBetween(from, to))
+            .thenReturn(Collections.singletonList(1L));
+        when(speechRepository.findIdsByKeywordLikeIgnoreCase("tech"))
+            .thenReturn(Arrays.asList(1L, 3L));
+        when(textSearchIndex.candidates("test"))
+            .thenReturn(Collections.singleton(1L));
         when(speechRepository.findAllById(Collections.singleton(1L)))
             .thenReturn(Collections.singletonList(speech1));
 
@@ -516,10 +734,10 @@ class SpeechServiceImplTest {
 
     @Test
     void search_shouldReturnEmpty_whenNoIntersection() {
-        when(speechRepository.findByAuthorContainingIgnoreCase("john"))
-            .thenReturn(Arrays.asList(speech1, speech3));
-        when(speechRepository.findByKeywordLikeIgnoreCase("climate"))
-            .thenReturn(Collections.singletonList(speech2));
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("john"))
+            .thenReturn(Arrays.asList(1L, 3L));
+        when(speechRepository.findIdsByKeywordLikeIgnoreCase("climate"))
+            .thenReturn(Collections.singletonList(2L));
 
         List<SpeechDto> result = speechService.search("john", null, null, "climate", null);
 
@@ -536,6 +754,66 @@ class SpeechServiceImplTest {
         verify(speechRepository).findAll();
     }
 
+    @Test
+    void search_withoutFilters_shouldRejectBeforeLoading_whenTableIsTooLarge() {
+        when(speechRepository.count()).thenReturn(4L);
+
+        SearchTooBroadException e = assertThrows(SearchTooBroadException.class,
+            () -> speechService.search(null, null, null, null, null));
+
+        assertEquals(4L, e.getEstimatedRows());
+        verify(speechRepository, never()).findAll();
+    }
+
+    @Test
+    void search_shouldReject_whenTextCandidatesExceedMaxRows() {
+        when(textSearchIndex.candidates("th")).thenReturn(new HashSet<>(Arrays.asList(1L, 2L, 3L, 4L)));
+
+        assertThrows(SearchTooBroadException.class, () -> speechService.search(null, null, null, null, "th"));
+
+        verify(speechRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void search_shouldVerifyFilteredSpeechesDirectly_whenFewerThanTextEstimate() {
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("john"))
+            .thenReturn(Arrays.asList(1L, 3L));
+        when(textSearchIndex.estimate("about")).thenReturn(3);
+        when(speechRepository.findAllById(new HashSet<>(Arrays.asList(1L, 3L))))
+            .thenReturn(Arrays.asList(speech1, speech3));
+
+        List<SpeechDto> result = speechService.search("john", null, null, null, "about");
+
+        assertEquals(2, result.size());
+        verify(textSearchIndex, never()).candidates(any());
+    }
+
+    @Test
+    void streamAll_shouldStopAfterShortPage() {
+        when(speechRepository.findByIdGreaterThanOrderById(0L, Limit.of(500)))
+            .thenReturn(Arrays.asList(speech1, speech2));
+
+        List<SpeechDto> result = speechService.streamAll().toList();
+
+        assertEquals(List.of(1L, 2L), result.stream().map(SpeechDto::id).toList());
+        verify(speechRepository).findByIdGreaterThanOrderById(anyLong(), any());
+    }
+
+    @Test
+    void streamSearch_shouldLoadMatchesInIdOrder_withoutMaxRows() {
+        SearchPlanner strict = new SearchPlanner(1);
+        SpeechServiceImpl service = new SpeechServiceImpl(speechRepository, changeRepository, rankedSearchIndex,
+            nearDuplicateIndex, suggestionIndex, textSearchIndex, strict,
+            new SpeechQueryPlanner(speechRepository, textSearchIndex, strict), readCoalescer, eventPublisher, transactions);
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("john"))
+            .thenReturn(Arrays.asList(3L, 1L));
+        when(speechRepository.findAllById(List.of(1L, 3L))).thenReturn(Arrays.asList(speech3, speech1));
+
+        List<SpeechDto> result = service.streamSearch("john", null, null, null, null).toList();
+
+        assertEquals(List.of(1L, 3L), result.stream().map(SpeechDto::id).toList());
+    }
+
     @Test
     void search_shouldIgnoreBlankStrings() {
         when(speechRepository.findAll()).thenReturn(Arrays.asList(speech1, speech2, speech3));
@@ -544,14 +822,14 @@ class SpeechServiceImplTest {
 
         assertEquals(3, result.size());
         verify(speechRepository).findAll();
-        verify(speechRepository, never()).findByAuthorContainingIgnoreCase(any());
-        verify(speechRepository, never()).findByKeywordLikeIgnoreCase(any());
-        verify(speechRepository, never()).findByTextContainingIgnoreCase(any());
+        verify(speechRepository, never()).findIdsByAuthorContainingIgnoreCase(any());
+        verify(speechRepository, never()).findIdsByKeywordLikeIgnoreCase(any());
+        verify(textSearchIndex, never()).candidates(any());
     }
 
     @Test
     void search_shouldReturnEmptyList_whenNoMatches() {
-        when(speechRepository.findByAuthorContainingIgnoreCase("nonexistent"))
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("nonexistent"))
             .thenReturn(Collections.emptyList());
 
         List<SpeechDto> result = speechService.search("nonexistent", null, null, null, null);
@@ -561,8 +839,8 @@ class SpeechServiceImplTest {
 
     @Test
     void search_shouldReturnSingleResult() {
-        when(speechRepository.findByAuthorContainingIgnoreCase("jane"))
-            .thenReturn(Collections.singletonList(speech2));
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("jane"))
+            .thenReturn(Collections.singletonList(2L));
         when(speechRepository.findAllById(Collections.singleton(2L)))
             .thenReturn(Collections.singletonList(speech2));
 
@@ -574,8 +852,8 @@ class SpeechServiceImplTest {
 
     @Test
     void search_shouldMapResultsCorrectly() {
-        when(speechRepository.findByAuthorContainingIgnoreCase("john"))
-            .thenReturn(Collections.singletonList(speech1));
+        when(speechRepository.findIdsByAuthorContainingIgnoreCase("john"))
+            .thenReturn(Collections.singletonList(1L));
         when(speechRepository.findAllById(Collections.singleton(1L)))
             .thenReturn(Collections.singletonList(speech1));
 
@@ -588,4 +866,184 @@ class SpeechServiceImplTest {
         assertEquals(speech1.getAuthor(), dto.author());
         assertEquals(speech1.getAuthorEmail(), dto.authorEmail());
     }
-}
\ No newline at end of file
+
+    // ============ change event Tests ============
+
+    @Test
+    void create_shouldPublishSavedEvent() {
+        when(speechRepository.save(any(Speech.class))).thenReturn(speech1);
+
+        SpeechDto result = speechService.create(speechDto1);
+
+        verify(eventPublisher).publishEvent(SpeechChangedEvent.saved(result));
+    }
+
+    @Test
+    void update_shouldPublishSavedEvent() {
+        SpeechDto updateDto = new SpeechDto(null, "New text only", null, null, null, null);
+        when(speechRepository.findById(1L)).thenReturn(Optional.of(speech1));
+        when(speechRepository.save(any(Speech.class))).thenReturn(speech1);
+
+        SpeechDto result = speechService.update(1L, updateDto).orElseThrow();
+
+        verify(eventPublisher).publishEvent(SpeechChangedEvent.saved(result));
+    }
+
+    @Test
+    void delete_shouldPublishDeletedEvent_onlyWhenDeleted() {
+        when(speechRepository.deleteWithBodies(List.of(1L))).thenReturn(List.of(1L));
+        when(speechRepository.deleteWithBodies(List.of(999L))).thenReturn(List.of());
+
+        speechService.delete(1L);
+        speechService.delete(999L);
+
+        verify(eventPublisher).publishEvent(SpeechChangedEvent.deleted(1L));
+        verify(eventPublisher, never()).publishEvent(SpeechChangedEvent.deleted(999L));
+    }
+
+    @Test
+    void create_shouldRecordSavedChange() {
+        when(speechRepository.save(any(Speech.class))).thenReturn(speech1);
+
+        speechService.create(speechDto1);
+
+        ArgumentCaptor<SpeechChange> change = ArgumentCaptor.forClass(SpeechChange.class);
+        verify(changeRepository).save(change.capture());
+        assertEquals(SpeechChange.Type.SAVED, change.getValue().getType());
+        assertEquals(speech1.getId(), change.getValue().getSpeechId());
+        assertNotNull(change.getValue().getChangedAt());
+    }
+
+    @Test
+    void create_whenNearDuplicate_shouldNotRecordChange() {
+        when(nearDuplicateIndex.findDuplicateOnIngest(speechDto1.text())).thenReturn(Optional.of(1L));
+        when(speechRepository.findById(1L)).thenReturn(Optional.of(speech1));
+
+        speechService.create(speechDto1);
+
+        verify(changeRepository, never()).save(any());
+    }
+
+    @Test
+    void delete_shouldRecordDeletedChange_onlyWhenDeleted() {
+        when(speechRepository.deleteWithBodies(List.of(1L))).thenReturn(List.of(1L));
+        when(speechRepository.deleteWithBodies(List.of(999L))).thenReturn(List.of());
+
+        speechService.delete(1L);
+        speechService.delete(999L);
+
+        ArgumentCaptor<SpeechChange> change = ArgumentCaptor.forClass(SpeechChange.class);
+        verify(changeRepository).save(change.capture());
+        assertEquals(SpeechChange.Type.DELETED, change.getValue().getType());
+        assertEquals(1L, change.getValue().getSpeechId());
+    }
+
+    // ============ rankedSearch() Tests ============
+
+    @Test
+    void rankedSearch_shouldReturnSpeechesInScoreOrder() {
+        when(rankedSearchIndex.search("technology", 10)).thenReturn(Arrays.asList(
+            new InvertedIndex.Hit(3L, 2.5),
+            new InvertedIndex.Hit(1L, 1.2)
+        ));
+        when(speechRepository.findAllById(Arrays.asList(3L, 1L)))
+            .thenReturn(Arrays.asList(speech1, speech3));
+
+        List<SpeechDto> result = speechService.rankedSearch("technology", 10);
+
+        assertEquals(2, result.size());
+        assertEquals(3L, result.get(0).id());
+        assertEquals(1L, result.get(1).id());
+    }
+
+    @Test
+    void rankedSearch_shouldNotQueryRepository_whenNoHits() {
+        when(rankedSearchIndex.search("nothing", 10)).thenReturn(Collections.emptyList());
+
+        List<SpeechDto> result = speechService.rankedSearch("nothing", 10);
+
+        assertTrue(result.isEmpty());
+        verify(speechRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void rankedSearch_shouldCapLimit() {
+        when(rankedSearchIndex.search(eq("tech"), eq(100))).thenReturn(Collections.emptyList());
+
+        speechService.rankedSearch("tech", 10_000);
+
+        verify(rankedSearchIndex).search("tech", 100);
+    }
+
+    // ============ near-duplicate Tests ============
+
+    @Test
+    void create_shouldReturnExistingSpeech_whenDuplicateOnIngest() {
+        when(nearDuplicateIndex.findDuplicateOnIngest(speechDto1.text())).thenReturn(Optional.of(1L));
+        when(speechRepository.findById(1L)).thenReturn(Optional.of(speech1));
+
+        SpeechDto result = speechService.create(speechDto1);
+
+        assertEquals(1L, result.id());
+        verify(speechRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void create_shouldInsert_whenDuplicateWasDeletedMeanwhile() {
+        when(nearDuplicateIndex.findDuplicateOnIngest(speechDto1.text())).thenReturn(Optional.of(7L));
+        when(speechRepository.findById(7L)).thenReturn(Optional.empty());
+        when(speechRepository.save(any(Speech.class))).thenReturn(speech1);
+
+        speechService.create(speechDto1);
+
+        verify(speechRepository).save(any(Speech.class));
+    }
+
+    @Test
+    void findSimilar_shouldMapMatches() {
+        when(nearDuplicateIndex.contains(1L)).thenReturn(true);
+        when(nearDuplicateIndex.similarTo(1L, 0.8, 10))
+            .thenReturn(Collections.singletonList(new MinHashIndex.Match(3L, 0.92)));
+
+        Optional<List<SimilarSpeechDto>> result = speechService.findSimilar(1L, 0.8, 10);
+
+        assertTrue(result.isPresent());
+        assertEquals(Collections.singletonList(new SimilarSpeechDto(3L, 0.92)), result.get());
+    }
+
+    @Test
+    void findSimilar_shouldReturnEmpty_whenSpeechUnknown() {
+        when(nearDuplicateIndex.contains(999L)).thenReturn(false);
+
+        assertFalse(speechService.findSimilar(999L, 0.8, 10).isPresent());
+        verify(nearDuplicateIndex, never()).similarTo(anyLong(), anyDouble(), anyInt());
+    }
+
+    // ============ suggest() Tests ============
+
+    @Test
+    void suggest_shouldMapEntries() {
+        when(suggestionIndex.suggest(SuggestionField.AUTHOR, "jo", 10)).thenReturn(Arrays.asList(
+            new PrefixTrie.Entry("John Doe", 5),
+            new PrefixTrie.Entry("John Miller", 2)
+        ));
+
+        List<SuggestionDto> result = speechService.suggest(SuggestionField.AUTHOR, "jo", 10);
+
+        assertEquals(Arrays.asList(
+            new SuggestionDto("John Doe", 5),
+            new SuggestionDto("John Miller", 2)
+        ), result);
+    }
+
+    @Test
+    void suggest_shouldCapLimit() {
+        when(suggestionIndex.suggest(SuggestionField.KEYWORD, "t", 50))
+            .thenReturn(Collections.emptyList());
+
+        speechService.suggest(SuggestionField.KEYWORD, "t", 1000);
+
+        verify(suggestionIndex).suggest(SuggestionField.KEYWORD, "t", 50);
+    }
+}
@@ -0,0 +1,200 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.HighlightDto;
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.controller.dto.SpeechHitDto;
+import com.robby.speech.controller.dto.SpeechPatchDto;
+import com.robby.speech.core.SpeechService;
+import com.robby.speech.core.SpeechTextSource;
+import com.robby.speech.core.query.SpeechQuery;
+import com.robby.speech.model.Speech;
+import com.robby.speech.repository.AuthorDictionary;
+import com.robby.speech.repository.KeywordDictionary;
+import com.robby.speech.repository.SpeechRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.robby.speech.diagnostics.QueryCountAssertions.assertQueryCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of statements each service operation costs, so that N+1 selects and extra
+ * round trips show up as test failures.
+ */
+@SpringBootTest(properties = "speech.diagnostics.enabled=true")
+class SpeechServiceQueryCountTest {
+
+    @Autowired
+    private SpeechService speechService;
+
+    @Autowired
+    private SpeechRepository speechRepository;
+
+    @Autowired
+    private AuthorDictionary authors;
+
+    @Autowired
+    private KeywordDictionary keywords;
+
+    private SpeechDto first;
+
+    @BeforeEach
+    void setUp() {
+        speechRepository.deleteAll();
+        first = speechService.create(speech("John Doe", "economy", "jobs"));
+        speechService.create(speech("Jane Smith", "climate", "energy"));
+        speechService.create(speech("John Smith", "economy", "taxes"));
+        // terms the tests write are known up front, so the pins below count speech statements only
+        List.of("Maria Garcia", "Johnny Doe").forEach(authors::idOf);
+        List.of("trade", "wages", "policy").forEach(keywords::idOf);
+    }
+
+    @Test
+    void findById() {
+        assertQueryCount(2, () -> speechService.findById(first.id()));
+    }
+
+    @Test
+    void findAllById_shouldNotLoadKeywordsPerSpeech() {
+        List<Long> ids = speechRepository.findAll().stream().map(Speech::getId).toList();
+
+        MultiGetResultDto result = assertQueryCount(2, () -> speechService.findAllById(ids));
+
+        assertEquals(3, result.speeches().size());
+    }
+
+    @Test
+    void findText_shouldReadTheFirstChunkWithOneStatement() throws IOException {
+        SpeechTextSource text = assertQueryCount(1, () -> speechService.findText(first.id())).orElseThrow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // the text fits into the first chunk, so transferring it reads nothing more
+        text.transferTo(0, text.length(), out);
+
+        assertEquals(first.text(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void findAll_shouldNotLoadKeywordsPerSpeech() {
+        List<SpeechDto> all = assertQueryCount(2, () -> speechService.findAll());
+
+        assertEquals(3, all.size());
+    }
+
+    @Test
+    void search_byAuthorAndKeyword() {
+        List<SpeechDto> results = assertQueryCount(4, () -> speechService.search("john", null, null, "economy", null));
+
+        assertEquals(2, results.size());
+    }
+
+    // text is stored uncompressed here, so the text filter is a query of its own
+    @Test
+    void search_byText() {
+        List<SpeechDto> results = assertQueryCount(3, () -> speechService.search(null, null, null, null, "future"));
+
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    void searchSnippets_byText() {
+        List<SpeechHitDto> results = assertQueryCount(3,
+            () -> speechService.searchSnippets(null, null, null, null, "future"));
+
+        assertEquals(3, results.size());
+        assertEquals(List.of(new HighlightDto(19, 25)), results.get(0).snippets().get(0).highlights());
+    }
+
+    @Test
+    void search_byQuery_shouldAnswerDatabaseFiltersWithOneStatement() {
+        List<SpeechDto> results = assertQueryCount(3, () -> speechService.search(
+            SpeechQuery.parse("keyword:(economy OR climate) AND NOT author:jane AND date:2024-01-01..")));
+
+        assertEquals(Set.of("John Doe", "John Smith"), results.stream().map(SpeechDto::author).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void search_byQuery_shouldCombineTextCandidatesWithDatabaseFilters() {
+        List<SpeechDto> results = assertQueryCount(3, () -> speechService.search(
+            SpeechQuery.parse("\"future by john\" -keyword:taxes")));
+
+        assertEquals(List.of("John Doe"), results.stream().map(SpeechDto::author).toList());
+    }
+
+    @Test
+    void search_byQuery_shouldVerifyNegatedText() {
+        List<SpeechDto> results = speechService.search(SpeechQuery.parse("text:\"by jane\" OR NOT (keyword:economy OR text:smith)"));
+
+        assertEquals(List.of("Jane Smith"), results.stream().map(SpeechDto::author).toList());
+        assertEquals(List.of("John Doe"), speechService.search(SpeechQuery.parse("NOT text:smith")).stream()
+            .map(SpeechDto::author).toList());
+    }
+
+    // writes include the insert into the speech_changes outbox
+    @Test
+    void create() {
+        assertQueryCount(5, () -> speechService.create(speech("Maria Garcia", "trade", "jobs")));
+    }
+
+    @Test
+    void create_withNewAuthorAndKeyword_shouldAddEachToItsDictionaryOnce() {
+        String suffix = UUID.randomUUID().toString();
+
+        assertQueryCount(7, () -> speechService.create(speech("Author " + suffix, "keyword " + suffix, "jobs")));
+    }
+
+    @Test
+    void update() {
+        assertQueryCount(5, () -> speechService.update(first.id(), speech("John Doe", "economy", "wages")));
+    }
+
+    @Test
+    void patch_shouldNotRewriteKeptKeywords() {
+        SpeechDto patched = assertQueryCount(6, () -> speechService.patch(first.id(), new SpeechPatchDto(
+            null, "Johnny Doe", null, null, null, List.of("wages"), null))).orElseThrow();
+
+        assertEquals("Johnny Doe", patched.author());
+        assertEquals(Set.of("economy", "jobs", "wages"), Set.copyOf(patched.keywords()));
+    }
+
+    @Test
+    void patchMatching_shouldCostTheSameForAnyNumberOfMatches() {
+        int updated = assertQueryCount(6, () -> speechService.patchMatching("smith", null, null, null, null,
+            new SpeechPatchDto(null, null, null, null, null, List.of("policy"), List.of("energy"))));
+
+        assertEquals(2, updated);
+        assertEquals(Set.of("climate", "policy"), Set.copyOf(speechService.search(
+            "jane", null, null, null, null).get(0).keywords()));
+    }
+
+    @Test
+    void delete_shouldNotLoadTheSpeech() {
+        assertQueryCount(5, () -> speechService.delete(first.id()));
+
+        assertEquals(2, speechRepository.count());
+    }
+
+    @Test
+    void deleteMatching() {
+        int deleted = assertQueryCount(6, () -> speechService.deleteMatching("smith", null, null, null, null));
+
+        assertEquals(2, deleted);
+        assertEquals(List.of(first.id()), speechRepository.findAll().stream().map(Speech::getId).toList());
+    }
+
+    private static SpeechDto speech(String author, String... keywords) {
+        return new SpeechDto(null, "A speech about the future by " + author, author, null,
+            List.of(keywords), LocalDate.of(2024, 1, 15));
+    }
+}
@@ -0,0 +1,33 @@
+package com.robby.speech.core.impl;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SuggestionField;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex();
+
+    @Test
+    void put_shouldCountKeywordsDifferingOnlyInCaseOnce() {
+        index.put(new SpeechDto(1L, "text", "Smith", null, List.of("Economy", "economy", " ECONOMY"), LocalDate.now()));
+        index.put(new SpeechDto(2L, "text", "Jones", null, List.of("economy"), LocalDate.now()));
+
+        assertEquals(2, index.count(SuggestionField.KEYWORD, "economy"));
+    }
+
+    @Test
+    void remove_shouldTakeBackWhatPutCounted() {
+        index.put(new SpeechDto(1L, "text", "Smith", null, List.of("Economy", "economy"), LocalDate.now()));
+        index.put(new SpeechDto(2L, "text", "Jones", null, List.of("economy"), LocalDate.now()));
+
+        index.remove(1L);
+
+        assertEquals(1, index.count(SuggestionField.KEYWORD, "economy"));
+    }
+}
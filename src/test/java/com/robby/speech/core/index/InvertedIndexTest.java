@@ -0,0 +1,122 @@
+package com.robby.speech.core.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put(1L, TextAnalyzer.terms("This is a test speech about technology"));
+        index.put(2L, TextAnalyzer.terms("Another speech about climate change"));
+        index.put(3L, TextAnalyzer.terms("Technology, technologies and more technology"));
+    }
+
+    @Test
+    void analyzer_shouldLowercaseDropStopWordsAndStem() {
+        assertEquals(List.of("speech", "technologi", "creat", "job"),
+            TextAnalyzer.terms("The Speeches on Technologies created jobs"));
+    }
+
+    @Test
+    void search_shouldRankByTermFrequency() {
+        List<InvertedIndex.Hit> hits = index.search(TextAnalyzer.terms("technology"), 10);
+
+        assertEquals(2, hits.size());
+        assertEquals(3L, hits.get(0).id());
+        assertEquals(1L, hits.get(1).id());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void search_shouldReturnOnlyTopK() {
+        List<InvertedIndex.Hit> hits = index.search(TextAnalyzer.terms("speech technology"), 1);
+
+        assertEquals(1, hits.size());
+    }
+
+    @Test
+    void put_shouldReplaceExistingDocument() {
+        index.put(3L, TextAnalyzer.terms("Climate policy"));
+
+        assertEquals(1, index.documentFrequency("technologi"));
+        assertEquals(2, index.documentFrequency("climat"));
+        assertEquals(3, index.documentCount());
+    }
+
+    @Test
+    void put_shouldKeepScores_whenDeadEntriesAreCompactedAway() {
+        List<InvertedIndex.Hit> before = index.search(TextAnalyzer.terms("speech technology"), 10);
+
+        for (int i = 0; i < 2_500; i++) {
+            index.put(2L, TextAnalyzer.terms("Another speech about climate change"));
+        }
+
+        assertEquals(before, index.search(TextAnalyzer.terms("speech technology"), 10));
+        assertEquals(2, index.documentFrequency("speech"));
+        assertEquals(3, index.documentCount());
+    }
+
+    @Test
+    void replace_shouldScoreLikeReindexingTheWholeDocument() {
+        InvertedIndex reindexed = new InvertedIndex();
+        reindexed.put(1L, TextAnalyzer.terms("This is a test speech about technology"));
+        reindexed.put(2L, TextAnalyzer.terms("Another speech about climate change climate"));
+        reindexed.put(3L, TextAnalyzer.terms("Technology, technologies and more technology"));
+
+        assertTrue(index.replace(2L, List.of("chang"), TextAnalyzer.terms("change climate")));
+
+        assertEquals(reindexed.search(TextAnalyzer.terms("climate change speech"), 10),
+            index.search(TextAnalyzer.terms("climate change speech"), 10));
+        assertFalse(index.replace(4L, List.of(), List.of("climat")));
+    }
+
+    @Test
+    void remove_shouldDropPostings() {
+        index.remove(2L);
+
+        assertFalse(index.contains(2L));
+        assertEquals(0, index.documentFrequency("climat"));
+        assertTrue(index.search(TextAnalyzer.terms("climate"), 10).isEmpty());
+    }
+
+    @Test
+    void postingList_shouldKeepIdsSortedOnOutOfOrderInsert() {
+        PostingList list = new PostingList();
+        list.add(10L, 1);
+        list.add(300L, 2);
+        list.add(5L, 3);
+        list.add(300L, 4);
+
+        assertEquals(3, list.size());
+        assertEquals(List.of(5L, 10L, 300L), Arrays.stream(list.docIds()).boxed().toList());
+    }
+
+    @Test
+    void readSnapshot_shouldRestoreDocumentsAndScores(@TempDir Path dir) throws IOException {
+        index.remove(2L);
+        index.writeSnapshot(dir.resolve("ranked.snap"));
+
+        InvertedIndex restored = InvertedIndex.readSnapshot(dir.resolve("ranked.snap"));
+
+        assertEquals(2, restored.documentCount());
+        assertFalse(restored.contains(2L));
+        assertEquals(index.search(TextAnalyzer.terms("technology speech"), 10),
+            restored.search(TextAnalyzer.terms("technology speech"), 10));
+        restored.put(3L, TextAnalyzer.terms("Climate policy"));
+        assertEquals(1, restored.documentFrequency("climat"));
+    }
+}
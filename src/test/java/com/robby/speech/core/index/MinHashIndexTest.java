@@ -0,0 +1,104 @@
+package com.robby.speech.core.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashIndexTest {
+
+    private static final String ORIGINAL = "My fellow citizens, today we gather to reaffirm our "
+        + "commitment to a fair economy, to good jobs in every town, and to schools that prepare "
+        + "our children for the challenges of a changing world. Together we will build it.";
+
+    private MinHashIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MinHashIndex(32, 4);
+        index.put(1L, ORIGINAL);
+        index.put(2L, ORIGINAL.replace("Together we will build it.", "Together we shall build it!"));
+        index.put(3L, "An entirely different address about agriculture subsidies and rural "
+            + "broadband, delivered at the state fair to farmers and county officials.");
+    }
+
+    @Test
+    void similarTo_shouldFindNearDuplicate() {
+        List<MinHashIndex.Match> matches = index.similarTo(1L, 0.7, 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(2L, matches.get(0).id());
+        assertTrue(matches.get(0).similarity() >= 0.7);
+    }
+
+    @Test
+    void similarTo_shouldFindExactCopyOfText() {
+        List<MinHashIndex.Match> matches = index.similarTo(ORIGINAL.toUpperCase(), 0.99, 10);
+
+        assertEquals(1L, matches.get(0).id());
+        assertEquals(1.0, matches.get(0).similarity());
+    }
+
+    @Test
+    void remove_shouldDropSignatureAndBuckets() {
+        index.remove(2L);
+
+        assertFalse(index.contains(2L));
+        assertTrue(index.similarTo(1L, 0.5, 10).isEmpty());
+    }
+
+    @Test
+    void similarTo_shouldNotMatchTextsWithoutWords() {
+        index.put(4L, "");
+        index.put(5L, " -- ");
+
+        assertTrue(index.contains(4L));
+        assertTrue(index.similarTo(4L, 0.0, 10).isEmpty());
+        assertTrue(index.similarTo("", 0.0, 10).isEmpty());
+        assertTrue(index.similarTo(1L, 0.0, 10).stream().noneMatch(match -> match.id() >= 4L));
+    }
+
+    @Test
+    void similarTo_shouldReturnNothing_whenLimitIsNotPositive() {
+        assertTrue(index.similarTo(1L, 0.0, 0).isEmpty());
+        assertTrue(index.similarTo(1L, 0.0, -1).isEmpty());
+    }
+
+    @Test
+    void readSnapshot_shouldKeepTextsWithoutWordsUnbucketed(@TempDir Path dir) throws IOException {
+        index.put(4L, "");
+        index.put(5L, "");
+        index.writeSnapshot(dir.resolve("near-duplicates.snap"));
+
+        MinHashIndex restored = new MinHashIndex(32, 4).readSnapshot(dir.resolve("near-duplicates.snap"));
+
+        assertTrue(restored.contains(4L));
+        assertTrue(restored.similarTo(4L, 0.0, 10).isEmpty());
+    }
+
+    @Test
+    void readSnapshot_shouldRestoreSignaturesAndBuckets(@TempDir Path dir) throws IOException {
+        index.writeSnapshot(dir.resolve("near-duplicates.snap"));
+
+        MinHashIndex restored = new MinHashIndex(32, 4).readSnapshot(dir.resolve("near-duplicates.snap"));
+
+        assertTrue(restored.contains(3L));
+        assertEquals(index.similarTo(1L, 0.7, 10), restored.similarTo(1L, 0.7, 10));
+    }
+
+    @Test
+    void readSnapshot_shouldRejectOtherBanding(@TempDir Path dir) throws IOException {
+        index.writeSnapshot(dir.resolve("near-duplicates.snap"));
+
+        assertThrows(IOException.class,
+            () -> new MinHashIndex(16, 8).readSnapshot(dir.resolve("near-duplicates.snap")));
+    }
+}
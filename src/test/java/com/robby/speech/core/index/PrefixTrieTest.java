@@ -0,0 +1,51 @@
+package com.robby.speech.core.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new PrefixTrie();
+        trie.add("John Doe", 3);
+        trie.add("John Miller", 5);
+        trie.add("Jane Smith", 1);
+        trie.add("Joan Baez", 2);
+    }
+
+    @Test
+    void topCompletions_shouldOrderByWeight() {
+        assertEquals(List.of(
+            new PrefixTrie.Entry("John Miller", 5),
+            new PrefixTrie.Entry("John Doe", 3),
+            new PrefixTrie.Entry("Joan Baez", 2)
+        ), trie.topCompletions("jo", 10));
+    }
+
+    @Test
+    void topCompletions_shouldRespectLimitAndCase() {
+        assertEquals(List.of(new PrefixTrie.Entry("John Miller", 5)),
+            trie.topCompletions("JOHN", 1));
+    }
+
+    @Test
+    void add_shouldDecrementAndPruneTerms() {
+        trie.add("john miller", -5);
+
+        assertEquals(0, trie.weight("John Miller"));
+        assertEquals(List.of(new PrefixTrie.Entry("John Doe", 3)), trie.topCompletions("john", 10));
+    }
+
+    @Test
+    void topCompletions_shouldReturnEmpty_forUnknownPrefix() {
+        assertTrue(trie.topCompletions("x", 10).isEmpty());
+    }
+}
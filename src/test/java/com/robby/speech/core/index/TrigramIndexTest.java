@@ -0,0 +1,127 @@
+package com.robby.speech.core.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1L, "This is a test speech about technology");
+        index.put(2L, "Another speech about climate change");
+        index.put(3L, "Speech about technology and innovation");
+    }
+
+    @Test
+    void candidates_shouldIntersectTrigramsCaseInsensitively() {
+        assertEquals(Set.of(1L, 3L), index.candidates("TECHNO"));
+        assertEquals(Set.of(2L), index.candidates("climate ch"));
+        assertTrue(index.candidates("economy").isEmpty());
+    }
+
+    @Test
+    void candidates_shouldReturnEveryDocument_forShortQueries() {
+        assertEquals(Set.of(1L, 2L, 3L), index.candidates("ab"));
+    }
+
+    @Test
+    void estimate_shouldBoundCandidatesFromAbove() {
+        assertEquals(2, index.estimate("technology"));
+        assertEquals(3, index.estimate("speech about"));
+        assertEquals(3, index.estimate("ab"));
+        assertEquals(0, index.estimate("economy"));
+    }
+
+    @Test
+    void put_shouldReplacePreviousText() {
+        index.put(1L, "A speech about the economy");
+
+        assertEquals(Set.of(3L), index.candidates("technology"));
+        assertEquals(Set.of(1L), index.candidates("economy"));
+        assertEquals(3, index.documentCount());
+    }
+
+    @Test
+    void remove_shouldDropDocument_evenAfterCompaction() {
+        for (long round = 0; round < 2_500; round++) {
+            index.put(4L, "temporary text number " + round);
+        }
+        index.remove(2L);
+
+        assertTrue(index.candidates("climate").isEmpty());
+        assertEquals(Set.of(4L), index.candidates("number 2499"));
+        assertEquals(3, index.documentCount());
+    }
+
+    @Test
+    void containsIgnoreCase_shouldVerifyCandidates() {
+        assertTrue(TrigramIndex.containsIgnoreCase("Climate Change", "climate ch"));
+        assertFalse(TrigramIndex.containsIgnoreCase("Climate Change", "change climate"));
+    }
+
+    @Test
+    void readSnapshot_shouldServeTheSnapshotsDocuments(@TempDir Path dir) throws IOException {
+        index.remove(2L);
+        index.writeSnapshot(dir.resolve("text.snap"));
+
+        TrigramIndex mapped = TrigramIndex.readSnapshot(dir.resolve("text.snap"));
+
+        assertEquals(2, mapped.documentCount());
+        assertEquals(Set.of(1L, 3L), mapped.candidates("TECHNO"));
+        assertTrue(mapped.candidates("climate").isEmpty());
+        assertEquals(Set.of(1L, 3L), mapped.candidates("ab"));
+        assertEquals(2, mapped.estimate("technology"));
+    }
+
+    @Test
+    void readSnapshot_shouldKeepLaterChangesOnTopOfTheSnapshot(@TempDir Path dir) throws IOException {
+        index.writeSnapshot(dir.resolve("text.snap"));
+        TrigramIndex mapped = TrigramIndex.readSnapshot(dir.resolve("text.snap"));
+
+        mapped.put(3L, "Climate policy");
+        mapped.remove(1L);
+        mapped.put(4L, "Technology for the climate");
+
+        assertEquals(Set.of(4L), mapped.candidates("technology"));
+        assertEquals(Set.of(2L, 3L, 4L), mapped.candidates("climate"));
+        assertEquals(3, mapped.documentCount());
+    }
+
+    @Test
+    void writeSnapshot_shouldMergeMappedAndHeapPostings(@TempDir Path dir) throws IOException {
+        index.writeSnapshot(dir.resolve("first.snap"));
+        TrigramIndex mapped = TrigramIndex.readSnapshot(dir.resolve("first.snap"));
+        mapped.remove(2L);
+        mapped.put(1L, "Speech about the economy");
+        mapped.put(5L, "Technology and the economy");
+
+        mapped.writeSnapshot(dir.resolve("second.snap"));
+        TrigramIndex remapped = TrigramIndex.readSnapshot(dir.resolve("second.snap"));
+
+        assertEquals(3, remapped.documentCount());
+        assertEquals(Set.of(3L, 5L), remapped.candidates("technology"));
+        assertEquals(Set.of(1L, 5L), remapped.candidates("economy"));
+        assertTrue(remapped.candidates("climate").isEmpty());
+    }
+
+    @Test
+    void readSnapshot_shouldRejectOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("text.snap"), new byte[64]);
+
+        assertThrows(IOException.class, () -> TrigramIndex.readSnapshot(file));
+    }
+}
@@ -0,0 +1,77 @@
+package com.robby.speech.core.query;
+
+import com.robby.speech.core.InvalidQueryException;
+import com.robby.speech.core.query.SpeechQuery.And;
+import com.robby.speech.core.query.SpeechQuery.Author;
+import com.robby.speech.core.query.SpeechQuery.DateRange;
+import com.robby.speech.core.query.SpeechQuery.Keyword;
+import com.robby.speech.core.query.SpeechQuery.Not;
+import com.robby.speech.core.query.SpeechQuery.Or;
+import com.robby.speech.core.query.SpeechQuery.Text;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryParserTest {
+
+    @Test
+    void parse_shouldApplyFieldToGroupedValues() {
+        assertEquals(
+            new And(List.of(
+                new Or(List.of(new Keyword("economy"), new Keyword("trade"))),
+                new Not(new Author("smith")),
+                new Text("free markets"))),
+            SpeechQuery.parse("keyword:(economy OR trade) AND NOT author:smith AND text:\"free markets\""));
+    }
+
+    @Test
+    void parse_shouldBindAndTighterThanOr_andAndAdjacentClauses() {
+        assertEquals(
+            new Or(List.of(
+                new And(List.of(new Text("tax"), new Not(new Keyword("cuts")))),
+                new Author("jones"))),
+            SpeechQuery.parse("tax -keyword:cuts OR author:jones"));
+    }
+
+    @Test
+    void parse_shouldReadDatesAndRanges() {
+        LocalDate day = LocalDate.of(2020, 3, 1);
+
+        assertEquals(new DateRange(day, day), SpeechQuery.parse("date:2020-03-01"));
+        assertEquals(new DateRange(day, null), SpeechQuery.parse("date:2020-03-01.."));
+        assertEquals(new DateRange(null, day), SpeechQuery.parse("date:..2020-03-01"));
+        assertEquals(new DateRange(day, LocalDate.of(2021, 1, 1)), SpeechQuery.parse("date:2020-03-01..2021-01-01"));
+    }
+
+    @Test
+    void parse_shouldKeepEscapesAndOperatorsInsidePhrases() {
+        assertEquals(new Author("O'Neil \"Tip\" AND co"), SpeechQuery.parse("author:\"O'Neil \\\"Tip\\\" AND co\""));
+        assertEquals(new Text("10:30"), SpeechQuery.parse("10:30"));
+    }
+
+    @Test
+    void parse_shouldReportWhereItFailed() {
+        assertEquals(8, assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("keyword:(a OR b")).getPosition());
+        assertEquals(0, assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("title:x")).getPosition());
+        assertEquals(5, assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("date:2020-13-01")).getPosition());
+        assertEquals(7, assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("tax AND")).getPosition());
+        assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("text:\"open"));
+        assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("a)"));
+        assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("  "));
+    }
+
+    @Test
+    void parse_shouldRejectQueriesNestedTooDeeply() {
+        String nested = "(".repeat(QueryParser.MAX_DEPTH) + "tax" + ")".repeat(QueryParser.MAX_DEPTH);
+        assertEquals(new Text("tax"), SpeechQuery.parse(nested));
+
+        assertEquals(QueryParser.MAX_DEPTH, assertThrows(InvalidQueryException.class,
+            () -> SpeechQuery.parse("(" + nested + ")")).getPosition());
+        assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("NOT ".repeat(10_000) + "tax"));
+        assertThrows(InvalidQueryException.class, () -> SpeechQuery.parse("(".repeat(10_000)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.robby.speech.corpus;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorpusGeneratorTest {
+
+    private final CorpusGenerator generator = new CorpusGenerator(
+        CorpusGenerator.Settings.defaults(42).withTextBytes(1024, 8 * 1024));
+
+    @Test
+    void speech_shouldDependOnlyOnSeedAndIndex() {
+        CorpusGenerator other = new CorpusGenerator(
+            CorpusGenerator.Settings.defaults(42).withTextBytes(1024, 8 * 1024));
+
+        assertEquals(generator.speech(17), other.speech(17));
+        assertEquals(generator.speeches(5).toList(), other.speeches(5).toList());
+        assertNotEquals(generator.speech(17), generator.speech(18));
+    }
+
+    @Test
+    void speech_shouldDifferBetweenSeeds() {
+        CorpusGenerator other = new CorpusGenerator(
+            CorpusGenerator.Settings.defaults(43).withTextBytes(1024, 8 * 1024));
+
+        assertNotEquals(generator.speech(0).text(), other.speech(0).text());
+    }
+
+    @Test
+    void speeches_shouldStayWithinConfiguredBounds() {
+        List<SpeechDto> speeches = generator.speeches(300).toList();
+
+        for (SpeechDto speech : speeches) {
+            int bytes = speech.text().getBytes(StandardCharsets.UTF_8).length;
+            assertTrue(bytes >= 1024 && bytes <= 8 * 1024, "text length " + bytes);
+            assertTrue(generator.authors().contains(speech.author()));
+            assertFalse(speech.keywords().isEmpty());
+            assertTrue(generator.keywords().containsAll(speech.keywords()));
+            assertFalse(speech.speechDate().isBefore(generator.firstDate()));
+            assertFalse(speech.speechDate().isAfter(generator.lastDate()));
+        }
+    }
+
+    @Test
+    void authors_shouldBeZipfDistributed() {
+        Map<String, Integer> counts = new HashMap<>();
+        generator.speeches(2_000).forEach(speech -> counts.merge(speech.author(), 1, Integer::sum));
+
+        int top = counts.getOrDefault(generator.authors().get(0), 0);
+        int tenth = counts.getOrDefault(generator.authors().get(9), 0);
+
+        assertTrue(top > 100, "most prolific author wrote " + top);
+        assertTrue(top > 4 * tenth, "top " + top + " vs tenth " + tenth);
+    }
+
+    @Test
+    void zipf_shouldFavourLowRanks() {
+        ZipfDistribution zipf = new ZipfDistribution(100, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[100];
+        for (int i = 0; i < 50_000; i++) {
+            counts[zipf.sample(random)]++;
+        }
+
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[9] && counts[9] > counts[99]);
+        assertEquals(2.0, (double) counts[0] / counts[1], 0.2);
+    }
+}
@@ -0,0 +1,73 @@
+package com.robby.speech.corpus;
+
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.model.Speech;
+import com.robby.speech.model.SpeechTextCodec;
+import com.robby.speech.repository.AuthorDictionary;
+import com.robby.speech.repository.KeywordDictionary;
+import com.robby.speech.repository.SpeechRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({AuthorDictionary.class, KeywordDictionary.class})
+class JdbcCorpusWriterTest {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SpeechRepository speechRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AuthorDictionary authors;
+
+    @Autowired
+    private KeywordDictionary keywords;
+
+    @Test
+    void write_shouldInsertSpeechesReadableThroughJpa() {
+        CorpusGenerator generator = new CorpusGenerator(
+            CorpusGenerator.Settings.defaults(7).withTextBytes(1024, 4 * 1024));
+        int count = JdbcCorpusWriter.BATCH_SIZE + 20;
+        JdbcCorpusWriter writer = new JdbcCorpusWriter(
+            jdbcTemplate, transactionManager, SpeechTextCodec.uncompressed(), authors, keywords);
+
+        long written = writer.write(generator.speeches(count), n -> { });
+        entityManager.clear();
+
+        assertEquals(count, written);
+        List<Speech> stored = speechRepository.findAll();
+        assertEquals(count, stored.size());
+        Map<String, SpeechDto> expected = generator.speeches(count)
+            .collect(Collectors.toMap(SpeechDto::text, Function.identity(), (a, b) -> a));
+        for (Speech speech : stored) {
+            SpeechDto source = expected.get(speech.getText());
+            assertEquals(source.author(), speech.getAuthor());
+            assertEquals(source.authorEmail(), speech.getAuthorEmail());
+            assertEquals(source.speechDate(), speech.getSpeechDate());
+            assertEquals(new HashSet<>(source.keywords()), speech.getKeywords());
+        }
+        assertEquals(count, jdbcTemplate.getJdbcTemplate().queryForObject(
+            "select count(distinct speech_id) from speech_changes where type = 'SAVED'", Integer.class));
+    }
+}
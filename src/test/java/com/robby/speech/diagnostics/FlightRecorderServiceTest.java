@@ -0,0 +1,51 @@
+package com.robby.speech.diagnostics;
+
+import com.robby.speech.controller.dto.RecordingStatusDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecorderServiceTest {
+
+    private final FlightRecorderService service = new FlightRecorderService();
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void recording_shouldStartOnceStopAndStayDownloadable() throws Exception {
+        RecordingStatusDto started = service.start("default", Duration.ofMinutes(5)).orElseThrow();
+
+        assertEquals("RUNNING", started.state());
+        assertTrue(service.start("default", Duration.ofMinutes(5)).isEmpty());
+        assertEquals("STOPPED", service.stop().orElseThrow().state());
+        assertTrue(service.stop().isEmpty());
+
+        Path dump = service.dump().orElseThrow();
+        try {
+            assertTrue(Files.size(dump) > 0);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void start_withUnknownSettings_shouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> service.start("everything", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void dump_withoutRecording_shouldBeEmpty() throws Exception {
+        assertTrue(service.dump().isEmpty());
+        assertTrue(service.status().isEmpty());
+    }
+}
@@ -0,0 +1,30 @@
+package com.robby.speech.diagnostics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of JDBC statements an operation executes. Needs the application context to
+ * run with {@code speech.diagnostics.enabled=true} so that statements are counted at all.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static <T> T assertQueryCount(int expected, Supplier<T> operation) {
+        try (QueryStatistics statistics = QueryStatistics.start()) {
+            T result = operation.get();
+            assertEquals(expected, statistics.queryCount(), "Unexpected number of statements executed");
+            return result;
+        }
+    }
+
+    public static void assertQueryCount(int expected, Runnable operation) {
+        assertQueryCount(expected, () -> {
+            operation.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.robby.speech.diagnostics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryCountingDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("select 1")).thenReturn(statement);
+    }
+
+    @Test
+    void getConnection_shouldHandOutTheTargetsConnection_whenNoStatisticsAreCollected() throws SQLException {
+        QueryCountingDataSource dataSource = new QueryCountingDataSource(target, Duration.ofSeconds(1), false);
+
+        assertSame(connection, dataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_shouldCountStatements_whileStatisticsAreCollected() throws SQLException {
+        QueryCountingDataSource dataSource = new QueryCountingDataSource(target, Duration.ofSeconds(1), false);
+
+        try (QueryStatistics statistics = QueryStatistics.start()) {
+            Connection counted = dataSource.getConnection();
+            counted.prepareStatement("select 1").execute();
+
+            assertNotSame(connection, counted);
+            assertEquals(1, statistics.queryCount());
+        }
+    }
+
+    @Test
+    void getConnection_shouldWrapEveryConnection_whenCountingEveryConnection() throws SQLException {
+        QueryCountingDataSource dataSource = new QueryCountingDataSource(target, Duration.ofSeconds(1), true);
+
+        Connection counted = dataSource.getConnection();
+
+        assertNotSame(connection, counted);
+        try (QueryStatistics statistics = QueryStatistics.start()) {
+            counted.prepareStatement("select 1").execute();
+
+            assertEquals(1, statistics.queryCount());
+        }
+    }
+}
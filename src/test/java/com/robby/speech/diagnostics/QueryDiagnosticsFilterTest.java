@@ -0,0 +1,48 @@
+package com.robby.speech.diagnostics;
+
+import com.robby.speech.model.Speech;
+import com.robby.speech.repository.SpeechRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "speech.diagnostics.enabled=true")
+@AutoConfigureMockMvc
+class QueryDiagnosticsFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpeechRepository speechRepository;
+
+    @Test
+    void request_shouldReportStatementsInHeaders() throws Exception {
+        Speech speech = speechRepository.save(new Speech(
+            "Some text", "John Doe", null, Set.of("economy"), LocalDate.of(2024, 1, 15)));
+
+        mockMvc.perform(get("/api/speeches/{id}", speech.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(QueryDiagnosticsFilter.QUERY_COUNT_HEADER, "2"))
+            .andExpect(header().string(QueryDiagnosticsFilter.ROWS_FETCHED_HEADER, "2"))
+            .andExpect(header().string(QueryDiagnosticsFilter.DB_TIME_HEADER, matchesPattern("\\d+\\.\\d{3}")));
+    }
+
+    @Test
+    void request_withoutBody_shouldStillReportHeaders() throws Exception {
+        mockMvc.perform(get("/api/speeches/{id}", Long.MAX_VALUE))
+            .andExpect(status().isNotFound())
+            .andExpect(header().string(QueryDiagnosticsFilter.QUERY_COUNT_HEADER, "1"))
+            .andExpect(header().string(QueryDiagnosticsFilter.ROWS_FETCHED_HEADER, "0"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.robby.speech.grpc;
+
+import com.robby.speech.concurrency.AimdLimiter;
+import com.robby.speech.concurrency.ConcurrencyLimitFilter;
+import com.robby.speech.concurrency.EndpointClass;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SpeechService;
+import com.robby.speech.grpc.v1.GetSpeechRequest;
+import com.robby.speech.grpc.v1.SearchRequest;
+import com.robby.speech.grpc.v1.Speech;
+import com.robby.speech.grpc.v1.SpeechServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitInterceptorTest {
+
+    @Mock
+    private SpeechService speechService;
+
+    private AimdLimiter searchLimiter;
+    private Server server;
+    private ManagedChannel channel;
+    private SpeechServiceGrpc.SpeechServiceBlockingStub blocking;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new MockEnvironment()
+            .withProperty("speech.concurrency.search.initial-limit", "1")
+            .withProperty("speech.concurrency.search.min-limit", "1")
+            .withProperty("speech.concurrency.search.max-limit", "1"));
+        searchLimiter = filter.limiters().get(EndpointClass.SEARCH);
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(ServerInterceptors.intercept(
+                new SpeechGrpcService(speechService), new ConcurrencyLimitInterceptor(filter)))
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        blocking = SpeechServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void search_shouldBeUnavailable_whileTheSearchLimitIsTaken() {
+        searchLimiter.tryAcquire();
+
+        Iterator<Speech> speeches = blocking.search(SearchRequest.getDefaultInstance());
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, speeches::hasNext);
+
+        assertEquals(Status.Code.UNAVAILABLE, e.getStatus().getCode());
+        verify(speechService, never()).streamSearch(any(), any(), any(), any(), any());
+        assertEquals(1, searchLimiter.rejected());
+    }
+
+    @Test
+    void search_shouldFreeItsSlot_whenTheStreamEnds() {
+        when(speechService.streamSearch(any(), any(), any(), any(), any()))
+            .thenReturn(List.of(new SpeechDto(1L, "Text", "Smith", null, List.of(), LocalDate.of(2024, 1, 1))).stream());
+
+        blocking.search(SearchRequest.getDefaultInstance()).forEachRemaining(speech -> { });
+
+        assertEquals(0, searchLimiter.inFlight());
+        assertEquals(1, searchLimiter.limit());
+    }
+
+    @Test
+    void get_shouldBeAdmitted_whileTheSearchLimitIsTaken() {
+        searchLimiter.tryAcquire();
+        when(speechService.findById(1L))
+            .thenReturn(Optional.of(new SpeechDto(1L, "Text", "Smith", null, List.of(), LocalDate.of(2024, 1, 1))));
+
+        assertEquals(1L, blocking.get(GetSpeechRequest.newBuilder().setId(1L).build()).getId());
+    }
+
+    @Test
+    void endpointClass_shouldMatchTheRestCounterparts() {
+        assertEquals(EndpointClass.READ, ConcurrencyLimitInterceptor.endpointClass("Get"));
+        assertEquals(EndpointClass.SEARCH, ConcurrencyLimitInterceptor.endpointClass("GetMany"));
+        assertEquals(EndpointClass.SEARCH, ConcurrencyLimitInterceptor.endpointClass("ListAll"));
+        assertEquals(EndpointClass.SEARCH, ConcurrencyLimitInterceptor.endpointClass("Search"));
+        assertEquals(EndpointClass.WRITE, ConcurrencyLimitInterceptor.endpointClass("BulkCreate"));
+        assertEquals(EndpointClass.WRITE, ConcurrencyLimitInterceptor.endpointClass("Delete"));
+    }
+}
@@ -0,0 +1,229 @@
+package com.robby.speech.grpc;
+
+import com.robby.speech.controller.dto.MultiGetResultDto;
+import com.robby.speech.controller.dto.SpeechDto;
+import com.robby.speech.core.SearchTooBroadException;
+import com.robby.speech.core.SpeechService;
+import com.robby.speech.grpc.v1.BulkCreateResponse;
+import com.robby.speech.grpc.v1.GetManyRequest;
+import com.robby.speech.grpc.v1.GetManyResponse;
+import com.robby.speech.grpc.v1.GetSpeechRequest;
+import com.robby.speech.grpc.v1.ListAllRequest;
+import com.robby.speech.grpc.v1.SearchRequest;
+import com.robby.speech.grpc.v1.Speech;
+import com.robby.speech.grpc.v1.SpeechServiceGrpc;
+import com.robby.speech.grpc.v1.UpdateSpeechRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpeechGrpcServiceTest {
+
+    @Mock
+    private SpeechService speechService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private SpeechServiceGrpc.SpeechServiceBlockingStub blocking;
+    private SpeechServiceGrpc.SpeechServiceStub async;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(new SpeechGrpcService(speechService))
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        blocking = SpeechServiceGrpc.newBlockingStub(channel);
+        async = SpeechServiceGrpc.newStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void get_shouldReturnSpeech_orNotFound() {
+        when(speechService.findById(1L)).thenReturn(Optional.of(dto(1L)));
+        when(speechService.findById(2L)).thenReturn(Optional.empty());
+
+        Speech speech = blocking.get(GetSpeechRequest.newBuilder().setId(1).build());
+        StatusRuntimeException missing = assertThrows(StatusRuntimeException.class,
+            () -> blocking.get(GetSpeechRequest.newBuilder().setId(2).build()));
+
+        assertEquals(1L, speech.getId());
+        assertEquals("Author 1", speech.getAuthor());
+        assertEquals(List.of("economy"), speech.getKeywordsList());
+        assertEquals("2024-05-01", speech.getSpeechDate());
+        assertFalse(speech.hasAuthorEmail());
+        assertEquals(Status.Code.NOT_FOUND, missing.getStatus().getCode());
+    }
+
+    @Test
+    void getMany_shouldReturnSpeechesInRequestOrder_andMissingIds() {
+        when(speechService.findAllById(List.of(3L, 9L, 1L)))
+            .thenReturn(new MultiGetResultDto(List.of(dto(3L), dto(1L)), List.of(9L)));
+
+        GetManyResponse response = blocking.getMany(GetManyRequest.newBuilder().addAllIds(List.of(3L, 9L, 1L)).build());
+
+        assertEquals(List.of(3L, 1L), response.getSpeechesList().stream().map(Speech::getId).toList());
+        assertEquals(List.of(9L), response.getMissingIdsList());
+    }
+
+    @Test
+    void getMany_shouldRejectTooManyIds() {
+        when(speechService.findAllById(List.of(1L, 2L))).thenThrow(new SearchTooBroadException(2, 1));
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+            () -> blocking.getMany(GetManyRequest.newBuilder().addAllIds(List.of(1L, 2L)).build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+    }
+
+    @Test
+    void listAll_shouldStreamEverySpeech_andCloseTheStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(speechService.streamAll()).thenReturn(
+            IntStream.rangeClosed(1, 3).mapToObj(id -> dto((long) id)).onClose(() -> closed.set(true)));
+
+        List<Long> ids = new ArrayList<>();
+        blocking.listAll(ListAllRequest.getDefaultInstance()).forEachRemaining(speech -> ids.add(speech.getId()));
+
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void listAll_shouldOnlyLoadWhatTheClientRequested() {
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(speechService.streamAll()).thenReturn(Stream.iterate(1L, id -> id + 1)
+            .peek(id -> loaded.incrementAndGet())
+            .map(this::dto)
+            .onClose(() -> closed.set(true)));
+
+        Iterator<Speech> speeches = blocking.listAll(ListAllRequest.getDefaultInstance());
+        assertEquals(1L, speeches.next().getId());
+        assertEquals(2L, speeches.next().getId());
+        channel.shutdownNow();
+
+        assertTrue(loaded.get() < 1000, "loaded " + loaded.get() + " speeches for a client that read 2");
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void search_shouldPassParsedFilters() {
+        when(speechService.streamSearch(eq("Smith"), eq(LocalDate.of(2024, 1, 1)), isNull(), isNull(), eq("tax")))
+            .thenReturn(Stream.of(dto(4L)));
+
+        Iterator<Speech> speeches = blocking.search(SearchRequest.newBuilder()
+            .setAuthor("Smith")
+            .setFrom("2024-01-01")
+            .setText("tax")
+            .build());
+
+        assertEquals(4L, speeches.next().getId());
+        assertFalse(speeches.hasNext());
+    }
+
+    @Test
+    void search_withInvalidDate_shouldBeInvalidArgument() {
+        Iterator<Speech> speeches = blocking.search(SearchRequest.newBuilder().setTo("yesterday").build());
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, speeches::hasNext);
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        verify(speechService, never()).streamSearch(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void update_withoutKeywords_shouldKeepExistingKeywords() {
+        SpeechDto changes = new SpeechDto(null, null, "New Author", null, null, null);
+        when(speechService.update(5L, changes)).thenReturn(Optional.of(dto(5L)));
+
+        blocking.update(UpdateSpeechRequest.newBuilder()
+            .setId(5)
+            .setSpeech(Speech.newBuilder().setAuthor("New Author"))
+            .build());
+
+        verify(speechService).update(5L, changes);
+    }
+
+    @Test
+    void bulkCreate_shouldCreateEachSpeech_andReturnIdsInOrder() throws Exception {
+        when(speechService.create(any())).thenAnswer(invocation -> {
+            SpeechDto dto = invocation.getArgument(0);
+            return new SpeechDto(Long.parseLong(dto.author()), dto.text(), dto.author(), null, dto.keywords(), null);
+        });
+        CompletableFuture<BulkCreateResponse> response = new CompletableFuture<>();
+
+        StreamObserver<Speech> requests = async.bulkCreate(observer(response));
+        requests.onNext(Speech.newBuilder().setText("first").setAuthor("11").build());
+        requests.onNext(Speech.newBuilder().setText("second").setAuthor("12").build());
+        requests.onCompleted();
+
+        BulkCreateResponse created = response.get(5, TimeUnit.SECONDS);
+        assertEquals(2, created.getCreatedCount());
+        assertEquals(List.of(11L, 12L), created.getIdsList());
+        verify(speechService).create(new SpeechDto(null, "first", "11", null, List.of(), null));
+    }
+
+    private <T> StreamObserver<T> observer(CompletableFuture<T> result) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+
+    private SpeechDto dto(Long id) {
+        return new SpeechDto(id, "Speech " + id, "Author " + id, null, List.of("economy"), LocalDate.of(2024, 5, 1));
+    }
+}
@@ -0,0 +1,63 @@
+package com.robby.speech.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpeechTextCodecTest {
+
+    private static final String LONG_TEXT = "Fellow citizens, we are here to talk about jobs. ".repeat(200);
+
+    @Test
+    void compress_shouldCompressLongText_whenEnabled() {
+        byte[] compressed = new SpeechTextCodec(true, 512).compress(LONG_TEXT);
+
+        assertEquals(SpeechTextCodec.DEFLATE, compressed[0]);
+        assertTrue(compressed.length < LONG_TEXT.length() / 4);
+        assertEquals(LONG_TEXT.length(), SpeechTextCodec.textLength(compressed));
+        assertEquals(LONG_TEXT, SpeechTextCodec.decode(compressed));
+    }
+
+    @Test
+    void compress_shouldLeaveTextPlain_whenDisabledOrBelowThresholdOrIncompressible() {
+        assertNull(SpeechTextCodec.uncompressed().compress(LONG_TEXT));
+        assertNull(new SpeechTextCodec(true, 512).compress("Short speech – with non-ASCII ✓"));
+        assertNull(new SpeechTextCodec(true, 1).compress("x"));
+    }
+
+    @Test
+    void reader_shouldInflateAsItReads() throws IOException {
+        try (Reader reader = SpeechTextCodec.reader(new SpeechTextCodec(true, 16).compress(LONG_TEXT + "✓"))) {
+            StringWriter out = new StringWriter();
+            reader.transferTo(out);
+
+            assertEquals(LONG_TEXT + "✓", out.toString());
+        }
+    }
+
+    @Test
+    void speechText_shouldDecodeLazily_andCompareByContent() {
+        byte[] compressed = new SpeechTextCodec(true, 16).compress(LONG_TEXT);
+
+        SpeechText stored = SpeechText.encoded(compressed);
+
+        assertEquals(SpeechText.of(LONG_TEXT), stored);
+        assertEquals(LONG_TEXT, stored.value());
+    }
+
+    @Test
+    void speechText_shouldCompressOnce_forBothColumns() {
+        SpeechTextCodec codec = new SpeechTextCodec(true, 16);
+        SpeechText text = SpeechText.of(LONG_TEXT);
+
+        assertSame(text.compressed(codec), text.compressed(codec));
+        assertNull(SpeechText.of("Short").compressed(codec));
+    }
+}
@@ -0,0 +1,320 @@
+package com.robby.speech.repository;
+
+import com.robby.speech.core.impl.SpeechQueryPlanner;
+import com.robby.speech.core.query.SpeechQuery;
+import com.robby.speech.model.Speech;
+import com.robby.speech.model.SpeechText;
+import com.robby.speech.model.SpeechTextCodec;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({SpeechTextCodec.class, AuthorDictionary.class, KeywordDictionary.class})
+@TestPropertySource(properties = {
+    "speech.storage.compress-text=true",
+    "speech.storage.compression-threshold=64"
+})
+class SpeechRepositoryTest {
+
+    private static final String LONG_TEXT = "We choose to go to the moon in this decade. ".repeat(100);
+
+    @Autowired
+    private SpeechRepository speechRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuthorDictionary authors;
+
+    @Autowired
+    private KeywordDictionary keywords;
+
+    @Test
+    void save_shouldStoreTextCompressed_andReadItBack() {
+        Speech saved = speechRepository.save(new Speech(
+            LONG_TEXT, "John Doe", "john@example.com", Set.of("space"), LocalDate.of(1962, 9, 12)));
+        entityManager.flush();
+        entityManager.clear();
+
+        byte[] column = jdbcTemplate.queryForObject("select b.compressed_text from speeches s " +
+            "join speech_bodies b on b.id = s.body_id where s.id = ?", byte[].class, saved.getId());
+        Speech loaded = speechRepository.findById(saved.getId()).orElseThrow();
+
+        assertEquals(SpeechTextCodec.DEFLATE, column[0]);
+        assertNull(plainColumn(saved.getId()));
+        assertEquals(LONG_TEXT, loaded.getText());
+    }
+
+    @Test
+    void save_shouldStoreTextBelowTheThresholdAsPlainText() {
+        Speech saved = speechRepository.save(new Speech("Short text", "John Doe", null, Set.of(), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals("Short text", plainColumn(saved.getId()));
+        assertEquals("Short text", speechRepository.findById(saved.getId()).orElseThrow().getText());
+    }
+
+    @Test
+    void findIdsPossiblyContainingText_shouldSearchPlainText_andReturnEveryCompressedText() {
+        Speech plain = speechRepository.save(new Speech("Ask not what 100% of us can do", "A", null, Set.of(), null));
+        Speech other = speechRepository.save(new Speech("Tear down this wall", "B", null, Set.of(), null));
+        Speech compressed = speechRepository.save(new Speech(LONG_TEXT, "C", null, Set.of(), null));
+        entityManager.flush();
+
+        assertEquals(Set.of(plain.getId(), compressed.getId()),
+            Set.copyOf(speechRepository.findIdsPossiblyContainingText("ASK NOT")));
+        assertEquals(Set.of(plain.getId(), compressed.getId()),
+            Set.copyOf(speechRepository.findIdsPossiblyContainingText("100%")));
+        assertEquals(Set.of(compressed.getId()),
+            Set.copyOf(speechRepository.findIdsPossiblyContainingText("t_ar")));
+        assertFalse(speechRepository.findIdsPossiblyContainingText("wall").contains(plain.getId()));
+        assertTrue(speechRepository.findIdsPossiblyContainingText("wall").contains(other.getId()));
+    }
+
+    @Test
+    void findIdsMatching_shouldAgreeWithTheInMemoryCheck_onSpeechesWithoutADate() {
+        Speech undated = speechRepository.save(new Speech("Undated", "John Doe", null, Set.of(), null));
+        Speech dated = speechRepository.save(new Speech("Dated", "John Doe", null, Set.of(), LocalDate.of(2020, 1, 1)));
+        entityManager.flush();
+
+        for (String query : List.of("date:2020-01-01", "NOT date:2020-01-01", "NOT date:..2020-06-30", "-date:2019-01-01..")) {
+            SpeechQuery parsed = SpeechQuery.parse(query);
+            List<Long> expected = Stream.of(undated, dated)
+                .filter(speech -> SpeechQueryPlanner.matches(parsed, speech))
+                .map(Speech::getId)
+                .toList();
+
+            assertEquals(expected, speechRepository.findIdsMatching(parsed, List.of(undated.getId(), dated.getId()))
+                .stream().sorted().toList(), query);
+        }
+    }
+
+    @Test
+    void readTextChunk_shouldCutTheChunkOutOfTheColumn_withTheTextVersion() {
+        Speech saved = speechRepository.save(new Speech(
+            "Short text ✓", "John Doe", null, Set.of(), null));
+        Speech compressed = speechRepository.save(new Speech(LONG_TEXT, "John Doe", null, Set.of(), null));
+        entityManager.flush();
+
+        SpeechTextChunks.TextChunk chunk = speechRepository.readTextChunk(saved.getId(), 6, 100).orElseThrow();
+        SpeechTextChunks.TextChunk header = speechRepository.readTextChunk(
+            compressed.getId(), 0, SpeechTextCodec.HEADER_LENGTH).orElseThrow();
+
+        assertEquals("text ✓", chunk.plain());
+        assertNull(chunk.compressed());
+        assertEquals("Short text ✓".getBytes(StandardCharsets.UTF_8).length, chunk.plainLength());
+        assertEquals(1, chunk.version());
+        assertEquals(LONG_TEXT.length(), SpeechTextCodec.textLength(header.compressed()));
+        assertNull(header.plain());
+        assertEquals("", speechRepository.readTextChunk(saved.getId(), 1000, 10).orElseThrow().plain());
+        assertTrue(speechRepository.readTextChunk(-1L, 0, 10).isEmpty());
+    }
+
+    @Test
+    void readTextChunk_shouldChangeVersionWithTheText_andKeepItWhenChangesArePurged() {
+        Speech saved = speechRepository.save(new Speech("Short text", "John Doe", null, Set.of(), null));
+        entityManager.flush();
+
+        speechRepository.updateText(saved.getId(), SpeechText.of("Edited text"));
+        long patched = speechRepository.readTextChunk(saved.getId(), 0, 10).orElseThrow().version();
+        Speech loaded = speechRepository.findById(saved.getId()).orElseThrow();
+        loaded.setText("Edited again");
+        loaded.setAuthor("Jane Doe");
+        entityManager.flush();
+        long updated = speechRepository.readTextChunk(saved.getId(), 0, 10).orElseThrow().version();
+        jdbcTemplate.update("delete from speech_changes");
+
+        assertEquals(2, patched);
+        assertEquals(3, updated);
+        assertEquals(3, speechRepository.readTextChunk(saved.getId(), 0, 10).orElseThrow().version());
+    }
+
+    @Test
+    void update_shouldPersistChangedText() {
+        Speech saved = speechRepository.save(new Speech(
+            "Short text", "John Doe", null, Set.of(), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        Speech loaded = speechRepository.findById(saved.getId()).orElseThrow();
+        loaded.setText("Edited text");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals("Edited text", speechRepository.findById(saved.getId()).orElseThrow().getText());
+    }
+
+    @Test
+    void save_shouldStoreAuthorAndKeywordsAsDictionaryIds() {
+        Speech john = speechRepository.save(new Speech("a", "John Doe", null, Set.of("jobs"), null));
+        Speech again = speechRepository.save(new Speech("b", "John Doe", null, Set.of("jobs", "tax"), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(authors.idOf("John Doe"), jdbcTemplate.queryForObject(
+            "select author_id from speeches where id = ?", Integer.class, john.getId()));
+        assertEquals(List.of(keywords.idOf("jobs")), jdbcTemplate.queryForList(
+            "select keyword_id from speech_keywords where speech_id = ?", Integer.class, john.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "select count(*) from authors where name = 'John Doe'", Integer.class));
+        Speech loaded = speechRepository.findById(again.getId()).orElseThrow();
+        assertEquals("John Doe", loaded.getAuthor());
+        assertEquals(Set.of("jobs", "tax"), loaded.getKeywords());
+    }
+
+    @Test
+    void body_shouldBeLoadedLazily_unlessFetchedByFinder() {
+        Speech saved = speechRepository.save(new Speech(
+            LONG_TEXT, "John Doe", null, Set.of(), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        Speech metadataOnly = entityManager.find(Speech.class, saved.getId());
+        assertFalse(Hibernate.isInitialized(metadataOnly.getBody()));
+        entityManager.clear();
+
+        Speech withBody = speechRepository.findById(saved.getId()).orElseThrow();
+        assertTrue(Hibernate.isInitialized(withBody.getBody()));
+    }
+
+    @Test
+    void idProjections_shouldReturnMatchingIds() {
+        Speech john = speechRepository.save(new Speech(
+            "a", "John Doe", null, Set.of("Technology", "jobs"), LocalDate.of(2024, 1, 15)));
+        Speech jane = speechRepository.save(new Speech(
+            "b", "Jane Smith", null, Set.of("climate"), LocalDate.of(2024, 2, 20)));
+        entityManager.flush();
+
+        assertEquals(List.of(john.getId()), speechRepository.findIdsByAuthorContainingIgnoreCase("JOHN"));
+        assertEquals(List.of(john.getId()), speechRepository.findIdsByKeywordLikeIgnoreCase("tech"));
+        assertEquals(List.of(jane.getId()),
+            speechRepository.findIdsBySpeechDateGreaterThanEqual(LocalDate.of(2024, 2, 1)));
+        assertEquals(List.of(john.getId()),
+            speechRepository.findIdsBySpeechDateLessThanEqual(LocalDate.of(2024, 2, 1)));
+        assertEquals(2, speechRepository.findIdsBySpeechDateBetween(
+            LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).size());
+    }
+
+    @Test
+    void idProjections_shouldMatchWildcardsLiterally() {
+        Speech percent = speechRepository.save(new Speech(
+            "a", "100% Doe", null, Set.of("net_zero"), LocalDate.of(2024, 1, 15)));
+        speechRepository.save(new Speech("b", "Jane Smith", null, Set.of("netzero", "back\\slash"), null));
+        entityManager.flush();
+
+        assertEquals(List.of(percent.getId()), speechRepository.findIdsByAuthorContainingIgnoreCase("%"));
+        assertEquals(List.of(), speechRepository.findIdsByAuthorContainingIgnoreCase("_"));
+        assertEquals(List.of(percent.getId()), speechRepository.findIdsByKeywordLikeIgnoreCase("t_z"));
+        assertEquals(1, speechRepository.findIdsByKeywordLikeIgnoreCase("k\\s").size());
+    }
+
+    @Test
+    void findByIdGreaterThanOrderById_shouldReturnNextPageWithBodies() {
+        List<Long> ids = speechRepository.saveAll(List.of(
+                new Speech("First", "A", null, Set.of(), null),
+                new Speech("Second", "B", null, Set.of(), null),
+                new Speech("Third", "C", null, Set.of(), null)))
+            .stream().map(Speech::getId).sorted().toList();
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Speech> page = speechRepository.findByIdGreaterThanOrderById(ids.get(0), Limit.of(1));
+
+        assertEquals(1, page.size());
+        assertEquals(ids.get(1), page.get(0).getId());
+        assertTrue(Hibernate.isInitialized(page.get(0).getBody()));
+    }
+
+    @Test
+    void updateFields_shouldSetOnlyGivenColumns() {
+        Speech saved = speechRepository.save(new Speech(
+            "Text", "John Doe", "john@example.com", Set.of("jobs"), LocalDate.of(2024, 1, 15)));
+        entityManager.flush();
+
+        assertEquals(1, speechRepository.updateFields(List.of(saved.getId()), "Jane Doe", null, null));
+        assertEquals(0, speechRepository.updateFields(List.of(saved.getId()), null, null, null));
+
+        Speech loaded = speechRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("Jane Doe", loaded.getAuthor());
+        assertEquals("john@example.com", loaded.getAuthorEmail());
+        assertEquals(LocalDate.of(2024, 1, 15), loaded.getSpeechDate());
+    }
+
+    @Test
+    void updateText_shouldMoveTheTextToTheColumnTheCodecPicks() {
+        Speech saved = speechRepository.save(new Speech("Short text", "John Doe", null, Set.of(), null));
+        entityManager.flush();
+
+        assertEquals(1, speechRepository.updateText(saved.getId(), SpeechText.of(LONG_TEXT)));
+
+        byte[] column = jdbcTemplate.queryForObject("select b.compressed_text from speeches s " +
+            "join speech_bodies b on b.id = s.body_id where s.id = ?", byte[].class, saved.getId());
+        assertTrue(column.length < LONG_TEXT.length());
+        assertNull(plainColumn(saved.getId()));
+        assertEquals(LONG_TEXT, speechRepository.findById(saved.getId()).orElseThrow().getText());
+
+        speechRepository.updateText(saved.getId(), SpeechText.of("Short again"));
+
+        assertEquals("Short again", plainColumn(saved.getId()));
+        assertEquals("Short again", speechRepository.findById(saved.getId()).orElseThrow().getText());
+    }
+
+    @Test
+    void keywordStatements_shouldOnlyTouchChangedKeywords() {
+        Speech john = speechRepository.save(new Speech("a", "John Doe", null, Set.of("jobs", "tax"), null));
+        Speech jane = speechRepository.save(new Speech("b", "Jane Smith", null, Set.of("jobs"), null));
+        entityManager.flush();
+        List<Long> ids = List.of(john.getId(), jane.getId());
+
+        assertEquals(1, speechRepository.addKeyword(ids, "tax"));
+        assertEquals(0, speechRepository.addKeyword(ids, "tax"));
+        assertEquals(2, speechRepository.removeKeywords(ids, Set.of("jobs")));
+        assertEquals(Set.of("tax"), speechRepository.findById(jane.getId()).orElseThrow().getKeywords());
+
+        speechRepository.addKeyword(ids, "energy");
+        assertEquals(2, speechRepository.removeKeywordsExcept(ids, Set.of("energy")));
+        assertEquals(Set.of("energy"), speechRepository.findById(john.getId()).orElseThrow().getKeywords());
+        assertEquals(2, speechRepository.removeAllKeywords(ids));
+    }
+
+    @Test
+    void deleteWithBodies_shouldDeleteKeywordsAndBodies_andReturnTheDeletedIds() {
+        Speech john = speechRepository.save(new Speech("a", "John Doe", null, Set.of("jobs", "tax"), null));
+        Speech jane = speechRepository.save(new Speech("b", "Jane Smith", null, Set.of("jobs"), null));
+        entityManager.flush();
+
+        assertEquals(List.of(john.getId()), speechRepository.deleteWithBodies(List.of(john.getId(), -1L)));
+
+        assertEquals(List.of(jane.getId()), speechRepository.findAll().stream().map(Speech::getId).toList());
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from speech_keywords", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from speech_bodies", Integer.class));
+    }
+
+    private String plainColumn(long id) {
+        return jdbcTemplate.queryForObject(
+            "select b.text from speeches s join speech_bodies b on b.id = s.body_id where s.id = ?", String.class, id);
+    }
+}
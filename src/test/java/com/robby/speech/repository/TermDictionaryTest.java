@@ -0,0 +1,100 @@
+package com.robby.speech.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@Import({AuthorDictionary.class, KeywordDictionary.class})
+class TermDictionaryTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void idOf_shouldAddNewTermsOnce_onTheTransactionsConnection() {
+        KeywordDictionary dictionary = new KeywordDictionary(dataSource);
+
+        int id = dictionary.idOf("trade");
+
+        assertEquals(id, dictionary.idOf("trade"));
+        assertEquals("trade", dictionary.termOf(id));
+        assertEquals(id, jdbcTemplate.queryForObject("select id from keywords where name = 'trade'", Integer.class));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void idOf_shouldCacheNewTermsOnlyOnceTheirTransactionCommits() {
+        KeywordDictionary dictionary = new KeywordDictionary(dataSource);
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        try {
+            transactions.executeWithoutResult(status -> {
+                dictionary.idOf("hydrogen");
+                status.setRollbackOnly();
+            });
+            assertNull(dictionary.find("hydrogen"));
+
+            Integer id = transactions.execute(status -> dictionary.idOf("hydrogen"));
+
+            assertEquals("hydrogen", dictionary.termOf(id));
+            assertEquals(id, jdbcTemplate.queryForObject(
+                "select id from keywords where name = 'hydrogen'", Integer.class));
+        } finally {
+            jdbcTemplate.update("delete from keywords where name = 'hydrogen'");
+        }
+    }
+
+    @Test
+    void termsAddedByAnotherInstance_shouldBeReadOnFirstMiss() {
+        KeywordDictionary local = new KeywordDictionary(dataSource);
+        KeywordDictionary other = new KeywordDictionary(dataSource);
+        assertNull(local.find("geothermal"));
+
+        int id = other.idOf("geothermal");
+
+        assertEquals("geothermal", local.termOf(id));
+        assertEquals(id, local.find("geothermal"));
+    }
+
+    @Test
+    void find_shouldRememberTermsNotFound_forAWhile() {
+        KeywordDictionary local = new KeywordDictionary(dataSource);
+        assertNull(local.find("tidal"));
+
+        jdbcTemplate.update("insert into keywords (name) values ('tidal')");
+
+        assertNull(local.find("tidal"));
+        assertEquals(jdbcTemplate.queryForObject("select id from keywords where name = 'tidal'", Integer.class),
+            new KeywordDictionary(dataSource).find("tidal"));
+    }
+
+    @Test
+    void idOf_shouldReuseTermAddedConcurrently() {
+        AuthorDictionary local = new AuthorDictionary(dataSource);
+        AuthorDictionary other = new AuthorDictionary(dataSource);
+        assertNull(local.find("Ines Okafor"));
+
+        int id = other.idOf("Ines Okafor");
+
+        assertEquals(id, local.idOf("Ines Okafor"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "select count(*) from authors where name = 'Ines Okafor'", Integer.class));
+    }
+}